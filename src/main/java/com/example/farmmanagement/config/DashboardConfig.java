@@ -0,0 +1,55 @@
+package com.example.farmmanagement.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Clock;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(DashboardProperties.class)
+public class DashboardConfig {
+
+    // "Today" for upcoming lists and snapshot rollover; replaceable in tests
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+
+    // Bounded pool for dashboard widgets; when it is saturated widgets are rejected and render as unavailable
+    @Bean
+    public ThreadPoolTaskExecutor dashboardExecutor(DashboardProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("dashboard-");
+        return executor;
+    }
+
+    // Writes to dashboard stream clients, off the scheduler thread; each client has at most one write queued
+    @Bean
+    public ThreadPoolTaskExecutor streamExecutor(DashboardProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getStream().getSendThreads());
+        executor.setMaxPoolSize(properties.getStream().getSendThreads());
+        executor.setQueueCapacity(properties.getStream().getMaxConnections());
+        executor.setThreadNamePrefix("dashboard-stream-");
+        return executor;
+    }
+
+    // Profitability refreshes one field per task; this bounds how many run against the database at once
+    @Bean
+    public ThreadPoolTaskExecutor profitabilityExecutor(
+            @Value("${farm.profitability.parallelism:4}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setThreadNamePrefix("profitability-");
+        return executor;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.farmmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tuning for the dashboard (farm.dashboard.*): thread pool size, the time
+ * budget each widget gets before it is rendered as unavailable, and the live
+ * update stream (farm.dashboard.stream.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "farm.dashboard")
+public class DashboardProperties {
+
+    private Duration widgetBudget = Duration.ofMillis(750);
+
+    // Per-widget overrides, keyed by widget name (e.g. farmInsights)
+    private Map<String, Duration> budgets = new HashMap<>();
+
+    private int poolSize = 16;
+    private int queueCapacity = 256;
+
+    // Rows shown in the upcoming harvests / tasks widgets
+    private int upcomingLimit = 5;
+
+    private Stream stream = new Stream();
+
+    public Duration budgetFor(String widget) {
+        return budgets.getOrDefault(widget, widgetBudget);
+    }
+
+    @Data
+    public static class Stream {
+
+        // Open dashboards beyond this get 503 and fall back to reload-to-refresh
+        private int maxConnections = 200;
+
+        // Writes arriving within one interval are coalesced into a single push
+        private Duration pushInterval = Duration.ofSeconds(2);
+
+        private Duration heartbeatInterval = Duration.ofSeconds(30);
+
+        // Threads writing to clients; a client that stops reading holds one until its write fails
+        private int sendThreads = 4;
+
+        // EventSource reconnects by itself once the server closes the stream
+        private Duration timeout = Duration.ofMinutes(30);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.farmmanagement.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hibernate second-level cache for the reference entities read on nearly
+ * every request (fields, crops, users) and for the master-farm and username
+ * queries. Entries live in process, in Caffeine behind JCache. Every write
+ * goes through Hibernate, which updates or invalidates the cached rows
+ * itself and marks the table so cached query results are dropped.
+ * Hit and miss counts: /actuator/metrics/cache.gets?tag=cache:fields, and
+ * reference.cache.hit.ratio per region.
+ */
+@Configuration
+public class ReferenceCacheConfig {
+
+    public static final String FIELDS = "fields";
+    public static final String CROPS = "crops";
+    public static final String USERS = "users";
+
+    static final List<String> ENTITY_REGIONS = List.of(FIELDS, CROPS, USERS);
+    static final String QUERY_RESULTS = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+    static final String UPDATE_TIMESTAMPS = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    private static final AtomicInteger managers = new AtomicInteger();
+
+    // One manager per application context, so test contexts never see each other's rows
+    @Bean(destroyMethod = "close")
+    public CacheManager referenceCacheManager(
+            @Value("${farm.reference-cache.max-entries:10000}") long maxEntries,
+            @Value("${farm.reference-cache.time-to-live:1h}") Duration timeToLive) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("farm-reference-" + managers.incrementAndGet()),
+                        ReferenceCacheConfig.class.getClassLoader());
+        for (String region : ENTITY_REGIONS) {
+            cacheManager.createCache(region, bounded(maxEntries, timeToLive));
+        }
+        cacheManager.createCache(QUERY_RESULTS, bounded(maxEntries, timeToLive));
+        // Never evicted: a lost timestamp would let a stale query result look current
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStatisticsEnabled(true);
+        cacheManager.createCache(UPDATE_TIMESTAMPS, timestamps);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer referenceCacheProperties(CacheManager referenceCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, referenceCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail"); // every region is created above
+        };
+    }
+
+    @Bean
+    public MeterBinder referenceCacheMetrics(CacheManager referenceCacheManager) {
+        return registry -> {
+            for (String name : referenceCacheManager.getCacheNames()) {
+                Cache<Object, Object> cache = referenceCacheManager.getCache(name);
+                JCacheMetrics.monitor(registry, cache, Tags.of("cacheManager", "hibernate"));
+                Gauge.builder("reference.cache.hit.ratio", registry, r -> hitRatio(r, name))
+                        .tag("cache", name)
+                        .description("Share of second-level cache reads served from the cache")
+                        .register(registry);
+            }
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(long maxEntries, Duration timeToLive) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(timeToLive.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+
+    // Derived from the cache.gets counters above; NaN until the region has served a read
+    private static double hitRatio(MeterRegistry registry, String cache) {
+        FunctionCounter hits = registry.find("cache.gets").tags("cache", cache, "result", "hit").functionCounter();
+        FunctionCounter misses = registry.find("cache.gets").tags("cache", cache, "result", "miss")
+                .functionCounter();
+        double total = (hits != null ? hits.count() : 0) + (misses != null ? misses.count() : 0);
+        return total == 0 ? Double.NaN : hits.count() / total;
+    }
+}
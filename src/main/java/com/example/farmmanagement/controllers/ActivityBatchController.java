@@ -0,0 +1,34 @@
+package com.example.farmmanagement.controllers;
+
+import com.example.farmmanagement.dto.ActivityBatchItem;
+import com.example.farmmanagement.dto.ActivityBatchResult;
+import com.example.farmmanagement.service.ActivityBatchService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+// A crew's round of activities across many crops in one POST, with a result per item
+@RestController
+@RequestMapping("/api/activities")
+public class ActivityBatchController {
+
+    private final ActivityBatchService activityBatchService;
+
+    public ActivityBatchController(ActivityBatchService activityBatchService) {
+        this.activityBatchService = activityBatchService;
+    }
+
+    @PostMapping("/batch")
+    public ActivityBatchResult saveAll(@RequestBody List<ActivityBatchItem> items) {
+        try {
+            return activityBatchService.saveAll(items);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.farmmanagement.controllers;
+
+import com.example.farmmanagement.dto.CalendarEntry;
+import com.example.farmmanagement.dto.CalendarView;
+import com.example.farmmanagement.service.ActivityCalendar;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+// Scheduled crop activities by date; every view narrows by fieldId, cropId and activity type when given
+@RestController
+@RequestMapping("/api/calendar")
+public class ActivityCalendarController {
+
+    private final ActivityCalendar activityCalendar;
+
+    public ActivityCalendarController(ActivityCalendar activityCalendar) {
+        this.activityCalendar = activityCalendar;
+    }
+
+    // from..to inclusive, by date
+    @GetMapping
+    public List<CalendarEntry> between(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long fieldId,
+            @RequestParam(required = false) Long cropId,
+            @RequestParam(required = false) String type) {
+        try {
+            return activityCalendar.between(from, to, fieldId, cropId, type);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    // The Monday-to-Sunday week containing date (default this week)
+    @GetMapping("/week")
+    public CalendarView week(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Long fieldId,
+            @RequestParam(required = false) Long cropId,
+            @RequestParam(required = false) String type) {
+        return activityCalendar.week(date, fieldId, cropId, type);
+    }
+
+    // month as yyyy-MM (default this month)
+    @GetMapping("/month")
+    public CalendarView month(@RequestParam(required = false) YearMonth month,
+            @RequestParam(required = false) Long fieldId,
+            @RequestParam(required = false) Long cropId,
+            @RequestParam(required = false) String type) {
+        return activityCalendar.month(month, fieldId, cropId, type);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.farmmanagement.controllers;
+
+import com.example.farmmanagement.dto.CropGrowth;
+import com.example.farmmanagement.dto.CropPage;
+import com.example.farmmanagement.dto.GrowthSummary;
+import com.example.farmmanagement.service.CropService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+// JSON reads over crops for the crop list (static/js/crop-management.js) and the dashboard charts
+@RestController
+@RequestMapping("/api/crops")
+public class CropApiController {
+
+    private final CropService cropService;
+
+    public CropApiController(CropService cropService) {
+        this.cropService = cropService;
+    }
+
+    @GetMapping
+    public CropPage list(@RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "" + CropService.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Long fieldId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate plantedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate plantedTo) {
+        return cropService.getCropPage(cursor, size, type, fieldId, plantedFrom, plantedTo);
+    }
+
+    // Crop count per type; fieldId includes its subdivisions, season is the planting year
+    @GetMapping("/distribution")
+    public Map<String, Long> distribution(@RequestParam(required = false) Long fieldId,
+            @RequestParam(required = false) Integer season) {
+        return cropService.getCropTypeDistribution(fieldId, season);
+    }
+
+    // Stage counts and mean progress of the crops in the ground today, with the week's trend
+    @GetMapping("/growth")
+    public GrowthSummary growth() {
+        return cropService.getGrowthSummary();
+    }
+
+    // 404 for crops not in the ground today (unplanted, or past their harvest date)
+    @GetMapping("/{id}/growth")
+    public ResponseEntity<CropGrowth> growthOf(@PathVariable("id") Long id) {
+        return ResponseEntity.of(cropService.getCropGrowth(id));
+    }
+}
@@ -1,27 +1,41 @@
 package com.example.farmmanagement.controllers;
 
+import com.example.farmmanagement.dto.CropDetails;
+import com.example.farmmanagement.dto.DashboardWidgets;
+import com.example.farmmanagement.dto.FieldSoilWater;
+import com.example.farmmanagement.dto.LedgerTotals;
+import com.example.farmmanagement.model.ActivitySchedule;
 import com.example.farmmanagement.model.Animal;
 import com.example.farmmanagement.model.Crop;
 import com.example.farmmanagement.model.CropActivity;
 import com.example.farmmanagement.model.CropTransaction;
 import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.model.HarvestRecord;
 import com.example.farmmanagement.model.SoilRecord;
 import com.example.farmmanagement.model.WaterRecord;
 import com.example.farmmanagement.model.SoilInput;
 import com.example.farmmanagement.service.AnimalService;
 import com.example.farmmanagement.service.CropActivityService;
+import com.example.farmmanagement.service.CropDetailsService;
 import com.example.farmmanagement.service.CropService;
 import com.example.farmmanagement.service.CropTransactionService;
+import com.example.farmmanagement.service.DashboardService;
+import com.example.farmmanagement.service.DashboardSnapshotCache;
 import com.example.farmmanagement.service.FieldService;
+import com.example.farmmanagement.service.HarvestService;
 import com.example.farmmanagement.service.SoilWaterService;
 import com.example.farmmanagement.service.AiService;
 import org.springframework.web.bind.annotation.PathVariable;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.LocalDate;
 
 @Controller
 public class DashboardController {
@@ -32,13 +46,17 @@ public class DashboardController {
     private final CropTransactionService transactionService;
     private final CropActivityService activityService;
     private final SoilWaterService soilWaterService;
+    private final CropDetailsService cropDetailsService;
+    private final HarvestService harvestService;
     private final AiService aiService;
+    private final DashboardSnapshotCache dashboardSnapshotCache;
     private final com.example.farmmanagement.repository.UserRepository userRepository;
     private final com.fasterxml.jackson.databind.ObjectMapper objectMapper;
 
     public DashboardController(CropService cropService, AnimalService animalService, FieldService fieldService,
             CropTransactionService transactionService, CropActivityService activityService,
-            SoilWaterService soilWaterService, AiService aiService,
+            SoilWaterService soilWaterService, CropDetailsService cropDetailsService, HarvestService harvestService,
+            AiService aiService, DashboardSnapshotCache dashboardSnapshotCache,
             com.example.farmmanagement.repository.UserRepository userRepository,
             com.fasterxml.jackson.databind.ObjectMapper objectMapper) {
         this.cropService = cropService;
@@ -47,7 +65,10 @@ public class DashboardController {
         this.transactionService = transactionService;
         this.activityService = activityService;
         this.soilWaterService = soilWaterService;
+        this.cropDetailsService = cropDetailsService;
+        this.harvestService = harvestService;
         this.aiService = aiService;
+        this.dashboardSnapshotCache = dashboardSnapshotCache;
         this.userRepository = userRepository;
         this.objectMapper = objectMapper;
     }
@@ -67,30 +88,17 @@ public class DashboardController {
             }
         }
 
-        // Global Analytics
-        long totalCrops = cropService.countCrops();
-        long totalAnimals = animalService.countAnimals();
-        Double globalExpense = transactionService.calculateGlobalTotalExpenses();
-        Double globalIncome = transactionService.calculateGlobalTotalIncome();
-        Double globalProfit = globalIncome - globalExpense;
-        Double totalLandArea = fieldService.calculateTotalLandArea(); // New
-
-        model.addAttribute("totalCrops", totalCrops);
-        model.addAttribute("totalAnimals", totalAnimals);
-        model.addAttribute("globalExpense", globalExpense);
-        model.addAttribute("globalIncome", globalIncome);
-        model.addAttribute("globalProfit", globalProfit);
-        model.addAttribute("totalLandArea", totalLandArea);
-
-        // Chart Data
-        model.addAttribute("cropDistribution", cropService.getCropTypeDistribution());
+        // Global Analytics: served from the snapshot, rebuilt concurrently (per-widget budgets) after writes
+        DashboardWidgets widgets = dashboardSnapshotCache.get();
+        model.addAllAttributes(widgets.values());
+        model.addAttribute("unavailableWidgets", widgets.unavailable());
 
-        // Lists for Dashboard
-        model.addAttribute("upcomingHarvests", cropService.getUpcomingHarvests()); // New
-        model.addAttribute("upcomingTasks", activityService.getUpcomingTasks()); // New
-
-        // AI Insights
-        model.addAttribute("farmInsights", aiService.getFarmSummary());
+        LedgerTotals ledgerTotals = (LedgerTotals) widgets.get(DashboardService.LEDGER_TOTALS);
+        if (ledgerTotals != null) {
+            model.addAttribute("globalExpense", ledgerTotals.expense());
+            model.addAttribute("globalIncome", ledgerTotals.income());
+            model.addAttribute("globalProfit", ledgerTotals.profit());
+        }
 
         // Mock Data for UI (To be replaced with real services later)
         // Weather data now fetched via API in index.html
@@ -98,7 +106,6 @@ public class DashboardController {
         // New Mock Data for Dashboard Capabilities
         model.addAttribute("equipmentStatus", "Operational");
         model.addAttribute("laborAllocation", "85%");
-        model.addAttribute("fieldHealth", "Good");
         model.addAttribute("harvestInventory", "1,200 kg");
 
         return "index";
@@ -112,8 +119,7 @@ public class DashboardController {
     public String showCropManagementPage(Model model) {
         model.addAttribute("pageTitle", "Crop Management");
         model.addAttribute("activePage", "crop");
-        model.addAttribute("crops", cropService.getAllCrops()); // Fetch from DB
-        model.addAttribute("fields", fieldService.getAllFields()); // Fetch fields for selection
+        // The crop list and its field picker load page by page from /api/crops and /api/fields/search
         model.addAttribute("newCrop", new Crop()); // Provide an empty Crop object
 
         // Add Dashboard Metrics
@@ -121,14 +127,17 @@ public class DashboardController {
                                                                          // later
         model.addAttribute("totalYield", cropService.calculateTotalYield());
         model.addAttribute("growthStatus", cropService.getGrowthStatus());
-        model.addAttribute("harvestStats", cropService.getHarvestStatistics());
+        model.addAttribute("growthSummary", cropService.getGrowthSummary());
+        java.util.Map<String, Double> harvestStats = cropService.getHarvestStatistics();
+        java.util.Map<String, Object> fieldMetrics = fieldService.getFieldMetrics();
+        model.addAttribute("harvestStats", harvestStats);
         model.addAttribute("growthData", cropService.getCropGrowthData());
-        model.addAttribute("fieldMetrics", fieldService.getFieldMetrics());
+        model.addAttribute("fieldMetrics", fieldMetrics);
 
         try {
-            model.addAttribute("harvestStatsJson", objectMapper.writeValueAsString(cropService.getHarvestStatistics()));
+            model.addAttribute("harvestStatsJson", objectMapper.writeValueAsString(harvestStats));
             model.addAttribute("growthDataJson", objectMapper.writeValueAsString(cropService.getCropGrowthData()));
-            model.addAttribute("fieldMetricsJson", objectMapper.writeValueAsString(fieldService.getFieldMetrics()));
+            model.addAttribute("fieldMetricsJson", objectMapper.writeValueAsString(fieldMetrics));
         } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
             // Handle error or log it, simplistic fallback
             model.addAttribute("harvestStatsJson", "{}");
@@ -154,15 +163,21 @@ public class DashboardController {
 
     @GetMapping("/crop/{id}")
     public String viewCropDetails(@PathVariable("id") Long id, Model model) {
-        Crop crop = cropService.getCropById(id).orElse(null);
-        if (crop == null) {
+        CropDetails details = cropDetailsService.getCropDetails(id).orElse(null);
+        if (details == null) {
             return "redirect:/crop";
         }
+        Crop crop = details.crop();
         model.addAttribute("crop", crop);
-        model.addAttribute("transactions", transactionService.getTransactionsByCropId(id));
-        model.addAttribute("totalExpense", transactionService.calculateTotalExpenses(id));
-        model.addAttribute("totalIncome", transactionService.calculateTotalIncome(id));
-        model.addAttribute("activities", activityService.getActivitiesByCropId(id));
+        model.addAttribute("transactions", details.transactions());
+        model.addAttribute("totalExpense", details.totals().expense());
+        model.addAttribute("totalIncome", details.totals().income());
+        model.addAttribute("activities", details.activities());
+        model.addAttribute("schedules", details.schedules());
+        model.addAttribute("harvests", details.harvests());
+        model.addAttribute("harvestTotals", details.harvestTotals());
+        model.addAttribute("cropGrowth", cropService.getCropGrowth(id).orElse(null));
+        model.addAttribute("newHarvest", new HarvestRecord());
         model.addAttribute("newTransaction", new CropTransaction());
         model.addAttribute("newActivity", new CropActivity());
         model.addAttribute("pageTitle", "Crop Details: " + crop.getType());
@@ -185,12 +200,45 @@ public class DashboardController {
         return "redirect:/crop/" + id;
     }
 
+    // With a repeat frequency the form stores one recurring schedule starting on the activity date
     @PostMapping("/crop/{id}/activity/add")
-    public String addActivity(@PathVariable("id") Long id, @ModelAttribute("newActivity") CropActivity activity) {
+    public String addActivity(@PathVariable("id") Long id, @ModelAttribute("newActivity") CropActivity activity,
+            @RequestParam(required = false) ActivitySchedule.Frequency repeat,
+            @RequestParam(defaultValue = "1") int repeatEvery,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate repeatUntil) {
         Crop crop = cropService.getCropById(id).orElse(null);
         if (crop != null && activity != null) {
-            activity.setCrop(crop);
-            activityService.saveActivity(activity);
+            if (repeat != null) {
+                try {
+                    activityService.saveSchedule(new ActivitySchedule(null, crop, activity.getActivityType(),
+                            activity.getDetails(), activity.getActivityDate(), repeatUntil, repeat, repeatEvery));
+                } catch (IllegalArgumentException e) {
+                    // Incomplete or inverted schedules are ignored like other incomplete form posts
+                }
+            } else {
+                activity.setCrop(crop);
+                activityService.saveActivity(activity);
+            }
+        }
+        return "redirect:/crop/" + id;
+    }
+
+    @PostMapping("/crop/{id}/schedule/{scheduleId}/delete")
+    public String deleteSchedule(@PathVariable("id") Long id, @PathVariable("scheduleId") Long scheduleId) {
+        activityService.deleteSchedule(scheduleId);
+        return "redirect:/crop/" + id;
+    }
+
+    @PostMapping("/crop/{id}/harvest/add")
+    public String addHarvest(@PathVariable("id") Long id, @ModelAttribute("newHarvest") HarvestRecord harvest) {
+        Crop crop = cropService.getCropById(id).orElse(null);
+        if (crop != null && harvest != null) {
+            harvest.setCrop(crop);
+            try {
+                harvestService.saveHarvest(harvest);
+            } catch (IllegalArgumentException e) {
+                // Negative or missing quantities are ignored like other incomplete form posts
+            }
         }
         return "redirect:/crop/" + id;
     }
@@ -232,10 +280,11 @@ public class DashboardController {
         // Show only master farms on main page
         java.util.List<Field> masterFarms = fieldService.getMasterFarms();
         model.addAttribute("fields", masterFarms);
+        model.addAttribute("rollups", fieldService.getMasterFarmRollups());
         model.addAttribute("newField", new Field());
 
         // Calculate summary metrics
-        long totalFields = fieldService.getAllFields().size();
+        long totalFields = fieldService.countFields();
         Double avgSoilPH = soilWaterService.calculateAverageSoilPH();
 
         model.addAttribute("totalFields", totalFields);
@@ -251,7 +300,11 @@ public class DashboardController {
             if (field.getIsMasterFarm() == null) {
                 field.setIsMasterFarm(true);
             }
-            fieldService.saveField(field);
+            try {
+                fieldService.saveField(field);
+            } catch (IllegalArgumentException e) {
+                // Malformed boundaries are ignored like other incomplete form posts
+            }
         }
         return "redirect:/field";
     }
@@ -259,24 +312,27 @@ public class DashboardController {
     // View detailed field information with soil/water records
     @GetMapping("/field/{id}")
     public String viewFieldDetails(@PathVariable("id") Long id, Model model) {
-        Field field = fieldService.getFieldById(id).orElse(null);
+        Field field = fieldService.getFieldWithCrops(id).orElse(null);
         if (field == null) {
             return "redirect:/field";
         }
 
+        FieldSoilWater soilWater = soilWaterService.getFieldSoilWater(id);
         model.addAttribute("field", field);
-        model.addAttribute("soilRecords", soilWaterService.getSoilRecordsByField(id));
-        model.addAttribute("waterRecords", soilWaterService.getWaterRecordsByField(id));
-        model.addAttribute("soilInputs", soilWaterService.getSoilInputsByField(id));
-        model.addAttribute("summary", soilWaterService.getFieldSoilWaterSummary(id));
-        model.addAttribute("soilPHTrend", soilWaterService.getSoilPHTrendData(id));
-        model.addAttribute("nutrientLevels", soilWaterService.getLatestNutrientLevels(id));
+        model.addAttribute("soilRecords", soilWater.soilRecords());
+        model.addAttribute("waterRecords", soilWater.waterRecords());
+        model.addAttribute("soilInputs", soilWater.soilInputs());
+        model.addAttribute("summary", soilWater.summary());
+        model.addAttribute("soilPHTrend", soilWater.soilPHTrend());
+        model.addAttribute("nutrientLevels", soilWater.nutrientLevels());
+        model.addAttribute("upcomingHarvests", cropService.getUpcomingHarvests(id));
+        model.addAttribute("upcomingTasks", activityService.getUpcomingTasks(id, null));
 
         try {
             model.addAttribute("soilPHTrendJson",
-                    objectMapper.writeValueAsString(soilWaterService.getSoilPHTrendData(id)));
+                    objectMapper.writeValueAsString(soilWater.soilPHTrend()));
             model.addAttribute("nutrientLevelsJson",
-                    objectMapper.writeValueAsString(soilWaterService.getLatestNutrientLevels(id)));
+                    objectMapper.writeValueAsString(soilWater.nutrientLevels()));
         } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
             model.addAttribute("soilPHTrendJson", "[]");
             model.addAttribute("nutrientLevelsJson", "{}");
@@ -0,0 +1,30 @@
+package com.example.farmmanagement.controllers;
+
+import com.example.farmmanagement.service.DashboardStreamService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Live dashboard deltas for static/js/dashboard.js
+@RestController
+public class DashboardStreamController {
+
+    private final DashboardStreamService dashboardStreamService;
+
+    public DashboardStreamController(DashboardStreamService dashboardStreamService) {
+        this.dashboardStreamService = dashboardStreamService;
+    }
+
+    @GetMapping(path = "/api/dashboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream() {
+        return dashboardStreamService.subscribe()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "60")
+                        .build());
+    }
+}
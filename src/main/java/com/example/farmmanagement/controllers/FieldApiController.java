@@ -0,0 +1,109 @@
+package com.example.farmmanagement.controllers;
+
+import com.example.farmmanagement.dto.FieldNode;
+import com.example.farmmanagement.dto.FieldOption;
+import com.example.farmmanagement.dto.FieldRollup;
+import com.example.farmmanagement.dto.FieldShape;
+import com.example.farmmanagement.dto.SubdivisionRequest;
+import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.service.FieldService;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+// JSON over fields: search for pickers, GPS lookups, walks of the farm -> block -> plot hierarchy, and subdividing
+// a farm
+@RestController
+@RequestMapping("/api/fields")
+public class FieldApiController {
+
+    private final FieldService fieldService;
+
+    public FieldApiController(FieldService fieldService) {
+        this.fieldService = fieldService;
+    }
+
+    @GetMapping("/search")
+    public List<FieldOption> search(@RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return fieldService.searchFields(q, limit);
+    }
+
+    // The field or subdivision at a GPS position, for crews in the field; 404 outside every drawn boundary
+    @GetMapping("/locate")
+    public ResponseEntity<FieldOption> locate(@RequestParam("lat") double latitude,
+            @RequestParam("lng") double longitude) {
+        if (!(Math.abs(latitude) <= 90 && Math.abs(longitude) <= 180)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Not a position on the globe");
+        }
+        return ResponseEntity.of(fieldService.locate(latitude, longitude));
+    }
+
+    // Every level beneath the field, nearest first
+    @GetMapping("/{id}/descendants")
+    public List<FieldNode> descendants(@PathVariable("id") Long id) {
+        return fieldService.getDescendants(id);
+    }
+
+    // Parent first, master farm last
+    @GetMapping("/{id}/ancestors")
+    public List<FieldNode> ancestors(@PathVariable("id") Long id) {
+        return fieldService.getAncestors(id);
+    }
+
+    // Bottom-level fields anywhere beneath the field
+    @GetMapping("/{id}/plots")
+    public List<FieldOption> plots(@PathVariable("id") Long id) {
+        return fieldService.getPlots(id);
+    }
+
+    // Whether fieldId is the field itself or lies anywhere beneath it
+    @GetMapping("/{id}/contains/{fieldId}")
+    public boolean contains(@PathVariable("id") Long id, @PathVariable("fieldId") Long fieldId) {
+        return fieldService.isWithin(fieldId, id);
+    }
+
+    // 201 with the new subdivision; 400 for a bad request or unknown farm, 409 when the farm has no room left
+    @PostMapping("/{id}/subdivisions")
+    @ResponseStatus(HttpStatus.CREATED)
+    public FieldOption addSubdivision(@PathVariable("id") Long id, @RequestBody SubdivisionRequest request) {
+        if (request.name() == null || request.name().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A subdivision needs a name");
+        }
+        Field subdivision = new Field();
+        subdivision.setName(request.name().trim());
+        subdivision.setAreaSize(request.areaSize());
+        subdivision.setLocation(request.location());
+        try {
+            Field saved = fieldService.addSubdivision(id, subdivision);
+            return new FieldOption(saved.getId(), saved.getName());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (IllegalStateException | ConcurrencyFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+    }
+
+    // Boundary with its geodesic area and centroid, parsed once per field version; 404 without a boundary
+    @GetMapping("/{id}/shape")
+    public ResponseEntity<FieldShape> shape(@PathVariable("id") Long id) {
+        return ResponseEntity.of(fieldService.getShape(id));
+    }
+
+    // Area, crop and subdivision totals over the field's subtree; 404 for an unknown field
+    @GetMapping("/{id}/rollup")
+    public ResponseEntity<FieldRollup> rollup(@PathVariable("id") Long id) {
+        return ResponseEntity.of(fieldService.getRollup(id));
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.farmmanagement.controllers;
+
+import com.example.farmmanagement.dto.FinanceSeries;
+import com.example.farmmanagement.service.FinanceSeriesService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+
+// Chart data for the dashboard and crop details pages (static/js/finance-chart.js)
+@RestController
+@RequestMapping("/api/finance")
+public class FinanceController {
+
+    private final FinanceSeriesService financeSeriesService;
+
+    public FinanceController(FinanceSeriesService financeSeriesService) {
+        this.financeSeriesService = financeSeriesService;
+    }
+
+    @GetMapping("/series")
+    public FinanceSeries series(
+            @RequestParam(defaultValue = "MONTH") FinanceSeries.Granularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long cropId,
+            @RequestParam(required = false) Long fieldId) {
+        try {
+            return financeSeriesService.getSeries(granularity, from, to, cropId, fieldId);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
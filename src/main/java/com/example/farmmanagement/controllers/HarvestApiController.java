@@ -0,0 +1,45 @@
+package com.example.farmmanagement.controllers;
+
+import com.example.farmmanagement.dto.HarvestTotals;
+import com.example.farmmanagement.service.HarvestService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+
+// Harvest totals from the maintained rollups; season is the harvest year, omitted for all time
+@RestController
+@RequestMapping("/api/harvests")
+public class HarvestApiController {
+
+    private final HarvestService harvestService;
+
+    public HarvestApiController(HarvestService harvestService) {
+        this.harvestService = harvestService;
+    }
+
+    @GetMapping("/summary")
+    public HarvestTotals summary(@RequestParam(required = false) Integer season,
+            @RequestParam(required = false) Long cropId,
+            @RequestParam(required = false) Long fieldId) {
+        if (cropId != null && fieldId != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Filter by crop or by field, not both");
+        }
+        if (cropId != null) {
+            return harvestService.getCropTotals(cropId, season);
+        }
+        if (fieldId != null) {
+            return harvestService.getFieldTotals(fieldId, season);
+        }
+        return harvestService.getFarmTotals(season);
+    }
+
+    @GetMapping("/by-field")
+    public Map<Long, HarvestTotals> byField(@RequestParam(required = false) Integer season) {
+        return harvestService.getTotalsByField(season);
+    }
+}
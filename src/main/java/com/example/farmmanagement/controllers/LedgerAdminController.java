@@ -0,0 +1,33 @@
+package com.example.farmmanagement.controllers;
+
+import com.example.farmmanagement.dto.LedgerDriftReport;
+import com.example.farmmanagement.service.LedgerRollupService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+// Admin-only maintenance for the ledger rollup table
+@RestController
+@RequestMapping("/admin/ledger")
+public class LedgerAdminController {
+
+    private final LedgerRollupService ledgerRollupService;
+
+    public LedgerAdminController(LedgerRollupService ledgerRollupService) {
+        this.ledgerRollupService = ledgerRollupService;
+    }
+
+    @GetMapping("/verify")
+    public LedgerDriftReport verify() {
+        return ledgerRollupService.verify();
+    }
+
+    @PostMapping("/rebuild")
+    public Map<String, Object> rebuild() {
+        int buckets = ledgerRollupService.rebuild();
+        return Map.of("rebuiltBuckets", buckets, "verification", ledgerRollupService.verify());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.farmmanagement.controllers;
+
+import com.example.farmmanagement.dto.ProfitabilityPage;
+import com.example.farmmanagement.model.Profitability;
+import com.example.farmmanagement.service.ProfitabilityService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+
+// Profitability leaderboard (season omitted: all time) and its admin-only refresh
+@RestController
+public class ProfitabilityController {
+
+    private final ProfitabilityService profitabilityService;
+
+    public ProfitabilityController(ProfitabilityService profitabilityService) {
+        this.profitabilityService = profitabilityService;
+    }
+
+    @GetMapping("/api/profitability")
+    public ProfitabilityPage leaderboard(@RequestParam(required = false) Integer season,
+            @RequestParam(defaultValue = "CROP") Profitability.Scope scope,
+            @RequestParam(defaultValue = "margin") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + ProfitabilityService.DEFAULT_PAGE_SIZE) int size) {
+        try {
+            return profitabilityService.getLeaderboard(season, scope, sort, "asc".equalsIgnoreCase(direction), page,
+                    size);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    @PostMapping("/admin/profitability/refresh")
+    public Map<String, Object> refresh() {
+        return Map.of("rows", profitabilityService.refreshAll());
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.farmmanagement.controllers;
+
+import com.example.farmmanagement.dto.ImportReport;
+import com.example.farmmanagement.service.TransactionImportService;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.Reader;
+
+// Bulk back-loading of bookkeeping; the request body is streamed, not buffered
+@RestController
+@RequestMapping("/api/transactions/import")
+public class TransactionImportController {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private final TransactionImportService transactionImportService;
+
+    public TransactionImportController(TransactionImportService transactionImportService) {
+        this.transactionImportService = transactionImportService;
+    }
+
+    @PostMapping(consumes = "text/csv")
+    public ImportReport importCsv(Reader body) throws IOException {
+        return transactionImportService.importCsv(body);
+    }
+
+    @PostMapping(consumes = NDJSON)
+    public ImportReport importJsonLines(Reader body) throws IOException {
+        return transactionImportService.importJsonLines(body);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.farmmanagement.dto;
+
+import java.time.LocalDate;
+
+// One activity of a batch upload; activityDate defaults to today
+public record ActivityBatchItem(Long cropId, String activityType, String details, LocalDate activityDate) {
+}
@@ -0,0 +1,13 @@
+package com.example.farmmanagement.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch activity upload, one result per submitted item in the
+ * same order: the new activity's id when it was saved, the reason otherwise.
+ */
+public record ActivityBatchResult(int saved, int rejected, List<Item> items) {
+
+    public record Item(int index, Long id, String error) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.farmmanagement.dto;
+
+import com.example.farmmanagement.model.ActivitySchedule;
+
+import java.time.LocalDate;
+
+/**
+ * One scheduled crop activity on the calendar, selected as a constructor
+ * expression with its crop and field labels so calendar views never hydrate
+ * CropActivity or Crop entities. An occurrence of a recurring schedule has
+ * no id of its own, only the scheduleId it was expanded from.
+ */
+public record CalendarEntry(Long id, LocalDate date, String activityType, String details, Long cropId,
+        String cropType, Long fieldId, String fieldName, Long scheduleId) {
+
+    // A one-off activity row
+    public CalendarEntry(Long id, LocalDate date, String activityType, String details, Long cropId,
+            String cropType, Long fieldId, String fieldName) {
+        this(id, date, activityType, details, cropId, cropType, fieldId, fieldName, null);
+    }
+
+    // The schedule's crop and field must already be loaded
+    public static CalendarEntry occurrence(ActivitySchedule schedule, LocalDate date) {
+        Long fieldId = schedule.getCrop().getField() != null ? schedule.getCrop().getField().getId() : null;
+        String fieldName = schedule.getCrop().getField() != null ? schedule.getCrop().getField().getName() : null;
+        return new CalendarEntry(null, date, schedule.getActivityType(), schedule.getDetails(),
+                schedule.getCrop().getId(), schedule.getCrop().getType(), fieldId, fieldName, schedule.getId());
+    }
+
+    // typeKey is a trimmed, lower-cased activity type (or null for any)
+    public boolean matches(Long fieldId, Long cropId, String typeKey) {
+        return (fieldId == null || fieldId.equals(this.fieldId))
+                && (cropId == null || cropId.equals(this.cropId))
+                && (typeKey == null || (activityType != null && typeKey.equalsIgnoreCase(activityType.trim())));
+    }
+}
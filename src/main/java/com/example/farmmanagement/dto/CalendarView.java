@@ -0,0 +1,11 @@
+package com.example.farmmanagement.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// A week or month of the activity calendar: every day from..to (inclusive), empty days included
+public record CalendarView(LocalDate from, LocalDate to, int total, List<Day> days) {
+
+    public record Day(LocalDate date, List<CalendarEntry> entries) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.farmmanagement.dto;
+
+import com.example.farmmanagement.model.ActivitySchedule;
+import com.example.farmmanagement.model.Crop;
+import com.example.farmmanagement.model.CropActivity;
+import com.example.farmmanagement.model.CropTransaction;
+import com.example.farmmanagement.model.HarvestRecord;
+
+import java.util.List;
+
+/**
+ * Everything the crop details page shows, loaded together by
+ * CropDetailsService. The ledger and harvest totals are summed from the rows
+ * already in the lists rather than queried again.
+ */
+public record CropDetails(Crop crop, List<CropTransaction> transactions, LedgerTotals totals,
+        List<CropActivity> activities, List<ActivitySchedule> schedules, List<HarvestRecord> harvests,
+        HarvestTotals harvestTotals) {
+}
@@ -0,0 +1,7 @@
+package com.example.farmmanagement.dto;
+
+import com.example.farmmanagement.model.GrowthStage;
+
+// Stage and percent of the season elapsed (0..100) for one active crop
+public record CropGrowth(Long cropId, GrowthStage stage, double percent) {
+}
@@ -0,0 +1,10 @@
+package com.example.farmmanagement.dto;
+
+import java.util.List;
+
+/**
+ * A page of the crop list, newest first. nextCursor is the id to pass back for
+ * the following page, or null when this was the last one.
+ */
+public record CropPage(List<CropRow> rows, Long nextCursor) {
+}
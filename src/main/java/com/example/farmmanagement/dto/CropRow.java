@@ -0,0 +1,11 @@
+package com.example.farmmanagement.dto;
+
+import java.time.LocalDate;
+
+/**
+ * One line of the crop list, selected as a constructor expression so paging
+ * never hydrates Crop or Field entities.
+ */
+public record CropRow(Long id, String type, Double landSize, LocalDate plantingDate, LocalDate harvestDate,
+        Long fieldId, String fieldName) {
+}
@@ -0,0 +1,19 @@
+package com.example.farmmanagement.dto;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Values loaded for the dashboard, keyed by widget name. Widgets that missed
+ * their time budget or failed have no value and are listed in unavailable.
+ */
+public record DashboardWidgets(Map<String, Object> values, Set<String> unavailable) {
+
+    public Object get(String widget) {
+        return values.get(widget);
+    }
+
+    public boolean isAvailable(String widget) {
+        return values.containsKey(widget) && !unavailable.contains(widget);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.farmmanagement.dto;
+
+/**
+ * A field in a walk of the farm hierarchy. depth counts the levels from the
+ * field the walk started at: down for descendants, up for ancestors.
+ */
+public record FieldNode(Long id, String name, Long parentId, Double areaSize, int depth) {
+}
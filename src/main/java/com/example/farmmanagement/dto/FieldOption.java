@@ -0,0 +1,5 @@
+package com.example.farmmanagement.dto;
+
+// Id and name of a field, for pickers that search instead of listing every field
+public record FieldOption(Long id, String name) {
+}
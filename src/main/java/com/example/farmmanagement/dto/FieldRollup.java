@@ -0,0 +1,10 @@
+package com.example.farmmanagement.dto;
+
+/**
+ * Totals over a field and everything beneath it: how many fields lie below
+ * it, how many levels deep the tree goes, the area of its bottom-level fields
+ * (plots, or the field itself when it is not subdivided) and the crops
+ * planted anywhere in it.
+ */
+public record FieldRollup(Long fieldId, long subdivisions, int depth, double area, long crops) {
+}
@@ -0,0 +1,13 @@
+package com.example.farmmanagement.dto;
+
+import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.service.FieldGeometry;
+
+// A field's boundary for the map ([[lat, lng], ...]) with the geodesic area (acres) and centroid computed from it
+public record FieldShape(Long fieldId, double areaAcres, double latitude, double longitude, double[][] boundary) {
+
+    public static FieldShape of(Field field, FieldGeometry geometry) {
+        return new FieldShape(field.getId(), geometry.areaAcres(), geometry.centroidLat(), geometry.centroidLng(),
+                geometry.toLatLngs());
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.farmmanagement.dto;
+
+import com.example.farmmanagement.model.SoilInput;
+import com.example.farmmanagement.model.SoilRecord;
+import com.example.farmmanagement.model.WaterRecord;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The soil, water and input records of one field with the summary and chart
+ * data the field details page derives from them. Loaded by SoilWaterService
+ * with one query per record type; everything else is computed from the lists.
+ */
+public record FieldSoilWater(List<SoilRecord> soilRecords, List<WaterRecord> waterRecords,
+        List<SoilInput> soilInputs, Map<String, Object> summary, List<Map<String, Object>> soilPHTrend,
+        Map<String, Double> nutrientLevels) {
+}
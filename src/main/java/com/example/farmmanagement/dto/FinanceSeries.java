@@ -0,0 +1,38 @@
+package com.example.farmmanagement.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+/**
+ * Income and expense per time bucket over [from, to], oldest first. Every
+ * bucket in the range is present (zero when nothing was booked), so charts can
+ * plot the points directly.
+ */
+public record FinanceSeries(Granularity granularity, LocalDate from, LocalDate to, List<Point> points) {
+
+    public record Point(LocalDate periodStart, double income, double expense) {
+    }
+
+    public enum Granularity {
+        DAY, WEEK, MONTH;
+
+        // Weeks are ISO weeks (starting Monday), months calendar months
+        public LocalDate bucketStart(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> date.withDayOfMonth(1);
+            };
+        }
+
+        public LocalDate next(LocalDate bucketStart) {
+            return switch (this) {
+                case DAY -> bucketStart.plusDays(1);
+                case WEEK -> bucketStart.plusWeeks(1);
+                case MONTH -> bucketStart.plusMonths(1);
+            };
+        }
+    }
+}
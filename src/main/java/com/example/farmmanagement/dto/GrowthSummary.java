@@ -0,0 +1,16 @@
+package com.example.farmmanagement.dto;
+
+import com.example.farmmanagement.model.GrowthStage;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Growth of every crop in the ground on asOf: how many there are, their mean
+ * progress, how many are in each stage, and the mean progress of the same
+ * crops on each of the last seven days (oldest first, ending with asOf).
+ */
+public record GrowthSummary(LocalDate asOf, int activeCrops, double averagePercent,
+        Map<GrowthStage, Integer> stageCounts, List<Double> trend) {
+}
@@ -0,0 +1,35 @@
+package com.example.farmmanagement.dto;
+
+import com.example.farmmanagement.model.HarvestRecord;
+
+import java.util.Collection;
+
+/**
+ * Collected and lost tonnage for a slice of the harvest history (a crop, a
+ * field, a season or the whole farm).
+ */
+public record HarvestTotals(double collected, double lost, long records) {
+
+    public static final HarvestTotals ZERO = new HarvestTotals(0.0, 0.0, 0L);
+
+    // Totals of records that are already loaded, e.g. for a page that lists them anyway
+    public static HarvestTotals ofRecords(Collection<HarvestRecord> records) {
+        double collected = 0.0;
+        double lost = 0.0;
+        for (HarvestRecord record : records) {
+            collected += record.getQuantity() != null ? record.getQuantity() : 0.0;
+            lost += record.getLoss() != null ? record.getLoss() : 0.0;
+        }
+        return new HarvestTotals(collected, lost, records.size());
+    }
+
+    // Everything taken off the field, kept or not
+    public double harvested() {
+        return collected + lost;
+    }
+
+    // Share of the harvest that was lost, 0..1
+    public double lossRate() {
+        return harvested() > 0 ? lost / harvested() : 0.0;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.farmmanagement.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk transaction import. Only the first rejected rows are
+ * listed (see TransactionImportService.MAX_LISTED_REJECTIONS); rejectedCount
+ * always counts all of them. Line numbers are 1-based lines of the upload.
+ */
+public record ImportReport(long processed, long imported, long rejectedCount, List<Rejection> rejections,
+        long elapsedMillis) {
+
+    public record Rejection(long line, String reason) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.farmmanagement.dto;
+
+import com.example.farmmanagement.model.CropTransaction;
+
+import java.util.List;
+
+/**
+ * Result of comparing ledger_rollups with totals recomputed from
+ * crop_transactions. An empty drift list means the rollups are consistent.
+ */
+public record LedgerDriftReport(int bucketsChecked, List<Drift> drifts) {
+
+    public boolean isConsistent() {
+        return drifts.isEmpty();
+    }
+
+    public record Drift(Long cropId, CropTransaction.TransactionType transactionType, int periodYear,
+            int periodMonth, double expectedTotal, double actualTotal, long expectedCount, long actualCount) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.farmmanagement.dto;
+
+import com.example.farmmanagement.model.CropTransaction;
+
+import java.util.Collection;
+
+/**
+ * Income and expense totals for a slice of the ledger (global, per crop or per
+ * date range), built by the services from the grouped repository aggregates.
+ */
+public record LedgerTotals(double income, double expense) {
+
+    public static final LedgerTotals ZERO = new LedgerTotals(0.0, 0.0);
+
+    // The total of one transaction type; other (untyped) totals count towards neither side
+    public static LedgerTotals of(CropTransaction.TransactionType type, Double total) {
+        double amount = total != null ? total : 0.0;
+        if (type == CropTransaction.TransactionType.INCOME) {
+            return new LedgerTotals(amount, 0.0);
+        }
+        if (type == CropTransaction.TransactionType.EXPENSE) {
+            return new LedgerTotals(0.0, amount);
+        }
+        return ZERO;
+    }
+
+    // Totals of transactions that are already loaded, e.g. for a page that lists them anyway
+    public static LedgerTotals ofTransactions(Collection<CropTransaction> transactions) {
+        double income = 0.0;
+        double expense = 0.0;
+        for (CropTransaction transaction : transactions) {
+            double amount = transaction.getAmount() != null ? transaction.getAmount() : 0.0;
+            if (transaction.getTransactionType() == CropTransaction.TransactionType.INCOME) {
+                income += amount;
+            } else if (transaction.getTransactionType() == CropTransaction.TransactionType.EXPENSE) {
+                expense += amount;
+            }
+        }
+        return new LedgerTotals(income, expense);
+    }
+
+    public LedgerTotals plus(LedgerTotals other) {
+        return new LedgerTotals(income + other.income, expense + other.expense);
+    }
+
+    public double profit() {
+        return income - expense;
+    }
+}
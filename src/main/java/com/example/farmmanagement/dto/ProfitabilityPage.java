@@ -0,0 +1,14 @@
+package com.example.farmmanagement.dto;
+
+import com.example.farmmanagement.model.Profitability;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One page of the profitability leaderboard. refreshedAt is when the table
+ * was last rebuilt, so callers can tell how current the ranking is.
+ */
+public record ProfitabilityPage(List<Profitability> rows, int page, int size, long totalRows,
+        LocalDateTime refreshedAt) {
+}
@@ -0,0 +1,5 @@
+package com.example.farmmanagement.dto;
+
+// A subdivision to carve out of a master farm; areaSize in acres, taken from the farm's remaining area
+public record SubdivisionRequest(String name, Double areaSize, String location) {
+}
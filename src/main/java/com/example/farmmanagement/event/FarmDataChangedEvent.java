@@ -0,0 +1,13 @@
+package com.example.farmmanagement.event;
+
+/**
+ * Published by the services after a write to farm data, so derived views
+ * (dashboard snapshot, caches) can be refreshed. Listeners that care about
+ * commit order should use @TransactionalEventListener.
+ */
+public record FarmDataChangedEvent(Kind kind) {
+
+    public enum Kind {
+        CROP, TRANSACTION, ANIMAL, FIELD, ACTIVITY, HARVEST, SOIL_INPUT
+    }
+}
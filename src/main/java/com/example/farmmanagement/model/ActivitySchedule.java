@@ -0,0 +1,54 @@
+package com.example.farmmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * A crop activity that repeats (e.g. weekly spraying), stored once and
+ * expanded into its occurrences only for the dates being viewed. Occurrences
+ * fall on startDate plus a whole number of repeatInterval days, weeks or
+ * months, up to endDate (open-ended when null).
+ */
+@Entity
+@Table(name = "activity_schedules", indexes = {
+        @Index(name = "idx_activity_schedules_crop", columnList = "crop_id"),
+        @Index(name = "idx_activity_schedules_dates", columnList = "start_date, end_date") })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivitySchedule {
+
+    public enum Frequency {
+        DAILY, WEEKLY, MONTHLY
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "crop_id", nullable = false)
+    private Crop crop;
+
+    private String activityType; // e.g., "Spraying", "Irrigation"
+    private String details;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate startDate;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate endDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Frequency frequency;
+
+    // Every n days, weeks or months ("interval" is a reserved word)
+    @Column(name = "repeat_interval")
+    private int repeatInterval = 1;
+}
@@ -0,0 +1,328 @@
+package com.example.farmmanagement.model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * The binary form of a field boundary (Field.boundaryGeometry): the points of
+ * the [[lat, lng], ...] JSON the map draws, delta-encoded per axis and packed
+ * as varints, in one of two layouts, whichever is shorter:
+ * <ul>
+ * <li>DECIMAL: when every coordinate is exactly some integer over 10^k, the
+ * integers' zigzag deltas. Typed-in or rounded coordinates take 2-4 bytes.</li>
+ * <li>XOR: the raw IEEE bits of each coordinate XORed with the previous one on
+ * the same axis. Nearby points share sign, exponent and leading mantissa bits,
+ * so full-precision map clicks take about 6 bytes instead of 17 characters.</li>
+ * </ul>
+ * Both are lossless: decoding gives back bit-identical doubles, so the map and
+ * the shape API show exactly what was drawn. Only text that toJson writes back
+ * character for character is encoded, so getBoundaryCoordinates returns the
+ * stored text unchanged either way.
+ * <pre>
+ * format (1 byte) [decimals (1 byte), DECIMAL only] count (varint) lat0 lng0 lat1 lng1 ... (varints)
+ * </pre>
+ */
+public final class BoundaryCodec {
+
+    // Generous for any drawn field (a 10,000-point boundary takes about 120 KB)
+    public static final int MAX_BYTES = 1 << 20;
+
+    private static final byte DECIMAL = 1;
+    private static final byte XOR = 2;
+    private static final int MAX_DECIMALS = 15;
+    // Exact powers of ten, so m / 10^k is one correctly rounded division, the same on encode and decode
+    private static final double[] POWERS_OF_TEN = new double[MAX_DECIMALS + 1];
+    private static final double MAX_EXACT = 0x1p53;
+    private static final JsonFactory JSON = new JsonFactory();
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int k = 1; k <= MAX_DECIMALS; k++) {
+            POWERS_OF_TEN[k] = POWERS_OF_TEN[k - 1] * 10;
+        }
+    }
+
+    private BoundaryCodec() {
+    }
+
+    /**
+     * The binary form of a boundary in its JSON form, or null when it is blank,
+     * not a plain array of [lat, lng] pairs or not written the way the map's
+     * JSON.stringify writes it (whitespace, exponents, trailing zeros): those
+     * stay text. Only the shape is checked here; FieldGeometry decides whether
+     * it is a usable boundary.
+     */
+    public static byte[] fromJson(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            double[][] points = readJson(json);
+            byte[] encoded = encode(points[0], points[1]);
+            return toJson(encoded).equals(json) ? encoded : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // The JSON form again, [[lat,lng],...], as the map's JSON.stringify writes it
+    public static String toJson(byte[] encoded) {
+        double[][] points = decode(encoded);
+        StringBuilder json = new StringBuilder(points[0].length * 40 + 2).append('[');
+        for (int i = 0; i < points[0].length; i++) {
+            json.append(i == 0 ? "[" : ",[");
+            appendNumber(json, points[0][i]).append(',');
+            appendNumber(json, points[1][i]).append(']');
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Reads [[lat, lng], ...] into {lats, lngs}, every point as given (a
+     * closing point included). Throws IllegalArgumentException for anything
+     * else.
+     */
+    public static double[][] readJson(String json) {
+        double[] lats = new double[16];
+        double[] lngs = new double[16];
+        int n = 0;
+        try (JsonParser parser = JSON.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw invalid("not an array of points");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_ARRAY) {
+                double lat = number(parser);
+                double lng = number(parser);
+                if (parser.nextToken() != JsonToken.END_ARRAY) {
+                    throw invalid("each point is [lat, lng]");
+                }
+                if (n == lats.length) {
+                    lats = Arrays.copyOf(lats, n * 2);
+                    lngs = Arrays.copyOf(lngs, n * 2);
+                }
+                lats[n] = lat;
+                lngs[n] = lng;
+                n++;
+            }
+            if (token != JsonToken.END_ARRAY || parser.nextToken() != null) {
+                throw invalid("not an array of points");
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Boundary is not valid JSON", e);
+        }
+        return new double[][] { Arrays.copyOf(lats, n), Arrays.copyOf(lngs, n) };
+    }
+
+    public static byte[] encode(double[] lats, double[] lngs) {
+        byte[] xor = encodeXor(lats, lngs);
+        int decimals = Math.max(decimals(lats), decimals(lngs));
+        if (decimals > MAX_DECIMALS || !allExact(lats, decimals) || !allExact(lngs, decimals)) {
+            return xor;
+        }
+        byte[] decimal = encodeDecimal(lats, lngs, decimals);
+        return decimal.length <= xor.length ? decimal : xor;
+    }
+
+    // {lats, lngs}; IllegalArgumentException for bytes that are not a boundary
+    public static double[][] decode(byte[] encoded) {
+        Reader in = new Reader(encoded);
+        byte format = in.readByte();
+        if (format != DECIMAL && format != XOR) {
+            throw invalid("unknown encoding " + format);
+        }
+        int decimals = format == DECIMAL ? in.readByte() : 0;
+        if (decimals < 0 || decimals > MAX_DECIMALS) {
+            throw invalid("unknown encoding " + format + "/" + decimals);
+        }
+        long count = in.readVarint();
+        if (count < 0 || count > encoded.length) { // Every point takes at least two bytes
+            throw invalid("truncated");
+        }
+        double[] lats = new double[(int) count];
+        double[] lngs = new double[(int) count];
+        long lat = 0;
+        long lng = 0;
+        for (int i = 0; i < count; i++) {
+            if (format == DECIMAL) {
+                lat += unzigzag(in.readVarint());
+                lng += unzigzag(in.readVarint());
+                lats[i] = lat / POWERS_OF_TEN[decimals];
+                lngs[i] = lng / POWERS_OF_TEN[decimals];
+            } else {
+                lat ^= in.readVarint();
+                lng ^= in.readVarint();
+                lats[i] = Double.longBitsToDouble(lat);
+                lngs[i] = Double.longBitsToDouble(lng);
+            }
+        }
+        if (in.position != encoded.length) {
+            throw invalid("trailing bytes");
+        }
+        return new double[][] { lats, lngs };
+    }
+
+    // The most decimals k any value needs to be exactly round(v * 10^k) / 10^k; MAX_DECIMALS + 1 if one needs more
+    private static int decimals(double[] values) {
+        int k = 0;
+        for (double value : values) {
+            while (k <= MAX_DECIMALS && !exact(value, k)) {
+                k++;
+            }
+        }
+        return k;
+    }
+
+    private static boolean allExact(double[] values, int decimals) {
+        for (double value : values) {
+            if (!exact(value, decimals)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean exact(double value, int decimals) {
+        double scaled = Math.rint(value * POWERS_OF_TEN[decimals]);
+        return Math.abs(scaled) < MAX_EXACT && Double.doubleToRawLongBits(scaled / POWERS_OF_TEN[decimals])
+                == Double.doubleToRawLongBits(value);
+    }
+
+    private static byte[] encodeDecimal(double[] lats, double[] lngs, int decimals) {
+        Writer out = new Writer(lats.length);
+        out.writeByte(DECIMAL);
+        out.writeByte(decimals);
+        out.writeVarint(lats.length);
+        long lat = 0;
+        long lng = 0;
+        for (int i = 0; i < lats.length; i++) {
+            long nextLat = (long) Math.rint(lats[i] * POWERS_OF_TEN[decimals]);
+            long nextLng = (long) Math.rint(lngs[i] * POWERS_OF_TEN[decimals]);
+            out.writeVarint(zigzag(nextLat - lat));
+            out.writeVarint(zigzag(nextLng - lng));
+            lat = nextLat;
+            lng = nextLng;
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] encodeXor(double[] lats, double[] lngs) {
+        Writer out = new Writer(lats.length);
+        out.writeByte(XOR);
+        out.writeVarint(lats.length);
+        long lat = 0;
+        long lng = 0;
+        for (int i = 0; i < lats.length; i++) {
+            long nextLat = Double.doubleToRawLongBits(lats[i]);
+            long nextLng = Double.doubleToRawLongBits(lngs[i]);
+            out.writeVarint(nextLat ^ lat);
+            out.writeVarint(nextLng ^ lng);
+            lat = nextLat;
+            lng = nextLng;
+        }
+        return out.toByteArray();
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // As JavaScript prints numbers: shortest digits, plain from 1e-6 to below 1e21, otherwise 1.5e-7 or 1e+21
+    private static StringBuilder appendNumber(StringBuilder json, double value) {
+        if (value == 0) {
+            return json.append('0');
+        }
+        BigDecimal decimal = BigDecimal.valueOf(value).stripTrailingZeros();
+        String digits = decimal.unscaledValue().abs().toString();
+        int exponent = digits.length() - decimal.scale(); // value is 0.digits * 10^exponent
+        if (exponent > -6 && exponent <= 21) {
+            return json.append(decimal.toPlainString());
+        }
+        if (value < 0) {
+            json.append('-');
+        }
+        json.append(digits.charAt(0));
+        if (digits.length() > 1) {
+            json.append('.').append(digits, 1, digits.length());
+        }
+        return json.append('e').append(exponent > 0 ? '+' : '-').append(Math.abs(exponent - 1));
+    }
+
+    private static double number(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT) {
+            throw invalid("each point is [lat, lng]");
+        }
+        return parser.getDoubleValue();
+    }
+
+    private static IllegalArgumentException invalid(String reason) {
+        return new IllegalArgumentException("Invalid boundary: " + reason);
+    }
+
+    private static final class Writer {
+        private byte[] bytes;
+        private int size;
+
+        Writer(int points) {
+            this.bytes = new byte[12 + points * 8];
+        }
+
+        void writeByte(int value) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, size * 2);
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        // Seven bits at a time, low bits first, the high bit set on every byte but the last
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        byte readByte() {
+            if (position == bytes.length) {
+                throw invalid("truncated");
+            }
+            return bytes[position++];
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw invalid("varint too long");
+        }
+    }
+}
@@ -3,17 +3,24 @@ package com.example.farmmanagement.model; // Adjust package if needed
 
 import java.time.LocalDate;
 
+import com.example.farmmanagement.config.ReferenceCacheConfig;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.format.annotation.DateTimeFormat; // Important for date binding
 
 @Entity // Marks this class as a JPA entity, representing a database table
 @Getter
 @Setter
 @ToString
-@Table(name = "crop") // Specifies the name of the database table (optional, defaults to class name)
+@Table(name = "crop", indexes = { // Specifies the name of the database table (optional, defaults to class name)
+        @Index(name = "idx_crop_harvest_date", columnList = "harvest_date"),
+        @Index(name = "idx_crop_field_harvest", columnList = "field_id, harvest_date") })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceCacheConfig.CROPS)
 public class Crop {
 
     @Id // Marks this field as the primary key
@@ -9,7 +9,9 @@ import org.springframework.format.annotation.DateTimeFormat;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "crop_activities")
+@Table(name = "crop_activities", indexes = {
+        @Index(name = "idx_crop_activities_date_crop", columnList = "activity_date, crop_id"),
+        @Index(name = "idx_crop_activities_crop_date", columnList = "crop_id, activity_date") })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -9,7 +9,9 @@ import org.springframework.format.annotation.DateTimeFormat;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "crop_transactions")
+@Table(name = "crop_transactions", indexes = {
+        @Index(name = "idx_crop_transactions_date", columnList = "transaction_date, transaction_type, amount"),
+        @Index(name = "idx_crop_transactions_crop_date", columnList = "crop_id, transaction_date") })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
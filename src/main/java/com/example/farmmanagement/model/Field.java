@@ -1,16 +1,25 @@
 package com.example.farmmanagement.model;
 
+import com.example.farmmanagement.config.ReferenceCacheConfig;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 @Entity
 @Table(name = "fields")
-@Data
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceCacheConfig.FIELDS)
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 public class Field {
@@ -27,10 +36,26 @@ public class Field {
     private Double latitude;
     private Double longitude;
 
-    // Boundary coordinates for polygon mapping (stored as JSON string)
+    // Boundary coordinates for polygon mapping, as JSON ([[lat, lng], ...]). Stored as text only when they are
+    // not a plain array of points; otherwise in boundaryGeometry and decoded back to JSON when read
     @Column(columnDefinition = "TEXT")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
     private String boundaryCoordinates;
 
+    // The boundary in BoundaryCodec's binary form, a fraction of the JSON's size; read without any JSON by
+    // FieldGeometry. Written through setBoundaryCoordinates
+    @Column(name = "boundary_geometry", length = BoundaryCodec.MAX_BYTES)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private byte[] boundaryGeometry;
+
+    // Whether setBoundaryCoordinates had to keep the text as text; null only on rows from before binary
+    // boundaries, which FieldService.encodeTextBoundaries looks at once
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Boolean boundaryTextKept;
+
     // One field can have multiple crops over time, or currently
     @OneToMany(mappedBy = "field")
     @ToString.Exclude
@@ -61,4 +86,21 @@ public class Field {
 
     // Flag to identify master farms vs subdivisions
     private Boolean isMasterFarm = false;
+
+    // Area handed out to direct subdivisions, kept by FieldAllocationService; null until first counted
+    private Double allocatedArea;
+
+    // Concurrent allocations against the same farm conflict on this instead of over-allocating it
+    @Version
+    private long version;
+
+    public String getBoundaryCoordinates() {
+        return boundaryGeometry != null ? BoundaryCodec.toJson(boundaryGeometry) : boundaryCoordinates;
+    }
+
+    public void setBoundaryCoordinates(String boundaryCoordinates) {
+        this.boundaryGeometry = BoundaryCodec.fromJson(boundaryCoordinates);
+        this.boundaryCoordinates = boundaryGeometry != null ? null : boundaryCoordinates;
+        this.boundaryTextKept = this.boundaryCoordinates != null;
+    }
 }
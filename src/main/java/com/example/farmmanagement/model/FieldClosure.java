@@ -0,0 +1,39 @@
+package com.example.farmmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row per (ancestor, descendant) pair of the field hierarchy, including
+ * every field paired with itself at depth 0, maintained by
+ * FieldClosureService whenever a field is saved. Subtree and ancestry
+ * questions become a single indexed lookup instead of a walk level by level.
+ * Field ids are not foreign keys, so deleting fields never fails on this table;
+ * readers join fields, which drops paths of deleted fields.
+ */
+@Entity
+@Table(name = "field_closure",
+        uniqueConstraints = @UniqueConstraint(name = "uk_field_closure_path",
+                columnNames = { "ancestor_id", "descendant_id" }),
+        indexes = @Index(name = "idx_field_closure_descendant", columnList = "descendant_id, depth"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FieldClosure {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ancestor_id", nullable = false)
+    private Long ancestorId;
+
+    @Column(name = "descendant_id", nullable = false)
+    private Long descendantId;
+
+    // Levels between the two: 0 for a field and itself, 1 for a direct subdivision
+    @Column(nullable = false)
+    private Integer depth;
+}
@@ -0,0 +1,10 @@
+package com.example.farmmanagement.model;
+
+// Where a crop is between planting and harvest, derived by GrowthStageEngine (never stored)
+public enum GrowthStage {
+    SEEDLING,
+    VEGETATIVE,
+    FLOWERING,
+    MATURING,
+    READY
+}
@@ -0,0 +1,37 @@
+package com.example.farmmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "harvest_records", indexes = {
+        @Index(name = "idx_harvest_records_crop_date", columnList = "crop_id, harvest_date") })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HarvestRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "crop_id", nullable = false)
+    private Crop crop;
+
+    // The field the crop stood on when harvested, copied from the crop so moving it later keeps history intact
+    @Column(name = "field_id")
+    private Long fieldId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate harvestDate;
+
+    private Double quantity; // Tons collected
+    private Double loss; // Tons lost or wasted
+    private String lot; // Lot or batch reference, e.g. "M-2025-03"
+}
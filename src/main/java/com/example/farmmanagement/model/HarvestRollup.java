@@ -0,0 +1,47 @@
+package com.example.farmmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pre-aggregated harvest totals, maintained by HarvestService in the same
+ * transaction as every harvest write. Each record lands in six buckets:
+ * (crop, season), (crop, all time), (field, season), (field, all time),
+ * (farm, season) and (farm, all time), the coarser keys marked with the
+ * ALL_CROPS / ALL_FIELDS / ALL_SEASONS sentinels. The season is the harvest year.
+ */
+@Entity
+@Table(name = "harvest_rollups", uniqueConstraints = @UniqueConstraint(name = "uk_harvest_rollup_bucket", columnNames = {
+        "crop_id", "field_id", "season" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HarvestRollup {
+
+    public static final long ALL_CROPS = 0L;
+    public static final long ALL_FIELDS = 0L;
+    public static final long NO_FIELD = -1L;
+    public static final int ALL_SEASONS = 0;
+    public static final int UNDATED = -1;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "crop_id", nullable = false)
+    private Long cropId;
+
+    // ALL_FIELDS on the crop and farm grains, NO_FIELD for crops that were not on a field
+    @Column(name = "field_id", nullable = false)
+    private Long fieldId;
+
+    // ALL_SEASONS for the all-time grains, UNDATED for records without a harvest date
+    @Column(nullable = false)
+    private Integer season;
+
+    private Double quantity;
+    private Double loss;
+    private Long recordCount;
+}
@@ -0,0 +1,46 @@
+package com.example.farmmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pre-aggregated ledger totals, maintained by CropTransactionService in the
+ * same transaction as every write. Three grains share the table:
+ * (crop, type, year, month), (crop, type, all time) and (all crops, type, all time),
+ * the coarser ones marked with the ALL_CROPS / ALL_TIME sentinels.
+ */
+@Entity
+@Table(name = "ledger_rollups", uniqueConstraints = @UniqueConstraint(name = "uk_ledger_rollup_bucket", columnNames = {
+        "crop_id", "transaction_type", "period_year", "period_month" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerRollup {
+
+    public static final long ALL_CROPS = 0L;
+    public static final int ALL_TIME = 0;
+    public static final int UNDATED = -1;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "crop_id", nullable = false)
+    private Long cropId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", nullable = false)
+    private CropTransaction.TransactionType transactionType;
+
+    // ALL_TIME for the all-time grains, UNDATED for transactions without a date
+    @Column(name = "period_year", nullable = false)
+    private Integer periodYear;
+
+    @Column(name = "period_month", nullable = false)
+    private Integer periodMonth;
+
+    private Double total;
+    private Long entryCount;
+}
@@ -0,0 +1,59 @@
+package com.example.farmmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Materialized profitability per crop and per field and season, rebuilt one
+ * field at a time by ProfitabilityService. Crop rows carry a share of their
+ * field's soil input cost; field rows carry all of it. Season is the calendar
+ * year, ALL_SEASONS the all-time row.
+ */
+@Entity
+@Table(name = "profitability", uniqueConstraints = @UniqueConstraint(name = "uk_profitability_subject", columnNames = {
+        "scope", "subject_id", "season" }), indexes = {
+                @Index(name = "idx_profitability_rank", columnList = "season, scope, margin"),
+                @Index(name = "idx_profitability_field", columnList = "field_id") })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Profitability {
+
+    public static final int ALL_SEASONS = 0;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Scope scope;
+
+    // Crop id for CROP rows, field id for FIELD rows
+    @Column(name = "subject_id", nullable = false)
+    private Long subjectId;
+
+    // The field the row was computed with; null for crops that are not on a field
+    @Column(name = "field_id")
+    private Long fieldId;
+
+    @Column(nullable = false)
+    private Integer season;
+
+    private String label;
+    private Double income;
+    private Double expense;
+    private Double inputCost;
+    private Double margin; // income - expense - inputCost
+
+    private LocalDateTime refreshedAt;
+
+    public enum Scope {
+        CROP,
+        FIELD
+    }
+}
@@ -1,12 +1,17 @@
 package com.example.farmmanagement.model;
 
+import com.example.farmmanagement.config.ReferenceCacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceCacheConfig.USERS)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
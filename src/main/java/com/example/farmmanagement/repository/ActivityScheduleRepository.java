@@ -0,0 +1,25 @@
+package com.example.farmmanagement.repository;
+
+import com.example.farmmanagement.model.ActivitySchedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Schedules come with their crop and field so expanding them never loads a crop per occurrence
+@Repository
+public interface ActivityScheduleRepository extends JpaRepository<ActivitySchedule, Long> {
+
+    @Query("SELECT s FROM ActivitySchedule s JOIN FETCH s.crop c LEFT JOIN FETCH c.field ORDER BY s.id")
+    List<ActivitySchedule> findAllWithCrop();
+
+    List<ActivitySchedule> findByCropIdOrderByStartDateAscIdAsc(Long cropId);
+
+    // Schedules still running on or after a date; each scope optional
+    @Query("SELECT s FROM ActivitySchedule s JOIN FETCH s.crop c LEFT JOIN FETCH c.field f "
+            + "WHERE (s.endDate IS NULL OR s.endDate >= ?1) AND (?2 IS NULL OR f.id = ?2) "
+            + "AND (?3 IS NULL OR c.id = ?3) ORDER BY s.id")
+    List<ActivitySchedule> findRunningFrom(LocalDate date, Long fieldId, Long cropId);
+}
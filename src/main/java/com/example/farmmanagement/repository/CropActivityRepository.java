@@ -1,13 +1,41 @@
 package com.example.farmmanagement.repository;
 
+import com.example.farmmanagement.dto.CalendarEntry;
 import com.example.farmmanagement.model.CropActivity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CropActivityRepository extends JpaRepository<CropActivity, Long> {
     List<CropActivity> findByCropId(Long cropId);
-    // Force recompile
+
+    // Next tasks from a date, ORDER BY ... LIMIT on idx_crop_activities_date_crop / idx_crop_activities_crop_date.
+    // The crop (and its field) are fetched in the same statement instead of one select per task.
+    @Query("SELECT a FROM CropActivity a JOIN FETCH a.crop c LEFT JOIN FETCH c.field "
+            + "WHERE a.activityDate >= ?1 ORDER BY a.activityDate, a.id")
+    List<CropActivity> findTasksFrom(LocalDate date, Limit limit);
+
+    @Query("SELECT a FROM CropActivity a JOIN FETCH a.crop c LEFT JOIN FETCH c.field "
+            + "WHERE c.id = ?1 AND a.activityDate >= ?2 ORDER BY a.activityDate, a.id")
+    List<CropActivity> findTasksFromForCrop(Long cropId, LocalDate date, Limit limit);
+
+    @Query("SELECT a FROM CropActivity a JOIN FETCH a.crop c LEFT JOIN FETCH c.field "
+            + "WHERE c.field.id = ?1 AND a.activityDate >= ?2 ORDER BY a.activityDate, a.id")
+    List<CropActivity> findTasksFromForField(Long fieldId, LocalDate date, Limit limit);
+
+    // Activities dated from..to inclusive, a range scan of idx_crop_activities_date_crop; each filter optional
+    @Query("SELECT new com.example.farmmanagement.dto.CalendarEntry(a.id, a.activityDate, a.activityType, "
+            + "a.details, c.id, c.type, f.id, f.name) FROM CropActivity a JOIN a.crop c LEFT JOIN c.field f "
+            + "WHERE a.activityDate BETWEEN ?1 AND ?2 AND (?3 IS NULL OR f.id = ?3) AND (?4 IS NULL OR c.id = ?4) "
+            + "AND (?5 IS NULL OR LOWER(TRIM(a.activityType)) = ?5) ORDER BY a.activityDate, a.id")
+    List<CalendarEntry> findCalendarEntries(LocalDate from, LocalDate to, Long fieldId, Long cropId, String type);
+
+    @Query("SELECT a.activityDate FROM CropActivity a WHERE a.id = ?1")
+    Optional<LocalDate> findDateById(Long id);
 }
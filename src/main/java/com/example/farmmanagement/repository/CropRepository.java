@@ -1,11 +1,89 @@
 package com.example.farmmanagement.repository;
 
 
+import com.example.farmmanagement.dto.CropRow;
 import com.example.farmmanagement.model.Crop;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface CropRepository extends JpaRepository<Crop, Long> {
-    // Add custom query methods if needed (e.g., findByType(String type))
-}
\ No newline at end of file
+
+    // The crop with its field and the field's parent (both eager) in one statement
+    @Query("SELECT c FROM Crop c LEFT JOIN FETCH c.field f LEFT JOIN FETCH f.parentField WHERE c.id = ?1")
+    Optional<Crop> findWithFieldById(Long id);
+
+    // Next harvests after a date, ORDER BY ... LIMIT on idx_crop_harvest_date / idx_crop_field_harvest
+    @Query("SELECT c FROM Crop c LEFT JOIN FETCH c.field WHERE c.harvestDate > ?1 ORDER BY c.harvestDate, c.id")
+    List<Crop> findHarvestsAfter(LocalDate date, Limit limit);
+
+    @Query("SELECT c FROM Crop c LEFT JOIN FETCH c.field "
+            + "WHERE c.field.id = ?1 AND c.harvestDate > ?2 ORDER BY c.harvestDate, c.id")
+    List<Crop> findHarvestsAfterForField(Long fieldId, LocalDate date, Limit limit);
+
+    // Keyset page of the crop list, newest first: rows with id below the cursor, each filter optional
+    @Query("SELECT new com.example.farmmanagement.dto.CropRow(c.id, c.type, c.landSize, c.plantingDate, "
+            + "c.harvestDate, f.id, f.name) FROM Crop c LEFT JOIN c.field f "
+            + "WHERE c.id < ?1 AND (?2 IS NULL OR LOWER(c.type) = ?2) AND (?3 IS NULL OR f.id = ?3) "
+            + "AND (?4 IS NULL OR c.plantingDate >= ?4) AND (?5 IS NULL OR c.plantingDate <= ?5) "
+            + "ORDER BY c.id DESC")
+    List<CropRow> findRowsBefore(long cursor, String type, Long fieldId, LocalDate plantedFrom,
+            LocalDate plantedTo, Limit limit);
+
+    // Crop counts per (type, field, planting year): a few dozen rows however many crops there are
+    @Query("SELECT c.type AS type, f.id AS fieldId, YEAR(c.plantingDate) AS season, COUNT(c) AS count "
+            + "FROM Crop c LEFT JOIN c.field f GROUP BY c.type, f.id, YEAR(c.plantingDate)")
+    List<TypeCount> countByTypeFieldAndSeason();
+
+    // Crops of one field (null: crops without a field) with what profitability attribution needs
+    @Query("SELECT c.id AS id, c.type AS type, c.landSize AS landSize, YEAR(c.plantingDate) AS plantingYear "
+            + "FROM Crop c WHERE (?1 IS NULL AND c.field IS NULL) OR c.field.id = ?1 ORDER BY c.id")
+    List<CropStub> findStubsByField(Long fieldId);
+
+    // Crops in the ground on a date: planted by then and not yet harvested, in id order
+    @Query("SELECT c.id AS id, c.type AS type, c.plantingDate AS plantingDate, c.harvestDate AS harvestDate "
+            + "FROM Crop c WHERE c.plantingDate <= ?1 AND (c.harvestDate IS NULL OR c.harvestDate >= ?1) "
+            + "ORDER BY c.id")
+    List<GrowthRow> findGrowingOn(LocalDate date);
+
+    // Which of the ids exist, in one IN lookup on the primary key
+    @Query("SELECT c.id FROM Crop c WHERE c.id IN ?1")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    interface TypeCount {
+        String getType();
+
+        Long getFieldId();
+
+        Integer getSeason();
+
+        long getCount();
+    }
+
+    interface CropStub {
+        Long getId();
+
+        String getType();
+
+        Double getLandSize();
+
+        Integer getPlantingYear();
+    }
+
+    interface GrowthRow {
+        Long getId();
+
+        String getType();
+
+        LocalDate getPlantingDate();
+
+        LocalDate getHarvestDate();
+    }
+}
@@ -1,12 +1,110 @@
 package com.example.farmmanagement.repository;
 
 import com.example.farmmanagement.model.CropTransaction;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CropTransactionRepository extends JpaRepository<CropTransaction, Long> {
     List<CropTransaction> findByCropId(Long cropId);
+
+    List<CropTransaction> findByCropIdOrderByTransactionDateDescIdDesc(Long cropId);
+
+    // Ledger aggregates: one row per transaction type, summed by the database
+    @Query("SELECT t.transactionType AS transactionType, SUM(t.amount) AS total "
+            + "FROM CropTransaction t GROUP BY t.transactionType")
+    List<TypeTotal> sumAmountByType();
+
+    @Query("SELECT t.transactionType AS transactionType, SUM(t.amount) AS total "
+            + "FROM CropTransaction t WHERE t.crop.id = ?1 GROUP BY t.transactionType")
+    List<TypeTotal> sumAmountByTypeForCrop(Long cropId);
+
+    @Query("SELECT t.transactionType AS transactionType, SUM(t.amount) AS total "
+            + "FROM CropTransaction t WHERE t.transactionDate BETWEEN ?1 AND ?2 GROUP BY t.transactionType")
+    List<TypeTotal> sumAmountByTypeBetween(LocalDate from, LocalDate to);
+
+    @Query("SELECT t.transactionType AS transactionType, SUM(t.amount) AS total "
+            + "FROM CropTransaction t WHERE t.crop.id = ?1 AND t.transactionDate BETWEEN ?2 AND ?3 "
+            + "GROUP BY t.transactionType")
+    List<TypeTotal> sumAmountByTypeForCropBetween(Long cropId, LocalDate from, LocalDate to);
+
+    @Query("SELECT t.crop.id AS cropId, t.transactionType AS transactionType, SUM(t.amount) AS total "
+            + "FROM CropTransaction t GROUP BY t.crop.id, t.transactionType")
+    List<CropTypeTotal> sumAmountByCropAndType();
+
+    // Daily buckets for the finance series; range scans on idx_crop_transactions_date / _crop_date
+    @Query("SELECT t.transactionDate AS bucketDate, t.transactionType AS transactionType, SUM(t.amount) AS total "
+            + "FROM CropTransaction t WHERE t.transactionDate BETWEEN ?1 AND ?2 AND t.transactionType IS NOT NULL "
+            + "GROUP BY t.transactionDate, t.transactionType")
+    List<DailyTotal> sumAmountByDayAndType(LocalDate from, LocalDate to);
+
+    @Query("SELECT t.transactionDate AS bucketDate, t.transactionType AS transactionType, SUM(t.amount) AS total "
+            + "FROM CropTransaction t WHERE t.crop.id = ?1 AND t.transactionDate BETWEEN ?2 AND ?3 "
+            + "AND t.transactionType IS NOT NULL GROUP BY t.transactionDate, t.transactionType")
+    List<DailyTotal> sumAmountByDayAndTypeForCrop(Long cropId, LocalDate from, LocalDate to);
+
+    @Query("SELECT t.transactionDate AS bucketDate, t.transactionType AS transactionType, SUM(t.amount) AS total "
+            + "FROM CropTransaction t WHERE t.crop.field.id = ?1 AND t.transactionDate BETWEEN ?2 AND ?3 "
+            + "AND t.transactionType IS NOT NULL GROUP BY t.transactionDate, t.transactionType")
+    List<DailyTotal> sumAmountByDayAndTypeForField(Long fieldId, LocalDate from, LocalDate to);
+
+    // Source of truth for the ledger_rollups table (rebuild / verify)
+    @Query("SELECT t.crop.id AS cropId, t.transactionType AS transactionType, "
+            + "YEAR(t.transactionDate) AS periodYear, MONTH(t.transactionDate) AS periodMonth, "
+            + "SUM(t.amount) AS total, COUNT(t) AS entryCount "
+            + "FROM CropTransaction t WHERE t.transactionType IS NOT NULL "
+            + "GROUP BY t.crop.id, t.transactionType, YEAR(t.transactionDate), MONTH(t.transactionDate)")
+    List<MonthlyTotal> sumAmountByCropTypeAndMonth();
+
+    // Stored state of one transaction, read before it is updated or deleted. COMMIT flush mode keeps
+    // pending edits to a managed instance from being flushed first, so the old values are returned.
+    @QueryHints(@QueryHint(name = "org.hibernate.flushMode", value = "COMMIT"))
+    @Query("SELECT t.crop.id AS cropId, t.transactionType AS transactionType, t.amount AS amount, "
+            + "t.transactionDate AS transactionDate FROM CropTransaction t WHERE t.id = ?1")
+    Optional<LedgerEntry> findLedgerEntry(Long id);
+
+    interface TypeTotal {
+        CropTransaction.TransactionType getTransactionType();
+
+        Double getTotal();
+    }
+
+    interface CropTypeTotal extends TypeTotal {
+        Long getCropId();
+    }
+
+    interface MonthlyTotal extends CropTypeTotal {
+        Integer getPeriodYear();
+
+        Integer getPeriodMonth();
+
+        Long getEntryCount();
+    }
+
+    interface DailyTotal extends TypeTotal {
+        LocalDate getBucketDate();
+    }
+
+    interface PeriodTotal extends TypeTotal {
+        Integer getPeriodYear();
+
+        Integer getPeriodMonth();
+    }
+
+    interface LedgerEntry {
+        Long getCropId();
+
+        CropTransaction.TransactionType getTransactionType();
+
+        Double getAmount();
+
+        LocalDate getTransactionDate();
+    }
 }
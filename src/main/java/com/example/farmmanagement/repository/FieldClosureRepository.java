@@ -0,0 +1,77 @@
+package com.example.farmmanagement.repository;
+
+import com.example.farmmanagement.dto.FieldOption;
+import com.example.farmmanagement.model.FieldClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface FieldClosureRepository extends JpaRepository<FieldClosure, Long> {
+
+    // Per ancestor: fields below it, levels below it, area of the bottom-level fields (so a block and its plots
+    // are not counted twice) and crops anywhere in the subtree
+    String ROLLUP_SELECT = "SELECT c.ancestor_id AS fieldId, COUNT(*) - 1 AS subdivisions, MAX(c.depth) AS depth, "
+            + "COALESCE(SUM(CASE WHEN p.parent_field_id IS NULL THEN f.area_size END), 0) AS area, "
+            + "COALESCE(SUM(k.crops), 0) AS crops "
+            + "FROM field_closure c JOIN fields f ON f.id = c.descendant_id "
+            + "LEFT JOIN (SELECT DISTINCT parent_field_id FROM fields WHERE parent_field_id IS NOT NULL) p "
+            + "ON p.parent_field_id = f.id "
+            + "LEFT JOIN (SELECT field_id, COUNT(*) AS crops FROM crop WHERE field_id IS NOT NULL GROUP BY field_id) k "
+            + "ON k.field_id = f.id ";
+
+    // Written out rather than derived: derived queries rebuild their criteria on every call, which costs more
+    // than the indexed lookup itself
+
+    // 1 when the path exists (the pair is unique), else 0
+    @Query("SELECT COUNT(c) FROM FieldClosure c WHERE c.ancestorId = ?1 AND c.descendantId = ?2")
+    long countPaths(Long ancestorId, Long descendantId);
+
+    @Query("SELECT c.descendantId FROM FieldClosure c WHERE c.ancestorId = ?1")
+    List<Long> findSubtreeIds(Long ancestorId); // The field and everything beneath it
+
+    @Query("SELECT c FROM FieldClosure c WHERE c.ancestorId = ?1")
+    List<FieldClosure> findByAncestorId(Long ancestorId);
+
+    @Query("SELECT c FROM FieldClosure c WHERE c.descendantId = ?1")
+    List<FieldClosure> findByDescendantId(Long descendantId); // The field and everything above it
+
+    // Bottom-level fields (no subdivisions of their own) anywhere beneath the field
+    @Query("SELECT new com.example.farmmanagement.dto.FieldOption(f.id, f.name) FROM FieldClosure c "
+            + "JOIN Field f ON f.id = c.descendantId WHERE c.ancestorId = ?1 AND c.depth > 0 "
+            + "AND NOT EXISTS (SELECT s.id FROM Field s WHERE s.parentField = f) ORDER BY f.name, f.id")
+    List<FieldOption> findPlots(Long ancestorId);
+
+    @Query(nativeQuery = true, value = ROLLUP_SELECT + "WHERE c.ancestor_id = ?1 GROUP BY c.ancestor_id")
+    Optional<HierarchyRollup> rollUp(Long ancestorId);
+
+    // One row per master farm
+    @Query(nativeQuery = true, value = ROLLUP_SELECT + "JOIN fields r ON r.id = c.ancestor_id "
+            + "WHERE r.parent_field_id IS NULL GROUP BY c.ancestor_id")
+    List<HierarchyRollup> rollUpMasterFarms();
+
+    @Modifying
+    @Query("DELETE FROM FieldClosure c WHERE c.descendantId IN ?1 AND c.ancestorId IN ?2")
+    int deletePaths(Collection<Long> descendantIds, Collection<Long> ancestorIds);
+
+    @Modifying
+    @Query("DELETE FROM FieldClosure c")
+    int deleteAllPaths();
+
+    interface HierarchyRollup {
+        Long getFieldId();
+
+        long getSubdivisions();
+
+        int getDepth();
+
+        double getArea();
+
+        long getCrops();
+    }
+}
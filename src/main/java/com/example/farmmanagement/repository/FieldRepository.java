@@ -1,18 +1,149 @@
 package com.example.farmmanagement.repository;
 
+import com.example.farmmanagement.dto.FieldOption;
 import com.example.farmmanagement.model.Field;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface FieldRepository extends JpaRepository<Field, Long> {
 
     // Hierarchy queries
+    // Master farms, from the query cache until a field is written
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Field> findByParentFieldIsNull(); // Get all master farms
 
     List<Field> findByParentFieldId(Long parentId); // Get subdivisions
 
     List<Field> findByIsMasterFarmTrue(); // Get master farms only
+
+    // The field details page lists the crops, so they come in the same select
+    @EntityGraph(attributePaths = "crops")
+    @Query("SELECT f FROM Field f WHERE f.id = ?1")
+    Optional<Field> findWithCropsById(Long id);
+
+    // ===== Subdivision allocation (FieldAllocationService) =====
+    // A query rather than findById: read from the database, not from a possibly stale second-level cache entry
+    @Query("SELECT f FROM Field f WHERE f.id = ?1")
+    Optional<Field> findCurrentById(Long id);
+
+    @Query("SELECT COALESCE(SUM(f.areaSize), 0) FROM Field f WHERE f.parentField.id = ?1")
+    double sumSubdivisionArea(Long parentId);
+
+    @Query("SELECT f.parentField.id FROM Field f WHERE f.id = ?1")
+    Optional<Long> findParentIdById(Long id);
+
+    @Query("SELECT new com.example.farmmanagement.dto.FieldOption(f.id, f.name) FROM Field f "
+            + "WHERE LOWER(f.name) LIKE CONCAT('%', ?1, '%') ESCAPE '\\' ORDER BY f.name, f.id")
+    List<FieldOption> searchByName(String lowerCaseTerm, Limit limit);
+
+    @Query("SELECT new com.example.farmmanagement.dto.FieldOption(f.id, f.name) FROM Field f ORDER BY f.id")
+    List<FieldOption> findAllOptions();
+
+    @Query("SELECT f.id AS id, p.id AS parentId FROM Field f LEFT JOIN f.parentField p")
+    List<ParentLink> findParentLinks(); // Id pairs only, for walking the hierarchy in memory
+
+    interface ParentLink {
+        Long getId();
+
+        Long getParentId();
+    }
+
+    // Every drawn boundary (binary or text, see Field) with its field's id and name, to build FieldLocator's index
+    @Query("SELECT f.id AS id, f.name AS name, f.boundaryGeometry AS boundaryGeometry, "
+            + "f.boundaryCoordinates AS boundaryCoordinates FROM Field f "
+            + "WHERE f.boundaryGeometry IS NOT NULL OR f.boundaryCoordinates IS NOT NULL")
+    List<FieldBoundary> findAllBoundaries();
+
+    interface FieldBoundary {
+        Long getId();
+
+        String getName();
+
+        byte[] getBoundaryGeometry();
+
+        String getBoundaryCoordinates();
+    }
+
+    // Fields from before binary boundaries whose JSON text nobody has tried to encode yet
+    // (FieldService.encodeTextBoundaries)
+    @Query("SELECT f.id AS id, f.boundaryCoordinates AS boundaryCoordinates FROM Field f "
+            + "WHERE f.boundaryGeometry IS NULL AND f.boundaryCoordinates IS NOT NULL AND f.boundaryTextKept IS NULL")
+    List<TextBoundary> findUncheckedTextBoundaries();
+
+    interface TextBoundary {
+        Long getId();
+
+        String getBoundaryCoordinates();
+    }
+
+    // Text that does not encode, so later startups skip it
+    @Modifying
+    @Query("UPDATE Field f SET f.boundaryTextKept = true WHERE f.id IN ?1")
+    int markTextBoundariesKept(Collection<Long> ids);
+
+    // ===== Multi-level hierarchy (farm -> block -> plot ...) =====
+    // Recursive CTEs, one statement per call however deep the tree. MAX_DEPTH bounds every walk so a
+    // parent cycle in bad data cannot recurse forever. Plain SQL that both MariaDB and H2 accept.
+
+    int MAX_DEPTH = 32;
+
+    String SUBTREE_ROWS = "SELECT f.id AS id, f.name AS name, f.parent_field_id AS parentId, "
+            + "f.area_size AS areaSize, t.depth AS depth FROM tree t JOIN fields f ON f.id = t.id "
+            + "ORDER BY t.depth, f.name, f.id";
+
+    // The field (depth 0) and everything beneath it, level by level
+    @Query(nativeQuery = true, value = "WITH RECURSIVE tree (id, depth) AS ("
+            + "SELECT id, 0 FROM fields WHERE id = ?1 "
+            + "UNION ALL SELECT f.id, t.depth + 1 FROM fields f JOIN tree t ON f.parent_field_id = t.id "
+            + "WHERE t.depth < " + MAX_DEPTH + ") " + SUBTREE_ROWS)
+    List<HierarchyNode> findSubtree(Long id);
+
+    // The field (depth 0), its parent (1), and so on up to its master farm
+    @Query(nativeQuery = true, value = "WITH RECURSIVE tree (id, parent_id, depth) AS ("
+            + "SELECT id, parent_field_id, 0 FROM fields WHERE id = ?1 "
+            + "UNION ALL SELECT f.id, f.parent_field_id, t.depth + 1 FROM fields f JOIN tree t ON f.id = t.parent_id "
+            + "WHERE t.depth < " + MAX_DEPTH + ") " + SUBTREE_ROWS)
+    List<HierarchyNode> findAncestry(Long id);
+
+    // Every (ancestor, descendant, depth) path of the hierarchy, to rebuild the field_closure table from
+    @Query(nativeQuery = true, value = "WITH RECURSIVE paths (ancestor_id, descendant_id, depth) AS ("
+            + "SELECT id, id, 0 FROM fields "
+            + "UNION ALL SELECT p.ancestor_id, f.id, p.depth + 1 FROM fields f "
+            + "JOIN paths p ON f.parent_field_id = p.descendant_id "
+            + "WHERE p.depth < " + MAX_DEPTH + ") "
+            + "SELECT ancestor_id AS ancestorId, descendant_id AS descendantId, MIN(depth) AS depth FROM paths "
+            + "GROUP BY ancestor_id, descendant_id")
+    List<HierarchyPath> findAllPaths();
+
+    interface HierarchyNode {
+        Long getId();
+
+        String getName();
+
+        Long getParentId();
+
+        Double getAreaSize();
+
+        int getDepth();
+    }
+
+    interface HierarchyPath {
+        Long getAncestorId();
+
+        Long getDescendantId();
+
+        int getDepth();
+    }
 }
@@ -0,0 +1,43 @@
+package com.example.farmmanagement.repository;
+
+import com.example.farmmanagement.model.HarvestRecord;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface HarvestRecordRepository extends JpaRepository<HarvestRecord, Long> {
+
+    List<HarvestRecord> findByCropIdOrderByHarvestDateDescIdDesc(Long cropId);
+
+    // Totals per (crop, field, season) straight from the records, for rebuilding and verifying the rollups
+    @Query("SELECT h.crop.id AS cropId, h.fieldId AS fieldId, YEAR(h.harvestDate) AS season, "
+            + "SUM(h.quantity) AS quantity, SUM(h.loss) AS loss, COUNT(h) AS recordCount FROM HarvestRecord h "
+            + "GROUP BY h.crop.id, h.fieldId, YEAR(h.harvestDate)")
+    List<HarvestTotal> sumByCropFieldAndSeason();
+
+    // The stored values of a record, read past the persistence context so an update can reverse them
+    @QueryHints(@QueryHint(name = "org.hibernate.flushMode", value = "COMMIT"))
+    @Query("SELECT h.crop.id AS cropId, h.fieldId AS fieldId, YEAR(h.harvestDate) AS season, "
+            + "h.quantity AS quantity, h.loss AS loss, 1L AS recordCount FROM HarvestRecord h WHERE h.id = ?1")
+    Optional<HarvestTotal> findStoredEntry(Long id);
+
+    interface HarvestTotal {
+        Long getCropId();
+
+        Long getFieldId();
+
+        Integer getSeason();
+
+        Double getQuantity();
+
+        Double getLoss();
+
+        Long getRecordCount();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.farmmanagement.repository;
+
+import com.example.farmmanagement.model.HarvestRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface HarvestRollupRepository extends JpaRepository<HarvestRollup, Long> {
+
+    @Modifying
+    @Query("UPDATE HarvestRollup r SET r.quantity = r.quantity + ?4, r.loss = r.loss + ?5, "
+            + "r.recordCount = r.recordCount + ?6 WHERE r.cropId = ?1 AND r.fieldId = ?2 AND r.season = ?3")
+    int applyDelta(Long cropId, Long fieldId, Integer season, Double quantity, Double loss, Long count);
+
+    // Creates the bucket or adds to it in one statement, so writers racing to create the same bucket both count
+    @Modifying
+    @Query(value = "INSERT INTO harvest_rollups (crop_id, field_id, season, quantity, loss, record_count) "
+            + "VALUES (?1, ?2, ?3, ?4, ?5, ?6) ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity), "
+            + "loss = loss + VALUES(loss), record_count = record_count + VALUES(record_count)", nativeQuery = true)
+    int upsert(Long cropId, Long fieldId, Integer season, Double quantity, Double loss, Long count);
+
+    // One bucket, e.g. (cropId, ALL_FIELDS, ALL_SEASONS) or (ALL_CROPS, ALL_FIELDS, season)
+    @Query("SELECT r.cropId AS cropId, r.fieldId AS fieldId, r.season AS season, r.quantity AS quantity, "
+            + "r.loss AS loss, r.recordCount AS recordCount FROM HarvestRollup r "
+            + "WHERE r.cropId = ?1 AND r.fieldId = ?2 AND r.season = ?3")
+    Optional<HarvestRecordRepository.HarvestTotal> findBucket(Long cropId, Long fieldId, Integer season);
+
+    // Per-field buckets of one season (or ALL_SEASONS), one row per field
+    @Query("SELECT r.cropId AS cropId, r.fieldId AS fieldId, r.season AS season, r.quantity AS quantity, "
+            + "r.loss AS loss, r.recordCount AS recordCount FROM HarvestRollup r "
+            + "WHERE r.cropId = 0 AND r.fieldId > 0 AND r.season = ?1")
+    List<HarvestRecordRepository.HarvestTotal> findFieldBuckets(Integer season);
+
+    // Scalar projection so buckets adjusted by applyDelta are read from the database, not from stale entities
+    @Query("SELECT r.cropId AS cropId, r.fieldId AS fieldId, r.season AS season, r.quantity AS quantity, "
+            + "r.loss AS loss, r.recordCount AS recordCount FROM HarvestRollup r")
+    List<HarvestRecordRepository.HarvestTotal> findAllBuckets();
+
+    @Modifying
+    @Query("DELETE FROM HarvestRollup r")
+    int deleteAllRollups();
+}
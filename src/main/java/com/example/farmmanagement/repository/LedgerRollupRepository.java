@@ -0,0 +1,86 @@
+package com.example.farmmanagement.repository;
+
+import com.example.farmmanagement.model.CropTransaction;
+import com.example.farmmanagement.model.LedgerRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LedgerRollupRepository extends JpaRepository<LedgerRollup, Long> {
+
+    // Creates the bucket or adds to it in one statement, so writers racing to create the same bucket both count
+    String UPSERT_SQL = "INSERT INTO ledger_rollups "
+            + "(crop_id, transaction_type, period_year, period_month, total, entry_count) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE total = total + VALUES(total), entry_count = entry_count + VALUES(entry_count)";
+
+    @Modifying
+    @Query("UPDATE LedgerRollup r SET r.total = r.total + ?5, r.entryCount = r.entryCount + ?6 "
+            + "WHERE r.cropId = ?1 AND r.transactionType = ?2 AND r.periodYear = ?3 AND r.periodMonth = ?4")
+    int applyDelta(Long cropId, CropTransaction.TransactionType type, Integer year, Integer month, Double amount,
+            Long count);
+
+    @Modifying
+    @Query(value = UPSERT_SQL, nativeQuery = true)
+    int upsert(Long cropId, String type, Integer year, Integer month, Double amount, Long count);
+
+    // All-time totals for one crop, or for the whole farm with cropId = ALL_CROPS (at most two rows)
+    @Query("SELECT r.transactionType AS transactionType, r.total AS total FROM LedgerRollup r "
+            + "WHERE r.cropId = ?1 AND r.periodYear = 0 AND r.periodMonth = 0")
+    List<CropTransactionRepository.TypeTotal> findAllTimeTotals(Long cropId);
+
+    // Monthly totals over a range of periods (year * 100 + month), summed across crops
+    @Query("SELECT r.periodYear AS periodYear, r.periodMonth AS periodMonth, r.transactionType AS transactionType, "
+            + "SUM(r.total) AS total FROM LedgerRollup r WHERE r.cropId <> 0 AND r.periodMonth > 0 "
+            + "AND r.periodYear * 100 + r.periodMonth BETWEEN ?1 AND ?2 "
+            + "GROUP BY r.periodYear, r.periodMonth, r.transactionType")
+    List<CropTransactionRepository.PeriodTotal> sumMonthly(int fromPeriod, int toPeriod);
+
+    @Query("SELECT r.periodYear AS periodYear, r.periodMonth AS periodMonth, r.transactionType AS transactionType, "
+            + "SUM(r.total) AS total FROM LedgerRollup r WHERE r.cropId = ?1 AND r.periodMonth > 0 "
+            + "AND r.periodYear * 100 + r.periodMonth BETWEEN ?2 AND ?3 "
+            + "GROUP BY r.periodYear, r.periodMonth, r.transactionType")
+    List<CropTransactionRepository.PeriodTotal> sumMonthlyForCrop(Long cropId, int fromPeriod, int toPeriod);
+
+    @Query("SELECT r.periodYear AS periodYear, r.periodMonth AS periodMonth, r.transactionType AS transactionType, "
+            + "SUM(r.total) AS total FROM LedgerRollup r "
+            + "WHERE r.cropId IN (SELECT c.id FROM Crop c WHERE c.field.id = ?1) AND r.periodMonth > 0 "
+            + "AND r.periodYear * 100 + r.periodMonth BETWEEN ?2 AND ?3 "
+            + "GROUP BY r.periodYear, r.periodMonth, r.transactionType")
+    List<CropTransactionRepository.PeriodTotal> sumMonthlyForField(Long fieldId, int fromPeriod, int toPeriod);
+
+    // Yearly totals per crop for the crops of one field (null: crops without a field); undated rows keep year -1
+    @Query("SELECT r.cropId AS cropId, r.periodYear AS periodYear, r.transactionType AS transactionType, "
+            + "SUM(r.total) AS total FROM LedgerRollup r WHERE r.periodMonth <> 0 AND r.cropId IN "
+            + "(SELECT c.id FROM Crop c WHERE (?1 IS NULL AND c.field IS NULL) OR c.field.id = ?1) "
+            + "GROUP BY r.cropId, r.periodYear, r.transactionType")
+    List<CropYearTotal> sumYearlyByCropForField(Long fieldId);
+
+    // Scalar projection so buckets adjusted by applyDelta are read from the database, not from stale entities
+    @Query("SELECT r.cropId AS cropId, r.transactionType AS transactionType, r.periodYear AS periodYear, "
+            + "r.periodMonth AS periodMonth, r.total AS total, r.entryCount AS entryCount FROM LedgerRollup r")
+    List<CropTransactionRepository.MonthlyTotal> findAllBuckets();
+
+    @Query("SELECT r.cropId AS cropId, r.transactionType AS transactionType, r.periodYear AS periodYear, "
+            + "r.periodMonth AS periodMonth, r.total AS total, r.entryCount AS entryCount FROM LedgerRollup r "
+            + "WHERE r.cropId IN ?1")
+    List<CropTransactionRepository.MonthlyTotal> findBuckets(Collection<Long> cropIds);
+
+    @Modifying
+    @Query("DELETE FROM LedgerRollup r")
+    int deleteAllRollups();
+
+    interface CropYearTotal {
+        Long getCropId();
+
+        Integer getPeriodYear();
+
+        CropTransaction.TransactionType getTransactionType();
+
+        Double getTotal();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.farmmanagement.repository;
+
+import com.example.farmmanagement.model.Profitability;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ProfitabilityRepository extends JpaRepository<Profitability, Long> {
+
+    // One season's leaderboard, ordered and paged by the caller on idx_profitability_rank
+    Page<Profitability> findBySeasonAndScope(Integer season, Profitability.Scope scope, Pageable pageable);
+
+    @Query("SELECT MAX(p.refreshedAt) FROM Profitability p")
+    LocalDateTime findLastRefresh();
+
+    // Rows of fields that have since been deleted
+    @Modifying
+    @Query("DELETE FROM Profitability p WHERE p.fieldId IS NOT NULL AND p.fieldId NOT IN (SELECT f.id FROM Field f)")
+    int deleteOrphans();
+}
@@ -16,4 +16,15 @@ public interface SoilInputRepository extends JpaRepository<SoilInput, Long> {
 
     @Query("SELECT SUM(si.cost) FROM SoilInput si WHERE si.field.id = ?1")
     Double calculateTotalCostByField(Long fieldId);
+
+    // Input cost per application year (null for undated inputs)
+    @Query("SELECT YEAR(si.applicationDate) AS season, SUM(si.cost) AS cost FROM SoilInput si "
+            + "WHERE si.field.id = ?1 GROUP BY YEAR(si.applicationDate)")
+    List<SeasonCost> sumCostBySeasonForField(Long fieldId);
+
+    interface SeasonCost {
+        Integer getSeason();
+
+        Double getCost();
+    }
 }
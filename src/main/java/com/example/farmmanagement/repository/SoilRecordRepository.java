@@ -2,8 +2,10 @@ package com.example.farmmanagement.repository;
 
 import com.example.farmmanagement.model.SoilRecord;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
@@ -12,4 +14,7 @@ public interface SoilRecordRepository extends JpaRepository<SoilRecord, Long> {
     List<SoilRecord> findByFieldIdOrderByTestDateDesc(Long fieldId);
 
     List<SoilRecord> findByFieldId(Long fieldId);
+
+    @Query("SELECT AVG(s.pH) FROM SoilRecord s WHERE s.testDate >= ?1")
+    Double averagePhSince(LocalDate date);
 }
@@ -2,8 +2,10 @@ package com.example.farmmanagement.repository;
 
 import com.example.farmmanagement.model.WaterRecord;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
@@ -12,4 +14,7 @@ public interface WaterRecordRepository extends JpaRepository<WaterRecord, Long>
     List<WaterRecord> findByFieldIdOrderByTestDateDesc(Long fieldId);
 
     List<WaterRecord> findByFieldId(Long fieldId);
+
+    @Query("SELECT SUM(w.quantity) FROM WaterRecord w WHERE w.testDate >= ?1")
+    Double sumQuantitySince(LocalDate date);
 }
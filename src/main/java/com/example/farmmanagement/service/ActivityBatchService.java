@@ -0,0 +1,180 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.ActivityBatchItem;
+import com.example.farmmanagement.dto.ActivityBatchResult;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.repository.CropRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Saves many crop activities in one request, as field crews log them after a
+ * round. Every crop id is checked with a single IN lookup, and the valid
+ * items are written with one JDBC batch in one transaction; invalid items are
+ * reported back by position and do not stop the others.
+ */
+@Service
+public class ActivityBatchService {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final int MAX_TEXT_LENGTH = 255;
+
+    static final String INSERT_SQL = "INSERT INTO crop_activities "
+            + "(crop_id, activity_type, details, activity_date) VALUES (?, ?, ?, ?)";
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityBatchService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactionOperations;
+    private final CropRepository cropRepository;
+    private final ActivityCalendar activityCalendar;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final Counter savedItems;
+    private final Counter rejectedItems;
+
+    @Autowired
+    public ActivityBatchService(JdbcTemplate jdbcTemplate, TransactionOperations transactionOperations,
+            CropRepository cropRepository, ActivityCalendar activityCalendar,
+            ApplicationEventPublisher eventPublisher, Clock clock, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionOperations = transactionOperations;
+        this.cropRepository = cropRepository;
+        this.activityCalendar = activityCalendar;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.savedItems = meterRegistry.counter("activities.batch.items", "result", "saved");
+        this.rejectedItems = meterRegistry.counter("activities.batch.items", "result", "rejected");
+    }
+
+    /**
+     * Saves the valid items, all or none of them: if the insert fails (say a
+     * crop was deleted meanwhile) every one of them is reported as failed.
+     * Throws IllegalArgumentException for more than MAX_BATCH_SIZE items.
+     */
+    public ActivityBatchResult saveAll(List<ActivityBatchItem> items) {
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " activities per batch");
+        }
+        Set<Long> cropIds = new HashSet<>();
+        for (ActivityBatchItem item : items) {
+            if (item != null && item.cropId() != null) {
+                cropIds.add(item.cropId());
+            }
+        }
+        Set<Long> knownCrops = cropIds.isEmpty() ? Set.of() : new HashSet<>(cropRepository.findExistingIds(cropIds));
+
+        LocalDate today = LocalDate.now(clock);
+        String[] errors = new String[items.size()];
+        List<Integer> valid = new ArrayList<>(items.size());
+        List<Object[]> rows = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            errors[i] = validate(items.get(i), knownCrops);
+            if (errors[i] == null) {
+                ActivityBatchItem item = items.get(i);
+                LocalDate date = item.activityDate() != null ? item.activityDate() : today;
+                valid.add(i);
+                rows.add(new Object[] { item.cropId(), item.activityType().trim(), item.details(), date });
+            }
+        }
+
+        Long[] ids = new Long[items.size()];
+        if (!rows.isEmpty()) {
+            try {
+                List<Long> keys = transactionOperations.execute(status -> insert(rows));
+                for (int i = 0; i < valid.size(); i++) {
+                    ids[valid.get(i)] = keys != null && i < keys.size() ? keys.get(i) : null;
+                }
+                activityCalendar.refresh(rows.stream().map(row -> (LocalDate) row[3]).distinct()
+                        .toArray(LocalDate[]::new));
+                eventPublisher.publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.ACTIVITY));
+            } catch (DataAccessException e) {
+                logger.warn("Activity batch of {} items failed: {}", rows.size(), e.getMessage());
+                String reason = "Batch failed: " + e.getMostSpecificCause().getMessage();
+                valid.forEach(i -> errors[i] = reason);
+                valid.clear();
+            }
+        }
+
+        List<ActivityBatchResult.Item> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            results.add(new ActivityBatchResult.Item(i, errors[i] == null ? ids[i] : null, errors[i]));
+        }
+        int saved = valid.size();
+        savedItems.increment(saved);
+        rejectedItems.increment(items.size() - saved);
+        return new ActivityBatchResult(saved, items.size() - saved, results);
+    }
+
+    private static String validate(ActivityBatchItem item, Set<Long> knownCrops) {
+        if (item == null) {
+            return "Empty item";
+        }
+        if (item.cropId() == null) {
+            return "Missing cropId";
+        }
+        if (item.activityType() == null || item.activityType().isBlank()) {
+            return "Missing activityType";
+        }
+        if (item.activityType().trim().length() > MAX_TEXT_LENGTH
+                || (item.details() != null && item.details().length() > MAX_TEXT_LENGTH)) {
+            return "activityType and details are limited to " + MAX_TEXT_LENGTH + " characters";
+        }
+        if (!knownCrops.contains(item.cropId())) {
+            return "Unknown crop " + item.cropId();
+        }
+        return null;
+    }
+
+    // One JDBC batch; the generated ids come back in row order
+    private List<Long> insert(List<Object[]> rows) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL,
+                Statement.RETURN_GENERATED_KEYS), new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        Object[] row = rows.get(i);
+                        statement.setLong(1, (Long) row[0]);
+                        statement.setString(2, (String) row[1]);
+                        statement.setString(3, (String) row[2]);
+                        statement.setDate(4, Date.valueOf((LocalDate) row[3]));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                }, keys);
+        return keys.getKeyList().stream().map(ActivityBatchService::id).toList();
+    }
+
+    // Drivers name the key column differently (ID, insert_id, GENERATED_KEY); there is only one
+    private static Long id(Map<String, Object> key) {
+        return key.values().stream().filter(Objects::nonNull).findFirst()
+                .map(value -> ((Number) value).longValue()).orElse(null);
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.CalendarEntry;
+import com.example.farmmanagement.dto.CalendarView;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.model.ActivitySchedule;
+import com.example.farmmanagement.repository.ActivityScheduleRepository;
+import com.example.farmmanagement.repository.CropActivityRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Crop activities by date for the calendar views. Activities are kept in
+ * memory in month buckets, each sorted by date with the offset of every day,
+ * so a week or month view is a slice rather than a query. A bucket is loaded
+ * on first use (one range scan of idx_crop_activities_date_crop for all the
+ * missing months of a view) and dropped when an activity in it is saved.
+ * Ranges wider than the cache are read straight from the index.
+ * Recurring schedules are held once each and expanded only over the dates
+ * asked for, merged in date order with the one-off activities.
+ */
+@Service
+public class ActivityCalendar {
+
+    static final int MAX_CACHED_MONTHS = 24;
+
+    private final CropActivityRepository activityRepository;
+    private final ActivityScheduleRepository scheduleRepository;
+    private final Clock clock;
+    // Least recently used month is dropped first
+    private final Map<YearMonth, Month> months = Collections.synchronizedMap(
+            new LinkedHashMap<>(MAX_CACHED_MONTHS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<YearMonth, Month> eldest) {
+                    return size() > MAX_CACHED_MONTHS;
+                }
+            });
+    private final AtomicReference<List<ActivitySchedule>> schedules = new AtomicReference<>();
+    // Bumped on every refresh so a load that raced with a write is not published
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public ActivityCalendar(CropActivityRepository activityRepository,
+            ActivityScheduleRepository scheduleRepository, Clock clock, MeterRegistry meterRegistry) {
+        this.activityRepository = activityRepository;
+        this.scheduleRepository = scheduleRepository;
+        this.clock = clock;
+        this.hits = meterRegistry.counter("activities.calendar.requests", "result", "hit");
+        this.misses = meterRegistry.counter("activities.calendar.requests", "result", "miss");
+    }
+
+    /**
+     * Activities dated from..to inclusive, by date, one-off activities (by id)
+     * before schedule occurrences on the same day. fieldId, cropId and type
+     * (case-insensitive) narrow the result when given.
+     */
+    public List<CalendarEntry> between(LocalDate from, LocalDate to, Long fieldId, Long cropId, String type) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("The range needs a start on or before its end");
+        }
+        String typeKey = type != null && !type.isBlank() ? type.trim().toLowerCase(Locale.ROOT) : null;
+        YearMonth first = YearMonth.from(from);
+        YearMonth last = YearMonth.from(to);
+        List<CalendarEntry> oneOffs;
+        if (ChronoUnit.MONTHS.between(first, last) >= MAX_CACHED_MONTHS) {
+            oneOffs = activityRepository.findCalendarEntries(from, to, fieldId, cropId, typeKey);
+        } else {
+            Map<YearMonth, Month> buckets = load(first, last);
+            oneOffs = new ArrayList<>();
+            for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+                int fromDay = month.equals(first) ? from.getDayOfMonth() : 1;
+                int toDay = month.equals(last) ? to.getDayOfMonth() : month.lengthOfMonth();
+                buckets.get(month).collect(fromDay, toDay, fieldId, cropId, typeKey, oneOffs);
+            }
+        }
+        return withOccurrences(oneOffs, from, to, fieldId, cropId, typeKey);
+    }
+
+    // Monday to Sunday around day (null for this week)
+    public CalendarView week(LocalDate day, Long fieldId, Long cropId, String type) {
+        LocalDate monday = (day != null ? day : LocalDate.now(clock)).with(DayOfWeek.MONDAY);
+        return view(monday, monday.plusDays(6), fieldId, cropId, type);
+    }
+
+    // null for this month
+    public CalendarView month(YearMonth month, Long fieldId, Long cropId, String type) {
+        month = month != null ? month : YearMonth.now(clock);
+        return view(month.atDay(1), month.atEndOfMonth(), fieldId, cropId, type);
+    }
+
+    /**
+     * Drops the months of the given dates (null ones are skipped), and again
+     * once the surrounding transaction commits so a reader that loaded the
+     * month in between does not keep the uncommitted state.
+     */
+    public void refresh(LocalDate... dates) {
+        nowAndAfterCommit(() -> evict(dates));
+    }
+
+    // Reloads the schedules on next use, likewise once more after commit
+    public void refreshSchedules() {
+        nowAndAfterCommit(() -> {
+            generation.incrementAndGet();
+            schedules.set(null);
+        });
+    }
+
+    // Entries carry crop and field labels, so any crop or field change drops every month
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFarmDataChanged(FarmDataChangedEvent event) {
+        if (event.kind() == FarmDataChangedEvent.Kind.CROP || event.kind() == FarmDataChangedEvent.Kind.FIELD) {
+            generation.incrementAndGet();
+            months.clear();
+            schedules.set(null);
+        }
+    }
+
+    private void nowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private void evict(LocalDate... dates) {
+        generation.incrementAndGet();
+        for (LocalDate date : dates) {
+            if (date != null) {
+                months.remove(YearMonth.from(date));
+            }
+        }
+    }
+
+    // Streams each matching schedule's occurrences in the range through a k-way merge with the one-offs
+    private List<CalendarEntry> withOccurrences(List<CalendarEntry> oneOffs, LocalDate from, LocalDate to,
+            Long fieldId, Long cropId, String typeKey) {
+        List<Iterator<CalendarEntry>> sources = new ArrayList<>();
+        sources.add(oneOffs.iterator());
+        for (ActivitySchedule schedule : schedules()) {
+            boolean inRange = !schedule.getStartDate().isAfter(to)
+                    && (schedule.getEndDate() == null || !schedule.getEndDate().isBefore(from));
+            if (inRange && CalendarEntry.occurrence(schedule, from).matches(fieldId, cropId, typeKey)) {
+                sources.add(Recurrences.map(Recurrences.dates(schedule, from, to),
+                        date -> CalendarEntry.occurrence(schedule, date)));
+            }
+        }
+        if (sources.size() == 1) {
+            return oneOffs;
+        }
+        List<CalendarEntry> entries = new ArrayList<>();
+        Recurrences.merge(sources, Comparator.comparing(CalendarEntry::date)).forEachRemaining(entries::add);
+        return entries;
+    }
+
+    private List<ActivitySchedule> schedules() {
+        List<ActivitySchedule> cached = schedules.get();
+        if (cached != null) {
+            return cached;
+        }
+        long startedAt = generation.get();
+        List<ActivitySchedule> loaded = List.copyOf(scheduleRepository.findAllWithCrop());
+        if (generation.get() == startedAt) {
+            schedules.set(loaded);
+        }
+        return loaded;
+    }
+
+    private CalendarView view(LocalDate from, LocalDate to, Long fieldId, Long cropId, String type) {
+        List<CalendarEntry> entries = between(from, to, fieldId, cropId, type);
+        List<CalendarView.Day> days = new ArrayList<>();
+        int next = 0;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            int start = next;
+            while (next < entries.size() && entries.get(next).date().equals(date)) {
+                next++;
+            }
+            days.add(new CalendarView.Day(date, List.copyOf(entries.subList(start, next))));
+        }
+        return new CalendarView(from, to, entries.size(), days);
+    }
+
+    // The buckets of first..last, reading every missing month in one query
+    private Map<YearMonth, Month> load(YearMonth first, YearMonth last) {
+        Map<YearMonth, Month> buckets = new LinkedHashMap<>();
+        YearMonth missingFrom = null;
+        YearMonth missingTo = null;
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            Month bucket = months.get(month);
+            if (bucket != null) {
+                hits.increment();
+                buckets.put(month, bucket);
+            } else {
+                misses.increment();
+                missingFrom = missingFrom == null ? month : missingFrom;
+                missingTo = month;
+            }
+        }
+        if (missingFrom == null) {
+            return buckets;
+        }
+
+        long startedAt = generation.get();
+        List<CalendarEntry> rows = activityRepository.findCalendarEntries(missingFrom.atDay(1),
+                missingTo.atEndOfMonth(), null, null, null);
+        int next = 0;
+        for (YearMonth month = missingFrom; !month.isAfter(missingTo); month = month.plusMonths(1)) {
+            int start = next;
+            while (next < rows.size() && YearMonth.from(rows.get(next).date()).equals(month)) {
+                next++;
+            }
+            if (buckets.containsKey(month)) {
+                continue; // cached between two missing months: keep it, skip its rows
+            }
+            Month bucket = Month.of(month, rows.subList(start, next));
+            buckets.put(month, bucket);
+            if (generation.get() == startedAt) {
+                months.put(month, bucket);
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * One month of activities sorted by date; the entries of day d are
+     * entries[dayStarts[d - 1]] up to entries[dayStarts[d]].
+     */
+    private record Month(CalendarEntry[] entries, int[] dayStarts) {
+
+        static Month of(YearMonth month, List<CalendarEntry> sorted) {
+            CalendarEntry[] entries = sorted.toArray(new CalendarEntry[0]);
+            int[] dayStarts = new int[month.lengthOfMonth() + 1];
+            int next = 0;
+            for (int day = 1; day <= month.lengthOfMonth(); day++) {
+                dayStarts[day - 1] = next;
+                while (next < entries.length && entries[next].date().getDayOfMonth() == day) {
+                    next++;
+                }
+            }
+            dayStarts[month.lengthOfMonth()] = next;
+            return new Month(entries, dayStarts);
+        }
+
+        void collect(int fromDay, int toDay, Long fieldId, Long cropId, String typeKey, List<CalendarEntry> into) {
+            boolean unfiltered = fieldId == null && cropId == null && typeKey == null;
+            for (int i = dayStarts[fromDay - 1]; i < dayStarts[toDay]; i++) {
+                if (unfiltered || entries[i].matches(fieldId, cropId, typeKey)) {
+                    into.add(entries[i]);
+                }
+            }
+        }
+    }
+}
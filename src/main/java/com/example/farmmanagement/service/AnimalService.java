@@ -1,8 +1,10 @@
 package com.example.farmmanagement.service;
 
+import com.example.farmmanagement.event.FarmDataChangedEvent;
 import com.example.farmmanagement.model.Animal;
 import com.example.farmmanagement.repository.AnimalRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -12,10 +14,12 @@ import java.util.Optional;
 public class AnimalService {
 
     private final AnimalRepository animalRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public AnimalService(AnimalRepository animalRepository) {
+    public AnimalService(AnimalRepository animalRepository, ApplicationEventPublisher eventPublisher) {
         this.animalRepository = animalRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<Animal> getAllAnimals() {
@@ -27,11 +31,14 @@ public class AnimalService {
     }
 
     public Animal saveAnimal(Animal animal) {
-        return animalRepository.save(animal);
+        Animal saved = animalRepository.save(animal);
+        eventPublisher.publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.ANIMAL));
+        return saved;
     }
 
     public void deleteAnimal(Long id) {
         animalRepository.deleteById(id);
+        eventPublisher.publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.ANIMAL));
     }
 
     public long countAnimals() {
@@ -1,36 +1,131 @@
 package com.example.farmmanagement.service;
 
+import com.example.farmmanagement.config.DashboardProperties;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.model.ActivitySchedule;
 import com.example.farmmanagement.model.CropActivity;
+import com.example.farmmanagement.repository.ActivityScheduleRepository;
 import com.example.farmmanagement.repository.CropActivityRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 
 @Service
 public class CropActivityService {
 
     private final CropActivityRepository activityRepository;
+    private final ActivityScheduleRepository scheduleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ActivityCalendar activityCalendar;
+    private final DashboardProperties dashboardProperties;
+    private final Clock clock;
 
     @Autowired
-    public CropActivityService(CropActivityRepository activityRepository) {
+    public CropActivityService(CropActivityRepository activityRepository,
+            ActivityScheduleRepository scheduleRepository, ApplicationEventPublisher eventPublisher,
+            ActivityCalendar activityCalendar, DashboardProperties dashboardProperties, Clock clock) {
         this.activityRepository = activityRepository;
+        this.scheduleRepository = scheduleRepository;
+        this.eventPublisher = eventPublisher;
+        this.activityCalendar = activityCalendar;
+        this.dashboardProperties = dashboardProperties;
+        this.clock = clock;
     }
 
     public CropActivity saveActivity(CropActivity activity) {
-        return activityRepository.save(activity);
+        // A rescheduled activity leaves its old month as well as joining the new one
+        LocalDate previousDate = activity.getId() != null
+                ? activityRepository.findDateById(activity.getId()).orElse(null)
+                : null;
+        CropActivity saved = activityRepository.save(activity);
+        activityCalendar.refresh(previousDate, saved.getActivityDate());
+        eventPublisher.publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.ACTIVITY));
+        return saved;
     }
 
     public List<CropActivity> getActivitiesByCropId(Long cropId) {
         return activityRepository.findByCropId(cropId);
     }
 
+    // As many as farm.dashboard.upcoming-limit; fieldId and cropId are optional
     public List<CropActivity> getUpcomingTasks() {
-        // Return activities with date in the future or today
-        return activityRepository.findAll().stream()
-                .filter(a -> a.getActivityDate() != null && !a.getActivityDate().isBefore(java.time.LocalDate.now()))
-                .sorted(java.util.Comparator.comparing(CropActivity::getActivityDate))
-                .limit(5)
-                .collect(java.util.stream.Collectors.toList());
+        return getUpcomingTasks(null, null);
+    }
+
+    public List<CropActivity> getUpcomingTasks(Long fieldId, Long cropId) {
+        return getUpcomingTasks(dashboardProperties.getUpcomingLimit(), fieldId, cropId);
+    }
+
+    // Stored once; the calendar and upcoming tasks expand its occurrences as they read
+    public ActivitySchedule saveSchedule(ActivitySchedule schedule) {
+        if (schedule.getStartDate() == null || schedule.getFrequency() == null) {
+            throw new IllegalArgumentException("A schedule needs a start date and a frequency");
+        }
+        if (schedule.getRepeatInterval() < 1) {
+            throw new IllegalArgumentException("A schedule must repeat at least every 1 " + schedule.getFrequency());
+        }
+        if (schedule.getEndDate() != null && schedule.getEndDate().isBefore(schedule.getStartDate())) {
+            throw new IllegalArgumentException("A schedule cannot end before it starts");
+        }
+        ActivitySchedule saved = scheduleRepository.save(schedule);
+        activityCalendar.refreshSchedules();
+        eventPublisher.publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.ACTIVITY));
+        return saved;
+    }
+
+    public void deleteSchedule(Long id) {
+        scheduleRepository.deleteById(id);
+        activityCalendar.refreshSchedules();
+        eventPublisher.publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.ACTIVITY));
+    }
+
+    public List<ActivitySchedule> getSchedulesByCropId(Long cropId) {
+        return scheduleRepository.findByCropIdOrderByStartDateAscIdAsc(cropId);
+    }
+
+    /**
+     * The first `limit` activities dated today or later, soonest first; scoped
+     * to a field or a crop when given. Occurrences of recurring schedules are
+     * merged in as unsaved CropActivity instances (no id), expanded only as
+     * far as the limit needs.
+     */
+    public List<CropActivity> getUpcomingTasks(int limit, Long fieldId, Long cropId) {
+        LocalDate today = LocalDate.now(clock);
+        List<CropActivity> oneOffs;
+        if (cropId != null) {
+            oneOffs = activityRepository.findTasksFromForCrop(cropId, today, Limit.of(limit));
+        } else if (fieldId != null) {
+            oneOffs = activityRepository.findTasksFromForField(fieldId, today, Limit.of(limit));
+        } else {
+            oneOffs = activityRepository.findTasksFrom(today, Limit.of(limit));
+        }
+        List<ActivitySchedule> schedules = scheduleRepository.findRunningFrom(today, cropId != null ? null : fieldId,
+                cropId);
+        if (schedules.isEmpty()) {
+            return oneOffs;
+        }
+
+        List<Iterator<CropActivity>> sources = new ArrayList<>();
+        sources.add(oneOffs.iterator());
+        for (ActivitySchedule schedule : schedules) {
+            sources.add(Recurrences.map(Recurrences.dates(schedule, today, null),
+                    date -> new CropActivity(null, schedule.getCrop(), schedule.getActivityType(),
+                            schedule.getDetails(), date)));
+        }
+        Iterator<CropActivity> merged = Recurrences.merge(sources,
+                Comparator.comparing(CropActivity::getActivityDate));
+        List<CropActivity> tasks = new ArrayList<>(limit);
+        while (tasks.size() < limit && merged.hasNext()) {
+            tasks.add(merged.next());
+        }
+        return tasks;
     }
 }
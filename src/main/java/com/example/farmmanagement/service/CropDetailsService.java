@@ -0,0 +1,61 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.CropDetails;
+import com.example.farmmanagement.dto.HarvestTotals;
+import com.example.farmmanagement.dto.LedgerTotals;
+import com.example.farmmanagement.model.ActivitySchedule;
+import com.example.farmmanagement.model.Crop;
+import com.example.farmmanagement.model.CropActivity;
+import com.example.farmmanagement.model.CropTransaction;
+import com.example.farmmanagement.model.HarvestRecord;
+import com.example.farmmanagement.repository.ActivityScheduleRepository;
+import com.example.farmmanagement.repository.CropActivityRepository;
+import com.example.farmmanagement.repository.CropRepository;
+import com.example.farmmanagement.repository.CropTransactionRepository;
+import com.example.farmmanagement.repository.HarvestRecordRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read model for the crop details page: the crop with its field, its
+ * transactions, activities, recurring schedules and harvests in five statements, all in one
+ * read-only transaction so the crop each row points at is the one already loaded.
+ */
+@Service
+public class CropDetailsService {
+
+    private final CropRepository cropRepository;
+    private final CropTransactionRepository transactionRepository;
+    private final CropActivityRepository activityRepository;
+    private final ActivityScheduleRepository scheduleRepository;
+    private final HarvestRecordRepository harvestRepository;
+
+    @Autowired
+    public CropDetailsService(CropRepository cropRepository, CropTransactionRepository transactionRepository,
+            CropActivityRepository activityRepository, ActivityScheduleRepository scheduleRepository,
+            HarvestRecordRepository harvestRepository) {
+        this.cropRepository = cropRepository;
+        this.transactionRepository = transactionRepository;
+        this.activityRepository = activityRepository;
+        this.scheduleRepository = scheduleRepository;
+        this.harvestRepository = harvestRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<CropDetails> getCropDetails(Long cropId) {
+        Optional<Crop> crop = cropRepository.findWithFieldById(cropId);
+        if (crop.isEmpty()) {
+            return Optional.empty();
+        }
+        List<CropTransaction> transactions = transactionRepository.findByCropIdOrderByTransactionDateDescIdDesc(cropId);
+        List<CropActivity> activities = activityRepository.findByCropId(cropId);
+        List<ActivitySchedule> schedules = scheduleRepository.findByCropIdOrderByStartDateAscIdAsc(cropId);
+        List<HarvestRecord> harvests = harvestRepository.findByCropIdOrderByHarvestDateDescIdDesc(cropId);
+        return Optional.of(new CropDetails(crop.get(), transactions, LedgerTotals.ofTransactions(transactions),
+                activities, schedules, harvests, HarvestTotals.ofRecords(harvests)));
+    }
+}
@@ -1,37 +1,85 @@
 package com.example.farmmanagement.service;
 
+import com.example.farmmanagement.config.DashboardProperties;
+import com.example.farmmanagement.dto.CropPage;
+import com.example.farmmanagement.dto.CropGrowth;
+import com.example.farmmanagement.dto.CropRow;
+import com.example.farmmanagement.dto.GrowthSummary;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
 import com.example.farmmanagement.model.Crop;
 import com.example.farmmanagement.repository.CropRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class CropService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final CropRepository cropRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CropTypeHistogram cropTypeHistogram;
+    private final HarvestService harvestService;
+    private final GrowthStageEngine growthStageEngine;
+    private final DashboardProperties dashboardProperties;
+    private final Clock clock;
 
     @Autowired
-    public CropService(CropRepository cropRepository) {
+    public CropService(CropRepository cropRepository, ApplicationEventPublisher eventPublisher,
+            CropTypeHistogram cropTypeHistogram, HarvestService harvestService,
+            GrowthStageEngine growthStageEngine, DashboardProperties dashboardProperties, Clock clock) {
         this.cropRepository = cropRepository;
+        this.eventPublisher = eventPublisher;
+        this.cropTypeHistogram = cropTypeHistogram;
+        this.harvestService = harvestService;
+        this.growthStageEngine = growthStageEngine;
+        this.dashboardProperties = dashboardProperties;
+        this.clock = clock;
     }
 
     public List<Crop> getAllCrops() {
         return cropRepository.findAll();
     }
 
+    /**
+     * One page of the crop list, newest first. cursor is the nextCursor of the
+     * previous page (null for the first); type matches case-insensitively and
+     * the dates bound the planting date. One row past the page is read to tell
+     * whether another page follows.
+     */
+    public CropPage getCropPage(Long cursor, int size, String type, Long fieldId, java.time.LocalDate plantedFrom,
+            java.time.LocalDate plantedTo) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String typeFilter = type == null || type.isBlank() ? null : type.trim().toLowerCase(java.util.Locale.ROOT);
+        List<CropRow> rows = cropRepository.findRowsBefore(cursor != null ? cursor : Long.MAX_VALUE, typeFilter,
+                fieldId, plantedFrom, plantedTo, Limit.of(pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new CropPage(rows, null);
+        }
+        List<CropRow> page = rows.subList(0, pageSize);
+        return new CropPage(List.copyOf(page), page.get(pageSize - 1).id());
+    }
+
     public Optional<Crop> getCropById(Long id) {
         return cropRepository.findById(id);
     }
 
     public Crop saveCrop(Crop crop) {
-        return cropRepository.save(crop);
+        Crop saved = cropRepository.save(crop);
+        eventPublisher.publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.CROP));
+        return saved;
     }
 
     public void deleteCrop(Long id) {
         cropRepository.deleteById(id);
+        eventPublisher.publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.CROP));
     }
 
     public long countCrops() {
@@ -39,38 +87,68 @@ public class CropService {
     }
 
     public java.util.Map<String, Long> getCropTypeDistribution() {
-        return cropRepository.findAll().stream()
-                .collect(java.util.stream.Collectors.groupingBy(Crop::getType, java.util.stream.Collectors.counting()));
+        return getCropTypeDistribution(null, null);
+    }
+
+    // Crops without a type are counted as "Unspecified"; fieldId includes the field's subdivisions
+    public java.util.Map<String, Long> getCropTypeDistribution(Long fieldId, Integer season) {
+        return cropTypeHistogram.distribution(fieldId, season);
     }
 
+    // As many as farm.dashboard.upcoming-limit; fieldId is optional
     public List<Crop> getUpcomingHarvests() {
-        // Return crops with harvest date in the future, sorted by date
-        return cropRepository.findAll().stream()
-                .filter(c -> c.getHarvestDate() != null && c.getHarvestDate().isAfter(java.time.LocalDate.now()))
-                .sorted(java.util.Comparator.comparing(Crop::getHarvestDate))
-                .limit(5)
-                .collect(java.util.stream.Collectors.toList());
+        return getUpcomingHarvests(null);
+    }
+
+    public List<Crop> getUpcomingHarvests(Long fieldId) {
+        return getUpcomingHarvests(dashboardProperties.getUpcomingLimit(), fieldId);
     }
 
-    // Mock Data Methods for Dashboard
+    // The first `limit` crops with a harvest date after today, soonest first; fieldId is optional
+    public List<Crop> getUpcomingHarvests(int limit, Long fieldId) {
+        java.time.LocalDate today = java.time.LocalDate.now(clock);
+        if (fieldId != null) {
+            return cropRepository.findHarvestsAfterForField(fieldId, today, Limit.of(limit));
+        }
+        return cropRepository.findHarvestsAfter(today, Limit.of(limit));
+    }
+
+    // Tons collected this season (harvest year), read from the harvest rollups
     public String calculateTotalYield() {
-        return "450 tons"; // Mock
+        double collected = harvestService.getFarmTotals(java.time.LocalDate.now(clock).getYear()).collected();
+        return new java.text.DecimalFormat("#,##0.#").format(collected) + " tons";
     }
 
+    // Mean progress through the season of the crops in the ground today
     public String getGrowthStatus() {
-        return "85%"; // Mock
+        return Math.round(growthStageEngine.summary().averagePercent()) + "%";
+    }
+
+    public GrowthSummary getGrowthSummary() {
+        return growthStageEngine.summary();
+    }
+
+    public Optional<CropGrowth> getCropGrowth(Long id) {
+        return growthStageEngine.growthOf(id);
+    }
+
+    // This season's harvest in tons: Planted is everything taken off the fields, Collected plus Wasted
+    public java.util.Map<String, Double> getHarvestStatistics() {
+        return getHarvestStatistics(java.time.LocalDate.now(clock).getYear());
     }
 
-    public java.util.Map<String, Integer> getHarvestStatistics() {
-        java.util.Map<String, Integer> stats = new java.util.HashMap<>();
-        stats.put("Wasted", 30);
-        stats.put("Planted", 200);
-        stats.put("Collected", 170);
+    public java.util.Map<String, Double> getHarvestStatistics(Integer season) {
+        com.example.farmmanagement.dto.HarvestTotals totals = harvestService.getFarmTotals(season);
+        java.util.Map<String, Double> stats = new java.util.LinkedHashMap<>();
+        stats.put("Wasted", totals.lost());
+        stats.put("Planted", totals.harvested());
+        stats.put("Collected", totals.collected());
         return stats;
     }
 
-    public java.util.List<Integer> getCropGrowthData() {
-        return java.util.Arrays.asList(1, 2, 3, 3, 4, 4, 5); // Mock growth per day
+    // Mean progress of today's active crops on each of the last seven days, oldest first
+    public List<Double> getCropGrowthData() {
+        return growthStageEngine.summary().trend();
     }
 
     // Add other business logic methods here
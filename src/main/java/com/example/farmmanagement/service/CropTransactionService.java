@@ -1,55 +1,117 @@
 package com.example.farmmanagement.service;
 
+import com.example.farmmanagement.dto.LedgerTotals;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
 import com.example.farmmanagement.model.CropTransaction;
 import com.example.farmmanagement.repository.CropTransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class CropTransactionService {
 
     private final CropTransactionRepository transactionRepository;
+    private final LedgerRollupService ledgerRollupService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public CropTransactionService(CropTransactionRepository transactionRepository) {
+    public CropTransactionService(CropTransactionRepository transactionRepository,
+            LedgerRollupService ledgerRollupService, ApplicationEventPublisher eventPublisher) {
         this.transactionRepository = transactionRepository;
+        this.ledgerRollupService = ledgerRollupService;
+        this.eventPublisher = eventPublisher;
     }
 
+    // Rollups are adjusted in the same transaction as the ledger row itself
+    @Transactional
     public CropTransaction saveTransaction(CropTransaction transaction) {
-        return transactionRepository.save(transaction);
+        if (transaction.getId() != null) {
+            transactionRepository.findLedgerEntry(transaction.getId()).ifPresent(this::reverseRollup);
+        }
+        CropTransaction saved = transactionRepository.save(transaction);
+        ledgerRollupService.record(saved.getCrop() != null ? saved.getCrop().getId() : null,
+                saved.getTransactionType(), saved.getTransactionDate(), saved.getAmount());
+        eventPublisher.publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.TRANSACTION));
+        return saved;
+    }
+
+    @Transactional
+    public void deleteTransaction(Long id) {
+        transactionRepository.findLedgerEntry(id).ifPresent(entry -> {
+            reverseRollup(entry);
+            transactionRepository.deleteById(id);
+            eventPublisher.publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.TRANSACTION));
+        });
+    }
+
+    private void reverseRollup(CropTransactionRepository.LedgerEntry entry) {
+        ledgerRollupService.reverse(entry.getCropId(), entry.getTransactionType(), entry.getTransactionDate(),
+                entry.getAmount());
     }
 
     public List<CropTransaction> getTransactionsByCropId(Long cropId) {
         return transactionRepository.findByCropId(cropId);
     }
 
+    // ===== Ledger aggregates =====
+    // All-time totals are read from the maintained rollups
+    public LedgerTotals getGlobalTotals() {
+        return ledgerRollupService.getGlobalTotals();
+    }
+
+    public LedgerTotals getCropTotals(Long cropId) {
+        return ledgerRollupService.getCropTotals(cropId);
+    }
+
+    // Ad-hoc slices are summed in SQL over crop_transactions
+
+    public LedgerTotals getTotalsBetween(LocalDate from, LocalDate to) {
+        return totals(transactionRepository.sumAmountByTypeBetween(from, to));
+    }
+
+    public LedgerTotals getCropTotalsBetween(Long cropId, LocalDate from, LocalDate to) {
+        return totals(transactionRepository.sumAmountByTypeForCropBetween(cropId, from, to));
+    }
+
+    public Map<Long, LedgerTotals> getTotalsByCrop() {
+        Map<Long, LedgerTotals> totals = new HashMap<>();
+        for (CropTransactionRepository.CropTypeTotal row : transactionRepository.sumAmountByCropAndType()) {
+            totals.merge(row.getCropId(), LedgerTotals.of(row.getTransactionType(), row.getTotal()),
+                    LedgerTotals::plus);
+        }
+        return totals;
+    }
+
+    // Folds grouped (type, total) rows, from crop_transactions or the rollups, into income and expense
+    static LedgerTotals totals(Collection<? extends CropTransactionRepository.TypeTotal> rows) {
+        LedgerTotals totals = LedgerTotals.ZERO;
+        for (CropTransactionRepository.TypeTotal row : rows) {
+            totals = totals.plus(LedgerTotals.of(row.getTransactionType(), row.getTotal()));
+        }
+        return totals;
+    }
+
     public Double calculateTotalExpenses(Long cropId) {
-        return getTransactionsByCropId(cropId).stream()
-                .filter(t -> t.getTransactionType() == CropTransaction.TransactionType.EXPENSE)
-                .mapToDouble(CropTransaction::getAmount)
-                .sum();
+        return getCropTotals(cropId).expense();
     }
 
     public Double calculateTotalIncome(Long cropId) {
-        return getTransactionsByCropId(cropId).stream()
-                .filter(t -> t.getTransactionType() == CropTransaction.TransactionType.INCOME)
-                .mapToDouble(CropTransaction::getAmount)
-                .sum();
+        return getCropTotals(cropId).income();
     }
 
     public Double calculateGlobalTotalExpenses() {
-        return transactionRepository.findAll().stream()
-                .filter(t -> t.getTransactionType() == CropTransaction.TransactionType.EXPENSE)
-                .mapToDouble(CropTransaction::getAmount)
-                .sum();
+        return getGlobalTotals().expense();
     }
 
     public Double calculateGlobalTotalIncome() {
-        return transactionRepository.findAll().stream()
-                .filter(t -> t.getTransactionType() == CropTransaction.TransactionType.INCOME)
-                .mapToDouble(CropTransaction::getAmount)
-                .sum();
+        return getGlobalTotals().income();
     }
 }
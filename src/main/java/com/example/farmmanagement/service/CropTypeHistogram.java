@@ -0,0 +1,140 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.repository.CropRepository;
+import com.example.farmmanagement.repository.FieldRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Crop counts by type, kept in memory as the (type, field, season) cells of a
+ * single GROUP BY query. Every breakdown (whole farm, one field together with
+ * its subdivisions, one season) is summed from those cells, so none of them
+ * scans the crop table. Crop and field changes drop the cells; the next read
+ * runs the query again.
+ */
+@Service
+public class CropTypeHistogram {
+
+    public static final String UNSPECIFIED = "Unspecified";
+
+    private final CropRepository cropRepository;
+    private final FieldRepository fieldRepository;
+    private final AtomicReference<Cells> current = new AtomicReference<>();
+    // Bumped on every invalidation so a load that raced with a write is not published
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public CropTypeHistogram(CropRepository cropRepository, FieldRepository fieldRepository,
+            MeterRegistry meterRegistry) {
+        this.cropRepository = cropRepository;
+        this.fieldRepository = fieldRepository;
+        this.hits = meterRegistry.counter("crops.histogram.requests", "result", "hit");
+        this.misses = meterRegistry.counter("crops.histogram.requests", "result", "miss");
+    }
+
+    /**
+     * Crop count per type, alphabetically. fieldId narrows it to that field and
+     * everything below it; season to crops planted in that calendar year.
+     */
+    public Map<String, Long> distribution(Long fieldId, Integer season) {
+        Cells cells = cells();
+        Map<String, Long> histogram = new TreeMap<>();
+        for (Cell cell : cells.counts()) {
+            if (season != null && !season.equals(cell.season())) {
+                continue;
+            }
+            if (fieldId != null && !cells.isWithin(cell.fieldId(), fieldId)) {
+                continue;
+            }
+            histogram.merge(cell.type(), cell.count(), Long::sum);
+        }
+        return histogram;
+    }
+
+    // Planting years that have at least one crop, for season pickers
+    public SortedSet<Integer> seasons() {
+        SortedSet<Integer> seasons = new TreeSet<>();
+        for (Cell cell : cells().counts()) {
+            if (cell.season() != null) {
+                seasons.add(cell.season());
+            }
+        }
+        return seasons;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFarmDataChanged(FarmDataChangedEvent event) {
+        if (event.kind() == FarmDataChangedEvent.Kind.CROP || event.kind() == FarmDataChangedEvent.Kind.FIELD) {
+            invalidate();
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        current.set(null);
+    }
+
+    private Cells cells() {
+        Cells cells = current.get();
+        if (cells != null && cells.generation() == generation.get()) {
+            hits.increment();
+            return cells;
+        }
+        misses.increment();
+        long startedAt = generation.get();
+        cells = load(startedAt);
+        if (generation.get() == startedAt) {
+            current.set(cells);
+        }
+        return cells;
+    }
+
+    private Cells load(long startedAt) {
+        List<Cell> counts = cropRepository.countByTypeFieldAndSeason().stream()
+                .map(row -> new Cell(label(row.getType()), row.getFieldId(), row.getSeason(), row.getCount()))
+                .toList();
+        Map<Long, Long> parents = new HashMap<>();
+        for (FieldRepository.ParentLink link : fieldRepository.findParentLinks()) {
+            parents.put(link.getId(), link.getParentId());
+        }
+        return new Cells(counts, parents, startedAt);
+    }
+
+    static String label(String type) {
+        return type == null || type.isBlank() ? UNSPECIFIED : type.trim();
+    }
+
+    private record Cell(String type, Long fieldId, Integer season, long count) {
+    }
+
+    private record Cells(List<Cell> counts, Map<Long, Long> parents, long generation) {
+
+        // Walks up from the crop's field; the step bound stops on a corrupt (cyclic) hierarchy
+        boolean isWithin(Long fieldId, Long ancestorId) {
+            Long node = fieldId;
+            for (int steps = 0; node != null && steps <= parents.size(); steps++) {
+                if (Objects.equals(node, ancestorId)) {
+                    return true;
+                }
+                node = parents.get(node);
+            }
+            return false;
+        }
+    }
+}
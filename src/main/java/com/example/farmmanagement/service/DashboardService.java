@@ -0,0 +1,145 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.config.DashboardProperties;
+import com.example.farmmanagement.dto.DashboardWidgets;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Loads the independent dashboard widgets concurrently. Each widget has its own
+ * time budget, measured from the start of the page load; a widget that misses it
+ * (or fails) is reported as unavailable instead of holding up the page.
+ */
+@Service
+public class DashboardService {
+
+    // Widget names double as the model attribute names used by index.html
+    public static final String TOTAL_CROPS = "totalCrops";
+    public static final String TOTAL_ANIMALS = "totalAnimals";
+    public static final String LEDGER_TOTALS = "ledgerTotals";
+    public static final String TOTAL_LAND_AREA = "totalLandArea";
+    public static final String CROP_DISTRIBUTION = "cropDistribution";
+    public static final String UPCOMING_HARVESTS = "upcomingHarvests";
+    public static final String UPCOMING_TASKS = "upcomingTasks";
+    public static final String FARM_INSIGHTS = "farmInsights";
+    public static final String GROWTH_SUMMARY = "growthSummary";
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    private final CropService cropService;
+    private final AnimalService animalService;
+    private final CropTransactionService transactionService;
+    private final FieldService fieldService;
+    private final CropActivityService activityService;
+    private final AiService aiService;
+    private final AsyncTaskExecutor dashboardExecutor;
+    private final DashboardProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public DashboardService(CropService cropService, AnimalService animalService,
+            CropTransactionService transactionService, FieldService fieldService,
+            CropActivityService activityService, AiService aiService,
+            @Qualifier("dashboardExecutor") AsyncTaskExecutor dashboardExecutor,
+            DashboardProperties properties, MeterRegistry meterRegistry) {
+        this.cropService = cropService;
+        this.animalService = animalService;
+        this.transactionService = transactionService;
+        this.fieldService = fieldService;
+        this.activityService = activityService;
+        this.aiService = aiService;
+        this.dashboardExecutor = dashboardExecutor;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public DashboardWidgets loadWidgets() {
+        Map<String, Callable<Object>> widgets = new LinkedHashMap<>();
+        widgets.put(TOTAL_CROPS, cropService::countCrops);
+        widgets.put(TOTAL_ANIMALS, animalService::countAnimals);
+        widgets.put(LEDGER_TOTALS, transactionService::getGlobalTotals);
+        widgets.put(TOTAL_LAND_AREA, fieldService::calculateTotalLandArea);
+        widgets.put(CROP_DISTRIBUTION, cropService::getCropTypeDistribution);
+        int upcoming = properties.getUpcomingLimit();
+        widgets.put(UPCOMING_HARVESTS, () -> cropService.getUpcomingHarvests(upcoming, null));
+        widgets.put(UPCOMING_TASKS, () -> activityService.getUpcomingTasks(upcoming, null, null));
+        widgets.put(FARM_INSIGHTS, aiService::getFarmSummary);
+        widgets.put(GROWTH_SUMMARY, cropService::getGrowthSummary);
+        return load(widgets);
+    }
+
+    DashboardWidgets load(Map<String, Callable<Object>> widgets) {
+        long start = System.nanoTime();
+        Map<String, Object> values = new HashMap<>();
+        Set<String> unavailable = new LinkedHashSet<>();
+
+        Map<String, Future<Object>> pending = new LinkedHashMap<>();
+        widgets.forEach((name, loader) -> {
+            try {
+                pending.put(name, dashboardExecutor.submit(timed(name, loader)));
+            } catch (TaskRejectedException e) {
+                markUnavailable(name, "rejected", unavailable);
+            }
+        });
+
+        pending.forEach((name, future) -> {
+            long remaining = start + properties.budgetFor(name).toNanos() - System.nanoTime();
+            try {
+                values.put(name, future.get(Math.max(remaining, 0L), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                markUnavailable(name, "timeout", unavailable);
+            } catch (ExecutionException e) {
+                logger.warn("Dashboard widget {} failed: {}", name, e.getCause().getMessage());
+                markUnavailable(name, "error", unavailable);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                markUnavailable(name, "interrupted", unavailable);
+            }
+        });
+
+        Timer.builder("dashboard.assemble").register(meterRegistry).record(System.nanoTime() - start,
+                TimeUnit.NANOSECONDS);
+        return new DashboardWidgets(values, Collections.unmodifiableSet(unavailable));
+    }
+
+    // Latency is recorded when the widget actually finishes, including runs that overshoot their budget
+    private Callable<Object> timed(String name, Callable<Object> loader) {
+        Timer timer = Timer.builder("dashboard.widget.latency").tag("widget", name).register(meterRegistry);
+        return () -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                return loader.call();
+            } finally {
+                sample.stop(timer);
+            }
+        };
+    }
+
+    private void markUnavailable(String name, String reason, Set<String> unavailable) {
+        unavailable.add(name);
+        Counter.builder("dashboard.widget.unavailable").tag("widget", name).tag("reason", reason)
+                .register(meterRegistry).increment();
+    }
+}
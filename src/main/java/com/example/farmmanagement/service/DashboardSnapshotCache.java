@@ -0,0 +1,89 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.DashboardWidgets;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-process snapshot of the dashboard aggregates. It is rebuilt on the first
+ * read after a FarmDataChangedEvent (delivered after commit) or after the date
+ * rolls over, since the "upcoming" lists are relative to today.
+ */
+@Service
+public class DashboardSnapshotCache {
+
+    private final DashboardService dashboardService;
+    private final Clock clock;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    // Bumped on every invalidation so a rebuild that raced with a write is not published
+    private final AtomicLong generation = new AtomicLong();
+    private final Object rebuildLock = new Object();
+
+    private final MeterRegistry meterRegistry;
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer rebuildTimer;
+
+    @Autowired
+    public DashboardSnapshotCache(DashboardService dashboardService, Clock clock, MeterRegistry meterRegistry) {
+        this.dashboardService = dashboardService;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        this.hits = meterRegistry.counter("dashboard.snapshot.requests", "result", "hit");
+        this.misses = meterRegistry.counter("dashboard.snapshot.requests", "result", "miss");
+        this.rebuildTimer = meterRegistry.timer("dashboard.snapshot.rebuild");
+    }
+
+    public DashboardWidgets get() {
+        Snapshot snapshot = current.get();
+        if (isFresh(snapshot)) {
+            hits.increment();
+            return snapshot.widgets();
+        }
+        synchronized (rebuildLock) {
+            snapshot = current.get();
+            if (isFresh(snapshot)) {
+                hits.increment();
+                return snapshot.widgets();
+            }
+            misses.increment();
+            long startedAt = generation.get();
+            LocalDate today = LocalDate.now(clock);
+            DashboardWidgets widgets = rebuildTimer.record(dashboardService::loadWidgets);
+            // Partial results (a widget missed its budget) are served but never cached
+            if (widgets.unavailable().isEmpty() && generation.get() == startedAt) {
+                current.set(new Snapshot(widgets, today, startedAt));
+            }
+            return widgets;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFarmDataChanged(FarmDataChangedEvent event) {
+        invalidate(event.kind().name());
+    }
+
+    public void invalidate(String reason) {
+        generation.incrementAndGet();
+        current.set(null);
+        meterRegistry.counter("dashboard.snapshot.invalidations", "reason", reason).increment();
+    }
+
+    private boolean isFresh(Snapshot snapshot) {
+        return snapshot != null && snapshot.day().equals(LocalDate.now(clock))
+                && snapshot.generation() == generation.get();
+    }
+
+    private record Snapshot(DashboardWidgets widgets, LocalDate day, long generation) {
+    }
+}
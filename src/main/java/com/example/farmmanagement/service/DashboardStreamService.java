@@ -0,0 +1,275 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.config.DashboardProperties;
+import com.example.farmmanagement.dto.DashboardWidgets;
+import com.example.farmmanagement.dto.LedgerTotals;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.model.Crop;
+import com.example.farmmanagement.model.CropActivity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Pushes dashboard changes to open browsers over Server-Sent Events. Writes only
+ * mark the stream dirty; a scheduled flush reads the shared snapshot once,
+ * diffs it against what was last pushed and sends the same small JSON delta to
+ * every client, so N dashboards cost one recomputation per interval.
+ * <p>
+ * Writes to clients run on the bounded streamExecutor, never on the scheduler
+ * thread, and each client has at most one write in flight. A client whose
+ * previous write has not finished by the next push or heartbeat has stopped
+ * reading; it is dropped so it cannot hold up the others, and its browser
+ * reconnects.
+ */
+@Service
+public class DashboardStreamService {
+
+    public static final String EVENT_NAME = "dashboard";
+
+    // Keys of the delta payload, read by static/js/dashboard.js
+    static final String INCOME = "income";
+    static final String EXPENSE = "expense";
+    static final String PROFIT = "profit";
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStreamService.class);
+
+    private final DashboardSnapshotCache dashboardSnapshotCache;
+    private final DashboardProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor streamExecutor;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    // Last value pushed per key; only touched from the scheduler thread
+    private final Map<String, Object> lastPushed = new HashMap<>();
+
+    private final Counter pushes;
+    private final Counter rejected;
+    private final Counter dropped;
+
+    @Autowired
+    public DashboardStreamService(DashboardSnapshotCache dashboardSnapshotCache, DashboardProperties properties,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Qualifier("streamExecutor") TaskExecutor streamExecutor) {
+        this.dashboardSnapshotCache = dashboardSnapshotCache;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.streamExecutor = streamExecutor;
+        this.pushes = meterRegistry.counter("dashboard.stream.pushes");
+        this.rejected = meterRegistry.counter("dashboard.stream.rejected");
+        this.dropped = meterRegistry.counter("dashboard.stream.dropped");
+        meterRegistry.gaugeCollectionSize("dashboard.stream.connections", List.of(), subscribers);
+    }
+
+    /**
+     * Registers a new client, or returns empty when the connection cap is reached.
+     */
+    public Optional<SseEmitter> subscribe() {
+        SseEmitter emitter = newEmitter(properties.getStream().getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        synchronized (subscribers) {
+            if (subscribers.size() >= properties.getStream().getMaxConnections()) {
+                rejected.increment();
+                return Optional.empty();
+            }
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        return Optional.of(emitter);
+    }
+
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    public int connectionCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFarmDataChanged(FarmDataChangedEvent event) {
+        dirty.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${farm.dashboard.stream.push-interval:2s}")
+    public void flush() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        if (subscribers.isEmpty()) {
+            // Nobody to diff for; the next client starts from a freshly rendered page anyway
+            lastPushed.clear();
+            return;
+        }
+        Map<String, Object> delta = new LinkedHashMap<>();
+        toPayload(dashboardSnapshotCache.get()).forEach((key, value) -> {
+            if (!Objects.equals(lastPushed.get(key), value)) {
+                delta.put(key, value);
+            }
+        });
+        if (delta.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(delta);
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not serialise dashboard delta: {}", e.getMessage());
+            return;
+        }
+        lastPushed.putAll(delta);
+        broadcast(() -> SseEmitter.event().name(EVENT_NAME).data(json, MediaType.APPLICATION_JSON));
+        pushes.increment();
+    }
+
+    // Keeps idle connections open through proxies and prunes clients that went away
+    @Scheduled(fixedDelayString = "${farm.dashboard.stream.heartbeat-interval:30s}")
+    public void heartbeat() {
+        broadcast(() -> SseEmitter.event().comment("keep-alive"));
+    }
+
+    // Hands each client its own copy of the event (a builder is not safe to share between threads)
+    private void broadcast(Supplier<SseEmitter.SseEventBuilder> event) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.startSend()) {
+                drop(subscriber);
+                continue;
+            }
+            try {
+                streamExecutor.execute(() -> send(subscriber, event.get()));
+            } catch (TaskRejectedException e) {
+                subscriber.finishSend();
+                drop(subscriber);
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            if (subscriber.finishSend()) {
+                subscriber.emitter.complete(); // Dropped while this write was stuck
+            }
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        if (subscriber.drop()) {
+            dropped.increment();
+            logger.debug("Dropped a dashboard stream client that stopped reading");
+        }
+    }
+
+    // Flattens the widgets the page shows into JSON-friendly values; unavailable widgets are left out
+    Map<String, Object> toPayload(DashboardWidgets widgets) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        copy(widgets, DashboardService.TOTAL_CROPS, payload);
+        copy(widgets, DashboardService.TOTAL_ANIMALS, payload);
+        copy(widgets, DashboardService.TOTAL_LAND_AREA, payload);
+        copy(widgets, DashboardService.CROP_DISTRIBUTION, payload);
+        if (widgets.isAvailable(DashboardService.LEDGER_TOTALS)) {
+            LedgerTotals totals = (LedgerTotals) widgets.get(DashboardService.LEDGER_TOTALS);
+            payload.put(INCOME, totals.income());
+            payload.put(EXPENSE, totals.expense());
+            payload.put(PROFIT, totals.profit());
+        }
+        if (widgets.isAvailable(DashboardService.UPCOMING_TASKS)) {
+            List<?> tasks = (List<?>) widgets.get(DashboardService.UPCOMING_TASKS);
+            payload.put(DashboardService.UPCOMING_TASKS, tasks.stream()
+                    .map(CropActivity.class::cast)
+                    .map(task -> Map.of("type", String.valueOf(task.getActivityType()),
+                            "date", String.valueOf(task.getActivityDate())))
+                    .toList());
+        }
+        if (widgets.isAvailable(DashboardService.UPCOMING_HARVESTS)) {
+            List<?> harvests = (List<?>) widgets.get(DashboardService.UPCOMING_HARVESTS);
+            payload.put(DashboardService.UPCOMING_HARVESTS, harvests.stream()
+                    .map(Crop.class::cast)
+                    .map(crop -> Map.of("type", String.valueOf(crop.getType()),
+                            "date", String.valueOf(crop.getHarvestDate())))
+                    .toList());
+        }
+        return payload;
+    }
+
+    private void copy(DashboardWidgets widgets, String name, Map<String, Object> payload) {
+        if (widgets.isAvailable(name) && widgets.get(name) != null) {
+            payload.put(name, widgets.get(name));
+        }
+    }
+
+    /**
+     * An open stream and whether a write to it is in flight. A dropped stream
+     * is completed at once, or by its in-flight write once that returns, so
+     * the scheduler never waits on a stuck connection.
+     */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private boolean sending;
+        private boolean dropped;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // False while the previous write is still in flight
+        synchronized boolean startSend() {
+            if (sending || dropped) {
+                return false;
+            }
+            sending = true;
+            return true;
+        }
+
+        // True when the stream was dropped meanwhile and is now the writer's to complete
+        synchronized boolean finishSend() {
+            sending = false;
+            return dropped;
+        }
+
+        // True the first time; completes the stream here unless a write still holds it
+        boolean drop() {
+            synchronized (this) {
+                if (dropped) {
+                    return false;
+                }
+                dropped = true;
+                if (sending) {
+                    return true;
+                }
+            }
+            emitter.complete();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.repository.FieldRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hands out a farm's area to its subdivisions without locking the farm.
+ * Every farm keeps the area already allocated (Field.allocatedArea) and a
+ * version; an allocation checks the counter, raises it and inserts the
+ * subdivision in one short transaction, and the version turns two planners
+ * racing for the same farm into a conflict that the loser retries against
+ * the new total. Planners working on different farms never wait on each other.
+ */
+@Service
+public class FieldAllocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FieldAllocationService.class);
+    static final int MAX_ATTEMPTS = 30;
+    private static final long MAX_BACKOFF_MS = 200;
+    private static final double TOLERANCE = 1e-9;
+
+    private final FieldRepository fieldRepository;
+    private final FieldClosureService fieldClosureService;
+    private final FieldLocator fieldLocator;
+    private final TransactionOperations transactionOperations;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter conflicts;
+
+    @Autowired
+    public FieldAllocationService(FieldRepository fieldRepository, FieldClosureService fieldClosureService,
+            FieldLocator fieldLocator, TransactionOperations transactionOperations,
+            ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.fieldRepository = fieldRepository;
+        this.fieldClosureService = fieldClosureService;
+        this.fieldLocator = fieldLocator;
+        this.transactionOperations = transactionOperations;
+        this.eventPublisher = eventPublisher;
+        this.conflicts = meterRegistry.counter("fields.allocation.conflicts");
+    }
+
+    /**
+     * Saves the subdivision under the farm if the farm has room for its area
+     * (computed from its boundary when it has one). Throws
+     * IllegalArgumentException for an unknown farm, a subdivision without an
+     * area or with a boundary that does not parse, IllegalStateException when
+     * the farm has no room left (or no area of its own), and
+     * ConcurrencyFailureException when it still conflicts after MAX_ATTEMPTS
+     * tries.
+     */
+    public Field addSubdivision(Long farmId, Field subdivision) {
+        FieldGeometry.applyTo(subdivision);
+        if (subdivision.getAreaSize() == null || subdivision.getAreaSize() <= 0) {
+            throw new IllegalArgumentException("A subdivision needs a positive area");
+        }
+        for (int attempt = 1;; attempt++) {
+            try {
+                Field saved = transactionOperations.execute(status -> allocate(farmId, subdivision));
+                eventPublisher.publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.FIELD));
+                return saved;
+            } catch (ConcurrencyFailureException e) {
+                conflicts.increment();
+                if (attempt == MAX_ATTEMPTS) {
+                    logger.warn("Gave up allocating {} acres on field {} after {} conflicts", subdivision.getAreaSize(),
+                            farmId, attempt);
+                    throw e;
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    private Field allocate(Long farmId, Field subdivision) {
+        Field farm = fieldRepository.findCurrentById(farmId)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown field " + farmId));
+        if (farm.getAreaSize() == null) {
+            throw new IllegalStateException(farm.getName() + " has no area to subdivide");
+        }
+        double allocated = farm.getAllocatedArea() != null ? farm.getAllocatedArea()
+                : fieldRepository.sumSubdivisionArea(farmId);
+        double remaining = farm.getAreaSize() - allocated;
+        if (subdivision.getAreaSize() > remaining + TOLERANCE) {
+            throw new IllegalStateException(String.format("%s has %.2f acres left, %.2f requested", farm.getName(),
+                    Math.max(remaining, 0), subdivision.getAreaSize()));
+        }
+        farm.setAllocatedArea(allocated + subdivision.getAreaSize());
+        fieldRepository.flush(); // The versioned update first: a losing attempt fails before inserting anything
+
+        subdivision.setId(null); // A rolled-back attempt leaves its generated id behind
+        subdivision.setVersion(0);
+        subdivision.setParentField(farm);
+        subdivision.setIsMasterFarm(false);
+        Field saved = fieldRepository.save(subdivision);
+        fieldClosureService.place(saved.getId(), farmId);
+        fieldLocator.refresh(saved);
+        return saved;
+    }
+
+    /**
+     * Recounts the farm's allocated area from its subdivisions, for writes that
+     * change them outside addSubdivision (FieldService.saveField). Joins the
+     * caller's transaction. A changed total is a versioned write like an
+     * allocation, so whichever of the two commits second conflicts; an
+     * unchanged total leaves the farm untouched.
+     */
+    @Transactional
+    public void recount(Long farmId) {
+        if (farmId != null) {
+            fieldRepository.findCurrentById(farmId)
+                    .ifPresent(farm -> farm.setAllocatedArea(fieldRepository.sumSubdivisionArea(farmId)));
+        }
+    }
+
+    // Random up to 5 * 2^attempt ms (at most MAX_BACKOFF_MS), so the planners that lost together do not collide again
+    private static void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(Math.min(5L << Math.min(attempt, 10), MAX_BACKOFF_MS)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while allocating", e);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.FieldOption;
+import com.example.farmmanagement.dto.FieldRollup;
+import com.example.farmmanagement.model.FieldClosure;
+import com.example.farmmanagement.repository.FieldClosureRepository;
+import com.example.farmmanagement.repository.FieldRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the field_closure table (every ancestor/descendant pair of the
+ * field hierarchy) so that "is plot X under farm Y", "all plots of farm Y"
+ * and subtree totals are one indexed join instead of a walk level by level.
+ * FieldService places a field on every save, in the same transaction: a new
+ * field gets its parent's ancestors plus itself; a moved field takes its whole
+ * subtree along. Saving a field under its own parent again is a single read.
+ */
+@Service
+public class FieldClosureService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FieldClosureService.class);
+    static final String INSERT_SQL = "INSERT INTO field_closure (ancestor_id, descendant_id, depth) VALUES (?, ?, ?)";
+
+    private final FieldClosureRepository closureRepository;
+    private final FieldRepository fieldRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public FieldClosureService(FieldClosureRepository closureRepository, FieldRepository fieldRepository,
+            JdbcTemplate jdbcTemplate) {
+        this.closureRepository = closureRepository;
+        this.fieldRepository = fieldRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // ===== Incremental maintenance (joins the caller's transaction) =====
+
+    /**
+     * Records that the field now sits under parentId (null: a master farm).
+     * Throws IllegalArgumentException when parentId is the field itself or
+     * lies beneath it, which would make the hierarchy a cycle.
+     */
+    @Transactional
+    public void place(Long fieldId, Long parentId) {
+        List<FieldClosure> above = closureRepository.findByDescendantId(fieldId);
+        if (above.isEmpty()) {
+            insertNew(fieldId, parentId);
+            return;
+        }
+        Long currentParent = above.stream().filter(path -> path.getDepth() == 1).map(FieldClosure::getAncestorId)
+                .findFirst().orElse(null);
+        if (Objects.equals(currentParent, parentId)) {
+            return;
+        }
+
+        List<FieldClosure> subtree = closureRepository.findByAncestorId(fieldId);
+        Set<Long> subtreeIds = subtree.stream().map(FieldClosure::getDescendantId).collect(Collectors.toSet());
+        if (parentId != null && subtreeIds.contains(parentId)) {
+            throw new IllegalArgumentException("Field " + fieldId + " cannot be placed under " + parentId
+                    + ", which is the field itself or one of its subdivisions");
+        }
+        Set<Long> oldAncestors = above.stream().filter(path -> path.getDepth() > 0)
+                .map(FieldClosure::getAncestorId).collect(Collectors.toSet());
+        if (!oldAncestors.isEmpty()) {
+            closureRepository.deletePaths(subtreeIds, oldAncestors);
+        }
+        if (parentId == null) {
+            return;
+        }
+        List<FieldClosure> newAncestors = ancestorsOf(parentId);
+        if (newAncestors.isEmpty()) {
+            return; // Rebuilt from the parent links, which already include this move
+        }
+        List<Object[]> rows = new ArrayList<>(newAncestors.size() * subtree.size());
+        for (FieldClosure ancestor : newAncestors) {
+            for (FieldClosure descendant : subtree) {
+                rows.add(new Object[] { ancestor.getAncestorId(), descendant.getDescendantId(),
+                        ancestor.getDepth() + descendant.getDepth() + 1 });
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    private void insertNew(Long fieldId, Long parentId) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] { fieldId, fieldId, 0 });
+        if (parentId != null) {
+            List<FieldClosure> parentAncestors = ancestorsOf(parentId);
+            if (parentAncestors.isEmpty()) {
+                return;
+            }
+            for (FieldClosure ancestor : parentAncestors) {
+                rows.add(new Object[] { ancestor.getAncestorId(), fieldId, ancestor.getDepth() + 1 });
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    // Empty only after a rebuild: a parent written around this service (imports, SQL) is missing from the
+    // table, so the whole table is rebuilt from the parent links instead of guessing
+    private List<FieldClosure> ancestorsOf(Long parentId) {
+        List<FieldClosure> ancestors = closureRepository.findByDescendantId(parentId);
+        if (ancestors.isEmpty()) {
+            logger.warn("Field {} is missing from field_closure; rebuilding it", parentId);
+            rebuild();
+            return List.of();
+        }
+        return ancestors;
+    }
+
+    // ===== Reads =====
+
+    // True when the field is the ancestor itself or anywhere beneath it
+    public boolean isWithin(Long fieldId, Long ancestorId) {
+        return closureRepository.countPaths(ancestorId, fieldId) > 0;
+    }
+
+    // Ids of the field and everything beneath it
+    public Set<Long> getSubtreeIds(Long fieldId) {
+        return new HashSet<>(closureRepository.findSubtreeIds(fieldId));
+    }
+
+    // Bottom-level fields beneath the field, by name
+    public List<FieldOption> getPlots(Long fieldId) {
+        return closureRepository.findPlots(fieldId);
+    }
+
+    public Optional<FieldRollup> getRollup(Long fieldId) {
+        return closureRepository.rollUp(fieldId).map(FieldClosureService::rollup);
+    }
+
+    // Rollup per master farm id, all farms in one query
+    public Map<Long, FieldRollup> getMasterFarmRollups() {
+        return closureRepository.rollUpMasterFarms().stream()
+                .map(FieldClosureService::rollup)
+                .collect(Collectors.toMap(FieldRollup::fieldId, rollup -> rollup));
+    }
+
+    private static FieldRollup rollup(FieldClosureRepository.HierarchyRollup row) {
+        return new FieldRollup(row.getFieldId(), row.getSubdivisions(), row.getDepth(), row.getArea(),
+                row.getCrops());
+    }
+
+    // ===== Rebuild from the parent links =====
+    @Transactional
+    public int rebuild() {
+        List<Object[]> rows = fieldRepository.findAllPaths().stream()
+                .map(path -> new Object[] { path.getAncestorId(), path.getDescendantId(), path.getDepth() })
+                .toList();
+        closureRepository.deleteAllPaths();
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        logger.info("Rebuilt field_closure: {} paths", rows.size());
+        return rows.size();
+    }
+
+    // Existing databases start with an empty closure table; seed it once on startup
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (closureRepository.count() == 0 && fieldRepository.count() > 0) {
+            rebuild();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.model.BoundaryCodec;
+import com.example.farmmanagement.model.Field;
+
+import java.util.Arrays;
+
+/**
+ * A field boundary read once, from Field.boundaryGeometry or else the JSON the
+ * map draws ([[lat, lng], ...]), into two primitive arrays, with its geodesic
+ * area, centroid and bounding box computed up front. Immutable, so one
+ * instance can be shared by every request through FieldGeometryCache and
+ * FieldLocator.
+ */
+public final class FieldGeometry {
+
+    // The same sphere and formula as Leaflet.draw's geodesicArea, so the server agrees with the drawn area
+    static final double EARTH_RADIUS_M = 6378137.0;
+    public static final double SQUARE_METERS_PER_ACRE = 4046.8564224;
+
+    private final double[] lats;
+    private final double[] lngs;
+    private final double areaSquareMeters;
+    private final double centroidLat;
+    private final double centroidLng;
+    // Longitudes of the box are unwrapped from the first point, so a box across the antimeridian runs past +-180
+    private double minLat = Double.POSITIVE_INFINITY;
+    private double maxLat = Double.NEGATIVE_INFINITY;
+    private double minLng = Double.POSITIVE_INFINITY;
+    private double maxLng = Double.NEGATIVE_INFINITY;
+
+    private FieldGeometry(double[] lats, double[] lngs) {
+        this.lats = lats;
+        this.lngs = lngs;
+        this.areaSquareMeters = geodesicArea(lats, lngs);
+        double[] centroid = centroid(lats, lngs);
+        this.centroidLat = centroid[0];
+        this.centroidLng = centroid[1];
+        for (int i = 0; i < lats.length; i++) {
+            double x = unwrapped(lngs[i]);
+            minLat = Math.min(minLat, lats[i]);
+            maxLat = Math.max(maxLat, lats[i]);
+            minLng = Math.min(minLng, x);
+            maxLng = Math.max(maxLng, x);
+        }
+    }
+
+    /**
+     * Parses a boundary; null for a blank one. Throws IllegalArgumentException
+     * for anything but an array of at least three [lat, lng] points in range.
+     * A closing point that repeats the first is dropped.
+     */
+    public static FieldGeometry parse(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        double[][] points = BoundaryCodec.readJson(json);
+        return of(points[0], points[1]);
+    }
+
+    // The field's boundary, straight from its binary form when it is stored that way; null without one
+    public static FieldGeometry of(Field field) {
+        return field.getBoundaryGeometry() != null ? decode(field.getBoundaryGeometry())
+                : parse(field.getBoundaryCoordinates());
+    }
+
+    // From BoundaryCodec's binary form, under the same rules as parse
+    public static FieldGeometry decode(byte[] geometry) {
+        double[][] points = BoundaryCodec.decode(geometry);
+        return of(points[0], points[1]);
+    }
+
+    private static FieldGeometry of(double[] lats, double[] lngs) {
+        int n = lats.length;
+        for (int i = 0; i < n; i++) {
+            if (Math.abs(lats[i]) > 90 || Math.abs(lngs[i]) > 180) {
+                throw invalid("point [" + lats[i] + ", " + lngs[i] + "] is out of range");
+            }
+        }
+        if (n > 1 && lats[n - 1] == lats[0] && lngs[n - 1] == lngs[0]) {
+            n--;
+        }
+        if (n < 3) {
+            throw invalid("a boundary needs at least three points");
+        }
+        return new FieldGeometry(Arrays.copyOf(lats, n), Arrays.copyOf(lngs, n));
+    }
+
+    /**
+     * Lets a drawn boundary decide the field's area and map position, replacing
+     * whatever the form posted for them; rounded like the map rounds them (acres
+     * to 2 decimals, coordinates to 6). Leaves a field without a boundary alone.
+     */
+    static void applyTo(Field field) {
+        FieldGeometry geometry = of(field);
+        if (geometry != null) {
+            field.setAreaSize(Math.round(geometry.areaAcres() * 100) / 100.0);
+            field.setLatitude(Math.round(geometry.centroidLat() * 1e6) / 1e6);
+            field.setLongitude(Math.round(geometry.centroidLng() * 1e6) / 1e6);
+        }
+    }
+
+    private static IllegalArgumentException invalid(String reason) {
+        return new IllegalArgumentException("Invalid boundary: " + reason);
+    }
+
+    // Spherical excess of the polygon, summed edge by edge
+    private static double geodesicArea(double[] lats, double[] lngs) {
+        double sum = 0;
+        for (int i = 0, n = lats.length; i < n; i++) {
+            int j = (i + 1) % n;
+            sum += Math.toRadians(lngDelta(lngs[i], lngs[j]))
+                    * (2 + Math.sin(Math.toRadians(lats[i])) + Math.sin(Math.toRadians(lats[j])));
+        }
+        return Math.abs(sum * EARTH_RADIUS_M * EARTH_RADIUS_M / 2);
+    }
+
+    // Area-weighted centroid on a local equirectangular projection around the first point; exact enough at field
+    // scale, and unlike the bounding-box centre it lies where the area is. The vertex mean for a degenerate polygon.
+    private static double[] centroid(double[] lats, double[] lngs) {
+        int n = lats.length;
+        double scale = Math.cos(Math.toRadians(lats[0]));
+        double twiceArea = 0;
+        double cx = 0;
+        double cy = 0;
+        double sumX = 0;
+        double sumY = 0;
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            double xi = lngDelta(lngs[0], lngs[i]) * scale;
+            double yi = lats[i] - lats[0];
+            double xj = lngDelta(lngs[0], lngs[j]) * scale;
+            double yj = lats[j] - lats[0];
+            double cross = xi * yj - xj * yi;
+            twiceArea += cross;
+            cx += (xi + xj) * cross;
+            cy += (yi + yj) * cross;
+            sumX += xi;
+            sumY += yi;
+        }
+        double x = Math.abs(twiceArea) > 1e-18 ? cx / (3 * twiceArea) : sumX / n;
+        double y = Math.abs(twiceArea) > 1e-18 ? cy / (3 * twiceArea) : sumY / n;
+        return new double[] { lats[0] + y, normalizeLng(lngs[0] + (scale > 1e-12 ? x / scale : 0)) };
+    }
+
+    // Shortest signed step from one longitude to the other, so a boundary across the antimeridian stays small
+    private static double lngDelta(double from, double to) {
+        double delta = to - from;
+        return delta > 180 ? delta - 360 : delta < -180 ? delta + 360 : delta;
+    }
+
+    // The longitude in this boundary's frame: within 180 degrees of its first point
+    private double unwrapped(double lng) {
+        return lngs[0] + lngDelta(lngs[0], lng);
+    }
+
+    private static double normalizeLng(double lng) {
+        return lng > 180 ? lng - 360 : lng < -180 ? lng + 360 : lng;
+    }
+
+    public int size() {
+        return lats.length;
+    }
+
+    public double lat(int i) {
+        return lats[i];
+    }
+
+    public double lng(int i) {
+        return lngs[i];
+    }
+
+    public double areaSquareMeters() {
+        return areaSquareMeters;
+    }
+
+    public double areaAcres() {
+        return areaSquareMeters / SQUARE_METERS_PER_ACRE;
+    }
+
+    public double centroidLat() {
+        return centroidLat;
+    }
+
+    public double centroidLng() {
+        return centroidLng;
+    }
+
+    public double minLat() {
+        return minLat;
+    }
+
+    public double maxLat() {
+        return maxLat;
+    }
+
+    public double minLng() {
+        return minLng;
+    }
+
+    public double maxLng() {
+        return maxLng;
+    }
+
+    /**
+     * Whether the point lies inside the boundary (even-odd ray casting on the
+     * unprojected coordinates, which is exact enough at field scale). Points
+     * exactly on an edge may fall either way.
+     */
+    public boolean contains(double lat, double lng) {
+        double x = unwrapped(lng);
+        if (lat < minLat || lat > maxLat || x < minLng || x > maxLng) {
+            return false;
+        }
+        boolean inside = false;
+        for (int i = 0, j = lats.length - 1; i < lats.length; j = i++) {
+            if ((lats[i] > lat) != (lats[j] > lat)) {
+                double xi = unwrapped(lngs[i]);
+                double xj = unwrapped(lngs[j]);
+                if (x < xi + (lat - lats[i]) * (xj - xi) / (lats[j] - lats[i])) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    // [[lat, lng], ...] without the closing point, for JSON responses
+    public double[][] toLatLngs() {
+        double[][] points = new double[lats.length][];
+        for (int i = 0; i < lats.length; i++) {
+            points[i] = new double[] { lats[i], lngs[i] };
+        }
+        return points;
+    }
+}
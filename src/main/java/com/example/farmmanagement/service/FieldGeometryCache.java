@@ -0,0 +1,68 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.model.Field;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Parsed field boundaries, so the map and area code share one
+ * FieldGeometry per field instead of parsing the JSON on every request.
+ * Entries are keyed by field id and remember the version they were parsed
+ * from: every write through Hibernate bumps Field.version, so an edited
+ * boundary is parsed again on its next read and nothing has to evict it.
+ */
+@Service
+public class FieldGeometryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(FieldGeometryCache.class);
+
+    // geometry is null for a field without a (valid) boundary, so those are not re-parsed either
+    private record Entry(long version, FieldGeometry geometry) {
+    }
+
+    private final Cache<Long, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public FieldGeometryCache(@Value("${farm.geometry-cache.max-entries:10000}") long maxEntries,
+            MeterRegistry meterRegistry) {
+        this.entries = Caffeine.newBuilder().maximumSize(maxEntries).build();
+        this.hits = meterRegistry.counter("fields.geometry.requests", "result", "hit");
+        this.misses = meterRegistry.counter("fields.geometry.requests", "result", "miss");
+    }
+
+    // Empty for a field without a boundary; a stored boundary that does not parse is logged and treated as none
+    public Optional<FieldGeometry> get(Field field) {
+        if (field.getId() == null) {
+            return Optional.ofNullable(parseOrNull(field));
+        }
+        Entry entry = entries.getIfPresent(field.getId());
+        if (entry != null && entry.version() == field.getVersion()) {
+            hits.increment();
+            return Optional.ofNullable(entry.geometry());
+        }
+        misses.increment();
+        entry = new Entry(field.getVersion(), parseOrNull(field));
+        entries.put(field.getId(), entry);
+        return Optional.ofNullable(entry.geometry());
+    }
+
+    private static FieldGeometry parseOrNull(Field field) {
+        try {
+            return FieldGeometry.of(field);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring the boundary of field {}: {}", field.getId(), e.getMessage());
+            return null;
+        }
+    }
+}
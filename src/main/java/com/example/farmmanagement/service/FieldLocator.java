@@ -0,0 +1,213 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.FieldOption;
+import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.repository.FieldRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Which field a GPS position lies in. Every drawn boundary is held in memory,
+ * parsed once, under an STR-packed R-tree (FieldRTree) of their bounding
+ * boxes, so a lookup visits a few tree nodes and tests only the boundaries
+ * whose box holds the point. Where fields nest, the smallest one containing
+ * the point wins, so a plot is found rather than the farm around it.
+ * <p>
+ * The index is loaded on first use (one query) and then kept current by
+ * refresh, which FieldService.saveField and FieldAllocationService call for
+ * every saved field: a saved field shadows its packed entry and joins a short
+ * list that is scanned linearly, and once more than REPACK_AFTER fields have
+ * been saved the tree is packed again from memory. Lookups read an immutable
+ * snapshot and never block.
+ */
+@Service
+public class FieldLocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(FieldLocator.class);
+
+    static final int REPACK_AFTER = 64;
+
+    private final FieldRepository fieldRepository;
+    private volatile Index index;
+
+    @Autowired
+    public FieldLocator(FieldRepository fieldRepository) {
+        this.fieldRepository = fieldRepository;
+    }
+
+    private record Entry(Long id, String name, FieldGeometry geometry) {
+    }
+
+    /**
+     * The packed entries under their tree, the ids among them that were saved
+     * since (and so no longer count), and those saved fields that still have
+     * a boundary.
+     */
+    private record Index(FieldRTree tree, Entry[] packed, Set<Long> shadowed, List<Entry> recent) {
+
+        static Index pack(List<Entry> entries) {
+            int n = entries.size();
+            double[] minLat = new double[n];
+            double[] maxLat = new double[n];
+            double[] minLng = new double[n];
+            double[] maxLng = new double[n];
+            for (int i = 0; i < n; i++) {
+                FieldGeometry geometry = entries.get(i).geometry();
+                minLat[i] = geometry.minLat();
+                maxLat[i] = geometry.maxLat();
+                minLng[i] = geometry.minLng();
+                maxLng[i] = geometry.maxLng();
+            }
+            return new Index(FieldRTree.pack(minLat, maxLat, minLng, maxLng), entries.toArray(Entry[]::new), Set.of(),
+                    List.of());
+        }
+
+        List<Entry> live() {
+            List<Entry> live = new ArrayList<>(packed.length + recent.size());
+            for (Entry entry : packed) {
+                if (!shadowed.contains(entry.id())) {
+                    live.add(entry);
+                }
+            }
+            live.addAll(recent);
+            return live;
+        }
+    }
+
+    // The smallest field whose boundary contains the point; empty outside every drawn boundary
+    public Optional<FieldOption> locate(double lat, double lng) {
+        Index index = index();
+        Search search = new Search(index, lat, lng);
+        index.tree().search(lat, lng, search);
+        // Boxes across the antimeridian run past +-180, so look for the point there as well
+        if (index.tree().maxLng() > 180) {
+            index.tree().search(lat, lng + 360, search);
+        }
+        if (index.tree().minLng() < -180) {
+            index.tree().search(lat, lng - 360, search);
+        }
+        for (Entry entry : index.recent()) {
+            search.offer(entry);
+        }
+        return Optional.ofNullable(search.best).map(entry -> new FieldOption(entry.id(), entry.name()));
+    }
+
+    /**
+     * Indexes the field as saved (its new boundary and name, or none) once
+     * the surrounding transaction commits, or at once outside a transaction.
+     * A rolled-back save leaves the index alone.
+     */
+    public void refresh(Field field) {
+        Long id = field.getId();
+        Entry entry = entry(id, field.getName(), () -> FieldGeometry.of(field));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(id, entry);
+                }
+            });
+        } else {
+            apply(id, entry);
+        }
+    }
+
+    // Fields with a usable boundary in the index
+    public int size() {
+        return index().live().size();
+    }
+
+    private synchronized void apply(Long id, Entry entry) {
+        Index current = index;
+        if (current == null) {
+            return; // Not loaded yet: the load reads the committed field
+        }
+        Set<Long> shadowed = new HashSet<>(current.shadowed());
+        shadowed.add(id);
+        List<Entry> recent = new ArrayList<>(current.recent().size() + 1);
+        for (Entry other : current.recent()) {
+            if (!other.id().equals(id)) {
+                recent.add(other);
+            }
+        }
+        if (entry != null) {
+            recent.add(entry);
+        }
+        Index next = new Index(current.tree(), current.packed(), shadowed, recent);
+        index = shadowed.size() > REPACK_AFTER ? Index.pack(next.live()) : next;
+    }
+
+    private Index index() {
+        Index current = index;
+        return current != null ? current : load();
+    }
+
+    private synchronized Index load() {
+        if (index == null) {
+            List<Entry> entries = new ArrayList<>();
+            for (FieldRepository.FieldBoundary row : fieldRepository.findAllBoundaries()) {
+                Entry entry = entry(row.getId(), row.getName(), () -> row.getBoundaryGeometry() != null
+                        ? FieldGeometry.decode(row.getBoundaryGeometry())
+                        : FieldGeometry.parse(row.getBoundaryCoordinates()));
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+            index = Index.pack(entries);
+            logger.info("Indexed {} field boundaries", entries.size());
+        }
+        return index;
+    }
+
+    // Null for a field without a (valid) boundary, which cannot contain anything
+    private static Entry entry(Long id, String name, Supplier<FieldGeometry> boundary) {
+        try {
+            FieldGeometry geometry = boundary.get();
+            return geometry != null ? new Entry(id, name, geometry) : null;
+        } catch (IllegalArgumentException e) {
+            logger.warn("Not indexing the boundary of field {}: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    // Keeps the smallest containing field among the candidates whose box holds the point
+    private static final class Search implements IntConsumer {
+        private final Index index;
+        private final double lat;
+        private final double lng;
+        private Entry best;
+
+        Search(Index index, double lat, double lng) {
+            this.index = index;
+            this.lat = lat;
+            this.lng = lng;
+        }
+
+        @Override
+        public void accept(int item) {
+            Entry entry = index.packed()[item];
+            if (!index.shadowed().contains(entry.id())) {
+                offer(entry);
+            }
+        }
+
+        void offer(Entry entry) {
+            if ((best == null || entry.geometry().areaSquareMeters() < best.geometry().areaSquareMeters())
+                    && entry.geometry().contains(lat, lng)) {
+                best = entry;
+            }
+        }
+    }
+}
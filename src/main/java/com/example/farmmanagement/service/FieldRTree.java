@@ -0,0 +1,159 @@
+package com.example.farmmanagement.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * A static R-tree over bounding boxes, bulk-loaded with Sort-Tile-Recursive
+ * packing: each level is sorted into vertical slices by box centre longitude,
+ * each slice by centre latitude, and consecutive runs of NODE_CAPACITY become
+ * the nodes of the level above. Nodes are full and spatially tight, and the
+ * whole tree is a handful of primitive arrays per level. Immutable; a change
+ * means packing a new tree (see FieldLocator).
+ */
+final class FieldRTree {
+
+    static final int NODE_CAPACITY = 16;
+
+    // levels[0] holds the items' own boxes in packed order, the last level the root(s)
+    private final Level[] levels;
+    // Item index (into the arrays given to pack) of each box on level 0
+    private final int[] items;
+    // Root bounds; +-infinity for an empty tree
+    private final double minLng;
+    private final double maxLng;
+
+    private FieldRTree(Level[] levels, int[] items) {
+        this.levels = levels;
+        this.items = items;
+        Level root = levels[levels.length - 1];
+        this.minLng = Arrays.stream(root.minLng).min().orElse(Double.POSITIVE_INFINITY);
+        this.maxLng = Arrays.stream(root.maxLng).max().orElse(Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * Packs a tree over the boxes of n items (four arrays of length n).
+     * Longitudes are taken as given, so a box may run past +-180.
+     */
+    static FieldRTree pack(double[] minLat, double[] maxLat, double[] minLng, double[] maxLng) {
+        Level level = new Level(minLat.length);
+        System.arraycopy(minLat, 0, level.minLat, 0, level.size);
+        System.arraycopy(maxLat, 0, level.maxLat, 0, level.size);
+        System.arraycopy(minLng, 0, level.minLng, 0, level.size);
+        System.arraycopy(maxLng, 0, level.maxLng, 0, level.size);
+        int[] order = strOrder(level);
+        level = level.permute(order);
+
+        List<Level> levels = new ArrayList<>();
+        levels.add(level);
+        while (level.size > NODE_CAPACITY) {
+            Level parents = new Level((level.size + NODE_CAPACITY - 1) / NODE_CAPACITY);
+            for (int p = 0; p < parents.size; p++) {
+                int from = p * NODE_CAPACITY;
+                int to = Math.min(from + NODE_CAPACITY, level.size);
+                parents.firstChild[p] = from;
+                parents.endChild[p] = to;
+                parents.minLat[p] = Double.POSITIVE_INFINITY;
+                parents.maxLat[p] = Double.NEGATIVE_INFINITY;
+                parents.minLng[p] = Double.POSITIVE_INFINITY;
+                parents.maxLng[p] = Double.NEGATIVE_INFINITY;
+                for (int c = from; c < to; c++) {
+                    parents.minLat[p] = Math.min(parents.minLat[p], level.minLat[c]);
+                    parents.maxLat[p] = Math.max(parents.maxLat[p], level.maxLat[c]);
+                    parents.minLng[p] = Math.min(parents.minLng[p], level.minLng[c]);
+                    parents.maxLng[p] = Math.max(parents.maxLng[p], level.maxLng[c]);
+                }
+            }
+            level = parents.size > NODE_CAPACITY ? parents.permute(strOrder(parents)) : parents;
+            levels.add(level);
+        }
+        return new FieldRTree(levels.toArray(Level[]::new), order);
+    }
+
+    int size() {
+        return items.length;
+    }
+
+    double minLng() {
+        return minLng;
+    }
+
+    double maxLng() {
+        return maxLng;
+    }
+
+    // Hands every item whose box contains the point to hits, in no particular order
+    void search(double lat, double lng, IntConsumer hits) {
+        int top = levels.length - 1;
+        search(top, 0, levels[top].size, lat, lng, hits);
+    }
+
+    private void search(int depth, int from, int to, double lat, double lng, IntConsumer hits) {
+        Level level = levels[depth];
+        for (int i = from; i < to; i++) {
+            if (lat >= level.minLat[i] && lat <= level.maxLat[i]
+                    && lng >= level.minLng[i] && lng <= level.maxLng[i]) {
+                if (depth == 0) {
+                    hits.accept(items[i]);
+                } else {
+                    search(depth - 1, level.firstChild[i], level.endChild[i], lat, lng, hits);
+                }
+            }
+        }
+    }
+
+    // STR order of a level's boxes: slices of S * NODE_CAPACITY by centre longitude, each sorted by centre latitude
+    private static int[] strOrder(Level level) {
+        int n = level.size;
+        int nodes = (n + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int sliceSize = (int) Math.ceil(Math.sqrt(nodes)) * NODE_CAPACITY;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> level.minLng[i] + level.maxLng[i]));
+        for (int from = 0; from < n; from += sliceSize) {
+            Arrays.sort(order, from, Math.min(from + sliceSize, n),
+                    Comparator.comparingDouble(i -> level.minLat[i] + level.maxLat[i]));
+        }
+        return Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static final class Level {
+        final int size;
+        final double[] minLat;
+        final double[] maxLat;
+        final double[] minLng;
+        final double[] maxLng;
+        // Children of node i are [firstChild[i], endChild[i]) on the level below; unused on level 0
+        final int[] firstChild;
+        final int[] endChild;
+
+        Level(int size) {
+            this.size = size;
+            this.minLat = new double[size];
+            this.maxLat = new double[size];
+            this.minLng = new double[size];
+            this.maxLng = new double[size];
+            this.firstChild = new int[size];
+            this.endChild = new int[size];
+        }
+
+        Level permute(int[] order) {
+            Level permuted = new Level(size);
+            for (int i = 0; i < size; i++) {
+                int from = order[i];
+                permuted.minLat[i] = minLat[from];
+                permuted.maxLat[i] = maxLat[from];
+                permuted.minLng[i] = minLng[from];
+                permuted.maxLng[i] = maxLng[from];
+                permuted.firstChild[i] = firstChild[from];
+                permuted.endChild[i] = endChild[from];
+            }
+            return permuted;
+        }
+    }
+}
@@ -1,27 +1,74 @@
 package com.example.farmmanagement.service;
 
+import com.example.farmmanagement.dto.FieldNode;
+import com.example.farmmanagement.dto.FieldOption;
+import com.example.farmmanagement.dto.FieldRollup;
+import com.example.farmmanagement.dto.FieldShape;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.model.BoundaryCodec;
 import com.example.farmmanagement.model.Field;
 import com.example.farmmanagement.repository.FieldRepository;
+import com.example.farmmanagement.repository.SoilRecordRepository;
+import com.example.farmmanagement.repository.WaterRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class FieldService {
 
+    private static final Logger logger = LoggerFactory.getLogger(FieldService.class);
+
     private final FieldRepository fieldRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SoilRecordRepository soilRecordRepository;
+    private final WaterRecordRepository waterRecordRepository;
+    private final HarvestService harvestService;
+    private final FieldClosureService fieldClosureService;
+    private final FieldAllocationService fieldAllocationService;
+    private final FieldGeometryCache fieldGeometryCache;
+    private final FieldLocator fieldLocator;
+    private final Clock clock;
 
     @Autowired
-    public FieldService(FieldRepository fieldRepository) {
+    public FieldService(FieldRepository fieldRepository, ApplicationEventPublisher eventPublisher,
+            SoilRecordRepository soilRecordRepository, WaterRecordRepository waterRecordRepository,
+            HarvestService harvestService, FieldClosureService fieldClosureService,
+            FieldAllocationService fieldAllocationService, FieldGeometryCache fieldGeometryCache,
+            FieldLocator fieldLocator, Clock clock) {
         this.fieldRepository = fieldRepository;
+        this.eventPublisher = eventPublisher;
+        this.soilRecordRepository = soilRecordRepository;
+        this.waterRecordRepository = waterRecordRepository;
+        this.harvestService = harvestService;
+        this.fieldClosureService = fieldClosureService;
+        this.fieldAllocationService = fieldAllocationService;
+        this.fieldGeometryCache = fieldGeometryCache;
+        this.fieldLocator = fieldLocator;
+        this.clock = clock;
     }
 
     public List<Field> getAllFields() {
         return fieldRepository.findAll();
     }
 
+    public long countFields() {
+        return fieldRepository.count();
+    }
+
     // Get only master farms (top-level)
     public List<Field> getMasterFarms() {
         return fieldRepository.findByParentFieldIsNull();
@@ -32,14 +79,138 @@ public class FieldService {
         return fieldRepository.findByParentFieldId(masterFarmId);
     }
 
+    // ===== Hierarchy, any number of levels deep (one query each) =====
+
+    // Every field beneath this one, nearest levels first; empty for an unknown field
+    public List<FieldNode> getDescendants(Long fieldId) {
+        return fieldRepository.findSubtree(fieldId).stream()
+                .filter(node -> node.getDepth() > 0)
+                .map(FieldService::node)
+                .toList();
+    }
+
+    // Parent first, master farm last; empty for a master farm or an unknown field
+    public List<FieldNode> getAncestors(Long fieldId) {
+        return fieldRepository.findAncestry(fieldId).stream()
+                .filter(node -> node.getDepth() > 0)
+                .map(FieldService::node)
+                .toList();
+    }
+
+    private static FieldNode node(FieldRepository.HierarchyNode row) {
+        return new FieldNode(row.getId(), row.getName(), row.getParentId(), row.getAreaSize(), row.getDepth());
+    }
+
+    // Levels above the field: 0 for a master farm, 1 for its subdivisions, ...
+    public int getLevel(Long fieldId) {
+        return getAncestors(fieldId).size();
+    }
+
+    // Subtree membership and totals come from the field_closure table, one indexed lookup each
+
+    // True when the field is the ancestor itself or anywhere beneath it
+    public boolean isWithin(Long fieldId, Long ancestorId) {
+        return fieldClosureService.isWithin(fieldId, ancestorId);
+    }
+
+    // Bottom-level fields beneath the field, by name
+    public List<FieldOption> getPlots(Long fieldId) {
+        return fieldClosureService.getPlots(fieldId);
+    }
+
+    public Optional<FieldRollup> getRollup(Long fieldId) {
+        return fieldClosureService.getRollup(fieldId);
+    }
+
+    // Rollup per master farm id, all farms in one query
+    public Map<Long, FieldRollup> getMasterFarmRollups() {
+        return fieldClosureService.getMasterFarmRollups();
+    }
+
+    public static final int MAX_SEARCH_RESULTS = 50;
+
+    // Fields whose name contains the term (case-insensitive), by name; for search-as-you-type pickers
+    public List<FieldOption> searchFields(String term, int limit) {
+        String needle = term == null ? "" : term.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return fieldRepository.searchByName(needle, Limit.of(Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS))));
+    }
+
+    // Rejects (IllegalArgumentException) a parent that is the field itself or one of its subdivisions, and a
+    // boundary that does not parse. Not checked against the parent's area: new subdivisions go through addSubdivision
+    @Transactional
     public Field saveField(Field field) {
-        return fieldRepository.save(field);
+        FieldGeometry.applyTo(field);
+        Long previousParentId = field.getId() != null ? fieldRepository.findParentIdById(field.getId()).orElse(null)
+                : null;
+        Field saved = fieldRepository.save(field);
+        Long parentId = saved.getParentField() != null ? saved.getParentField().getId() : null;
+        fieldClosureService.place(saved.getId(), parentId);
+        fieldLocator.refresh(saved);
+        // The parents' allocated areas may have changed with this field
+        fieldAllocationService.recount(parentId);
+        if (previousParentId != null && !previousParentId.equals(parentId)) {
+            fieldAllocationService.recount(previousParentId);
+        }
+        eventPublisher.publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.FIELD));
+        return saved;
+    }
+
+    /**
+     * Moves boundaries saved as JSON text before the binary form existed into
+     * it (see Field.boundaryGeometry) on startup. Only rows no one has looked
+     * at yet are read, id and text alone; those that encode are saved like any
+     * other edit, so the second-level and geometry caches see the new version,
+     * and the rest are marked to stay text, so each row is looked at once.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public int encodeTextBoundaries() {
+        List<Long> encodable = new ArrayList<>();
+        List<Long> kept = new ArrayList<>();
+        for (FieldRepository.TextBoundary row : fieldRepository.findUncheckedTextBoundaries()) {
+            (BoundaryCodec.fromJson(row.getBoundaryCoordinates()) != null ? encodable : kept).add(row.getId());
+        }
+        if (!encodable.isEmpty()) {
+            fieldRepository.findAllById(encodable)
+                    .forEach(field -> field.setBoundaryCoordinates(field.getBoundaryCoordinates()));
+            logger.info("Encoded {} field boundaries stored as JSON text", encodable.size());
+        }
+        if (!kept.isEmpty()) {
+            fieldRepository.markTextBoundariesKept(kept);
+        }
+        return encodable.size();
+    }
+
+    // The parsed boundary, from FieldGeometryCache; empty for an unknown field or one without a boundary
+    public Optional<FieldShape> getShape(Long fieldId) {
+        return fieldRepository.findById(fieldId)
+                .flatMap(field -> fieldGeometryCache.get(field).map(geometry -> FieldShape.of(field, geometry)));
+    }
+
+    // The field or subdivision drawn around a GPS position (the smallest, where they nest); see FieldLocator
+    public Optional<FieldOption> locate(double latitude, double longitude) {
+        return fieldLocator.locate(latitude, longitude);
+    }
+
+    /**
+     * Creates a subdivision under the master farm only if the farm still has
+     * room for it, safe against concurrent planners (see FieldAllocationService).
+     * Throws IllegalStateException when the farm is full.
+     */
+    public Field addSubdivision(Long masterFarmId, Field subdivision) {
+        return fieldAllocationService.addSubdivision(masterFarmId, subdivision);
     }
 
     public Optional<Field> getFieldById(Long id) {
         return fieldRepository.findById(id);
     }
 
+    // With its crops loaded, for views that list them outside the transaction
+    public Optional<Field> getFieldWithCrops(Long id) {
+        return fieldRepository.findWithCropsById(id);
+    }
+
     public Double calculateTotalLandArea() {
         return fieldRepository.findAll().stream()
                 .filter(field -> field.getAreaSize() != null)
@@ -55,7 +226,7 @@ public class FieldService {
                 .sum();
     }
 
-    // Validate if a subdivision can be added
+    // Validate if a subdivision can be added. Advisory only (for forms): addSubdivision checks again as it saves
     public boolean canAddSubdivision(Long masterFarmId, Double subdivisionSize) {
         Optional<Field> masterFarm = getFieldById(masterFarmId);
         if (masterFarm.isEmpty() || subdivisionSize == null) {
@@ -67,7 +238,7 @@ public class FieldService {
             return false;
         }
 
-        Double currentSubdivisionTotal = calculateSubdivisionArea(masterFarmId);
+        Double currentSubdivisionTotal = allocatedArea(masterFarm.get());
         return (currentSubdivisionTotal + subdivisionSize) <= masterFarmSize;
     }
 
@@ -79,15 +250,29 @@ public class FieldService {
         }
 
         Double masterFarmSize = masterFarm.get().getAreaSize();
-        Double subdivisionTotal = calculateSubdivisionArea(masterFarmId);
+        Double subdivisionTotal = allocatedArea(masterFarm.get());
         return masterFarmSize - subdivisionTotal;
     }
 
+    // The maintained counter when known, else summed from the subdivisions
+    private Double allocatedArea(Field masterFarm) {
+        return masterFarm.getAllocatedArea() != null ? masterFarm.getAllocatedArea()
+                : calculateSubdivisionArea(masterFarm.getId());
+    }
+
+    /**
+     * Farm-wide field readings, each a single aggregate query: mean soil pH of
+     * the last 90 days, water drawn in the last 30 days (liters) and tons
+     * harvested this season. Readings without data are null.
+     */
     public java.util.Map<String, Object> getFieldMetrics() {
+        java.time.LocalDate today = java.time.LocalDate.now(clock);
+        Double ph = soilRecordRepository.averagePhSince(today.minusDays(90));
+        Double water = waterRecordRepository.sumQuantitySince(today.minusDays(30));
         java.util.Map<String, Object> metrics = new java.util.HashMap<>();
-        metrics.put("phLevel", 5);
-        metrics.put("temperature", 26);
-        metrics.put("waterLevel", 1060);
+        metrics.put("phLevel", ph != null ? Math.round(ph * 10) / 10.0 : null);
+        metrics.put("waterLevel", water != null ? Math.round(water) : null);
+        metrics.put("harvested", harvestService.getFarmTotals(today.getYear()).collected());
         return metrics;
     }
 }
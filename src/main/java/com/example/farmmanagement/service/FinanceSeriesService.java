@@ -0,0 +1,127 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.FinanceSeries;
+import com.example.farmmanagement.model.CropTransaction;
+import com.example.farmmanagement.repository.CropTransactionRepository;
+import com.example.farmmanagement.repository.LedgerRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Income/expense time series for charts. Daily and weekly buckets are grouped by
+ * transaction date in the database; monthly buckets are read from the
+ * ledger_rollups table, so none of them load individual transactions.
+ */
+@Service
+public class FinanceSeriesService {
+
+    // Keeps a single request from asking for e.g. ten years of daily buckets
+    public static final int MAX_BUCKETS = 1000;
+
+    private final CropTransactionRepository transactionRepository;
+    private final LedgerRollupRepository rollupRepository;
+    private final Clock clock;
+
+    @Autowired
+    public FinanceSeriesService(CropTransactionRepository transactionRepository,
+            LedgerRollupRepository rollupRepository, Clock clock) {
+        this.transactionRepository = transactionRepository;
+        this.rollupRepository = rollupRepository;
+        this.clock = clock;
+    }
+
+    /**
+     * Buckets income and expense between from and to (inclusive; either may be
+     * null for a default window ending today), for the whole farm, one crop or
+     * the crops of one field. The range is widened to whole weeks/months.
+     */
+    @Transactional(readOnly = true)
+    public FinanceSeries getSeries(FinanceSeries.Granularity granularity, LocalDate from, LocalDate to,
+            Long cropId, Long fieldId) {
+        if (cropId != null && fieldId != null) {
+            throw new IllegalArgumentException("Filter by crop or by field, not both");
+        }
+        LocalDate end = to != null ? to : LocalDate.now(clock);
+        LocalDate start = from != null ? from : defaultStart(granularity, end);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        start = granularity.bucketStart(start);
+        end = granularity.next(granularity.bucketStart(end)).minusDays(1);
+
+        Map<LocalDate, double[]> buckets = new LinkedHashMap<>();
+        for (LocalDate bucket = start; !bucket.isAfter(end); bucket = granularity.next(bucket)) {
+            if (buckets.size() == MAX_BUCKETS) {
+                throw new IllegalArgumentException("Range spans more than " + MAX_BUCKETS + " buckets");
+            }
+            buckets.put(bucket, new double[2]);
+        }
+
+        if (granularity == FinanceSeries.Granularity.MONTH) {
+            for (CropTransactionRepository.PeriodTotal row : monthlyTotals(start, end, cropId, fieldId)) {
+                add(buckets.get(LocalDate.of(row.getPeriodYear(), row.getPeriodMonth(), 1)), row);
+            }
+        } else {
+            for (CropTransactionRepository.DailyTotal row : dailyTotals(start, end, cropId, fieldId)) {
+                add(buckets.get(granularity.bucketStart(row.getBucketDate())), row);
+            }
+        }
+
+        List<FinanceSeries.Point> points = new ArrayList<>(buckets.size());
+        buckets.forEach((bucket, totals) -> points.add(new FinanceSeries.Point(bucket, totals[0], totals[1])));
+        return new FinanceSeries(granularity, start, end, points);
+    }
+
+    private List<CropTransactionRepository.DailyTotal> dailyTotals(LocalDate start, LocalDate end, Long cropId,
+            Long fieldId) {
+        if (cropId != null) {
+            return transactionRepository.sumAmountByDayAndTypeForCrop(cropId, start, end);
+        }
+        if (fieldId != null) {
+            return transactionRepository.sumAmountByDayAndTypeForField(fieldId, start, end);
+        }
+        return transactionRepository.sumAmountByDayAndType(start, end);
+    }
+
+    private List<CropTransactionRepository.PeriodTotal> monthlyTotals(LocalDate start, LocalDate end, Long cropId,
+            Long fieldId) {
+        int fromPeriod = start.getYear() * 100 + start.getMonthValue();
+        int toPeriod = end.getYear() * 100 + end.getMonthValue();
+        if (cropId != null) {
+            return rollupRepository.sumMonthlyForCrop(cropId, fromPeriod, toPeriod);
+        }
+        if (fieldId != null) {
+            return rollupRepository.sumMonthlyForField(fieldId, fromPeriod, toPeriod);
+        }
+        return rollupRepository.sumMonthly(fromPeriod, toPeriod);
+    }
+
+    private void add(double[] bucket, CropTransactionRepository.TypeTotal row) {
+        if (bucket == null || row.getTotal() == null) {
+            return;
+        }
+        if (row.getTransactionType() == CropTransaction.TransactionType.INCOME) {
+            bucket[0] += row.getTotal();
+        } else if (row.getTransactionType() == CropTransaction.TransactionType.EXPENSE) {
+            bucket[1] += row.getTotal();
+        }
+    }
+
+    // 30 days, 12 weeks or 12 months ending with the bucket that contains end
+    private LocalDate defaultStart(FinanceSeries.Granularity granularity, LocalDate end) {
+        return switch (granularity) {
+            case DAY -> end.minusDays(29);
+            case WEEK -> end.minusWeeks(11);
+            case MONTH -> end.minusMonths(11).with(TemporalAdjusters.firstDayOfMonth());
+        };
+    }
+}
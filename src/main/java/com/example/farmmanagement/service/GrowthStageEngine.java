@@ -0,0 +1,262 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.CropGrowth;
+import com.example.farmmanagement.dto.GrowthSummary;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.model.GrowthStage;
+import com.example.farmmanagement.repository.CropRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Growth stage and progress of every crop in the ground, from its planting
+ * and harvest dates and its type's profile. The active crops are loaded once
+ * into parallel primitive arrays (epoch days, profile index) and computed in
+ * one pass, split with fork/join when there are enough of them. The result
+ * is kept until a crop changes or the day rolls over, so pages read it
+ * instead of recomputing it per request.
+ */
+@Service
+public class GrowthStageEngine {
+
+    // Below this many crops one sequential pass (well under a millisecond) beats splitting it; see
+    // GrowthStageBenchmarkTest. Single-core hosts never split.
+    static final int PARALLEL_THRESHOLD = 16_384;
+    private static final int LEAF_SIZE = 4_096;
+    static final int TREND_DAYS = 7;
+
+    private static final GrowthStage[] STAGES = GrowthStage.values();
+
+    // Profile 0 is the default for types without one; stage ends are fractions of the season
+    private static final String[] PROFILE_TYPES = { null, "maize", "wheat", "barley", "rice", "sorghum", "beans",
+            "soybeans", "potatoes" };
+    private static final int[] SEASON_DAYS = { 100, 120, 110, 95, 130, 115, 90, 110, 100 };
+    private static final double[] SEEDLING_ENDS = { 0.15, 0.10, 0.15, 0.15, 0.15, 0.12, 0.12, 0.12, 0.15 };
+    private static final double[] VEGETATIVE_ENDS = { 0.50, 0.50, 0.45, 0.45, 0.55, 0.50, 0.45, 0.45, 0.45 };
+    private static final double[] FLOWERING_ENDS = { 0.75, 0.70, 0.70, 0.70, 0.75, 0.72, 0.70, 0.70, 0.75 };
+
+    private final CropRepository cropRepository;
+    private final Clock clock;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    // Bumped on every invalidation so a computation that raced with a write is not published
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer computeTimer;
+
+    @Autowired
+    public GrowthStageEngine(CropRepository cropRepository, Clock clock, MeterRegistry meterRegistry) {
+        this.cropRepository = cropRepository;
+        this.clock = clock;
+        this.hits = meterRegistry.counter("crops.growth.requests", "result", "hit");
+        this.misses = meterRegistry.counter("crops.growth.requests", "result", "miss");
+        this.computeTimer = meterRegistry.timer("crops.growth.compute");
+    }
+
+    public GrowthSummary summary() {
+        return snapshot().summary();
+    }
+
+    // Empty for crops that are not in the ground today
+    public Optional<CropGrowth> growthOf(Long cropId) {
+        Snapshot snapshot = snapshot();
+        int index = cropId != null ? Arrays.binarySearch(snapshot.ids(), cropId) : -1;
+        if (index < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new CropGrowth(cropId, STAGES[snapshot.stages()[index]],
+                round(snapshot.percents()[index])));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFarmDataChanged(FarmDataChangedEvent event) {
+        if (event.kind() == FarmDataChangedEvent.Kind.CROP) {
+            invalidate();
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        current.set(null);
+    }
+
+    private Snapshot snapshot() {
+        LocalDate today = LocalDate.now(clock);
+        Snapshot snapshot = current.get();
+        if (snapshot != null && snapshot.generation() == generation.get() && snapshot.asOf().equals(today)) {
+            hits.increment();
+            return snapshot;
+        }
+        misses.increment();
+        long startedAt = generation.get();
+        snapshot = computeTimer.record(() -> load(today, startedAt));
+        if (generation.get() == startedAt) {
+            current.set(snapshot);
+        }
+        return snapshot;
+    }
+
+    private Snapshot load(LocalDate today, long startedAt) {
+        List<CropRepository.GrowthRow> rows = cropRepository.findGrowingOn(today);
+        int n = rows.size();
+        long[] ids = new long[n];
+        int[] planted = new int[n];
+        int[] harvest = new int[n];
+        byte[] profiles = new byte[n];
+        for (int i = 0; i < n; i++) {
+            CropRepository.GrowthRow row = rows.get(i);
+            int profile = profileOf(row.getType());
+            ids[i] = row.getId();
+            planted[i] = (int) row.getPlantingDate().toEpochDay();
+            harvest[i] = row.getHarvestDate() != null ? (int) row.getHarvestDate().toEpochDay()
+                    : planted[i] + SEASON_DAYS[profile];
+            profiles[i] = (byte) profile;
+        }
+
+        int day = (int) today.toEpochDay();
+        boolean parallel = n >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+        double[] percents = new double[n];
+        byte[] stages = new byte[n];
+        List<Double> trend = new ArrayList<>(TREND_DAYS);
+        for (int back = TREND_DAYS - 1; back > 0; back--) {
+            compute(planted, harvest, profiles, day - back, percents, stages, parallel);
+            trend.add(round(mean(percents)));
+        }
+        compute(planted, harvest, profiles, day, percents, stages, parallel);
+        double average = round(mean(percents));
+        trend.add(average);
+
+        Map<GrowthStage, Integer> counts = new EnumMap<>(GrowthStage.class);
+        for (GrowthStage stage : STAGES) {
+            counts.put(stage, 0);
+        }
+        for (byte stage : stages) {
+            counts.merge(STAGES[stage], 1, Integer::sum);
+        }
+        GrowthSummary summary = new GrowthSummary(today, n, average, Collections.unmodifiableMap(counts),
+                Collections.unmodifiableList(trend));
+        return new Snapshot(startedAt, today, ids, percents, stages, summary);
+    }
+
+    /**
+     * Progress (0..100) and stage ordinal of every crop on one day. The arrays
+     * are indexed alike; planted and harvest are epoch days.
+     */
+    public static void compute(int[] planted, int[] harvest, byte[] profiles, int day, double[] percents, byte[] stages,
+            boolean parallel) {
+        if (parallel) {
+            ForkJoinPool.commonPool().invoke(new Split(planted, harvest, profiles, day, percents, stages, 0,
+                    planted.length));
+        } else {
+            computeRange(planted, harvest, profiles, day, percents, stages, 0, planted.length);
+        }
+    }
+
+    private static void computeRange(int[] planted, int[] harvest, byte[] profiles, int day, double[] percents,
+            byte[] stages, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int span = Math.max(harvest[i] - planted[i], 1);
+            double progress = Math.min(Math.max((double) (day - planted[i]) / span, 0.0), 1.0);
+            int profile = profiles[i];
+            GrowthStage stage;
+            if (progress >= 1.0) {
+                stage = GrowthStage.READY;
+            } else if (progress < SEEDLING_ENDS[profile]) {
+                stage = GrowthStage.SEEDLING;
+            } else if (progress < VEGETATIVE_ENDS[profile]) {
+                stage = GrowthStage.VEGETATIVE;
+            } else if (progress < FLOWERING_ENDS[profile]) {
+                stage = GrowthStage.FLOWERING;
+            } else {
+                stage = GrowthStage.MATURING;
+            }
+            percents[i] = progress * 100.0;
+            stages[i] = (byte) stage.ordinal();
+        }
+    }
+
+    // Index of the type's profile for compute's profiles array, 0 for the default
+    public static int profileOf(String type) {
+        if (type != null) {
+            String key = type.trim().toLowerCase(Locale.ROOT);
+            for (int i = 1; i < PROFILE_TYPES.length; i++) {
+                if (PROFILE_TYPES[i].equals(key)) {
+                    return i;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static double mean(double[] values) {
+        if (values.length == 0) {
+            return 0.0;
+        }
+        double sum = 0.0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    private static double round(double percent) {
+        return Math.round(percent * 10.0) / 10.0;
+    }
+
+    private static final class Split extends RecursiveAction {
+        private final int[] planted;
+        private final int[] harvest;
+        private final byte[] profiles;
+        private final int day;
+        private final double[] percents;
+        private final byte[] stages;
+        private final int from;
+        private final int to;
+
+        private Split(int[] planted, int[] harvest, byte[] profiles, int day, double[] percents, byte[] stages,
+                int from, int to) {
+            this.planted = planted;
+            this.harvest = harvest;
+            this.profiles = profiles;
+            this.day = day;
+            this.percents = percents;
+            this.stages = stages;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                computeRange(planted, harvest, profiles, day, percents, stages, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Split(planted, harvest, profiles, day, percents, stages, from, mid),
+                    new Split(planted, harvest, profiles, day, percents, stages, mid, to));
+        }
+    }
+
+    private record Snapshot(long generation, LocalDate asOf, long[] ids, double[] percents, byte[] stages,
+            GrowthSummary summary) {
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.HarvestTotals;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.model.HarvestRecord;
+import com.example.farmmanagement.model.HarvestRollup;
+import com.example.farmmanagement.repository.HarvestRecordRepository;
+import com.example.farmmanagement.repository.HarvestRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Harvest records and the harvest_rollups table kept beside them, so yield
+ * and loss per crop, field and season are single-row lookups however long the
+ * harvest history grows.
+ */
+@Service
+public class HarvestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HarvestService.class);
+    private static final double TOLERANCE = 0.0005;
+
+    private final HarvestRecordRepository recordRepository;
+    private final HarvestRollupRepository rollupRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public HarvestService(HarvestRecordRepository recordRepository, HarvestRollupRepository rollupRepository,
+            ApplicationEventPublisher eventPublisher) {
+        this.recordRepository = recordRepository;
+        this.rollupRepository = rollupRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // Rollups are adjusted in the same transaction as the record itself
+    @Transactional
+    public HarvestRecord saveHarvest(HarvestRecord record) {
+        if (record.getCrop() == null) {
+            throw new IllegalArgumentException("A harvest record needs a crop");
+        }
+        if (record.getQuantity() == null || record.getQuantity() < 0
+                || (record.getLoss() != null && record.getLoss() < 0)) {
+            throw new IllegalArgumentException("Quantity and loss must be non-negative");
+        }
+        if (record.getLoss() == null) {
+            record.setLoss(0.0);
+        }
+        if (record.getId() != null) {
+            recordRepository.findStoredEntry(record.getId()).ifPresent(stored -> applyDelta(stored.getCropId(),
+                    stored.getFieldId(), stored.getSeason(), -value(stored.getQuantity()), -value(stored.getLoss()),
+                    -1));
+        } else if (record.getFieldId() == null && record.getCrop().getField() != null) {
+            record.setFieldId(record.getCrop().getField().getId());
+        }
+        // Flushed so a later findStoredEntry in the same transaction sees these values, not the old ones
+        HarvestRecord saved = recordRepository.saveAndFlush(record);
+        applyDelta(saved.getCrop().getId(), saved.getFieldId(),
+                saved.getHarvestDate() != null ? saved.getHarvestDate().getYear() : null, saved.getQuantity(),
+                saved.getLoss(), 1);
+        eventPublisher.publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.HARVEST));
+        return saved;
+    }
+
+    @Transactional
+    public void deleteHarvest(Long id) {
+        recordRepository.findStoredEntry(id).ifPresent(stored -> {
+            applyDelta(stored.getCropId(), stored.getFieldId(), stored.getSeason(), -value(stored.getQuantity()),
+                    -value(stored.getLoss()), -1);
+            recordRepository.deleteById(id);
+            eventPublisher.publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.HARVEST));
+        });
+    }
+
+    public List<HarvestRecord> getHarvestsByCropId(Long cropId) {
+        return recordRepository.findByCropIdOrderByHarvestDateDescIdDesc(cropId);
+    }
+
+    // ===== Reads (one rollup row each) =====
+    public HarvestTotals getFarmTotals(Integer season) {
+        return bucket(HarvestRollup.ALL_CROPS, HarvestRollup.ALL_FIELDS, season);
+    }
+
+    public HarvestTotals getCropTotals(Long cropId, Integer season) {
+        return bucket(cropId, HarvestRollup.ALL_FIELDS, season);
+    }
+
+    public HarvestTotals getFieldTotals(Long fieldId, Integer season) {
+        return bucket(HarvestRollup.ALL_CROPS, fieldId, season);
+    }
+
+    // Totals of every field that has harvests in the season (null for all time), keyed by field id
+    public Map<Long, HarvestTotals> getTotalsByField(Integer season) {
+        Map<Long, HarvestTotals> totals = new HashMap<>();
+        for (HarvestRecordRepository.HarvestTotal row : rollupRepository.findFieldBuckets(seasonKey(season))) {
+            totals.put(row.getFieldId(), totals(row));
+        }
+        return totals;
+    }
+
+    private HarvestTotals bucket(Long cropId, Long fieldId, Integer season) {
+        return rollupRepository.findBucket(cropId, fieldId, seasonKey(season)).map(HarvestService::totals)
+                .orElse(HarvestTotals.ZERO);
+    }
+
+    private static HarvestTotals totals(HarvestRecordRepository.HarvestTotal row) {
+        return new HarvestTotals(value(row.getQuantity()), value(row.getLoss()),
+                row.getRecordCount() != null ? row.getRecordCount() : 0L);
+    }
+
+    private static int seasonKey(Integer season) {
+        return season != null ? season : HarvestRollup.ALL_SEASONS;
+    }
+
+    // ===== Rebuild / verify against harvest_records =====
+    @Transactional
+    public int rebuild() {
+        Map<BucketKey, Bucket> buckets = recomputeBuckets();
+        rollupRepository.deleteAllRollups();
+        List<HarvestRollup> rollups = new ArrayList<>(buckets.size());
+        buckets.forEach((key, bucket) -> rollups.add(new HarvestRollup(null, key.cropId(), key.fieldId(),
+                key.season(), bucket.quantity, bucket.loss, bucket.count)));
+        rollupRepository.saveAll(rollups);
+        logger.info("Rebuilt {} harvest rollup buckets from harvest_records", rollups.size());
+        eventPublisher.publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.HARVEST));
+        return rollups.size();
+    }
+
+    // True when every bucket matches a fresh aggregation of harvest_records
+    @Transactional(readOnly = true)
+    public boolean isConsistent() {
+        Map<BucketKey, Bucket> expected = recomputeBuckets();
+        Map<BucketKey, Bucket> actual = new HashMap<>();
+        for (HarvestRecordRepository.HarvestTotal row : rollupRepository.findAllBuckets()) {
+            add(actual, new BucketKey(row.getCropId(), row.getFieldId(), row.getSeason()), value(row.getQuantity()),
+                    value(row.getLoss()), row.getRecordCount() != null ? row.getRecordCount() : 0L);
+        }
+        Set<BucketKey> keys = new HashSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+        int drifted = 0;
+        for (BucketKey key : keys) {
+            Bucket want = expected.getOrDefault(key, new Bucket());
+            Bucket have = actual.getOrDefault(key, new Bucket());
+            if (Math.abs(want.quantity - have.quantity) > TOLERANCE || Math.abs(want.loss - have.loss) > TOLERANCE
+                    || want.count != have.count) {
+                drifted++;
+            }
+        }
+        if (drifted > 0) {
+            logger.warn("Harvest rollup drift detected in {} of {} buckets", drifted, keys.size());
+        }
+        return drifted == 0;
+    }
+
+    // Existing databases start with an empty rollup table; seed it once on startup
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (rollupRepository.count() == 0 && recordRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    private Map<BucketKey, Bucket> recomputeBuckets() {
+        Map<BucketKey, Bucket> buckets = new HashMap<>();
+        for (HarvestRecordRepository.HarvestTotal row : recordRepository.sumByCropFieldAndSeason()) {
+            for (BucketKey key : keysFor(row.getCropId(), row.getFieldId(), row.getSeason())) {
+                add(buckets, key, value(row.getQuantity()), value(row.getLoss()), row.getRecordCount());
+            }
+        }
+        return buckets;
+    }
+
+    // Missing buckets are created atomically: another harvest for the same new crop, field or season may be
+    // creating them too
+    private void applyDelta(Long cropId, Long fieldId, Integer season, double quantity, double loss, long count) {
+        for (BucketKey key : keysFor(cropId, fieldId, season)) {
+            if (rollupRepository.applyDelta(key.cropId(), key.fieldId(), key.season(), quantity, loss, count) == 0) {
+                rollupRepository.upsert(key.cropId(), key.fieldId(), key.season(), quantity, loss, count);
+            }
+        }
+    }
+
+    // The six buckets one record contributes to
+    private static List<BucketKey> keysFor(Long cropId, Long fieldId, Integer season) {
+        long field = fieldId != null ? fieldId : HarvestRollup.NO_FIELD;
+        int year = season != null ? season : HarvestRollup.UNDATED;
+        return List.of(
+                new BucketKey(cropId, HarvestRollup.ALL_FIELDS, year),
+                new BucketKey(cropId, HarvestRollup.ALL_FIELDS, HarvestRollup.ALL_SEASONS),
+                new BucketKey(HarvestRollup.ALL_CROPS, field, year),
+                new BucketKey(HarvestRollup.ALL_CROPS, field, HarvestRollup.ALL_SEASONS),
+                new BucketKey(HarvestRollup.ALL_CROPS, HarvestRollup.ALL_FIELDS, year),
+                new BucketKey(HarvestRollup.ALL_CROPS, HarvestRollup.ALL_FIELDS, HarvestRollup.ALL_SEASONS));
+    }
+
+    private static void add(Map<BucketKey, Bucket> buckets, BucketKey key, double quantity, double loss, long count) {
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket());
+        bucket.quantity += quantity;
+        bucket.loss += loss;
+        bucket.count += count;
+    }
+
+    private static double value(Double value) {
+        return value != null ? value : 0.0;
+    }
+
+    private record BucketKey(Long cropId, Long fieldId, Integer season) {
+    }
+
+    private static final class Bucket {
+        private double quantity;
+        private double loss;
+        private long count;
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.LedgerDriftReport;
+import com.example.farmmanagement.dto.LedgerTotals;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.model.CropTransaction;
+import com.example.farmmanagement.model.LedgerRollup;
+import com.example.farmmanagement.repository.CropTransactionRepository;
+import com.example.farmmanagement.repository.LedgerRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains the ledger_rollups table so that dashboard and crop totals are
+ * constant-size lookups instead of scans over crop_transactions.
+ */
+@Service
+public class LedgerRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerRollupService.class);
+    private static final double TOLERANCE = 0.005;
+    private static final String BATCH_UPDATE_SQL = "UPDATE ledger_rollups SET total = total + ?, "
+            + "entry_count = entry_count + ? "
+            + "WHERE crop_id = ? AND transaction_type = ? AND period_year = ? AND period_month = ?";
+
+    private final LedgerRollupRepository rollupRepository;
+    private final CropTransactionRepository transactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public LedgerRollupService(LedgerRollupRepository rollupRepository,
+            CropTransactionRepository transactionRepository, ApplicationEventPublisher eventPublisher,
+            JdbcTemplate jdbcTemplate) {
+        this.rollupRepository = rollupRepository;
+        this.transactionRepository = transactionRepository;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // ===== Incremental maintenance (joins the caller's transaction) =====
+    @Transactional
+    public void record(Long cropId, CropTransaction.TransactionType type, LocalDate date, Double amount) {
+        applyDelta(cropId, type, date, amount != null ? amount : 0.0, 1);
+    }
+
+    @Transactional
+    public void reverse(Long cropId, CropTransaction.TransactionType type, LocalDate date, Double amount) {
+        applyDelta(cropId, type, date, amount != null ? -amount : 0.0, -1);
+    }
+
+    @Transactional
+    public void applyDelta(Long cropId, CropTransaction.TransactionType type, LocalDate date, double amount,
+            long count) {
+        if (cropId == null || type == null) {
+            return; // Untyped rows never count towards income or expense
+        }
+        int year = date != null ? date.getYear() : LedgerRollup.UNDATED;
+        int month = date != null ? date.getMonthValue() : LedgerRollup.UNDATED;
+        upsert(cropId, type, year, month, amount, count);
+        upsert(cropId, type, LedgerRollup.ALL_TIME, LedgerRollup.ALL_TIME, amount, count);
+        upsert(LedgerRollup.ALL_CROPS, type, LedgerRollup.ALL_TIME, LedgerRollup.ALL_TIME, amount, count);
+    }
+
+    // Bulk writes (imports): the batch's existing buckets are looked up once, then every touched
+    // bucket is written in one JDBC batch of updates and one of upserts (a bucket created meanwhile is added to)
+    @Transactional
+    public void apply(DeltaBatch batch) {
+        if (batch.buckets.isEmpty()) {
+            return;
+        }
+        Set<Long> cropIds = new HashSet<>();
+        batch.buckets.keySet().forEach(key -> cropIds.add(key.cropId()));
+        Set<BucketKey> existing = new HashSet<>();
+        for (CropTransactionRepository.MonthlyTotal row : rollupRepository.findBuckets(cropIds)) {
+            existing.add(new BucketKey(row.getCropId(), row.getTransactionType(), row.getPeriodYear(),
+                    row.getPeriodMonth()));
+        }
+
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> upserts = new ArrayList<>();
+        batch.buckets.forEach((key, bucket) -> {
+            if (existing.contains(key)) {
+                updates.add(new Object[] { bucket.total, bucket.count, key.cropId(), key.type().name(), key.year(),
+                        key.month() });
+            } else {
+                upserts.add(new Object[] { key.cropId(), key.type().name(), key.year(), key.month(), bucket.total,
+                        bucket.count });
+            }
+        });
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(BATCH_UPDATE_SQL, updates);
+        }
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(LedgerRollupRepository.UPSERT_SQL, upserts);
+        }
+    }
+
+    // The plain update covers existing buckets; a new one is created atomically, as a concurrent
+    // writer may be creating it too
+    private void upsert(Long cropId, CropTransaction.TransactionType type, int year, int month, double amount,
+            long count) {
+        if (rollupRepository.applyDelta(cropId, type, year, month, amount, count) == 0) {
+            rollupRepository.upsert(cropId, type.name(), year, month, amount, count);
+        }
+    }
+
+    // ===== Reads =====
+    public LedgerTotals getGlobalTotals() {
+        return CropTransactionService.totals(rollupRepository.findAllTimeTotals(LedgerRollup.ALL_CROPS));
+    }
+
+    public LedgerTotals getCropTotals(Long cropId) {
+        return CropTransactionService.totals(rollupRepository.findAllTimeTotals(cropId));
+    }
+
+    // ===== Rebuild / verify against crop_transactions =====
+    @Transactional
+    public int rebuild() {
+        return rebuildFromTransactions();
+    }
+
+    @Transactional(readOnly = true)
+    public LedgerDriftReport verify() {
+        Map<BucketKey, Bucket> expected = recomputeBuckets();
+        Map<BucketKey, Bucket> actual = new HashMap<>();
+        for (CropTransactionRepository.MonthlyTotal rollup : rollupRepository.findAllBuckets()) {
+            actual.put(new BucketKey(rollup.getCropId(), rollup.getTransactionType(), rollup.getPeriodYear(),
+                    rollup.getPeriodMonth()), new Bucket(rollup.getTotal(), rollup.getEntryCount()));
+        }
+
+        Set<BucketKey> keys = new HashSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+        List<LedgerDriftReport.Drift> drifts = new ArrayList<>();
+        for (BucketKey key : keys) {
+            Bucket want = expected.getOrDefault(key, new Bucket(0.0, 0L));
+            Bucket have = actual.getOrDefault(key, new Bucket(0.0, 0L));
+            if (Math.abs(want.total - have.total) > TOLERANCE || want.count != have.count) {
+                drifts.add(new LedgerDriftReport.Drift(key.cropId(), key.type(), key.year(), key.month(),
+                        want.total, have.total, want.count, have.count));
+            }
+        }
+        if (!drifts.isEmpty()) {
+            logger.warn("Ledger rollup drift detected in {} of {} buckets", drifts.size(), keys.size());
+        }
+        return new LedgerDriftReport(keys.size(), drifts);
+    }
+
+    // Existing databases start with an empty rollup table; seed it once on startup
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (rollupRepository.count() == 0 && transactionRepository.count() > 0) {
+            rebuildFromTransactions();
+        }
+    }
+
+    private int rebuildFromTransactions() {
+        Map<BucketKey, Bucket> buckets = recomputeBuckets();
+        rollupRepository.deleteAllRollups();
+        List<LedgerRollup> rollups = new ArrayList<>(buckets.size());
+        buckets.forEach((key, bucket) -> rollups.add(new LedgerRollup(null, key.cropId(), key.type(), key.year(),
+                key.month(), bucket.total, bucket.count)));
+        rollupRepository.saveAll(rollups);
+        logger.info("Rebuilt {} ledger rollup buckets from crop_transactions", rollups.size());
+        eventPublisher.publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.TRANSACTION));
+        return rollups.size();
+    }
+
+    private Map<BucketKey, Bucket> recomputeBuckets() {
+        Map<BucketKey, Bucket> buckets = new HashMap<>();
+        for (CropTransactionRepository.MonthlyTotal row : transactionRepository.sumAmountByCropTypeAndMonth()) {
+            double total = row.getTotal() != null ? row.getTotal() : 0.0;
+            long count = row.getEntryCount() != null ? row.getEntryCount() : 0L;
+            int year = row.getPeriodYear() != null ? row.getPeriodYear() : LedgerRollup.UNDATED;
+            int month = row.getPeriodMonth() != null ? row.getPeriodMonth() : LedgerRollup.UNDATED;
+            add(buckets, new BucketKey(row.getCropId(), row.getTransactionType(), year, month), total, count);
+            add(buckets, new BucketKey(row.getCropId(), row.getTransactionType(), LedgerRollup.ALL_TIME,
+                    LedgerRollup.ALL_TIME), total, count);
+            add(buckets, new BucketKey(LedgerRollup.ALL_CROPS, row.getTransactionType(), LedgerRollup.ALL_TIME,
+                    LedgerRollup.ALL_TIME), total, count);
+        }
+        return buckets;
+    }
+
+    private static void add(Map<BucketKey, Bucket> buckets, BucketKey key, double total, long count) {
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(0.0, 0L));
+        bucket.total += total;
+        bucket.count += count;
+    }
+
+    /** Ledger deltas for many rows, folded into their rollup buckets before they are written. */
+    public static final class DeltaBatch {
+        private final Map<BucketKey, Bucket> buckets = new HashMap<>();
+
+        public void record(Long cropId, CropTransaction.TransactionType type, LocalDate date, double amount) {
+            if (cropId == null || type == null) {
+                return;
+            }
+            int year = date != null ? date.getYear() : LedgerRollup.UNDATED;
+            int month = date != null ? date.getMonthValue() : LedgerRollup.UNDATED;
+            add(buckets, new BucketKey(cropId, type, year, month), amount, 1);
+            add(buckets, new BucketKey(cropId, type, LedgerRollup.ALL_TIME, LedgerRollup.ALL_TIME), amount, 1);
+            add(buckets, new BucketKey(LedgerRollup.ALL_CROPS, type, LedgerRollup.ALL_TIME, LedgerRollup.ALL_TIME),
+                    amount, 1);
+        }
+
+        public int size() {
+            return buckets.size();
+        }
+    }
+
+    private record BucketKey(Long cropId, CropTransaction.TransactionType type, int year, int month) {
+    }
+
+    private static final class Bucket {
+        private double total;
+        private long count;
+
+        private Bucket(Double total, Long count) {
+            this.total = total != null ? total : 0.0;
+            this.count = count != null ? count : 0L;
+        }
+    }
+}
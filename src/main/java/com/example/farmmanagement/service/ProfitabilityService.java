@@ -0,0 +1,286 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.FieldOption;
+import com.example.farmmanagement.dto.ProfitabilityPage;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.model.CropTransaction;
+import com.example.farmmanagement.model.LedgerRollup;
+import com.example.farmmanagement.model.Profitability;
+import com.example.farmmanagement.repository.CropRepository;
+import com.example.farmmanagement.repository.FieldRepository;
+import com.example.farmmanagement.repository.LedgerRollupRepository;
+import com.example.farmmanagement.repository.ProfitabilityRepository;
+import com.example.farmmanagement.repository.SoilInputRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the profitability table: margin per crop and per field for every
+ * season, so the leaderboard is a sorted, paged read of one indexed table
+ * instead of an income/expense lookup per crop. A refresh works field by
+ * field from the ledger rollups and the field's soil input costs; fields are
+ * independent, so they are refreshed in parallel, each in its own transaction.
+ */
+@Service
+public class ProfitabilityService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final Set<String> SORT_KEYS = Set.of("margin", "income", "expense", "inputCost", "label");
+
+    static final String INSERT_SQL = "INSERT INTO profitability (scope, subject_id, field_id, season, label, "
+            + "income, expense, input_cost, margin, refreshed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    static final String DELETE_FIELD_SQL = "DELETE FROM profitability WHERE field_id = ? "
+            + "OR (scope = 'CROP' AND subject_id IN (SELECT id FROM crop WHERE field_id = ?))";
+    static final String DELETE_UNASSIGNED_SQL = "DELETE FROM profitability WHERE field_id IS NULL "
+            + "OR (scope = 'CROP' AND subject_id IN (SELECT id FROM crop WHERE field_id IS NULL))";
+
+    private static final Set<FarmDataChangedEvent.Kind> SOURCES = EnumSet.of(FarmDataChangedEvent.Kind.CROP,
+            FarmDataChangedEvent.Kind.TRANSACTION, FarmDataChangedEvent.Kind.FIELD,
+            FarmDataChangedEvent.Kind.SOIL_INPUT);
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfitabilityService.class);
+
+    private final ProfitabilityRepository profitabilityRepository;
+    private final LedgerRollupRepository ledgerRollupRepository;
+    private final CropRepository cropRepository;
+    private final FieldRepository fieldRepository;
+    private final SoilInputRepository soilInputRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactionOperations;
+    private final TaskExecutor profitabilityExecutor;
+    private final Clock clock;
+
+    private final AtomicBoolean stale = new AtomicBoolean();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    @Autowired
+    public ProfitabilityService(ProfitabilityRepository profitabilityRepository,
+            LedgerRollupRepository ledgerRollupRepository, CropRepository cropRepository,
+            FieldRepository fieldRepository, SoilInputRepository soilInputRepository, JdbcTemplate jdbcTemplate,
+            TransactionOperations transactionOperations,
+            @Qualifier("profitabilityExecutor") TaskExecutor profitabilityExecutor, Clock clock) {
+        this.profitabilityRepository = profitabilityRepository;
+        this.ledgerRollupRepository = ledgerRollupRepository;
+        this.cropRepository = cropRepository;
+        this.fieldRepository = fieldRepository;
+        this.soilInputRepository = soilInputRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionOperations = transactionOperations;
+        this.profitabilityExecutor = profitabilityExecutor;
+        this.clock = clock;
+    }
+
+    // ===== Reads =====
+    public ProfitabilityPage getLeaderboard(Integer season, Profitability.Scope scope, String sortBy,
+            boolean ascending, int page, int size) {
+        String key = sortBy == null || sortBy.isBlank() ? "margin" : sortBy;
+        if (!SORT_KEYS.contains(key)) {
+            throw new IllegalArgumentException("Cannot sort by " + sortBy + "; use one of " + SORT_KEYS);
+        }
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        Sort sort = Sort.by(ascending ? Sort.Direction.ASC : Sort.Direction.DESC, key).and(Sort.by("subjectId"));
+        Page<Profitability> rows = profitabilityRepository.findBySeasonAndScope(
+                season != null ? season : Profitability.ALL_SEASONS, scope != null ? scope : Profitability.Scope.CROP,
+                PageRequest.of(Math.max(page, 0), pageSize, sort));
+        return new ProfitabilityPage(rows.getContent(), rows.getNumber(), rows.getSize(), rows.getTotalElements(),
+                profitabilityRepository.findLastRefresh());
+    }
+
+    // ===== Refresh =====
+
+    // Rebuilds every field (and the crops without one) in parallel; returns the number of rows written
+    public int refreshAll() {
+        refreshLock.lock();
+        try {
+            stale.set(false);
+            long start = System.nanoTime();
+            transactionOperations.executeWithoutResult(status -> profitabilityRepository.deleteOrphans());
+            List<FieldOption> fields = new ArrayList<>(fieldRepository.findAllOptions());
+            fields.add(new FieldOption(null, null));
+            List<CompletableFuture<Integer>> tasks = new ArrayList<>(fields.size());
+            for (FieldOption field : fields) {
+                tasks.add(CompletableFuture.supplyAsync(() -> refreshField(field.id(), field.name()),
+                        profitabilityExecutor));
+            }
+            int rows = 0;
+            for (CompletableFuture<Integer> task : tasks) {
+                rows += task.join();
+            }
+            logger.info("Refreshed profitability for {} fields ({} rows) in {} ms", fields.size() - 1, rows,
+                    (System.nanoTime() - start) / 1_000_000);
+            return rows;
+        } catch (CompletionException e) {
+            stale.set(true); // Try again on the next scheduled run
+            throw e;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Recomputes the rows of one field (fieldId null: crops without a field)
+     * in a single transaction, so the leaderboard never shows a half-written
+     * field. Three reads and one batch insert, whatever the field's history.
+     */
+    public int refreshField(Long fieldId, String fieldName) {
+        Integer written = transactionOperations.execute(status -> {
+            List<Object[]> rows = toInsertRows(computeField(fieldId, fieldName));
+            // Also clears rows of crops that moved here, which the old field's refresh may not have reached yet
+            if (fieldId != null) {
+                jdbcTemplate.update(DELETE_FIELD_SQL, fieldId, fieldId);
+            } else {
+                jdbcTemplate.update(DELETE_UNASSIGNED_SQL);
+            }
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            }
+            return rows.size();
+        });
+        return written != null ? written : 0;
+    }
+
+    // Ledger, crop and field writes only mark the table stale; the scheduled refresh coalesces them
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFarmDataChanged(FarmDataChangedEvent event) {
+        if (SOURCES.contains(event.kind())) {
+            stale.set(true);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${farm.profitability.refresh-interval:5m}",
+            initialDelayString = "${farm.profitability.refresh-interval:5m}")
+    public void refreshIfStale() {
+        if (stale.get()) {
+            refreshAll();
+        }
+    }
+
+    public boolean isStale() {
+        return stale.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshIfEmpty() {
+        if (profitabilityRepository.count() == 0 && cropRepository.count() > 0) {
+            refreshAll();
+        }
+    }
+
+    // ===== Computation =====
+    List<Profitability> computeField(Long fieldId, String fieldName) {
+        Map<Long, CropRepository.CropStub> crops = new HashMap<>();
+        // season -> crop -> {income, expense}; a crop is active in a season it has ledger entries or was planted in
+        Map<Integer, Map<Long, double[]>> ledger = new TreeMap<>();
+        for (CropRepository.CropStub crop : cropRepository.findStubsByField(fieldId)) {
+            crops.put(crop.getId(), crop);
+            totals(ledger, Profitability.ALL_SEASONS, crop.getId());
+            if (crop.getPlantingYear() != null) {
+                totals(ledger, crop.getPlantingYear(), crop.getId());
+            }
+        }
+        for (LedgerRollupRepository.CropYearTotal row : ledgerRollupRepository.sumYearlyByCropForField(fieldId)) {
+            if (!crops.containsKey(row.getCropId()) || row.getTransactionType() == null) {
+                continue;
+            }
+            int slot = row.getTransactionType() == CropTransaction.TransactionType.INCOME ? 0 : 1;
+            double amount = row.getTotal() != null ? row.getTotal() : 0.0;
+            if (row.getPeriodYear() != null && row.getPeriodYear() != LedgerRollup.UNDATED) {
+                totals(ledger, row.getPeriodYear(), row.getCropId())[slot] += amount;
+            }
+            totals(ledger, Profitability.ALL_SEASONS, row.getCropId())[slot] += amount;
+        }
+
+        Map<Integer, Double> inputCosts = new TreeMap<>();
+        if (fieldId != null) {
+            for (SoilInputRepository.SeasonCost row : soilInputRepository.sumCostBySeasonForField(fieldId)) {
+                double cost = row.getCost() != null ? row.getCost() : 0.0;
+                if (row.getSeason() != null) {
+                    inputCosts.merge(row.getSeason(), cost, Double::sum);
+                    ledger.computeIfAbsent(row.getSeason(), season -> new TreeMap<>());
+                }
+                inputCosts.merge(Profitability.ALL_SEASONS, cost, Double::sum);
+                ledger.computeIfAbsent(Profitability.ALL_SEASONS, season -> new TreeMap<>());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Profitability> rows = new ArrayList<>();
+        ledger.forEach((season, byCrop) -> {
+            double fieldCost = inputCosts.getOrDefault(season, 0.0);
+            double totalArea = 0.0;
+            for (Long cropId : byCrop.keySet()) {
+                totalArea += area(crops.get(cropId));
+            }
+            double income = 0.0;
+            double expense = 0.0;
+            for (Map.Entry<Long, double[]> entry : byCrop.entrySet()) {
+                CropRepository.CropStub crop = crops.get(entry.getKey());
+                // The field's input cost is shared by land size, or evenly when no sizes are recorded
+                double share = totalArea > 0 ? area(crop) / totalArea : 1.0 / byCrop.size();
+                double[] totals = entry.getValue();
+                rows.add(row(Profitability.Scope.CROP, crop.getId(), fieldId, season, CropTypeHistogram.label(
+                        crop.getType()), totals[0], totals[1], fieldCost * share, now));
+                income += totals[0];
+                expense += totals[1];
+            }
+            if (fieldId != null) {
+                rows.add(row(Profitability.Scope.FIELD, fieldId, fieldId, season, fieldName, income, expense,
+                        fieldCost, now));
+            }
+        });
+        return rows;
+    }
+
+    private static double[] totals(Map<Integer, Map<Long, double[]>> ledger, int season, Long cropId) {
+        return ledger.computeIfAbsent(season, s -> new TreeMap<>()).computeIfAbsent(cropId, c -> new double[2]);
+    }
+
+    private static double area(CropRepository.CropStub crop) {
+        return crop.getLandSize() != null && crop.getLandSize() > 0 ? crop.getLandSize() : 0.0;
+    }
+
+    private static Profitability row(Profitability.Scope scope, Long subjectId, Long fieldId, int season,
+            String label, double income, double expense, double inputCost, LocalDateTime refreshedAt) {
+        return new Profitability(null, scope, subjectId, fieldId, season, label, income, expense, inputCost,
+                income - expense - inputCost, refreshedAt);
+    }
+
+    private static List<Object[]> toInsertRows(List<Profitability> rows) {
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (Profitability row : rows) {
+            args.add(new Object[] { row.getScope().name(), row.getSubjectId(), row.getFieldId(), row.getSeason(),
+                    row.getLabel(), row.getIncome(), row.getExpense(), row.getInputCost(), row.getMargin(),
+                    Timestamp.valueOf(row.getRefreshedAt()) });
+        }
+        return args;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.model.ActivitySchedule;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Lazy expansion of activity schedules and the k-way merge that interleaves
+ * them with one-off activities. Nothing is materialized: an open-ended
+ * schedule is an endless iterator, and the merge only advances the source it
+ * has just taken from, so reading the next n items costs O(n log k) for k
+ * sources however long the schedules run.
+ */
+final class Recurrences {
+
+    private Recurrences() {
+    }
+
+    /**
+     * Occurrence dates of the schedule from..to inclusive, in order. to may be
+     * null to run until the schedule's own end (endlessly if it has none).
+     */
+    static Iterator<LocalDate> dates(ActivitySchedule schedule, LocalDate from, LocalDate to) {
+        LocalDate start = schedule.getStartDate();
+        LocalDate end = schedule.getEndDate() == null || (to != null && to.isBefore(schedule.getEndDate()))
+                ? to
+                : schedule.getEndDate();
+        int interval = Math.max(schedule.getRepeatInterval(), 1);
+        ActivitySchedule.Frequency frequency = schedule.getFrequency();
+
+        // Jump straight to the first occurrence on or after from instead of stepping through the past
+        long first = 0;
+        if (from != null && from.isAfter(start)) {
+            if (frequency == ActivitySchedule.Frequency.MONTHLY) {
+                first = ChronoUnit.MONTHS.between(start, from) / interval;
+                while (occurrence(start, frequency, interval, first).isBefore(from)) {
+                    first++;
+                }
+            } else {
+                long step = (long) interval * (frequency == ActivitySchedule.Frequency.WEEKLY ? 7 : 1);
+                first = (ChronoUnit.DAYS.between(start, from) + step - 1) / step;
+            }
+        }
+        long firstIndex = first;
+
+        return new Iterator<>() {
+            private long index = firstIndex;
+            private LocalDate next = occurrence(start, frequency, interval, index);
+
+            @Override
+            public boolean hasNext() {
+                return end == null || !next.isAfter(end);
+            }
+
+            @Override
+            public LocalDate next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                LocalDate current = next;
+                next = occurrence(start, frequency, interval, ++index);
+                return current;
+            }
+        };
+    }
+
+    // Counted from the start each time so monthly dates clamp (Jan 31, Feb 28, Mar 31) without drifting
+    private static LocalDate occurrence(LocalDate start, ActivitySchedule.Frequency frequency, int interval,
+            long index) {
+        return switch (frequency) {
+            case DAILY -> start.plusDays(index * interval);
+            case WEEKLY -> start.plusWeeks(index * interval);
+            case MONTHLY -> start.plusMonths(index * interval);
+        };
+    }
+
+    static <T, R> Iterator<R> map(Iterator<T> source, Function<? super T, ? extends R> mapper) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public R next() {
+                return mapper.apply(source.next());
+            }
+        };
+    }
+
+    /**
+     * Merges sources that are each already in order into one ordered
+     * iterator. Ties go to the earlier source, so callers list one-off
+     * activities first.
+     */
+    static <T> Iterator<T> merge(List<Iterator<T>> sources, Comparator<? super T> order) {
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>(Math.max(sources.size(), 1),
+                Comparator.<Head<T>, T>comparing(Head::value, order).thenComparingInt(Head::source));
+        for (int i = 0; i < sources.size(); i++) {
+            if (sources.get(i).hasNext()) {
+                heads.add(new Head<>(sources.get(i).next(), i));
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                Head<T> head = heads.poll();
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+                Iterator<T> source = sources.get(head.source());
+                if (source.hasNext()) {
+                    heads.add(new Head<>(source.next(), head.source()));
+                }
+                return head.value();
+            }
+        };
+    }
+
+    private record Head<T>(T value, int source) {
+    }
+}
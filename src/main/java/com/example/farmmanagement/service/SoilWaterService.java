@@ -1,5 +1,7 @@
 package com.example.farmmanagement.service;
 
+import com.example.farmmanagement.dto.FieldSoilWater;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
 import com.example.farmmanagement.model.SoilInput;
 import com.example.farmmanagement.model.SoilRecord;
 import com.example.farmmanagement.model.WaterRecord;
@@ -7,6 +9,7 @@ import com.example.farmmanagement.repository.SoilInputRepository;
 import com.example.farmmanagement.repository.SoilRecordRepository;
 import com.example.farmmanagement.repository.WaterRecordRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
@@ -20,15 +23,18 @@ public class SoilWaterService {
     private final SoilRecordRepository soilRecordRepository;
     private final WaterRecordRepository waterRecordRepository;
     private final SoilInputRepository soilInputRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public SoilWaterService(
             SoilRecordRepository soilRecordRepository,
             WaterRecordRepository waterRecordRepository,
-            SoilInputRepository soilInputRepository) {
+            SoilInputRepository soilInputRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.soilRecordRepository = soilRecordRepository;
         this.waterRecordRepository = waterRecordRepository;
         this.soilInputRepository = soilInputRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     // ===== Soil Records =====
@@ -81,7 +87,9 @@ public class SoilWaterService {
     }
 
     public SoilInput saveSoilInput(SoilInput soilInput) {
-        return soilInputRepository.save(soilInput);
+        SoilInput saved = soilInputRepository.save(soilInput);
+        eventPublisher.publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.SOIL_INPUT));
+        return saved;
     }
 
     public Optional<SoilInput> getSoilInputById(Long id) {
@@ -127,9 +135,48 @@ public class SoilWaterService {
         return summary;
     }
 
+    // The field details page in three queries: each record list once, the rest derived from them
+    public FieldSoilWater getFieldSoilWater(Long fieldId) {
+        List<SoilRecord> soilRecords = getSoilRecordsByField(fieldId);
+        List<WaterRecord> waterRecords = getWaterRecordsByField(fieldId);
+        List<SoilInput> inputs = getSoilInputsByField(fieldId);
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("totalSoilTests", soilRecords.size());
+        summary.put("avgSoilPH", soilRecords.stream()
+                .filter(r -> r.getPH() != null)
+                .mapToDouble(SoilRecord::getPH)
+                .average()
+                .orElse(0.0));
+        summary.put("latestSoilRecord", soilRecords.isEmpty() ? null : soilRecords.get(0));
+        summary.put("totalWaterTests", waterRecords.size());
+        summary.put("avgWaterPH", waterRecords.stream()
+                .filter(r -> r.getPH() != null)
+                .mapToDouble(WaterRecord::getPH)
+                .average()
+                .orElse(0.0));
+        summary.put("latestWaterRecord", waterRecords.isEmpty() ? null : waterRecords.get(0));
+        summary.put("totalInputs", inputs.size());
+        summary.put("totalInputCost", inputs.stream()
+                .filter(i -> i.getCost() != null)
+                .mapToDouble(SoilInput::getCost)
+                .sum());
+
+        return new FieldSoilWater(soilRecords, waterRecords, inputs, summary, phTrend(soilRecords),
+                nutrientLevels(soilRecords));
+    }
+
     // Get chart data for soil pH trends over time
     public List<Map<String, Object>> getSoilPHTrendData(Long fieldId) {
-        List<SoilRecord> records = soilRecordRepository.findByFieldIdOrderByTestDateDesc(fieldId);
+        return phTrend(soilRecordRepository.findByFieldIdOrderByTestDateDesc(fieldId));
+    }
+
+    // Get chart data for nutrient levels
+    public Map<String, Double> getLatestNutrientLevels(Long fieldId) {
+        return nutrientLevels(soilRecordRepository.findByFieldIdOrderByTestDateDesc(fieldId));
+    }
+
+    private static List<Map<String, Object>> phTrend(List<SoilRecord> records) {
         return records.stream()
                 .filter(r -> r.getPH() != null && r.getTestDate() != null)
                 .map(r -> {
@@ -141,9 +188,8 @@ public class SoilWaterService {
                 .toList();
     }
 
-    // Get chart data for nutrient levels
-    public Map<String, Double> getLatestNutrientLevels(Long fieldId) {
-        List<SoilRecord> records = soilRecordRepository.findByFieldIdOrderByTestDateDesc(fieldId);
+    // Records newest first, as the repository returns them
+    private static Map<String, Double> nutrientLevels(List<SoilRecord> records) {
         if (records.isEmpty()) {
             return Map.of("nitrogen", 0.0, "phosphorus", 0.0, "potassium", 0.0);
         }
@@ -0,0 +1,314 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.ImportReport;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.model.CropTransaction;
+import com.example.farmmanagement.repository.CropRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk import of crop transactions from CSV or JSON lines. The upload is read
+ * one line at a time and written through JDBC batches, each batch in its own
+ * transaction together with its ledger rollup deltas, so memory stays flat and
+ * a bad batch does not undo the ones before it. The deltas are folded over the
+ * whole batch while its rows are read and written once when it commits, one
+ * upsert per rollup bucket however many rows land in it.
+ */
+@Service
+public class TransactionImportService {
+
+    public static final int MAX_LISTED_REJECTIONS = 100;
+    public static final int MAX_DESCRIPTION_LENGTH = 255;
+
+    static final String INSERT_SQL = "INSERT INTO crop_transactions "
+            + "(crop_id, transaction_type, amount, description, transaction_date) VALUES (?, ?, ?, ?, ?)";
+
+    private static final Pattern NON_LETTERS = Pattern.compile("[^a-z]");
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionImportService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactionOperations;
+    private final CropRepository cropRepository;
+    private final LedgerRollupService ledgerRollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+
+    @Autowired
+    public TransactionImportService(JdbcTemplate jdbcTemplate, TransactionOperations transactionOperations,
+            CropRepository cropRepository, LedgerRollupService ledgerRollupService,
+            ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${farm.import.batch-size:10000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionOperations = transactionOperations;
+        this.cropRepository = cropRepository;
+        this.ledgerRollupService = ledgerRollupService;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.importedRows = meterRegistry.counter("ledger.import.rows", "result", "imported");
+        this.rejectedRows = meterRegistry.counter("ledger.import.rows", "result", "rejected");
+    }
+
+    /**
+     * CSV with a header row. Recognised columns (any order, case-insensitive):
+     * cropId, type, amount, date (yyyy-MM-dd, optional), description (optional).
+     */
+    public ImportReport importCsv(Reader reader) throws IOException {
+        Run run = new Run();
+        BufferedReader lines = new BufferedReader(reader);
+        String headerLine = lines.readLine();
+        if (headerLine == null) {
+            return run.finish();
+        }
+        List<String> rawHeader = parseCsvLine(headerLine);
+        List<String> header = rawHeader == null ? List.of()
+                : rawHeader.stream().map(TransactionImportService::column).toList();
+        if (!header.containsAll(List.of("cropid", "type", "amount"))) {
+            run.reject(1, "Header must name the cropId, type and amount columns");
+            return run.finish();
+        }
+        long lineNo = 1;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> cells = parseCsvLine(line);
+            if (cells == null) {
+                run.reject(lineNo, "Unbalanced quotes");
+                continue;
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < header.size() && i < cells.size(); i++) {
+                fields.put(header.get(i), cells.get(i));
+            }
+            run.accept(lineNo, fields);
+        }
+        return run.finish();
+    }
+
+    /**
+     * One JSON object per line with the same fields as the CSV columns.
+     */
+    public ImportReport importJsonLines(Reader reader) throws IOException {
+        Run run = new Run();
+        BufferedReader lines = new BufferedReader(reader);
+        long lineNo = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (IOException e) {
+                run.reject(lineNo, "Malformed JSON");
+                continue;
+            }
+            if (!node.isObject()) {
+                run.reject(lineNo, "Expected a JSON object");
+                continue;
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext();) {
+                Map.Entry<String, JsonNode> field = it.next();
+                fields.put(column(field.getKey()), field.getValue().isNull() ? null : field.getValue().asText());
+            }
+            run.accept(lineNo, fields);
+        }
+        return run.finish();
+    }
+
+    // Normalises header names, so cropId, crop_id and CROP-ID all match
+    private static String column(String name) {
+        String key = NON_LETTERS.matcher(name.toLowerCase(Locale.ROOT)).replaceAll("");
+        return switch (key) {
+            case "transactiontype" -> "type";
+            case "transactiondate" -> "date";
+            default -> key;
+        };
+    }
+
+    // RFC 4180 fields on a single line: quoted fields may contain commas and doubled quotes
+    static List<String> parseCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString().trim());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        cells.add(cell.toString().trim());
+        return cells;
+    }
+
+    private record ParsedRow(long line, Long cropId, CropTransaction.TransactionType type, double amount,
+            String description, LocalDate date) {
+    }
+
+    /** State of one import: the pending batch, counters and the crop id cache. */
+    private class Run {
+        private final long startedAt = System.nanoTime();
+        private final List<ParsedRow> batch = new ArrayList<>(batchSize);
+        private LedgerRollupService.DeltaBatch deltas = new LedgerRollupService.DeltaBatch();
+        private final Map<Long, Boolean> knownCrops = new HashMap<>();
+        private final List<ImportReport.Rejection> rejections = new ArrayList<>();
+        private long processed;
+        private long imported;
+        private long rejected;
+
+        void accept(long line, Map<String, String> fields) {
+            processed++;
+            String error = null;
+            Long cropId = null;
+            CropTransaction.TransactionType type = null;
+            double amount = 0;
+            LocalDate date = null;
+            try {
+                cropId = Long.valueOf(require(fields, "cropid"));
+                type = CropTransaction.TransactionType.valueOf(require(fields, "type").toUpperCase(Locale.ROOT));
+                amount = Double.parseDouble(require(fields, "amount"));
+                String rawDate = fields.get("date");
+                date = rawDate == null || rawDate.isBlank() ? null : LocalDate.parse(rawDate.trim());
+            } catch (MissingFieldException e) {
+                error = "Missing " + e.getMessage();
+            } catch (NumberFormatException e) {
+                error = cropId == null ? "cropId is not a number" : "amount is not a number";
+            } catch (IllegalArgumentException e) {
+                error = "type must be INCOME or EXPENSE";
+            } catch (DateTimeParseException e) {
+                error = "date must be yyyy-MM-dd";
+            }
+            String description = fields.get("description");
+            if (error == null && (!Double.isFinite(amount) || amount < 0)) {
+                error = "amount must be a non-negative number";
+            } else if (error == null && description != null && description.length() > MAX_DESCRIPTION_LENGTH) {
+                error = "description is longer than " + MAX_DESCRIPTION_LENGTH + " characters";
+            } else if (error == null && !knownCrops.computeIfAbsent(cropId, cropRepository::existsById)) {
+                error = "Unknown crop " + cropId;
+            }
+            if (error != null) {
+                reject(line, error);
+                return;
+            }
+            batch.add(new ParsedRow(line, cropId, type, amount, description, date));
+            deltas.record(cropId, type, date, amount);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String reason) {
+            rejected++;
+            rejectedRows.increment();
+            if (rejections.size() < MAX_LISTED_REJECTIONS) {
+                rejections.add(new ImportReport.Rejection(line, reason));
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Object[]> args = new ArrayList<>(batch.size());
+            for (ParsedRow row : batch) {
+                args.add(new Object[] { row.cropId(), row.type().name(), row.amount(), row.description(),
+                        row.date() != null ? Date.valueOf(row.date()) : null });
+            }
+            LedgerRollupService.DeltaBatch batchDeltas = deltas;
+            deltas = new LedgerRollupService.DeltaBatch();
+            try {
+                transactionOperations.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, args);
+                    ledgerRollupService.apply(batchDeltas);
+                });
+                imported += batch.size();
+                importedRows.increment(batch.size());
+            } catch (DataAccessException e) {
+                logger.warn("Import batch of {} rows failed: {}", batch.size(), e.getMessage());
+                for (ParsedRow row : batch) {
+                    reject(row.line(), "Batch failed: " + e.getMostSpecificCause().getMessage());
+                }
+                knownCrops.clear(); // Most likely a crop was deleted meanwhile
+            }
+            batch.clear();
+            logger.info("Transaction import progress: {} rows read, {} imported, {} rejected", processed,
+                    imported, rejected);
+        }
+
+        ImportReport finish() {
+            flush();
+            if (imported > 0) {
+                eventPublisher.publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.TRANSACTION));
+            }
+            return new ImportReport(processed, imported, rejected, List.copyOf(rejections),
+                    (System.nanoTime() - startedAt) / 1_000_000);
+        }
+    }
+
+    private static String require(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null || value.isBlank()) {
+            throw new MissingFieldException(name);
+        }
+        return value.trim();
+    }
+
+    private static class MissingFieldException extends RuntimeException {
+        MissingFieldException(String field) {
+            super(field);
+        }
+    }
+}
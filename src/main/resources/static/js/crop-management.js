@@ -15,7 +15,7 @@ document.addEventListener('DOMContentLoaded', () => {
             data: {
                 labels: ['Wasted', 'Planted', 'Collected'],
                 datasets: [{
-                    data: [harvestStats.Wasted || 30, harvestStats.Planted || 200, harvestStats.Collected || 170],
+                    data: [harvestStats.Wasted ?? 0, harvestStats.Planted ?? 0, harvestStats.Collected ?? 0], // Tons this season
                     backgroundColor: ['#3b82f6', '#22c55e', '#fbbf24'], // Blue, Green, Yellow
                     borderWidth: 0,
                     hoverOffset: 4
@@ -41,10 +41,11 @@ document.addEventListener('DOMContentLoaded', () => {
         new Chart(growthCanvas.getContext('2d'), {
             type: 'line',
             data: {
-                labels: ['1day', '2day', '5day', '6day', '7day', '8day', '9day', '10day'],
+                // One point per day, the last being today
+                labels: growthData.map((_, i) => i === growthData.length - 1 ? 'Today' : (growthData.length - 1 - i) + 'd ago'),
                 datasets: [{
-                    label: 'Height (cm)',
-                    data: growthData.length > 0 ? growthData : [1, 2, 2.5, 3, 3.5, 4, 4.5, 5],
+                    label: 'Avg. progress (%)',
+                    data: growthData,
                     borderColor: '#22c55e',
                     backgroundColor: (context) => {
                         const ctx = context.chart.ctx;
@@ -64,7 +65,7 @@ document.addEventListener('DOMContentLoaded', () => {
                 responsive: true,
                 maintainAspectRatio: false,
                 scales: {
-                    y: { beginAtZero: true, grid: { borderDash: [2, 4] } },
+                    y: { beginAtZero: true, max: 100, grid: { borderDash: [2, 4] } },
                     x: { grid: { display: false } }
                 },
                 plugins: { legend: { display: false } }
@@ -76,14 +77,14 @@ document.addEventListener('DOMContentLoaded', () => {
     const fieldCanvas = document.getElementById('fieldMetricsChart');
     if (fieldCanvas) {
         // Mock proportions if not fully available, purely visualization based on metric presence?
-        // Actually, fieldMetrics contains specific values like PH, Temp, WaterLevel.
+        // Actually, fieldMetrics contains specific values like PH, Harvested, WaterLevel.
         // The original chart had hardcoded mock data [60, 25, 15]. 
         // We will keep it visual for now as the values have different units.
 
         new Chart(fieldCanvas.getContext('2d'), {
             type: 'doughnut',
             data: {
-                labels: ['Water', 'PH', 'Temp'],
+                labels: ['Water', 'PH', 'Harvested'],
                 datasets: [{
                     data: [60, 25, 15], // Mock proportions for visualization
                     backgroundColor: ['#3b82f6', '#22c55e', '#e5e7eb'],
@@ -101,4 +102,140 @@ document.addEventListener('DOMContentLoaded', () => {
             }
         });
     }
+
+    initCropList(cropData);
 });
+
+// --- Crop List (keyset pages from /api/crops, loaded as the list scrolls) ---
+function initCropList(cropData) {
+    const body = document.getElementById('cropListBody');
+    const status = document.getElementById('cropListStatus');
+    const sentinel = document.getElementById('cropListSentinel');
+    const filters = document.getElementById('cropFilters');
+    if (!body || !cropData.dataset.cropsUrl) return;
+
+    let cursor = null;
+    let done = false;
+    let loading = false;
+    let generation = 0; // Discards pages that arrive after the filters changed
+
+    const formatDate = (value) => value
+        ? new Date(value + 'T00:00:00').toLocaleDateString(undefined, { month: 'short', day: '2-digit', year: 'numeric' })
+        : '-';
+
+    const cell = (text) => {
+        const td = document.createElement('td');
+        td.className = 'py-3 text-sm text-gray-600';
+        td.textContent = text;
+        return td;
+    };
+
+    const appendRow = (crop) => {
+        const tr = document.createElement('tr');
+        tr.className = 'hover:bg-gray-50 transition-colors';
+        const name = document.createElement('td');
+        name.className = 'py-3';
+        const link = document.createElement('a');
+        link.href = '/crop/' + crop.id;
+        link.className = 'font-bold text-gray-700 text-sm hover:text-green-600';
+        link.textContent = crop.type || 'Unspecified';
+        name.appendChild(link);
+        tr.append(name, cell(crop.fieldName || '-'), cell(crop.landSize != null ? crop.landSize + ' acres' : '-'),
+            cell(formatDate(crop.plantingDate)), cell(formatDate(crop.harvestDate)));
+        body.appendChild(tr);
+    };
+
+    const loadMore = async () => {
+        if (loading || done) return;
+        loading = true;
+        const requested = generation;
+        const params = new URLSearchParams();
+        new FormData(filters).forEach((value, key) => { if (value) params.set(key, value); });
+        if (cursor !== null) params.set('cursor', cursor);
+        try {
+            const response = await fetch(cropData.dataset.cropsUrl + '?' + params, { headers: { Accept: 'application/json' } });
+            if (!response.ok) throw new Error(response.status);
+            const page = await response.json();
+            if (requested !== generation) return;
+            page.rows.forEach(appendRow);
+            cursor = page.nextCursor;
+            done = cursor === null;
+            status.textContent = done ? (body.children.length ? '' : 'No crops found.') : 'Loading more...';
+        } catch (e) {
+            if (requested !== generation) return;
+            status.textContent = 'Could not load crops.';
+            done = true;
+        } finally {
+            if (requested === generation) loading = false;
+        }
+        // Keep going while the sentinel is still on screen (short pages, tall viewports)
+        if (!done && requested === generation && isVisible(sentinel)) loadMore();
+    };
+
+    const isVisible = (element) => {
+        const box = element.getBoundingClientRect();
+        const container = document.getElementById('cropListScroll').getBoundingClientRect();
+        return box.top <= container.bottom;
+    };
+
+    const reset = () => {
+        generation++;
+        cursor = null;
+        done = false;
+        loading = false;
+        body.replaceChildren();
+        status.textContent = 'Loading crops...';
+        loadMore();
+    };
+
+    new IntersectionObserver((entries) => {
+        if (entries.some((entry) => entry.isIntersecting)) loadMore();
+    }, { root: document.getElementById('cropListScroll') }).observe(sentinel);
+
+    let debounce;
+    filters.addEventListener('input', (event) => {
+        if (event.target.id === 'cropFieldSearch') return;
+        clearTimeout(debounce);
+        debounce = setTimeout(reset, 300);
+    });
+    filters.addEventListener('submit', (event) => event.preventDefault());
+
+    initFieldPicker(cropData, filters, reset);
+    loadMore();
+}
+
+// Field filter: suggestions come from /api/fields/search as the user types
+function initFieldPicker(cropData, filters, onChange) {
+    const input = document.getElementById('cropFieldSearch');
+    const options = document.getElementById('cropFieldOptions');
+    const fieldId = filters.elements.namedItem('fieldId');
+    if (!input || !cropData.dataset.fieldsUrl) return;
+
+    let known = new Map(); // name -> id of the current suggestions
+    let debounce;
+
+    input.addEventListener('input', () => {
+        clearTimeout(debounce);
+        const term = input.value.trim();
+        const picked = known.get(term);
+        if (picked !== undefined || term === '') {
+            const next = picked !== undefined ? String(picked) : '';
+            if (fieldId.value !== next) {
+                fieldId.value = next;
+                onChange();
+            }
+            if (picked !== undefined) return;
+        }
+        debounce = setTimeout(async () => {
+            const response = await fetch(cropData.dataset.fieldsUrl + '?' + new URLSearchParams({ q: term, limit: 20 }));
+            if (!response.ok) return;
+            const fields = await response.json();
+            known = new Map(fields.map((field) => [field.name, field.id]));
+            options.replaceChildren(...fields.map((field) => {
+                const option = document.createElement('option');
+                option.value = field.name;
+                return option;
+            }));
+        }, 200);
+    });
+}
@@ -127,6 +127,7 @@ document.addEventListener('DOMContentLoaded', () => {
     }
 
     const ctx = document.getElementById('productionChart');
+    let productionChart = null;
     if (ctx) {
         const bgColors = [
             'rgba(76, 175, 80, 0.8)',
@@ -136,7 +137,7 @@ document.addEventListener('DOMContentLoaded', () => {
             'rgba(244, 67, 54, 0.8)'
         ];
 
-        new Chart(ctx.getContext('2d'), {
+        productionChart = new Chart(ctx.getContext('2d'), {
             type: 'bar', // Can be 'doughnut' or 'bar'
             data: {
                 labels: labels.length > 0 ? labels : ['No Crops'],
@@ -200,4 +201,97 @@ document.addEventListener('DOMContentLoaded', () => {
             }
         });
     }
+
+    // --- LIVE UPDATES ---
+    // The server coalesces writes and pushes only the values that changed
+    const streamConfig = document.getElementById('dashboard-stream');
+    if (streamConfig && streamConfig.dataset.url && window.EventSource) {
+        const source = new EventSource(streamConfig.dataset.url);
+        source.addEventListener('dashboard', event => applyDashboardDelta(JSON.parse(event.data)));
+        // Over the connection cap the server answers 503 and the browser stops retrying;
+        // the page then simply behaves as before and refreshes on reload
+        source.onerror = () => {
+            if (source.readyState === EventSource.CLOSED) console.warn('Live dashboard updates unavailable');
+        };
+    }
+
+    function applyDashboardDelta(delta) {
+        if ('totalCrops' in delta) safeSetText('dashTotalCrops', delta.totalCrops);
+        if ('totalLandArea' in delta) safeSetText('dashLandArea', delta.totalLandArea);
+        if ('income' in delta) {
+            const revenue = document.getElementById('dashRevenue');
+            if (revenue) {
+                const span = document.createElement('span');
+                span.className = 'text-3xl font-bold text-gray-900';
+                span.textContent = delta.income.toLocaleString(undefined, { style: 'currency', currency: 'USD' });
+                revenue.replaceChildren(span);
+            }
+        }
+        if ('cropDistribution' in delta && productionChart) {
+            const entries = Object.entries(delta.cropDistribution);
+            productionChart.data.labels = entries.length > 0 ? entries.map(e => e[0]) : ['No Crops'];
+            productionChart.data.datasets[0].data = entries.length > 0 ? entries.map(e => e[1]) : [0];
+            productionChart.update();
+        }
+        if ('upcomingTasks' in delta) {
+            renderUpcoming('upcomingTasksList', delta.upcomingTasks, 'No upcoming tasks.', task => {
+                const colour = task.type === 'Harvesting' ? 'bg-orange-400'
+                    : (task.type === 'Fertilizing' ? 'bg-blue-400' : 'bg-green-500');
+                const bar = document.createElement('div');
+                bar.className = `w-1.5 h-10 rounded-full ${colour}`;
+                const badge = document.createElement('span');
+                badge.className = 'px-2 py-1 bg-white text-gray-600 border border-gray-100 rounded-md text-xs font-semibold shadow-sm';
+                badge.textContent = 'Pending';
+                return upcomingRow(bar, task.type, formatDay(task.date), badge);
+            });
+        }
+        if ('upcomingHarvests' in delta) {
+            renderUpcoming('upcomingHarvestsList', delta.upcomingHarvests, 'No upcoming harvests.', crop => {
+                const badge = document.createElement('div');
+                badge.className = 'w-10 h-10 rounded-full bg-orange-100 flex items-center justify-center text-orange-600';
+                badge.innerHTML = '<i class="fa-solid fa-carrot"></i>';
+                return upcomingRow(badge, crop.type, 'Harvest: ' + formatDay(crop.date), null);
+            });
+        }
+    }
+
+    function renderUpcoming(containerId, items, emptyText, renderItem) {
+        const container = document.getElementById(containerId);
+        if (!container) return;
+        const rows = items.map(renderItem);
+        if (rows.length === 0) {
+            const empty = document.createElement('div');
+            empty.className = 'text-center py-4';
+            const text = document.createElement('p');
+            text.className = 'text-sm text-gray-400';
+            text.textContent = emptyText;
+            empty.appendChild(text);
+            rows.push(empty);
+        }
+        container.replaceChildren(...rows);
+    }
+
+    function upcomingRow(leading, title, subtitle, trailing) {
+        const row = document.createElement('div');
+        row.className = 'flex items-center justify-between p-3 bg-gray-50 rounded-xl hover:bg-green-50 transition-colors cursor-pointer group';
+        const left = document.createElement('div');
+        left.className = 'flex items-center gap-3';
+        const textBlock = document.createElement('div');
+        const heading = document.createElement('h5');
+        heading.className = 'font-bold text-gray-800 text-sm';
+        heading.textContent = title;
+        const sub = document.createElement('p');
+        sub.className = 'text-xs text-gray-500';
+        sub.textContent = subtitle;
+        textBlock.append(heading, sub);
+        left.append(leading, textBlock);
+        row.appendChild(left);
+        if (trailing) row.appendChild(trailing);
+        return row;
+    }
+
+    function formatDay(isoDate) {
+        const date = new Date(isoDate + 'T00:00:00');
+        return isNaN(date) ? isoDate : date.toLocaleDateString('en-GB', { day: '2-digit', month: 'short' });
+    }
 });
@@ -0,0 +1,70 @@
+// Income vs expense chart backed by /api/finance/series.
+// Usage: <canvas data-finance-chart data-url="/api/finance/series" [data-crop-id] [data-field-id]
+//                [data-granularity-select="selectId"]></canvas>
+document.addEventListener('DOMContentLoaded', () => {
+    document.querySelectorAll('canvas[data-finance-chart]').forEach(canvas => {
+        const select = canvas.dataset.granularitySelect
+            ? document.getElementById(canvas.dataset.granularitySelect) : null;
+        let chart = null;
+
+        function load() {
+            const params = new URLSearchParams();
+            params.set('granularity', select ? select.value : 'MONTH');
+            if (canvas.dataset.cropId) params.set('cropId', canvas.dataset.cropId);
+            if (canvas.dataset.fieldId) params.set('fieldId', canvas.dataset.fieldId);
+
+            fetch(`${canvas.dataset.url}?${params}`)
+                .then(response => {
+                    if (!response.ok) throw new Error(`HTTP ${response.status}`);
+                    return response.json();
+                })
+                .then(series => render(series))
+                .catch(err => console.error('Finance series error:', err));
+        }
+
+        function render(series) {
+            const labels = series.points.map(p => formatBucket(p.periodStart, series.granularity));
+            const income = series.points.map(p => p.income);
+            const expense = series.points.map(p => p.expense);
+
+            if (chart) {
+                chart.data.labels = labels;
+                chart.data.datasets[0].data = income;
+                chart.data.datasets[1].data = expense;
+                chart.update();
+                return;
+            }
+            chart = new Chart(canvas.getContext('2d'), {
+                type: 'bar',
+                data: {
+                    labels: labels,
+                    datasets: [
+                        { label: 'Income', data: income, backgroundColor: 'rgba(76, 175, 80, 0.8)', borderRadius: 4 },
+                        { label: 'Expenses', data: expense, backgroundColor: 'rgba(244, 67, 54, 0.8)', borderRadius: 4 }
+                    ]
+                },
+                options: {
+                    responsive: true,
+                    maintainAspectRatio: false,
+                    plugins: {
+                        legend: { position: 'bottom', labels: { font: { family: 'Inter' } } },
+                        tooltip: { backgroundColor: '#1f2937', padding: 12, cornerRadius: 8 }
+                    },
+                    scales: {
+                        y: { beginAtZero: true, grid: { color: '#f3f4f6' }, ticks: { color: '#6b7280' } },
+                        x: { grid: { display: false }, ticks: { color: '#6b7280' } }
+                    }
+                }
+            });
+        }
+
+        function formatBucket(isoDate, granularity) {
+            const date = new Date(isoDate + 'T00:00:00');
+            if (granularity === 'MONTH') return date.toLocaleDateString('en-GB', { month: 'short', year: '2-digit' });
+            return date.toLocaleDateString('en-GB', { day: '2-digit', month: 'short' });
+        }
+
+        if (select) select.addEventListener('change', load);
+        load();
+    });
+});
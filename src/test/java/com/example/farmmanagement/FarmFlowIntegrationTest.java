@@ -1,5 +1,6 @@
 package com.example.farmmanagement;
 
+import com.example.farmmanagement.dto.FinanceSeries;
 import com.example.farmmanagement.model.Crop;
 import com.example.farmmanagement.model.CropActivity;
 import com.example.farmmanagement.model.CropTransaction;
@@ -9,6 +10,8 @@ import com.example.farmmanagement.repository.CropRepository;
 import com.example.farmmanagement.repository.CropTransactionRepository;
 import com.example.farmmanagement.repository.FieldRepository;
 import com.example.farmmanagement.service.CropTransactionService;
+import com.example.farmmanagement.service.FinanceSeriesService;
+import com.example.farmmanagement.service.LedgerRollupService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -44,6 +47,12 @@ public class FarmFlowIntegrationTest {
     @Autowired
     private CropTransactionService transactionService;
 
+    @Autowired
+    private LedgerRollupService ledgerRollupService;
+
+    @Autowired
+    private FinanceSeriesService financeSeriesService;
+
     @Test
     @org.springframework.security.test.context.support.WithMockUser(username = "admin", roles = { "ADMIN" })
     public void testFullFarmManagementFlow() throws Exception {
@@ -85,21 +94,39 @@ public class FarmFlowIntegrationTest {
         expense.setTransactionType(CropTransaction.TransactionType.EXPENSE);
         expense.setAmount(500.0); // Spent $500
         expense.setTransactionDate(LocalDate.now().minusDays(25));
-        transactionRepository.save(expense);
+        transactionService.saveTransaction(expense);
 
         CropTransaction income = new CropTransaction();
         income.setCrop(savedCrop);
         income.setTransactionType(CropTransaction.TransactionType.INCOME);
         income.setAmount(1200.0); // Earned $1200
         income.setTransactionDate(LocalDate.now());
-        transactionRepository.save(income);
+        transactionService.saveTransaction(income);
 
-        // Verify Calculations (Specific to this crop)
+        // Verify Calculations (Specific to this crop, served from the ledger rollups)
         Double cropExpense = transactionService.calculateTotalExpenses(savedCrop.getId());
         Double cropIncome = transactionService.calculateTotalIncome(savedCrop.getId());
 
         assertThat(cropExpense).isEqualTo(500.0);
         assertThat(cropIncome).isEqualTo(1200.0);
+        assertThat(transactionRepository.findByCropId(savedCrop.getId())).hasSize(2);
+
+        // Rollups agree with a full recomputation from crop_transactions
+        assertThat(ledgerRollupService.verify().isConsistent()).isTrue();
+
+        // Correcting an amount moves the rollup by the difference only
+        expense.setAmount(650.0);
+        transactionService.saveTransaction(expense);
+        assertThat(transactionService.calculateTotalExpenses(savedCrop.getId())).isEqualTo(650.0);
+        assertThat(ledgerRollupService.verify().isConsistent()).isTrue();
+
+        // Time series for the field: daily buckets grouped in SQL, monthly buckets from the rollups
+        for (FinanceSeries.Granularity granularity : FinanceSeries.Granularity.values()) {
+            FinanceSeries series = financeSeriesService.getSeries(granularity, LocalDate.now().minusDays(29),
+                    LocalDate.now(), null, savedField.getId());
+            assertThat(series.points().stream().mapToDouble(FinanceSeries.Point::income).sum()).isEqualTo(1200.0);
+            assertThat(series.points().stream().mapToDouble(FinanceSeries.Point::expense).sum()).isEqualTo(650.0);
+        }
 
         // 5. Verify Dashboard Analytics via Controller Endpoint
         // We verify that the page loads and contains our new data (indirectly)
@@ -0,0 +1,91 @@
+package com.example.farmmanagement.benchmark;
+
+import com.example.farmmanagement.model.BoundaryCodec;
+import com.example.farmmanagement.service.FieldGeometry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stored size and read time of drawn boundaries (full-precision points on a
+ * wobbly ring, as the map posts them) as JSON text against BoundaryCodec's
+ * binary form, at increasing point counts. Read time is a FieldGeometry from
+ * each: a JSON parse against a varint decode.
+ * Run with: mvn test -Pbenchmark [-Dbenchmark.boundary.points=8,64,512,4096]
+ */
+@Tag("benchmark")
+class BoundaryStorageBenchmarkTest {
+
+    private static final int BOUNDARIES = 200;
+    private static final int WARMUP = 20;
+    private static final int SAMPLES = 50;
+
+    @Test
+    void jsonTextVersusBinary() {
+        for (int points : pointCounts()) {
+            Random random = new Random(points);
+            String[] json = new String[BOUNDARIES];
+            byte[][] binary = new byte[BOUNDARIES][];
+            long jsonBytes = 0;
+            long binaryBytes = 0;
+            for (int b = 0; b < BOUNDARIES; b++) {
+                json[b] = ring(random, points);
+                binary[b] = BoundaryCodec.fromJson(json[b]);
+                jsonBytes += json[b].length();
+                binaryBytes += binary[b].length;
+                assertThat(BoundaryCodec.toJson(binary[b])).isEqualTo(json[b]);
+            }
+
+            double parseMicros = medianMicros(() -> {
+                for (String boundary : json) {
+                    FieldGeometry.parse(boundary);
+                }
+            }) / BOUNDARIES;
+            double decodeMicros = medianMicros(() -> {
+                for (byte[] boundary : binary) {
+                    FieldGeometry.decode(boundary);
+                }
+            }) / BOUNDARIES;
+            System.out.printf("[benchmark] %,d-point boundary: JSON %,d B, binary %,d B (%.0f%%); "
+                    + "read JSON %.1f us, binary %.1f us%n", points, jsonBytes / BOUNDARIES, binaryBytes / BOUNDARIES,
+                    100.0 * binaryBytes / jsonBytes, parseMicros, decodeMicros);
+        }
+    }
+
+    private static String ring(Random random, int points) {
+        double lat = -1.3 + random.nextDouble() * 0.2;
+        double lng = 36.7 + random.nextDouble() * 0.2;
+        StringBuilder json = new StringBuilder("[");
+        for (int k = 0; k < points; k++) {
+            double angle = Math.PI * 2 * k / points;
+            double radius = 0.002 * (0.9 + random.nextDouble() * 0.2);
+            json.append(k == 0 ? "[" : ",[").append(lat + radius * Math.sin(angle)).append(',')
+                    .append(lng + radius * Math.cos(angle)).append(']');
+        }
+        return json.append(']').toString();
+    }
+
+    private double medianMicros(Runnable pass) {
+        for (int i = 0; i < WARMUP; i++) {
+            pass.run();
+        }
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            pass.run();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2] / 1_000.0;
+    }
+
+    private int[] pointCounts() {
+        return Arrays.stream(System.getProperty("benchmark.boundary.points", "8,64,512,4096").split(","))
+                .mapToInt(count -> Integer.parseInt(count.trim()))
+                .toArray();
+    }
+}
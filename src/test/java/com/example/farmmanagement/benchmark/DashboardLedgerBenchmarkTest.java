@@ -0,0 +1,145 @@
+package com.example.farmmanagement.benchmark;
+
+import com.example.farmmanagement.model.Crop;
+import com.example.farmmanagement.repository.CropRepository;
+import com.example.farmmanagement.service.LedgerRollupService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Measures /home and /api/finance/series latency while the crop_transactions table grows.
+ * Run with: mvn test -Pbenchmark [-Dbenchmark.ledger.sizes=10000,100000,1000000]
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+class DashboardLedgerBenchmarkTest {
+
+    private static final int INSERT_CHUNK = 10_000;
+    private static final int WARMUP = 5;
+    private static final int SAMPLES = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private LedgerRollupService ledgerRollupService;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM crop_transactions");
+        ledgerRollupService.rebuild();
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = { "ADMIN" })
+    void homeLatencyAsLedgerGrows() throws Exception {
+        Crop crop = new Crop();
+        crop.setType("Benchmark Maize");
+        crop = cropRepository.save(crop);
+
+        int[] sizes = sizes();
+        Map<Integer, Double> medians = new LinkedHashMap<>();
+        int rows = 0;
+        for (int size : sizes) {
+            rows = insertTransactions(crop.getId(), rows, size);
+            ledgerRollupService.rebuild(); // rows were bulk-loaded behind the service
+            medians.put(size, medianMillis("/home"));
+        }
+
+        medians.forEach((size, millis) -> System.out.printf("[benchmark] /home with %,d transactions: %.2f ms%n",
+                size, millis));
+
+        // Totals are read from ledger_rollups, so the page cost must not track the ledger size
+        double smallest = medians.get(sizes[0]);
+        double largest = medians.get(sizes[sizes.length - 1]);
+        assertThat(largest).isLessThan(Math.max(smallest * 3, smallest + 50));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = { "ADMIN" })
+    void financeSeriesLatencyAsLedgerGrows() throws Exception {
+        Crop crop = new Crop();
+        crop.setType("Benchmark Beans");
+        crop = cropRepository.save(crop);
+
+        // Monthly buckets come from the rollups; daily buckets are a GROUP BY over a 90 day index range
+        String monthly = "/api/finance/series?granularity=MONTH&from=2020-01-01&to=2025-06-30";
+        String daily = "/api/finance/series?granularity=DAY&from=2022-01-01&to=2022-03-31";
+
+        int[] sizes = sizes();
+        Map<Integer, double[]> medians = new LinkedHashMap<>();
+        int rows = 0;
+        for (int size : sizes) {
+            rows = insertTransactions(crop.getId(), rows, size);
+            ledgerRollupService.rebuild();
+            medians.put(size, new double[] { medianMillis(monthly), medianMillis(daily) });
+        }
+
+        medians.forEach((size, millis) -> System.out.printf(
+                "[benchmark] finance series with %,d transactions: monthly %.2f ms, daily (90 days) %.2f ms%n",
+                size, millis[0], millis[1]));
+
+        double[] largest = medians.get(sizes[sizes.length - 1]);
+        assertThat(largest[0]).isLessThan(Math.max(medians.get(sizes[0])[0] * 3, medians.get(sizes[0])[0] + 50));
+    }
+
+    private int[] sizes() {
+        return Arrays.stream(System.getProperty("benchmark.ledger.sizes", "10000,100000,1000000").split(","))
+                .map(String::trim).mapToInt(Integer::parseInt).sorted().toArray();
+    }
+
+    private int insertTransactions(Long cropId, int from, int to) {
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        for (int chunkStart = from; chunkStart < to; chunkStart += INSERT_CHUNK) {
+            List<Object[]> batch = new ArrayList<>(INSERT_CHUNK);
+            for (int i = chunkStart; i < Math.min(chunkStart + INSERT_CHUNK, to); i++) {
+                batch.add(new Object[] { cropId, i % 3 == 0 ? "INCOME" : "EXPENSE", (double) (i % 500),
+                        "bench " + i, Date.valueOf(start.plusDays(i % 2000)) });
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO crop_transactions "
+                    + "(crop_id, transaction_type, amount, description, transaction_date) VALUES (?, ?, ?, ?, ?)",
+                    batch);
+        }
+        return to;
+    }
+
+    private double medianMillis(String url) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            mockMvc.perform(get(url)).andExpect(status().isOk());
+        }
+        double[] samples = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            mockMvc.perform(get(url)).andExpect(status().isOk());
+            samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
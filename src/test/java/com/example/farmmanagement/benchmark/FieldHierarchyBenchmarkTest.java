@@ -0,0 +1,151 @@
+package com.example.farmmanagement.benchmark;
+
+import com.example.farmmanagement.repository.FieldClosureRepository;
+import com.example.farmmanagement.repository.FieldRepository;
+import com.example.farmmanagement.service.FieldClosureService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Subtree questions over a generated farm -> block -> plot hierarchy of about
+ * 50k fields (benchmark.hierarchy.farms farms of 10 blocks of 9 plots),
+ * answered by a recursive CTE walk and by the field_closure table.
+ * Run with: mvn test -Pbenchmark [-Dbenchmark.hierarchy.farms=1000]
+ */
+@Tag("benchmark")
+@SpringBootTest
+class FieldHierarchyBenchmarkTest {
+
+    private static final long FARM_IDS = 50_000_000L;
+    private static final long BLOCK_IDS = 51_000_000L;
+    private static final long PLOT_IDS = 52_000_000L;
+    private static final int BLOCKS = 10;
+    private static final int PLOTS = 9;
+    private static final int WARMUP = 100;
+    private static final int SAMPLES = 500;
+
+    // The same rollup as FieldClosureRepository.rollUp, with the subtree walked recursively
+    private static final String RECURSIVE_ROLLUP = "WITH RECURSIVE tree (id, depth) AS ("
+            + "SELECT id, 0 FROM fields WHERE id = ? "
+            + "UNION ALL SELECT f.id, t.depth + 1 FROM fields f JOIN tree t ON f.parent_field_id = t.id "
+            + "WHERE t.depth < " + FieldRepository.MAX_DEPTH + ") "
+            + "SELECT COUNT(*) - 1, MAX(t.depth), "
+            + "COALESCE(SUM(CASE WHEN p.parent_field_id IS NULL THEN f.area_size END), 0), "
+            + "COALESCE(SUM(k.crops), 0) FROM tree t JOIN fields f ON f.id = t.id "
+            + "LEFT JOIN (SELECT DISTINCT parent_field_id FROM fields WHERE parent_field_id IS NOT NULL) p "
+            + "ON p.parent_field_id = f.id "
+            + "LEFT JOIN (SELECT field_id, COUNT(*) AS crops FROM crop WHERE field_id IS NOT NULL GROUP BY field_id) k "
+            + "ON k.field_id = f.id";
+
+    @Autowired
+    private FieldRepository fieldRepository;
+
+    @Autowired
+    private FieldClosureRepository closureRepository;
+
+    @Autowired
+    private FieldClosureService closureService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM field_closure WHERE descendant_id >= ?", FARM_IDS);
+        jdbcTemplate.update("DELETE FROM fields WHERE id >= ?", PLOT_IDS);
+        jdbcTemplate.update("DELETE FROM fields WHERE id >= ?", BLOCK_IDS);
+        jdbcTemplate.update("DELETE FROM fields WHERE id >= ?", FARM_IDS);
+    }
+
+    @Test
+    void recursiveWalkAgainstClosureTable() {
+        int farms = Integer.getInteger("benchmark.hierarchy.farms", 500);
+        generate(farms);
+        long start = System.nanoTime();
+        int paths = closureService.rebuild();
+        System.out.printf("[benchmark] %,d fields, closure rebuilt with %,d paths in %.0f ms%n",
+                farms * (1 + BLOCKS + BLOCKS * PLOTS), paths, (System.nanoTime() - start) / 1e6);
+
+        Random random = new Random(42);
+        IntFunction<Long> farm = i -> FARM_IDS + random.nextInt(farms);
+        IntFunction<Long> plot = i -> PLOT_IDS + random.nextInt(farms * BLOCKS * PLOTS);
+
+        Map<String, Comparison> comparisons = new LinkedHashMap<>();
+        comparisons.put("is plot under farm", new Comparison(
+                i -> fieldRepository.findAncestry(plot.apply(i)).stream()
+                        .anyMatch(node -> node.getId().equals(FARM_IDS)),
+                i -> closureRepository.countPaths(FARM_IDS, plot.apply(i)) > 0));
+        comparisons.put("subtree of a farm", new Comparison(
+                i -> fieldRepository.findSubtree(farm.apply(i)).size(),
+                i -> closureRepository.findSubtreeIds(farm.apply(i)).size()));
+        comparisons.put("rollup of a farm", new Comparison(
+                i -> jdbcTemplate.queryForList(RECURSIVE_ROLLUP, farm.apply(i)),
+                i -> closureRepository.rollUp(farm.apply(i))));
+
+        for (Map.Entry<String, Comparison> comparison : comparisons.entrySet()) {
+            double recursive = medianMicros(comparison.getValue().recursive());
+            double closure = medianMicros(comparison.getValue().closure());
+            System.out.printf("[benchmark] %s: %.1f us recursive, %.1f us closure (%.1fx)%n", comparison.getKey(),
+                    recursive, closure, recursive / closure);
+        }
+
+        Long someFarm = FARM_IDS + farms / 2;
+        Map<String, Object> walked = jdbcTemplate.queryForList(RECURSIVE_ROLLUP, someFarm).get(0);
+        assertThat(((Number) walked.values().iterator().next()).longValue())
+                .isEqualTo(closureRepository.rollUp(someFarm).orElseThrow().getSubdivisions());
+    }
+
+    // farms x (1 farm + BLOCKS blocks + BLOCKS * PLOTS plots), ids assigned by level so children are easy to find
+    private void generate(int farms) {
+        String insert = "INSERT INTO fields (id, name, area_size, parent_field_id, is_master_farm) "
+                + "VALUES (?, ?, ?, ?, ?)";
+        List<Object[]> farmRows = new ArrayList<>();
+        List<Object[]> blockRows = new ArrayList<>();
+        List<Object[]> plotRows = new ArrayList<>();
+        for (int f = 0; f < farms; f++) {
+            farmRows.add(new Object[] { FARM_IDS + f, "Bench Farm " + f, 900.0, null, true });
+            for (int b = 0; b < BLOCKS; b++) {
+                long block = BLOCK_IDS + (long) f * BLOCKS + b;
+                blockRows.add(new Object[] { block, "Bench Block " + block, 90.0, FARM_IDS + f, false });
+                for (int p = 0; p < PLOTS; p++) {
+                    long plot = PLOT_IDS + (block - BLOCK_IDS) * PLOTS + p;
+                    plotRows.add(new Object[] { plot, "Bench Plot " + plot, 10.0, block, false });
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate(insert, farmRows);
+        jdbcTemplate.batchUpdate(insert, blockRows);
+        jdbcTemplate.batchUpdate(insert, plotRows);
+    }
+
+    private double medianMicros(IntFunction<Object> read) {
+        for (int i = 0; i < WARMUP; i++) {
+            read.apply(i);
+        }
+        double[] samples = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            read.apply(i);
+            samples[i] = (System.nanoTime() - start) / 1_000.0;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+
+    private record Comparison(IntFunction<Object> recursive, IntFunction<Object> closure) {
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.farmmanagement.benchmark;
+
+import com.example.farmmanagement.dto.FieldOption;
+import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.repository.FieldRepository;
+import com.example.farmmanagement.service.FieldGeometry;
+import com.example.farmmanagement.service.FieldLocator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * "Which field is this GPS point in" over generated farms (each drawn around
+ * a 3 x 3 grid of plots, 10 fields per farm), answered by parsing and testing
+ * every boundary per lookup, as a naive endpoint would, and by FieldLocator's
+ * packed R-tree. Also times packing the index and a save through refresh.
+ * Run with: mvn test -Pbenchmark [-Dbenchmark.locator.sizes=1000,10000,50000]
+ */
+@Tag("benchmark")
+class FieldLocatorBenchmarkTest {
+
+    private static final double FARM = 0.005;
+    private static final double SPACING = 0.006;
+    private static final int POINTS = 1_000;
+
+    @Test
+    void naiveScanVersusPackedRTree() {
+        for (int size : sizes()) {
+            List<FieldRepository.FieldBoundary> rows = generate(size);
+            double extent = Math.ceil(Math.sqrt(size / 10.0)) * SPACING;
+            Random random = new Random(size);
+            double[][] points = new double[POINTS][];
+            for (int i = 0; i < POINTS; i++) {
+                points[i] = new double[] { random.nextDouble() * extent, random.nextDouble() * extent };
+            }
+
+            FieldRepository repository = mock(FieldRepository.class);
+            when(repository.findAllBoundaries()).thenReturn(rows);
+            FieldLocator locator = new FieldLocator(repository);
+            long start = System.nanoTime();
+            locator.locate(0, 0);
+            double packMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+            int naiveSamples = Math.max(5, 200_000 / size);
+            double naiveMicros = medianMicros(naiveSamples / 4, naiveSamples,
+                    i -> naive(rows, points[i % POINTS][0], points[i % POINTS][1]));
+            double indexedMicros = medianMicros(20_000, 20_000,
+                    i -> locator.locate(points[i % POINTS][0], points[i % POINTS][1]));
+            double refreshMicros = medianMicros(100, 1_000, i -> {
+                Field field = new Field();
+                field.setId((long) (i % size + 1));
+                field.setName("Saved " + i);
+                field.setBoundaryCoordinates(rows.get(i % size).getBoundaryCoordinates());
+                locator.refresh(field);
+                return null;
+            });
+            System.out.printf("[benchmark] locate among %,d fields: naive %.1f us, r-tree %.2f us (%.0fx); "
+                    + "pack %.1f ms, refresh %.1f us%n", size, naiveMicros, indexedMicros, naiveMicros / indexedMicros,
+                    packMillis, refreshMicros);
+
+            for (int i = 0; i < 50; i++) {
+                assertThat(locator.locate(points[i][0], points[i][1]).map(FieldOption::id))
+                        .isEqualTo(naive(rows, points[i][0], points[i][1]));
+            }
+        }
+    }
+
+    // What a lookup without the index costs: every boundary parsed and tested, the smallest match kept
+    private static Optional<Long> naive(List<FieldRepository.FieldBoundary> rows, double lat, double lng) {
+        Long best = null;
+        double smallest = Double.MAX_VALUE;
+        for (FieldRepository.FieldBoundary row : rows) {
+            FieldGeometry geometry = FieldGeometry.parse(row.getBoundaryCoordinates());
+            if (geometry.contains(lat, lng) && geometry.areaSquareMeters() < smallest) {
+                best = row.getId();
+                smallest = geometry.areaSquareMeters();
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    // Farms on a jittered grid, each a slightly irregular octagon around 3 x 3 square plots
+    private static List<FieldRepository.FieldBoundary> generate(int size) {
+        Random random = new Random(size);
+        int perRow = (int) Math.ceil(Math.sqrt(size / 10.0));
+        List<FieldRepository.FieldBoundary> rows = new ArrayList<>(size);
+        for (int farm = 0; rows.size() < size; farm++) {
+            double lat = (farm / perRow) * SPACING + random.nextDouble() * 0.0005;
+            double lng = (farm % perRow) * SPACING + random.nextDouble() * 0.0005;
+            StringBuilder ring = new StringBuilder("[");
+            for (int k = 0; k < 8; k++) {
+                double angle = Math.PI * 2 * k / 8;
+                double radius = FARM * (0.72 + random.nextDouble() * 0.06);
+                ring.append(k == 0 ? "" : ",").append('[').append(lat + FARM / 2 + radius * Math.sin(angle))
+                        .append(',').append(lng + FARM / 2 + radius * Math.cos(angle)).append(']');
+            }
+            rows.add(row(rows.size() + 1L, ring.append(']').toString()));
+            for (int plot = 0; plot < 9 && rows.size() < size; plot++) {
+                double plotLat = lat + (plot / 3) * FARM / 3;
+                double plotLng = lng + (plot % 3) * FARM / 3;
+                double side = FARM / 3 * 0.95;
+                rows.add(row(rows.size() + 1L, String.format("[[%s,%s],[%s,%s],[%s,%s],[%s,%s]]", plotLat, plotLng,
+                        plotLat + side, plotLng, plotLat + side, plotLng + side, plotLat, plotLng + side)));
+            }
+        }
+        return rows;
+    }
+
+    // Held as JSON text, so the load parses every boundary like the naive lookup does
+    private static FieldRepository.FieldBoundary row(Long id, String boundary) {
+        return new FieldRepository.FieldBoundary() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return "Field " + id;
+            }
+
+            @Override
+            public byte[] getBoundaryGeometry() {
+                return null;
+            }
+
+            @Override
+            public String getBoundaryCoordinates() {
+                return boundary;
+            }
+        };
+    }
+
+    private double medianMicros(int warmup, int samples, IntFunction<?> pass) {
+        for (int i = 0; i < warmup; i++) {
+            pass.apply(i);
+        }
+        long[] times = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            pass.apply(i);
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return times[samples / 2] / 1_000.0;
+    }
+
+    private int[] sizes() {
+        return Arrays.stream(System.getProperty("benchmark.locator.sizes", "1000,10000,50000").split(","))
+                .mapToInt(size -> Integer.parseInt(size.trim()))
+                .toArray();
+    }
+}
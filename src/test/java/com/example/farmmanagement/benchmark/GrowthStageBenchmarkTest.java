@@ -0,0 +1,70 @@
+package com.example.farmmanagement.benchmark;
+
+import com.example.farmmanagement.service.GrowthStageEngine;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sequential against fork/join growth computation at increasing crop counts,
+ * to place GrowthStageEngine.PARALLEL_THRESHOLD.
+ * Run with: mvn test -Pbenchmark [-Dbenchmark.growth.sizes=1000,10000,100000,1000000]
+ */
+@Tag("benchmark")
+class GrowthStageBenchmarkTest {
+
+    private static final int WARMUP = 20;
+    private static final int SAMPLES = 50;
+    private static final String[] TYPES = { "Maize", "Wheat", "Beans", "Rice", "Cassava" };
+
+    @Test
+    void sequentialVersusForkJoin() {
+        for (int size : sizes()) {
+            Random random = new Random(size);
+            int[] planted = new int[size];
+            int[] harvest = new int[size];
+            byte[] profiles = new byte[size];
+            for (int i = 0; i < size; i++) {
+                planted[i] = 20_000 + random.nextInt(365);
+                harvest[i] = planted[i] + 60 + random.nextInt(90);
+                profiles[i] = (byte) GrowthStageEngine.profileOf(TYPES[random.nextInt(TYPES.length)]);
+            }
+            double[] sequential = new double[size];
+            double[] parallel = new double[size];
+            byte[] stages = new byte[size];
+
+            double sequentialMillis = medianMillis(() -> GrowthStageEngine.compute(planted, harvest, profiles,
+                    20_200, sequential, stages, false));
+            double parallelMillis = medianMillis(() -> GrowthStageEngine.compute(planted, harvest, profiles,
+                    20_200, parallel, stages, true));
+            System.out.printf("[benchmark] growth of %,d crops: sequential %.3f ms, fork/join %.3f ms%n", size,
+                    sequentialMillis, parallelMillis);
+
+            assertThat(parallel).isEqualTo(sequential);
+        }
+    }
+
+    private double medianMillis(Runnable pass) {
+        for (int i = 0; i < WARMUP; i++) {
+            pass.run();
+        }
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            pass.run();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2] / 1_000_000.0;
+    }
+
+    private int[] sizes() {
+        return Arrays.stream(System.getProperty("benchmark.growth.sizes", "1000,10000,100000,1000000").split(","))
+                .mapToInt(size -> Integer.parseInt(size.trim()))
+                .toArray();
+    }
+}
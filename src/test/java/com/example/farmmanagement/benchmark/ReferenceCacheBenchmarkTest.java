@@ -0,0 +1,119 @@
+package com.example.farmmanagement.benchmark;
+
+import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.model.Role;
+import com.example.farmmanagement.model.User;
+import com.example.farmmanagement.repository.FieldRepository;
+import com.example.farmmanagement.repository.UserRepository;
+import com.example.farmmanagement.service.FieldService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Reference reads (field by id, master farms, user by name) and /home with the
+ * second-level cache warm against every region evicted before each sample,
+ * which is what every request paid before the cache.
+ * Run with: mvn test -Pbenchmark [-Dbenchmark.reference.farms=200]
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReferenceCacheBenchmarkTest {
+
+    private static final String USERNAME = "benchmark-user";
+    private static final int WARMUP = 200;
+    private static final int SAMPLES = 1000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FieldService fieldService;
+
+    @Autowired
+    private FieldRepository fieldRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Field> fields = new ArrayList<>();
+    private User user;
+
+    @AfterEach
+    void cleanUp() {
+        fieldRepository.deleteAll(fields);
+        if (user != null) {
+            userRepository.delete(user);
+        }
+    }
+
+    @Test
+    @WithMockUser(username = USERNAME)
+    void referenceReadsWithAndWithoutTheCache() throws Exception {
+        int farms = Integer.getInteger("benchmark.reference.farms", 200);
+        for (int i = 0; i < farms; i++) {
+            Field field = new Field();
+            field.setName("Benchmark Farm " + i);
+            field.setAreaSize(10.0 + i);
+            fields.add(fieldService.saveField(field));
+        }
+        user = userRepository.save(new User(null, USERNAME, "secret", Role.EMPLOYEE, "Nakuru", -0.3, 36.1));
+        Long fieldId = fields.get(farms / 2).getId();
+
+        Map<String, Read> reads = new LinkedHashMap<>();
+        reads.put("field by id", () -> fieldService.getFieldById(fieldId).orElseThrow());
+        reads.put("user by name", () -> userRepository.findByUsername(USERNAME).orElseThrow());
+        reads.put("master farms (" + farms + ")", () -> fieldService.getMasterFarms());
+        reads.put("GET /home", () -> mockMvc.perform(get("/home")).andExpect(status().isOk()));
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        for (Map.Entry<String, Read> read : reads.entrySet()) {
+            double cold = medianMicros(read.getValue(), () -> sessionFactory.getCache().evictAllRegions());
+            double warm = medianMicros(read.getValue(), () -> {
+            });
+            System.out.printf("[benchmark] %s: %.1f us uncached, %.1f us cached (%.1fx)%n", read.getKey(), cold,
+                    warm, cold / warm);
+        }
+    }
+
+    private double medianMicros(Read read, Runnable beforeEach) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            beforeEach.run();
+            read.run();
+        }
+        double[] samples = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            beforeEach.run();
+            long start = System.nanoTime();
+            read.run();
+            samples[i] = (System.nanoTime() - start) / 1_000.0;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+
+    @FunctionalInterface
+    private interface Read {
+        void run() throws Exception;
+    }
+}
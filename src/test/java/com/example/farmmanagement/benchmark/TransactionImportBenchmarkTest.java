@@ -0,0 +1,107 @@
+package com.example.farmmanagement.benchmark;
+
+import com.example.farmmanagement.dto.ImportReport;
+import com.example.farmmanagement.model.Crop;
+import com.example.farmmanagement.repository.CropRepository;
+import com.example.farmmanagement.service.LedgerRollupService;
+import com.example.farmmanagement.service.TransactionImportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.Reader;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Imports a generated CSV of benchmark.import.rows transactions (default 100k)
+ * without ever holding the whole file in memory.
+ * Run with: mvn test -Pbenchmark [-Dbenchmark.import.rows=1000000] [-Dfarm.import.batch-size=...]
+ * <p>
+ * The in-memory H2 database is far slower at bulk inserts than MariaDB; to
+ * measure against a real server (an empty schema, the tables are created):
+ * <pre>
+ * -Dspring.datasource.url=jdbc:mariadb://localhost:3306/farmbench -Dspring.datasource.username=root
+ * -Dspring.datasource.password=root -Dspring.datasource.driver-class-name=org.mariadb.jdbc.Driver
+ * -Dspring.jpa.database-platform=org.hibernate.dialect.MariaDBDialect
+ * </pre>
+ */
+@Tag("benchmark")
+@SpringBootTest
+class TransactionImportBenchmarkTest {
+
+    @Autowired
+    private TransactionImportService transactionImportService;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private LedgerRollupService ledgerRollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM crop_transactions");
+        ledgerRollupService.rebuild();
+    }
+
+    @Test
+    void importCsvThroughput() throws Exception {
+        Crop crop = new Crop();
+        crop.setType("Benchmark Wheat");
+        long cropId = cropRepository.save(crop).getId();
+        int rows = Integer.getInteger("benchmark.import.rows", 100_000);
+
+        long start = System.nanoTime();
+        ImportReport report = transactionImportService.importCsv(new GeneratedCsv(cropId, rows));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("[benchmark] imported %,d transactions in %.2f s (%,.0f rows/s)%n", report.imported(),
+                seconds, report.imported() / seconds);
+        assertThat(report.imported()).isEqualTo(rows);
+        assertThat(ledgerRollupService.verify().isConsistent()).isTrue();
+    }
+
+    // Produces the CSV lazily, one row at a time
+    private static class GeneratedCsv extends Reader {
+        private final long cropId;
+        private final int rows;
+        private final LocalDate start = LocalDate.of(2015, 1, 1);
+        private String pending = "cropId,type,amount,date,description\n";
+        private int offset;
+        private int next;
+
+        GeneratedCsv(long cropId, int rows) {
+            this.cropId = cropId;
+            this.rows = rows;
+        }
+
+        @Override
+        public int read(char[] buffer, int off, int len) {
+            if (offset == pending.length()) {
+                if (next == rows) {
+                    return -1;
+                }
+                pending = cropId + "," + (next % 3 == 0 ? "INCOME" : "EXPENSE") + "," + (next % 500) + ".25,"
+                        + start.plusDays(next % 3650) + ",row " + next + "\n";
+                offset = 0;
+                next++;
+            }
+            int count = Math.min(len, pending.length() - offset);
+            pending.getChars(offset, offset + count, buffer, off);
+            offset += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.farmmanagement.config;
+
+import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.model.Role;
+import com.example.farmmanagement.model.User;
+import com.example.farmmanagement.repository.FieldRepository;
+import com.example.farmmanagement.repository.UserRepository;
+import com.example.farmmanagement.service.FieldService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ReferenceCacheConfigTest {
+
+    @Autowired
+    private FieldService fieldService;
+
+    @Autowired
+    private FieldRepository fieldRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Field> fields = new ArrayList<>();
+    private User user;
+
+    @AfterEach
+    void cleanUp() {
+        fieldRepository.deleteAllById(fields.stream().map(Field::getId).toList()); // Saves bump their versions
+        if (user != null) {
+            userRepository.delete(user);
+        }
+    }
+
+    @Test
+    void fieldById_ShouldBeServedFromTheCacheAndSeeEveryWrite() {
+        Field field = field("Cached Field");
+        // Identity inserts are not cached, so the first read loads the row and caches it
+        fieldService.getFieldById(field.getId());
+        double hits = hits(ReferenceCacheConfig.FIELDS);
+
+        assertThat(fieldService.getFieldById(field.getId())).get().extracting(Field::getName)
+                .isEqualTo("Cached Field");
+        assertThat(entityManagerFactory.getCache().contains(Field.class, field.getId())).isTrue();
+        assertThat(hits(ReferenceCacheConfig.FIELDS)).isGreaterThan(hits);
+
+        field.setName("Renamed Field");
+        fieldService.saveField(field);
+
+        assertThat(fieldService.getFieldById(field.getId())).get().extracting(Field::getName)
+                .isEqualTo("Renamed Field");
+        assertThat(meterRegistry.get("reference.cache.hit.ratio").tag("cache", ReferenceCacheConfig.FIELDS)
+                .gauge().value()).isBetween(0.0, 1.0);
+    }
+
+    @Test
+    void masterFarms_ShouldComeFromTheQueryCacheUntilAFieldIsSaved() {
+        Field first = field("Cached Farm A");
+        fieldService.getMasterFarms();
+        double hits = hits(ReferenceCacheConfig.QUERY_RESULTS);
+
+        assertThat(fieldService.getMasterFarms()).extracting(Field::getId).contains(first.getId());
+        assertThat(hits(ReferenceCacheConfig.QUERY_RESULTS)).isGreaterThan(hits);
+
+        Field second = field("Cached Farm B");
+
+        assertThat(fieldService.getMasterFarms()).extracting(Field::getId).contains(first.getId(), second.getId());
+    }
+
+    @Test
+    void findByUsername_ShouldSeeAnUpdatedUser() {
+        user = userRepository.save(new User(null, "cached-user", "secret", Role.EMPLOYEE, "Nairobi", null, null));
+        userRepository.findByUsername("cached-user");
+        double hits = hits(ReferenceCacheConfig.QUERY_RESULTS);
+
+        assertThat(userRepository.findByUsername("cached-user")).get().extracting(User::getCity)
+                .isEqualTo("Nairobi");
+        assertThat(hits(ReferenceCacheConfig.QUERY_RESULTS)).isGreaterThan(hits);
+
+        user.setCity("Eldoret");
+        user = userRepository.save(user);
+
+        assertThat(userRepository.findByUsername("cached-user")).get().extracting(User::getCity)
+                .isEqualTo("Eldoret");
+    }
+
+    private Field field(String name) {
+        Field field = new Field();
+        field.setName(name);
+        field = fieldService.saveField(field);
+        fields.add(field);
+        return field;
+    }
+
+    private double hits(String cache) {
+        return meterRegistry.get("cache.gets").tags("cache", cache, "result", "hit").functionCounter().count();
+    }
+}
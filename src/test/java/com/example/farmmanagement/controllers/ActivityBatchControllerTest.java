@@ -0,0 +1,74 @@
+package com.example.farmmanagement.controllers;
+
+import com.example.farmmanagement.model.Crop;
+import com.example.farmmanagement.model.CropActivity;
+import com.example.farmmanagement.repository.CropActivityRepository;
+import com.example.farmmanagement.repository.CropRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ActivityBatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private CropActivityRepository activityRepository;
+
+    private Crop maize;
+    private Crop beans;
+
+    @AfterEach
+    void cleanUp() {
+        if (maize != null) {
+            activityRepository.deleteAll(activityRepository.findByCropId(maize.getId()));
+            activityRepository.deleteAll(activityRepository.findByCropId(beans.getId()));
+            cropRepository.deleteAll(List.of(maize, beans));
+        }
+    }
+
+    @Test
+    @WithMockUser
+    void saveAll_ShouldPersistTheValidItemsAndReportEachOne() throws Exception {
+        maize = cropRepository.save(new Crop("Batch Maize", 1.0, LocalDate.of(2025, 3, 1), null, null));
+        beans = cropRepository.save(new Crop("Batch Beans", 1.0, LocalDate.of(2025, 3, 1), null, null));
+        String body = "[{\"cropId\":" + maize.getId() + ",\"activityType\":\"Spraying\",\"activityDate\":\"2025-05-12\"},"
+                + "{\"cropId\":999999,\"activityType\":\"Weeding\"},"
+                + "{\"cropId\":" + beans.getId() + ",\"activityType\":\"Weeding\",\"details\":\"Rows 1-4\","
+                + "\"activityDate\":\"2025-05-13\"}]";
+
+        mockMvc.perform(post("/api/activities/batch").with(csrf())
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saved").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.items[0].id").isNumber())
+                .andExpect(jsonPath("$.items[1].error").value("Unknown crop 999999"))
+                .andExpect(jsonPath("$.items[2].index").value(2));
+
+        List<CropActivity> beanActivities = activityRepository.findByCropId(beans.getId());
+        assertThat(beanActivities).hasSize(1);
+        assertThat(beanActivities.get(0).getDetails()).isEqualTo("Rows 1-4");
+        assertThat(beanActivities.get(0).getActivityDate()).isEqualTo(LocalDate.of(2025, 5, 13));
+        assertThat(activityRepository.findByCropId(maize.getId())).hasSize(1);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.farmmanagement.controllers;
+
+import com.example.farmmanagement.model.ActivitySchedule;
+import com.example.farmmanagement.model.Crop;
+import com.example.farmmanagement.model.CropActivity;
+import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.repository.CropActivityRepository;
+import com.example.farmmanagement.repository.CropRepository;
+import com.example.farmmanagement.repository.FieldRepository;
+import com.example.farmmanagement.service.ActivityCalendar;
+import com.example.farmmanagement.service.CropActivityService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Not transactional: the calendar refreshes its months as each activity is committed
+@SpringBootTest
+@AutoConfigureMockMvc
+class ActivityCalendarControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CropActivityService activityService;
+
+    @Autowired
+    private ActivityCalendar activityCalendar;
+
+    @Autowired
+    private CropActivityRepository activityRepository;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private FieldRepository fieldRepository;
+
+    private final List<CropActivity> activities = new ArrayList<>();
+    private final List<ActivitySchedule> schedules = new ArrayList<>();
+    private Crop crop;
+    private Field field;
+
+    @AfterEach
+    void cleanUp() {
+        schedules.forEach(schedule -> activityService.deleteSchedule(schedule.getId()));
+        activityRepository.deleteAll(activities);
+        activities.forEach(activity -> activityCalendar.refresh(activity.getActivityDate()));
+        if (crop != null) {
+            cropRepository.delete(crop);
+        }
+        if (field != null) {
+            fieldRepository.delete(field);
+        }
+    }
+
+    @Test
+    @WithMockUser
+    void weekAndMonth_ShouldReflectEverySavedActivity() throws Exception {
+        field = new Field();
+        field.setName("Calendar Field");
+        field = fieldRepository.save(field);
+        crop = new Crop("Calendar Maize", 1.0, LocalDate.of(2033, 3, 1), null, null);
+        crop.setField(field);
+        crop = cropRepository.save(crop);
+        activity("Spraying", LocalDate.of(2033, 5, 31));
+        activity("Weeding", LocalDate.of(2033, 6, 1));
+
+        mockMvc.perform(get("/api/calendar/week").param("date", "2033-06-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from").value("2033-05-30"))
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.days", hasSize(7)))
+                .andExpect(jsonPath("$.days[1].entries[0].activityType").value("Spraying"))
+                .andExpect(jsonPath("$.days[2].entries[0].fieldName").value("Calendar Field"));
+
+        // Served from the cached months from here on, so the new activity must refresh them
+        CropActivity moved = activity("Fertilizing", LocalDate.of(2033, 6, 3));
+        moved.setActivityDate(LocalDate.of(2033, 7, 2));
+        activityService.saveActivity(moved);
+        // Stored once, expanded on read: the 15th of every month
+        schedules.add(activityService.saveSchedule(new ActivitySchedule(null, crop, "Irrigation", null,
+                LocalDate.of(2033, 6, 15), null, ActivitySchedule.Frequency.MONTHLY, 1)));
+
+        mockMvc.perform(get("/api/calendar/month").param("month", "2033-06")
+                .param("fieldId", field.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.days", hasSize(30)))
+                .andExpect(jsonPath("$.days[14].entries[0].scheduleId").value(schedules.get(0).getId()))
+                .andExpect(jsonPath("$.days[14].entries[0].fieldName").value("Calendar Field"));
+        mockMvc.perform(get("/api/calendar").param("from", "2033-05-01").param("to", "2033-07-31")
+                .param("type", "fertilizing"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].date").value("2033-07-02"));
+    }
+
+    @Test
+    @WithMockUser
+    void between_WithAnInvertedRange_ShouldBeBadRequest() throws Exception {
+        mockMvc.perform(get("/api/calendar").param("from", "2033-06-02").param("to", "2033-06-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private CropActivity activity(String type, LocalDate date) {
+        CropActivity activity = new CropActivity();
+        activity.setCrop(crop);
+        activity.setActivityType(type);
+        activity.setActivityDate(date);
+        activity = activityService.saveActivity(activity);
+        activities.add(activity);
+        return activity;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.farmmanagement.controllers;
+
+import com.example.farmmanagement.model.Crop;
+import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.repository.CropRepository;
+import com.example.farmmanagement.repository.FieldRepository;
+import com.example.farmmanagement.service.CropService;
+import com.example.farmmanagement.service.FieldService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CropApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CropService cropService;
+
+    @Autowired
+    private FieldService fieldService;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private FieldRepository fieldRepository;
+
+    private final List<Crop> crops = new ArrayList<>();
+    private final List<Field> fields = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        cropRepository.deleteAll(crops);
+        // Reloaded: saving a subdivision bumps its farm's version
+        List<Field> current = fieldRepository.findAllById(fields.stream().map(Field::getId).toList());
+        current.forEach(field -> field.setParentField(null));
+        fieldRepository.deleteAll(fieldRepository.saveAll(current));
+    }
+
+    @Test
+    @WithMockUser
+    void distribution_ShouldBreakDownByFarmAndSeason() throws Exception {
+        Field farm = field("Histogram Farm", null);
+        Field paddock = field("Histogram Paddock", farm);
+        crop("Sorghum", farm, 2024);
+        crop("Sorghum", paddock, 2024);
+        crop(null, paddock, 2024);
+        crop("Sorghum", paddock, 2025);
+
+        mockMvc.perform(get("/api/crops/distribution")
+                .param("fieldId", farm.getId().toString()).param("season", "2024"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.Sorghum").value(2))
+                .andExpect(jsonPath("$.Unspecified").value(1));
+
+        crop("Millet", paddock, 2025); // saving a crop refreshes the cached histogram
+
+        mockMvc.perform(get("/api/crops/distribution").param("fieldId", paddock.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.Sorghum").value(2))
+                .andExpect(jsonPath("$.Millet").value(1));
+    }
+
+    @Test
+    @WithMockUser
+    void list_ShouldPageWithTheCursorAndApplyFilters() throws Exception {
+        Field field = field("Paging Field", null);
+        for (int i = 1; i <= 5; i++) {
+            crop("Paging Oats", field, 2020 + i);
+        }
+        crop("Paging Rye", field, 2024);
+
+        String first = mockMvc.perform(get("/api/crops").param("type", "paging oats")
+                .param("fieldId", field.getId().toString()).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows", hasSize(2)))
+                .andExpect(jsonPath("$.rows[0].id").value(crops.get(4).getId()))
+                .andExpect(jsonPath("$.rows[0].fieldName").value("Paging Field"))
+                .andExpect(jsonPath("$.nextCursor").value(crops.get(3).getId()))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(first).doesNotContain("Paging Rye");
+
+        mockMvc.perform(get("/api/crops").param("type", "Paging Oats").param("size", "2")
+                .param("cursor", crops.get(1).getId().toString()))
+                .andExpect(jsonPath("$.rows", hasSize(1)))
+                .andExpect(jsonPath("$.rows[0].id").value(crops.get(0).getId()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/api/crops").param("fieldId", field.getId().toString())
+                .param("plantedFrom", "2023-01-01").param("plantedTo", "2024-12-31"))
+                .andExpect(jsonPath("$.rows[*].plantingDate").value(
+                        containsInAnyOrder("2023-03-01", "2024-03-01", "2024-03-01")));
+    }
+
+    @Test
+    @WithMockUser
+    void growth_ShouldDeriveTheStageOfCropsInTheGround() throws Exception {
+        LocalDate today = LocalDate.now();
+        Crop growing = save(new Crop("Maize", 1.0, today.minusDays(30), today.plusDays(90), null));
+        Crop harvested = save(new Crop("Maize", 1.0, today.minusDays(150), today.minusDays(30), null));
+
+        // 30 of Maize's 120 days: a quarter through the season, past the 10% seedling stage
+        mockMvc.perform(get("/api/crops/" + growing.getId() + "/growth"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stage").value("VEGETATIVE"))
+                .andExpect(jsonPath("$.percent").value(25.0));
+        mockMvc.perform(get("/api/crops/" + harvested.getId() + "/growth"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/crops/growth"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.asOf").value(today.toString()))
+                .andExpect(jsonPath("$.stageCounts.VEGETATIVE").isNumber())
+                .andExpect(jsonPath("$.trend", hasSize(7)));
+    }
+
+    private Crop save(Crop crop) {
+        crop = cropService.saveCrop(crop);
+        crops.add(crop);
+        return crop;
+    }
+
+    private Field field(String name, Field parent) {
+        Field field = new Field();
+        field.setName(name);
+        field.setParentField(parent);
+        field = fieldService.saveField(field);
+        fields.add(0, field);
+        return field;
+    }
+
+    private void crop(String type, Field field, int season) {
+        Crop crop = new Crop(type, 1.0, LocalDate.of(season, 3, 1), null, null);
+        crop.setField(field);
+        crops.add(cropService.saveCrop(crop));
+    }
+}
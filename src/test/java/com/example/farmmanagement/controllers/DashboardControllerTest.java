@@ -1,15 +1,28 @@
 package com.example.farmmanagement.controllers;
 
+import com.example.farmmanagement.dto.CropDetails;
+import com.example.farmmanagement.dto.CropGrowth;
+import com.example.farmmanagement.dto.FieldRollup;
+import com.example.farmmanagement.dto.FieldSoilWater;
+import com.example.farmmanagement.dto.GrowthSummary;
+import com.example.farmmanagement.dto.HarvestTotals;
+import com.example.farmmanagement.dto.LedgerTotals;
+import com.example.farmmanagement.model.ActivitySchedule;
 import com.example.farmmanagement.model.Animal;
 import com.example.farmmanagement.model.Crop;
 import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.model.GrowthStage;
 import com.example.farmmanagement.service.AiService;
 import com.example.farmmanagement.service.AnimalService;
 import com.example.farmmanagement.service.CropService;
 import com.example.farmmanagement.service.CropTransactionService;
 import com.example.farmmanagement.service.CropActivityService;
+import com.example.farmmanagement.service.CropDetailsService;
+import com.example.farmmanagement.service.DashboardSnapshotCache;
 import com.example.farmmanagement.service.FieldService;
+import com.example.farmmanagement.service.HarvestService;
 import com.example.farmmanagement.service.SoilWaterService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -19,10 +32,14 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -60,33 +77,65 @@ public class DashboardControllerTest {
     @MockBean
     private SoilWaterService soilWaterService;
 
+    @MockBean
+    private CropDetailsService cropDetailsService;
+
+    @MockBean
+    private HarvestService harvestService;
+
+    @Autowired
+    private DashboardSnapshotCache dashboardSnapshotCache;
+
+    // Mocked services never publish change events, so start every test from an empty snapshot
+    @BeforeEach
+    void resetSnapshot() {
+        dashboardSnapshotCache.invalidate("test");
+    }
+
     @Test
     @WithMockUser(username = "admin", roles = { "ADMIN" })
     public void showHomePage_ShouldReturnIndexView() throws Exception {
         given(cropService.countCrops()).willReturn(10L);
         given(animalService.countAnimals()).willReturn(5L);
         given(aiService.getFarmSummary()).willReturn("Farm is good.");
-        given(transactionService.calculateGlobalTotalExpenses()).willReturn(100.0);
-        given(transactionService.calculateGlobalTotalIncome()).willReturn(200.0);
+        given(transactionService.getGlobalTotals()).willReturn(new LedgerTotals(200.0, 100.0));
         given(cropService.getCropTypeDistribution()).willReturn(Collections.emptyMap());
 
         mockMvc.perform(get("/home"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("index"))
                 .andExpect(model().attributeExists("totalCrops", "totalAnimals", "farmInsights", "globalExpense",
-                        "globalIncome", "cropDistribution"));
+                        "globalIncome", "cropDistribution"))
+                .andExpect(model().attribute("globalProfit", 100.0));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = { "ADMIN" })
+    public void showHomePage_WhenWidgetFails_ShouldRenderItAsUnavailable() throws Exception {
+        given(transactionService.getGlobalTotals()).willReturn(new LedgerTotals(200.0, 100.0));
+        given(fieldService.calculateTotalLandArea()).willThrow(new IllegalStateException("timeout"));
+
+        mockMvc.perform(get("/home"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("index"))
+                .andExpect(model().attribute("unavailableWidgets", org.hamcrest.Matchers.contains("totalLandArea")))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("Unavailable")));
     }
 
     @Test
     @WithMockUser(username = "admin", roles = { "ADMIN" })
     public void showCropManagementPage_ShouldReturnCropView() throws Exception {
-        given(cropService.getAllCrops()).willReturn(Arrays.asList(new Crop(), new Crop()));
-        given(fieldService.getAllFields()).willReturn(Collections.emptyList());
+        given(cropService.getGrowthSummary()).willReturn(new GrowthSummary(LocalDate.of(2025, 6, 1), 3, 40.0,
+                java.util.Map.of(GrowthStage.VEGETATIVE, 2, GrowthStage.READY, 1), List.of(40.0)));
 
         mockMvc.perform(get("/crop"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("crop-management"))
-                .andExpect(model().attributeExists("crops", "fields", "newCrop"));
+                .andExpect(model().attributeExists("newCrop", "growthSummary"))
+                .andExpect(model().attributeDoesNotExist("crops", "fields"));
+
+        verify(cropService, never()).getAllCrops();
+        verify(fieldService, never()).getAllFields();
     }
 
     @Test
@@ -123,12 +172,21 @@ public class DashboardControllerTest {
     @Test
     @WithMockUser(username = "admin", roles = { "ADMIN" })
     public void showFieldManagementPage_ShouldReturnFieldView() throws Exception {
-        given(fieldService.getAllFields()).willReturn(Arrays.asList(new Field()));
+        Field farm = new Field();
+        farm.setId(1L);
+        farm.setName("Home Farm");
+        farm.setAreaSize(120.0);
+        given(fieldService.getMasterFarms()).willReturn(Arrays.asList(farm));
+        given(fieldService.getMasterFarmRollups()).willReturn(java.util.Map.of(1L, new FieldRollup(1L, 3, 2, 80.0, 5)));
+        given(fieldService.countFields()).willReturn(4L);
 
         mockMvc.perform(get("/field"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("field-management"))
-                .andExpect(model().attributeExists("fields", "newField"));
+                .andExpect(model().attributeExists("fields", "newField", "rollups"))
+                .andExpect(model().attribute("totalFields", 4L));
+
+        verify(fieldService, never()).getAllFields();
     }
 
     @Test
@@ -157,24 +215,26 @@ public class DashboardControllerTest {
         crop.setId(1L);
         crop.setType("Wheat");
 
-        given(cropService.getCropById(1L)).willReturn(java.util.Optional.of(crop));
-        given(transactionService.getTransactionsByCropId(1L)).willReturn(Collections.emptyList());
-        given(transactionService.calculateTotalExpenses(1L)).willReturn(50.0);
-        given(transactionService.calculateTotalIncome(1L)).willReturn(150.0);
-        given(activityService.getActivitiesByCropId(1L)).willReturn(Collections.emptyList());
+        given(cropDetailsService.getCropDetails(1L)).willReturn(java.util.Optional.of(new CropDetails(crop,
+                Collections.emptyList(), new LedgerTotals(150.0, 50.0), Collections.emptyList(),
+                Collections.emptyList(), Collections.emptyList(), new HarvestTotals(12.0, 0.5, 2L))));
         given(aiService.getCropInsights(crop)).willReturn("Crop is healthy");
+        given(cropService.getCropGrowth(1L)).willReturn(java.util.Optional.of(
+                new CropGrowth(1L, GrowthStage.FLOWERING, 62.5)));
 
         mockMvc.perform(get("/crop/1"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("crop-details"))
                 .andExpect(model().attributeExists("crop", "transactions", "totalExpense", "totalIncome", "activities",
-                        "cropInsights"));
+                        "cropInsights", "harvests", "harvestTotals", "newHarvest", "cropGrowth"))
+                .andExpect(model().attribute("totalIncome", 150.0))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("Flowering")));
     }
 
     @Test
     @WithMockUser(username = "admin", roles = { "ADMIN" })
     public void viewCropDetails_WithInvalidId_ShouldRedirectToCropPage() throws Exception {
-        given(cropService.getCropById(999L)).willReturn(java.util.Optional.empty());
+        given(cropDetailsService.getCropDetails(999L)).willReturn(java.util.Optional.empty());
 
         mockMvc.perform(get("/crop/999"))
                 .andExpect(status().is3xxRedirection())
@@ -210,6 +270,47 @@ public class DashboardControllerTest {
                 .andExpect(redirectedUrl("/crop/1"));
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = { "ADMIN" })
+    public void addActivity_WithRepeat_ShouldStoreOneSchedule() throws Exception {
+        Crop crop = new Crop();
+        crop.setId(1L);
+        given(cropService.getCropById(1L)).willReturn(java.util.Optional.of(crop));
+
+        mockMvc.perform(post("/crop/1/activity/add")
+                .param("activityType", "Irrigation")
+                .param("activityDate", "2025-05-01")
+                .param("repeat", "WEEKLY")
+                .param("repeatEvery", "2")
+                .param("repeatUntil", "2025-08-31")
+                .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/crop/1"));
+
+        verify(activityService).saveSchedule(new ActivitySchedule(null, crop, "Irrigation", null,
+                LocalDate.of(2025, 5, 1), LocalDate.of(2025, 8, 31), ActivitySchedule.Frequency.WEEKLY, 2));
+        verify(activityService, never()).saveActivity(org.mockito.ArgumentMatchers.any());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = { "ADMIN" })
+    public void addHarvest_ShouldSaveAgainstTheCropAndRedirect() throws Exception {
+        Crop crop = new Crop();
+        crop.setId(1L);
+        given(cropService.getCropById(1L)).willReturn(java.util.Optional.of(crop));
+
+        mockMvc.perform(post("/crop/1/harvest/add")
+                .param("harvestDate", "2025-08-01")
+                .param("quantity", "12.5")
+                .param("loss", "0.5")
+                .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/crop/1"));
+
+        verify(harvestService).saveHarvest(org.mockito.ArgumentMatchers.argThat(h -> h.getCrop() == crop
+                && h.getQuantity() == 12.5 && h.getLoss() == 0.5));
+    }
+
     @Test
     @WithMockUser(username = "admin", roles = { "ADMIN" })
     public void viewFieldDetails_WithValidId_ShouldReturnFieldDetailsView() throws Exception {
@@ -217,13 +318,10 @@ public class DashboardControllerTest {
         field.setId(1L);
         field.setName("North Field");
 
-        given(fieldService.getFieldById(1L)).willReturn(java.util.Optional.of(field));
-        given(soilWaterService.getSoilRecordsByField(1L)).willReturn(Collections.emptyList());
-        given(soilWaterService.getWaterRecordsByField(1L)).willReturn(Collections.emptyList());
-        given(soilWaterService.getSoilInputsByField(1L)).willReturn(Collections.emptyList());
-        given(soilWaterService.getFieldSoilWaterSummary(1L)).willReturn(Collections.emptyMap());
-        given(soilWaterService.getSoilPHTrendData(1L)).willReturn(Collections.emptyList());
-        given(soilWaterService.getLatestNutrientLevels(1L)).willReturn(Collections.emptyMap());
+        given(fieldService.getFieldWithCrops(1L)).willReturn(java.util.Optional.of(field));
+        given(soilWaterService.getFieldSoilWater(1L)).willReturn(new FieldSoilWater(Collections.emptyList(),
+                Collections.emptyList(), Collections.emptyList(), Collections.emptyMap(), Collections.emptyList(),
+                Collections.emptyMap()));
 
         mockMvc.perform(get("/field/1"))
                 .andExpect(status().isOk())
@@ -234,7 +332,7 @@ public class DashboardControllerTest {
     @Test
     @WithMockUser(username = "admin", roles = { "ADMIN" })
     public void viewFieldDetails_WithInvalidId_ShouldRedirectToFieldPage() throws Exception {
-        given(fieldService.getFieldById(999L)).willReturn(java.util.Optional.empty());
+        given(fieldService.getFieldWithCrops(999L)).willReturn(java.util.Optional.empty());
 
         mockMvc.perform(get("/field/999"))
                 .andExpect(status().is3xxRedirection())
@@ -0,0 +1,54 @@
+package com.example.farmmanagement.controllers;
+
+import com.example.farmmanagement.service.DashboardStreamService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class DashboardStreamControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DashboardStreamService dashboardStreamService;
+
+    @Test
+    @WithMockUser
+    void stream_ShouldOpenEventStream() throws Exception {
+        when(dashboardStreamService.subscribe()).thenReturn(Optional.of(new SseEmitter()));
+
+        mockMvc.perform(get("/api/dashboard/stream"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    @WithMockUser
+    void stream_AtConnectionCap_ShouldReturnServiceUnavailable() throws Exception {
+        when(dashboardStreamService.subscribe()).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/dashboard/stream"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "60"));
+    }
+
+    @Test
+    void stream_Anonymous_ShouldRedirectToLogin() throws Exception {
+        mockMvc.perform(get("/api/dashboard/stream"))
+                .andExpect(status().is3xxRedirection());
+    }
+}
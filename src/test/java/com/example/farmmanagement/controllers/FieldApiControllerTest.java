@@ -0,0 +1,229 @@
+package com.example.farmmanagement.controllers;
+
+import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.repository.FieldRepository;
+import com.example.farmmanagement.service.FieldService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class FieldApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FieldRepository fieldRepository;
+
+    @Autowired
+    private FieldService fieldService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Field> fields = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        fieldRepository.deleteAllById(fields.stream().map(Field::getId).toList()); // Saves bump their versions
+    }
+
+    @Test
+    @WithMockUser
+    void search_ShouldMatchNamesCaseInsensitivelyAndLimit() throws Exception {
+        field("Picker Orchard East");
+        field("Picker Orchard West");
+        field("picker_paddock");
+        field("Picker Dam");
+
+        mockMvc.perform(get("/api/fields/search").param("q", "ORCHARD").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name").value("Picker Orchard East"))
+                .andExpect(jsonPath("$[0].id").isNumber());
+
+        // "_" is matched literally, not as a single-character wildcard
+        mockMvc.perform(get("/api/fields/search").param("q", "picker_"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name").value("picker_paddock"));
+    }
+
+    @Test
+    @WithMockUser
+    void hierarchy_ShouldWalkEveryLevelAndRollUpTheSubtree() throws Exception {
+        Field farm = field("Hierarchy Farm", 50.0, null);
+        Field block = field("Hierarchy Block", 30.0, farm);
+        Field plot = field("Hierarchy Plot", 12.5, block);
+
+        mockMvc.perform(get("/api/fields/{id}/descendants", farm.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].name").value("Hierarchy Plot"))
+                .andExpect(jsonPath("$[1].parentId").value(block.getId()))
+                .andExpect(jsonPath("$[1].depth").value(2));
+
+        mockMvc.perform(get("/api/fields/{id}/ancestors", plot.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name").value(contains("Hierarchy Block", "Hierarchy Farm")));
+
+        mockMvc.perform(get("/api/fields/{id}/rollup", farm.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.subdivisions").value(2))
+                .andExpect(jsonPath("$.depth").value(2))
+                .andExpect(jsonPath("$.area").value(12.5));
+
+        mockMvc.perform(get("/api/fields/{id}/plots", farm.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id").value(contains(plot.getId().intValue())));
+
+        mockMvc.perform(get("/api/fields/{id}/contains/{fieldId}", farm.getId(), plot.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string("true"));
+        mockMvc.perform(get("/api/fields/{id}/contains/{fieldId}", block.getId(), farm.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string("false"));
+
+        mockMvc.perform(get("/api/fields/{id}/rollup", -1L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser
+    void addSubdivision_ShouldCarveOutAreaUntilTheFarmIsFull() throws Exception {
+        Field farm = field("Subdivided Farm", 10.0, null);
+
+        mockMvc.perform(post("/api/fields/{id}/subdivisions", farm.getId()).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\" North Paddock \",\"areaSize\":6}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.name").value("North Paddock"))
+                .andExpect(jsonPath("$.id").isNumber());
+
+        mockMvc.perform(post("/api/fields/{id}/subdivisions", farm.getId()).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"South Paddock\",\"areaSize\":6}"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/api/fields/{id}/subdivisions", farm.getId()).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON).content("{\"areaSize\":1}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/fields/{id}/subdivisions", -1L).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Lost\",\"areaSize\":1}"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(fieldService.getRemainingSpace(farm.getId())).isEqualTo(4.0);
+    }
+
+    @Test
+    @WithMockUser
+    void shape_ShouldServeTheBoundaryWithItsComputedAreaAndCentroid() throws Exception {
+        Field drawn = new Field();
+        drawn.setName("Drawn Field");
+        drawn.setBoundaryCoordinates("[[0,0],[0.01,0],[0.01,0.01],[0,0.01],[0,0]]");
+        drawn = fieldService.saveField(drawn);
+        fields.add(0, drawn);
+        Field unmapped = field("Unmapped Field");
+
+        mockMvc.perform(get("/api/fields/{id}/shape", drawn.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.areaAcres").value(closeTo(306.21, 0.01)))
+                .andExpect(jsonPath("$.latitude").value(closeTo(0.005, 1e-9)))
+                .andExpect(jsonPath("$.boundary.length()").value(4));
+        mockMvc.perform(get("/api/fields/{id}/shape", unmapped.getId()))
+                .andExpect(status().isNotFound());
+        assertThat(drawn.getAreaSize()).isEqualTo(306.21);
+    }
+
+    @Test
+    @WithMockUser
+    void shape_ShouldStayTheSameWhenATextBoundaryIsEncoded() throws Exception {
+        String boundary = "[[-1.2864092148906787,36.81723594665528],[-1.2851220218834916,36.8210124969482],"
+                + "[-1.2892403812261617,36.82204246520996],[-1.2864092148906787,36.81723594665528]]";
+        // A row from before binary boundaries
+        Long id = field("Legacy Field").getId();
+        jdbcTemplate.update("UPDATE fields SET boundary_coordinates = ? WHERE id = ?", boundary, id);
+        entityManagerFactory.getCache().evict(Field.class, id);
+        Long typedId = field("Typed Field").getId();
+        jdbcTemplate.update("UPDATE fields SET boundary_coordinates = ? WHERE id = ?", "[[0, 0], [0.01, 0]]", typedId);
+        String before = mockMvc.perform(get("/api/fields/{id}/shape", id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(fieldService.encodeTextBoundaries()).isPositive();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT boundary_coordinates FROM fields WHERE id = ?", String.class,
+                id)).isNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT boundary_geometry FROM fields WHERE id = ?", byte[].class, id))
+                .hasSizeLessThan(boundary.length() / 2);
+        mockMvc.perform(get("/api/fields/{id}/shape", id))
+                .andExpect(content().string(before));
+        assertThat(fieldRepository.findById(id)).get().extracting(Field::getBoundaryCoordinates).isEqualTo(boundary);
+        // Text that does not encode is marked and left alone from then on
+        assertThat(jdbcTemplate.queryForObject("SELECT boundary_text_kept FROM fields WHERE id = ?", Boolean.class,
+                typedId)).isTrue();
+        assertThat(fieldService.encodeTextBoundaries()).isZero();
+        assertThat(fieldRepository.findUncheckedTextBoundaries()).isEmpty();
+    }
+
+    @Test
+    @WithMockUser
+    void locate_ShouldFindTheDrawnFieldAroundAPosition() throws Exception {
+        Field farm = field("Harbour Farm", null, null);
+        farm.setBoundaryCoordinates("[[-33.87,151.20],[-33.87,151.22],[-33.85,151.22],[-33.85,151.20]]");
+        fieldService.saveField(farm);
+        Field paddock = new Field();
+        paddock.setName("Harbour Paddock");
+        paddock.setParentField(farm);
+        paddock.setBoundaryCoordinates("[[-33.865,151.205],[-33.865,151.21],[-33.86,151.21],[-33.86,151.205]]");
+        paddock = fieldService.saveField(paddock);
+        fields.add(0, paddock);
+
+        mockMvc.perform(get("/api/fields/locate").param("lat", "-33.862").param("lng", "151.207"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(paddock.getId()))
+                .andExpect(jsonPath("$.name").value("Harbour Paddock"));
+        mockMvc.perform(get("/api/fields/locate").param("lat", "-33.852").param("lng", "151.218"))
+                .andExpect(jsonPath("$.name").value("Harbour Farm"));
+        mockMvc.perform(get("/api/fields/locate").param("lat", "-33.9").param("lng", "151.207"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/fields/locate").param("lat", "95").param("lng", "151.207"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Field field(String name) {
+        return field(name, null, null);
+    }
+
+    private Field field(String name, Double area, Field parent) {
+        Field field = new Field();
+        field.setName(name);
+        field.setAreaSize(area);
+        field.setParentField(parent);
+        field = fieldService.saveField(field);
+        // Children are deleted before their parents
+        fields.add(0, field);
+        return field;
+    }
+}
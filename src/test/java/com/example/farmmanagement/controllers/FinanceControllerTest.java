@@ -0,0 +1,59 @@
+package com.example.farmmanagement.controllers;
+
+import com.example.farmmanagement.dto.FinanceSeries;
+import com.example.farmmanagement.service.FinanceSeriesService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class FinanceControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private FinanceSeriesService financeSeriesService;
+
+    @Test
+    @WithMockUser
+    void series_ShouldReturnBuckets() throws Exception {
+        LocalDate day = LocalDate.of(2025, 3, 1);
+        when(financeSeriesService.getSeries(FinanceSeries.Granularity.DAY, day, day, 5L, null))
+                .thenReturn(new FinanceSeries(FinanceSeries.Granularity.DAY, day, day,
+                        List.of(new FinanceSeries.Point(day, 120.0, 45.0))));
+
+        mockMvc.perform(get("/api/finance/series")
+                .param("granularity", "DAY").param("from", "2025-03-01").param("to", "2025-03-01")
+                .param("cropId", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity").value("DAY"))
+                .andExpect(jsonPath("$.points[0].periodStart").value("2025-03-01"))
+                .andExpect(jsonPath("$.points[0].income").value(120.0))
+                .andExpect(jsonPath("$.points[0].expense").value(45.0));
+    }
+
+    @Test
+    @WithMockUser
+    void series_InvalidRange_ShouldReturnBadRequest() throws Exception {
+        when(financeSeriesService.getSeries(eq(FinanceSeries.Granularity.MONTH), any(), any(), any(), any()))
+                .thenThrow(new IllegalArgumentException("from must not be after to"));
+
+        mockMvc.perform(get("/api/finance/series").param("from", "2025-03-01").param("to", "2024-03-01"))
+                .andExpect(status().isBadRequest());
+    }
+}
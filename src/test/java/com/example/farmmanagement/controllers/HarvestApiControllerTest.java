@@ -0,0 +1,78 @@
+package com.example.farmmanagement.controllers;
+
+import com.example.farmmanagement.model.Crop;
+import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.model.HarvestRecord;
+import com.example.farmmanagement.repository.CropRepository;
+import com.example.farmmanagement.repository.FieldRepository;
+import com.example.farmmanagement.service.HarvestService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class HarvestApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private HarvestService harvestService;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private FieldRepository fieldRepository;
+
+    @Test
+    @WithMockUser
+    void summary_ShouldFollowSavesUpdatesAndDeletes() throws Exception {
+        Field field = new Field();
+        field.setName("Harvest Field");
+        field = fieldRepository.save(field);
+        Crop crop = new Crop("Harvest Maize", 1.0, LocalDate.of(2024, 3, 1), null, null);
+        crop.setField(field);
+        crop = cropRepository.save(crop);
+
+        HarvestRecord first = harvestService.saveHarvest(
+                new HarvestRecord(null, crop, null, LocalDate.of(2024, 8, 1), 10.0, 1.0, "L-1"));
+        harvestService.saveHarvest(new HarvestRecord(null, crop, null, LocalDate.of(2025, 8, 1), 4.0, null, "L-2"));
+        first.setQuantity(12.0);
+        harvestService.saveHarvest(first);
+
+        mockMvc.perform(get("/api/harvests/summary").param("cropId", crop.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collected").value(16.0))
+                .andExpect(jsonPath("$.lost").value(1.0))
+                .andExpect(jsonPath("$.records").value(2));
+        mockMvc.perform(get("/api/harvests/by-field").param("season", "2024"))
+                .andExpect(jsonPath("$['" + field.getId() + "'].collected").value(12.0));
+
+        harvestService.deleteHarvest(first.getId());
+
+        mockMvc.perform(get("/api/harvests/summary").param("fieldId", field.getId().toString())
+                .param("season", "2024"))
+                .andExpect(jsonPath("$.records").value(0));
+        assertThat(harvestService.isConsistent()).isTrue();
+    }
+
+    @Test
+    @WithMockUser
+    void summary_WithCropAndField_ShouldBeRejected() throws Exception {
+        mockMvc.perform(get("/api/harvests/summary").param("cropId", "1").param("fieldId", "1"))
+                .andExpect(status().isBadRequest());
+    }
+}
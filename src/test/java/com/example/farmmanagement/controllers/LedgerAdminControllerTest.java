@@ -0,0 +1,62 @@
+package com.example.farmmanagement.controllers;
+
+import com.example.farmmanagement.dto.LedgerDriftReport;
+import com.example.farmmanagement.service.LedgerRollupService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class LedgerAdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LedgerRollupService ledgerRollupService;
+
+    @Test
+    @WithMockUser(username = "admin", roles = { "ADMIN" })
+    void verify_ShouldReturnDriftReport() throws Exception {
+        when(ledgerRollupService.verify()).thenReturn(new LedgerDriftReport(12, Collections.emptyList()));
+
+        mockMvc.perform(get("/admin/ledger/verify"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bucketsChecked").value(12))
+                .andExpect(jsonPath("$.consistent").value(true));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = { "ADMIN" })
+    void rebuild_ShouldRebuildAndVerify() throws Exception {
+        when(ledgerRollupService.rebuild()).thenReturn(5);
+        when(ledgerRollupService.verify()).thenReturn(new LedgerDriftReport(5, Collections.emptyList()));
+
+        mockMvc.perform(post("/admin/ledger/rebuild").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rebuiltBuckets").value(5));
+    }
+
+    @Test
+    @WithMockUser(username = "worker", roles = { "EMPLOYEE" })
+    void rebuild_AsEmployee_ShouldBeForbidden() throws Exception {
+        mockMvc.perform(post("/admin/ledger/rebuild").with(csrf()))
+                .andExpect(status().isForbidden());
+        verify(ledgerRollupService, never()).rebuild();
+    }
+}
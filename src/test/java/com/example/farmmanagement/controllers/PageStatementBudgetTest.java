@@ -0,0 +1,259 @@
+package com.example.farmmanagement.controllers;
+
+import com.example.farmmanagement.model.Crop;
+import com.example.farmmanagement.model.CropActivity;
+import com.example.farmmanagement.model.CropTransaction;
+import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.model.SoilInput;
+import com.example.farmmanagement.model.SoilRecord;
+import com.example.farmmanagement.model.WaterRecord;
+import com.example.farmmanagement.repository.CropActivityRepository;
+import com.example.farmmanagement.repository.CropRepository;
+import com.example.farmmanagement.repository.CropTransactionRepository;
+import com.example.farmmanagement.repository.FieldRepository;
+import com.example.farmmanagement.repository.SoilInputRepository;
+import com.example.farmmanagement.repository.SoilRecordRepository;
+import com.example.farmmanagement.repository.WaterRecordRepository;
+import com.example.farmmanagement.service.FieldService;
+import com.example.farmmanagement.service.LedgerRollupService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Every server-rendered page must render within a fixed number of SQL
+ * statements, however many fields, crops and records there are. Statements
+ * are counted per thread at the JDBC connection, so JPA and JdbcTemplate
+ * reads both count and background work (dashboard widgets, refreshes) does
+ * not. Each page is measured warm, then again after the data has grown.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class PageStatementBudgetTest {
+
+    // Per page, for the second request (reference data and snapshots already cached); lower them as pages improve
+    private static final Map<String, Integer> BUDGETS = new LinkedHashMap<>();
+
+    static {
+        BUDGETS.put("/home", 0);
+        BUDGETS.put("/crop", 9);
+        BUDGETS.put("/crop/{crop}", 5);
+        BUDGETS.put("/animal", 1);
+        BUDGETS.put("/produce", 0);
+        BUDGETS.put("/field", 3);
+        BUDGETS.put("/field/{field}", 7);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FieldRepository fieldRepository;
+
+    @Autowired
+    private FieldService fieldService;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private CropActivityRepository activityRepository;
+
+    @Autowired
+    private CropTransactionRepository transactionRepository;
+
+    @Autowired
+    private SoilRecordRepository soilRecordRepository;
+
+    @Autowired
+    private WaterRecordRepository waterRecordRepository;
+
+    @Autowired
+    private SoilInputRepository soilInputRepository;
+
+    @Autowired
+    private LedgerRollupService ledgerRollupService;
+
+    private final List<Field> fields = new ArrayList<>();
+    private final List<Crop> crops = new ArrayList<>();
+    private Field farm;
+
+    @AfterEach
+    void cleanUp() {
+        for (Crop crop : crops) {
+            activityRepository.deleteAll(activityRepository.findByCropId(crop.getId()));
+            transactionRepository.deleteAll(transactionRepository.findByCropId(crop.getId()));
+        }
+        soilRecordRepository.deleteAll(soilRecordRepository.findByFieldId(farm.getId()));
+        waterRecordRepository.deleteAll(waterRecordRepository.findByFieldId(farm.getId()));
+        soilInputRepository.deleteAll(soilInputRepository.findByFieldId(farm.getId()));
+        cropRepository.deleteAll(crops);
+        // Subdivisions before their farm
+        Collections.reverse(fields);
+        fieldRepository.deleteAllById(fields.stream().map(Field::getId).toList()); // Saves bump their versions
+        ledgerRollupService.rebuild();
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = { "ADMIN" })
+    void everyPage_ShouldStayWithinItsStatementBudgetAsDataGrows() throws Exception {
+        farm = field("Budget Farm", null);
+        grow(3);
+        Map<String, Integer> small = measure();
+
+        grow(25);
+        Map<String, Integer> large = measure();
+
+        BUDGETS.forEach((page, budget) -> {
+            assertThat(small.get(page)).as("statements for %s", page).isLessThanOrEqualTo(budget);
+            assertThat(large.get(page)).as("statements for %s with more data", page).isEqualTo(small.get(page));
+        });
+    }
+
+    private Map<String, Integer> measure() throws Exception {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String page : BUDGETS.keySet()) {
+            String url = page.replace("{crop}", crops.get(0).getId().toString())
+                    .replace("{field}", farm.getId().toString());
+            mockMvc.perform(get(url)).andExpect(status().isOk());
+            StatementCounter.reset();
+            mockMvc.perform(get(url)).andExpect(status().isOk());
+            counts.put(page, StatementCounter.count());
+        }
+        return counts;
+    }
+
+    // More farms with plots, and subdivisions of the farm, each with a crop carrying activities, plus records on
+    // the farm itself
+    private void grow(int count) {
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < count; i++) {
+            field("Budget Plot " + fields.size(), field("Budget Farm " + fields.size(), null));
+            Field plot = field("Budget Plot " + fields.size(), farm);
+            for (Field owner : List.of(farm, plot)) {
+                Crop crop = new Crop("Budget Maize", 1.0, today.minusDays(30), today.plusDays(60 + i), null);
+                crop.setField(owner);
+                crops.add(cropRepository.save(crop));
+            }
+            Crop crop = crops.get(crops.size() - 1);
+            activityRepository.save(new CropActivity(null, crop, "Weeding", null, today.plusDays(i)));
+            CropTransaction transaction = new CropTransaction();
+            transaction.setCrop(crop);
+            transaction.setTransactionType(CropTransaction.TransactionType.EXPENSE);
+            transaction.setAmount(10.0);
+            transaction.setTransactionDate(today);
+            transactionRepository.save(transaction);
+
+            SoilRecord soil = new SoilRecord();
+            soil.setField(farm);
+            soil.setTestDate(today.minusDays(i));
+            soil.setPH(6.5);
+            soilRecordRepository.save(soil);
+            WaterRecord water = new WaterRecord();
+            water.setField(farm);
+            water.setTestDate(today.minusDays(i));
+            water.setQuantity(100.0);
+            waterRecordRepository.save(water);
+            SoilInput input = new SoilInput();
+            input.setField(farm);
+            input.setApplicationDate(today.minusDays(i));
+            input.setInputType(SoilInput.InputType.FERTILIZER);
+            soilInputRepository.save(input);
+        }
+        ledgerRollupService.rebuild();
+    }
+
+    private Field field(String name, Field parent) {
+        Field field = new Field();
+        field.setName(name);
+        field.setAreaSize(1000.0);
+        field.setParentField(parent);
+        field.setIsMasterFarm(parent == null);
+        field = fieldService.saveField(field);
+        fields.add(field);
+        return field;
+    }
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new StatementCounter(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /** Counts the statements each thread prepares or creates on its connections. */
+    static final class StatementCounter extends DelegatingDataSource {
+
+        private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "prepareCall",
+                "createStatement");
+        private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+        StatementCounter(DataSource target) {
+            super(target);
+        }
+
+        static void reset() {
+            COUNT.get()[0] = 0;
+        }
+
+        static int count() {
+            return COUNT.get()[0];
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(super.getConnection(username, password));
+        }
+
+        private static Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(StatementCounter.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                        if (STATEMENT_METHODS.contains(method.getName())) {
+                            COUNT.get()[0]++;
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.farmmanagement.controllers;
+
+import com.example.farmmanagement.model.Crop;
+import com.example.farmmanagement.model.CropTransaction;
+import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.model.SoilInput;
+import com.example.farmmanagement.repository.CropRepository;
+import com.example.farmmanagement.repository.FieldRepository;
+import com.example.farmmanagement.repository.ProfitabilityRepository;
+import com.example.farmmanagement.repository.SoilInputRepository;
+import com.example.farmmanagement.service.CropTransactionService;
+import com.example.farmmanagement.service.ProfitabilityService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Not transactional: the refresh reads committed data from its own worker threads
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProfitabilityControllerTest {
+
+    private static final int SEASON = 2031;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CropTransactionService transactionService;
+
+    @Autowired
+    private ProfitabilityService profitabilityService;
+
+    @Autowired
+    private ProfitabilityRepository profitabilityRepository;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private FieldRepository fieldRepository;
+
+    @Autowired
+    private SoilInputRepository soilInputRepository;
+
+    private final List<CropTransaction> transactions = new ArrayList<>();
+    private final List<SoilInput> inputs = new ArrayList<>();
+    private final List<Crop> crops = new ArrayList<>();
+    private final List<Field> fields = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        transactions.forEach(transaction -> transactionService.deleteTransaction(transaction.getId()));
+        soilInputRepository.deleteAll(inputs);
+        cropRepository.deleteAll(crops);
+        fieldRepository.deleteAll(fields);
+        profitabilityService.refreshAll();
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = { "ADMIN" })
+    void leaderboard_ShouldRankCropsAndFieldsByMargin() throws Exception {
+        Field east = field("Profit East");
+        Field west = field("Profit West");
+        Crop maize = crop("Profit Maize", east, 3.0);
+        Crop beans = crop("Profit Beans", east, 1.0);
+        Crop wheat = crop("Profit Wheat", west, 2.0);
+        transaction(maize, CropTransaction.TransactionType.INCOME, 900.0);
+        transaction(maize, CropTransaction.TransactionType.EXPENSE, 100.0);
+        transaction(beans, CropTransaction.TransactionType.INCOME, 300.0);
+        transaction(wheat, CropTransaction.TransactionType.INCOME, 500.0);
+        input(east, 400.0);
+
+        mockMvc.perform(post("/admin/profitability/refresh").with(csrf()))
+                .andExpect(status().isOk());
+
+        // East's 400 input cost splits 300 / 100 by land size: maize 500, wheat 500, beans 200
+        mockMvc.perform(get("/api/profitability").param("season", "" + SEASON).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(3))
+                .andExpect(jsonPath("$.rows[0].subjectId").value(maize.getId()))
+                .andExpect(jsonPath("$.rows[0].inputCost").value(300.0))
+                .andExpect(jsonPath("$.rows[1].subjectId").value(wheat.getId()))
+                .andExpect(jsonPath("$.refreshedAt").exists());
+        mockMvc.perform(get("/api/profitability").param("season", "" + SEASON).param("size", "2")
+                .param("page", "1"))
+                .andExpect(jsonPath("$.rows[0].label").value("Profit Beans"))
+                .andExpect(jsonPath("$.rows[0].margin").value(200.0));
+        mockMvc.perform(get("/api/profitability").param("season", "" + SEASON).param("scope", "FIELD")
+                .param("sort", "income").param("direction", "asc"))
+                .andExpect(jsonPath("$.rows[0].label").value("Profit West"))
+                .andExpect(jsonPath("$.rows[1].label").value("Profit East"))
+                .andExpect(jsonPath("$.rows[1].margin").value(700.0));
+    }
+
+    @Test
+    @WithMockUser
+    void leaderboard_WithUnknownSortKey_ShouldBeBadRequest() throws Exception {
+        mockMvc.perform(get("/api/profitability").param("sort", "password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "worker", roles = { "EMPLOYEE" })
+    void refresh_AsEmployee_ShouldBeForbidden() throws Exception {
+        mockMvc.perform(post("/admin/profitability/refresh").with(csrf()))
+                .andExpect(status().isForbidden());
+    }
+
+    private Field field(String name) {
+        Field field = new Field();
+        field.setName(name);
+        field = fieldRepository.save(field);
+        fields.add(field);
+        return field;
+    }
+
+    private Crop crop(String type, Field field, double landSize) {
+        Crop crop = new Crop(type, landSize, LocalDate.of(SEASON, 3, 1), null, null);
+        crop.setField(field);
+        crop = cropRepository.save(crop);
+        crops.add(crop);
+        return crop;
+    }
+
+    private void transaction(Crop crop, CropTransaction.TransactionType type, double amount) {
+        CropTransaction transaction = new CropTransaction();
+        transaction.setCrop(crop);
+        transaction.setTransactionType(type);
+        transaction.setAmount(amount);
+        transaction.setTransactionDate(LocalDate.of(SEASON, 6, 1));
+        transactions.add(transactionService.saveTransaction(transaction));
+    }
+
+    private void input(Field field, double cost) {
+        SoilInput input = new SoilInput();
+        input.setField(field);
+        input.setApplicationDate(LocalDate.of(SEASON, 4, 1));
+        input.setCost(cost);
+        inputs.add(soilInputRepository.save(input));
+    }
+}
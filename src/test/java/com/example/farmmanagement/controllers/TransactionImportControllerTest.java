@@ -0,0 +1,91 @@
+package com.example.farmmanagement.controllers;
+
+import com.example.farmmanagement.model.Crop;
+import com.example.farmmanagement.repository.CropRepository;
+import com.example.farmmanagement.repository.CropTransactionRepository;
+import com.example.farmmanagement.service.CropTransactionService;
+import com.example.farmmanagement.service.LedgerRollupService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TransactionImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private CropTransactionRepository transactionRepository;
+
+    @Autowired
+    private CropTransactionService transactionService;
+
+    @Autowired
+    private LedgerRollupService ledgerRollupService;
+
+    @AfterEach
+    void cleanUp() {
+        transactionRepository.deleteAll();
+        ledgerRollupService.rebuild();
+    }
+
+    @Test
+    @WithMockUser
+    void importCsv_ShouldPersistRowsAndKeepRollupsConsistent() throws Exception {
+        Crop crop = new Crop();
+        crop.setType("Import Maize");
+        crop = cropRepository.save(crop);
+        String csv = "cropId,type,amount,date,description\n"
+                + crop.getId() + ",EXPENSE,120.0,2024-05-01,Seeds\n"
+                + crop.getId() + ",INCOME,800.0,2024-09-15,Harvest sale\n"
+                + "999999,INCOME,5.0,2024-09-15,Unknown crop\n";
+
+        mockMvc.perform(post("/api/transactions/import").with(csrf())
+                .contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processed").value(3))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejectedCount").value(1))
+                .andExpect(jsonPath("$.rejections[0].line").value(4));
+
+        assertThat(transactionRepository.findByCropId(crop.getId())).hasSize(2);
+        assertThat(transactionService.getCropTotals(crop.getId()).income()).isEqualTo(800.0);
+        assertThat(ledgerRollupService.verify().isConsistent()).isTrue();
+    }
+
+    @Test
+    @WithMockUser
+    void importJsonLines_ShouldAcceptNdjson() throws Exception {
+        Crop crop = new Crop();
+        crop.setType("Import Beans");
+        crop = cropRepository.save(crop);
+        String ndjson = "{\"cropId\":" + crop.getId() + ",\"type\":\"INCOME\",\"amount\":40}\n";
+
+        mockMvc.perform(post("/api/transactions/import").with(csrf())
+                .contentType(TransactionImportController.NDJSON).content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+    }
+
+    @Test
+    @WithMockUser
+    void import_UnsupportedContentType_ShouldBeRejected() throws Exception {
+        mockMvc.perform(post("/api/transactions/import").with(csrf())
+                .contentType("application/xml").content("<rows/>"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+}
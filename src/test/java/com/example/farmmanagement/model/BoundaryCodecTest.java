@@ -0,0 +1,124 @@
+package com.example.farmmanagement.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundaryCodecTest {
+
+    // A drawn polygon as the map posts it: full-precision doubles, closed
+    private static final String DRAWN = "[[-1.2864092148906787,36.81723594665528],"
+            + "[-1.2851220218834916,36.8210124969482],[-1.2892403812261617,36.82204246520996],"
+            + "[-1.2901841566512446,36.81792259216309],[-1.2864092148906787,36.81723594665528]]";
+
+    @Test
+    void fromJson_ShouldRoundTripADrawnBoundaryInAFractionOfTheBytes() {
+        byte[] encoded = BoundaryCodec.fromJson(DRAWN);
+
+        assertThat(BoundaryCodec.toJson(encoded)).isEqualTo(DRAWN);
+        assertThat(encoded.length).isLessThan(DRAWN.length() / 2);
+    }
+
+    @Test
+    void fromJson_ShouldPackRoundedCoordinatesAsSmallDeltas() {
+        String typed = "[[-1.286409,36.817236],[-1.285122,36.821012],[-1.28924,36.822042],[-1.290184,36.817923]]";
+
+        byte[] encoded = BoundaryCodec.fromJson(typed);
+
+        assertThat(BoundaryCodec.toJson(encoded)).isEqualTo(typed);
+        assertThat(encoded.length).isLessThanOrEqualTo(3 + 8 + 6 * 3); // A full first point, then 2-3 byte deltas
+        assertThat(BoundaryCodec.toJson(BoundaryCodec.fromJson("[[0,0],[1,0],[1,1]]"))).isEqualTo("[[0,0],[1,0],[1,1]]");
+    }
+
+    @Test
+    void fromJson_ShouldRoundTripSmallAndMixedPrecisionValuesAsTheMapWritesThem() {
+        // JSON.stringify output: plain down to 1e-6, exponents below, no trailing zeros
+        String stored = "[[0.0001,36.8],[-0.000015,0.000001],[1e-7,-1.5e-7],[12.5,-100],[0.1,0.30000000000000004]]";
+
+        byte[] encoded = BoundaryCodec.fromJson(stored);
+
+        assertThat(encoded).isNotNull();
+        assertThat(BoundaryCodec.toJson(encoded)).isEqualTo(stored);
+        assertThat(BoundaryCodec.decode(encoded)[0]).containsExactly(0.0001, -0.000015, 1e-7, 12.5, 0.1);
+    }
+
+    @Test
+    void field_ShouldKeepTextItCannotWriteBackVerbatim() {
+        Field field = new Field();
+
+        for (String text : new String[] { "[[0.5, 36.8], [1, 2]]", "[[1.0E-4,36.80],[1,2]]", "[[-0,1]]" }) {
+            field.setBoundaryCoordinates(text);
+            assertThat(field.getBoundaryGeometry()).isNull();
+            assertThat(field.getBoundaryCoordinates()).isEqualTo(text);
+        }
+    }
+
+    @Test
+    void encode_ShouldGiveBackBitIdenticalDoubles() {
+        Random random = new Random(7);
+        for (int run = 0; run < 200; run++) {
+            int n = random.nextInt(50);
+            double[] lats = new double[n];
+            double[] lngs = new double[n];
+            for (int i = 0; i < n; i++) {
+                lats[i] = switch (run % 3) {
+                    case 0 -> random.nextDouble() * 180 - 90;
+                    case 1 -> Math.round((random.nextDouble() * 180 - 90) * 1e5) / 1e5;
+                    default -> i % 2 == 0 ? -0.0 : Double.MIN_VALUE;
+                };
+                lngs[i] = random.nextDouble() * 360 - 180;
+            }
+
+            double[][] decoded = BoundaryCodec.decode(BoundaryCodec.encode(lats, lngs));
+
+            assertThat(decoded[0]).containsExactly(lats);
+            assertThat(decoded[1]).containsExactly(lngs);
+            for (int i = 0; i < n; i++) {
+                assertThat(Double.doubleToRawLongBits(decoded[0][i])).isEqualTo(Double.doubleToRawLongBits(lats[i]));
+            }
+        }
+    }
+
+    @Test
+    void fromJson_ShouldLeaveAnythingButPointsAsText() {
+        assertThat(BoundaryCodec.fromJson(null)).isNull();
+        assertThat(BoundaryCodec.fromJson(" ")).isNull();
+        assertThat(BoundaryCodec.fromJson("[[0,0],[1,1]")).isNull();
+        assertThat(BoundaryCodec.fromJson("{\"type\":\"Polygon\"}")).isNull();
+        assertThat(BoundaryCodec.fromJson("[[0,0,5]]")).isNull();
+        assertThat(BoundaryCodec.toJson(BoundaryCodec.fromJson("[]"))).isEqualTo("[]");
+    }
+
+    @Test
+    void decode_ShouldRejectBytesThatAreNotABoundary() {
+        byte[] encoded = BoundaryCodec.fromJson(DRAWN);
+
+        assertThatThrownBy(() -> BoundaryCodec.decode(new byte[0])).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BoundaryCodec.decode(new byte[] { 9, 0 }))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("unknown encoding");
+        assertThatThrownBy(() -> BoundaryCodec.decode(Arrays.copyOf(encoded, encoded.length - 1)))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("truncated");
+        assertThatThrownBy(() -> BoundaryCodec.decode(Arrays.copyOf(encoded, encoded.length + 1)))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("trailing");
+    }
+
+    @Test
+    void field_ShouldStorePointsBinaryAndAnythingElseAsText() {
+        Field field = new Field();
+
+        field.setBoundaryCoordinates(DRAWN);
+        assertThat(field.getBoundaryGeometry()).isNotNull();
+        assertThat(field.getBoundaryCoordinates()).isEqualTo(DRAWN);
+
+        field.setBoundaryCoordinates("not a boundary");
+        assertThat(field.getBoundaryGeometry()).isNull();
+        assertThat(field.getBoundaryCoordinates()).isEqualTo("not a boundary");
+
+        field.setBoundaryCoordinates(null);
+        assertThat(field.getBoundaryCoordinates()).isNull();
+    }
+}
@@ -61,7 +61,8 @@ class ModelTests {
         assertThat(field.getName()).isEqualTo("Field 1");
         assertThat(field.getIsMasterFarm()).isTrue();
 
-        Field field2 = new Field(1L, "Field 1", "Loc", 10.0, 1.1, 2.2, "[]", null, null, null, null, null, null, true);
+        Field field2 = new Field(1L, "Field 1", "Loc", 10.0, 1.1, 2.2, "[]", null, null, null, null, null, null, null,
+                null, true, null, 0L);
         // Lombok @Data generates equals/hashCode/toString
         // Note: Check if all args constructor matches exactly field order.
         // If not certain, rely on getters/setters test mainly.
@@ -0,0 +1,153 @@
+package com.example.farmmanagement.repository;
+
+import com.example.farmmanagement.dto.FieldOption;
+import com.example.farmmanagement.model.Crop;
+import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.service.FieldClosureService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The recursive CTEs walk a farm -> block -> plot tree of any depth in one
+ * statement each, and stop on a parent cycle. The closure table rebuilt from
+ * them answers membership, plots and rollups with one join.
+ */
+@DataJpaTest
+@Import(FieldClosureService.class)
+class FieldHierarchyQueriesTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private FieldRepository fieldRepository;
+
+    @Autowired
+    private FieldClosureRepository closureRepository;
+
+    @Autowired
+    private FieldClosureService closureService;
+
+    private Field farm;
+    private Field blockA;
+    private Field plotA1;
+    private Field solo;
+
+    @BeforeEach
+    void setUp() {
+        farm = field("Farm", 100.0, null);
+        blockA = field("Block A", 60.0, farm);
+        plotA1 = field("Plot A1", 20.0, blockA);
+        field("Plot A2", 30.0, blockA);
+        Field blockB = field("Block B", 40.0, farm);
+        solo = field("Solo", 15.0, null);
+        crop(plotA1);
+        crop(blockB);
+        crop(blockB);
+        crop(farm);
+        entityManager.flush();
+        closureService.rebuild();
+    }
+
+    @Test
+    void findSubtree_ShouldReturnEveryLevelBeneathTheField() {
+        List<FieldRepository.HierarchyNode> subtree = fieldRepository.findSubtree(farm.getId());
+
+        assertThat(subtree).extracting(FieldRepository.HierarchyNode::getName)
+                .containsExactly("Farm", "Block A", "Block B", "Plot A1", "Plot A2");
+        assertThat(subtree).extracting(FieldRepository.HierarchyNode::getDepth).containsExactly(0, 1, 1, 2, 2);
+        assertThat(subtree.get(3).getParentId()).isEqualTo(blockA.getId());
+        assertThat(fieldRepository.findSubtree(-1L)).isEmpty();
+    }
+
+    @Test
+    void findAncestry_ShouldClimbToTheMasterFarm() {
+        List<FieldRepository.HierarchyNode> ancestry = fieldRepository.findAncestry(plotA1.getId());
+
+        assertThat(ancestry).extracting(FieldRepository.HierarchyNode::getId)
+                .containsExactly(plotA1.getId(), blockA.getId(), farm.getId());
+        assertThat(ancestry).extracting(FieldRepository.HierarchyNode::getDepth).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void findAllPaths_ShouldPairEveryFieldWithItselfAndEachAncestor() {
+        // 6 fields with themselves, 4 under the farm, 2 under block A
+        assertThat(fieldRepository.findAllPaths()).hasSize(12);
+        assertThat(closureRepository.count()).isEqualTo(12);
+        assertThat(closureRepository.countPaths(farm.getId(), plotA1.getId())).isEqualTo(1);
+        assertThat(closureRepository.countPaths(solo.getId(), plotA1.getId())).isZero();
+    }
+
+    @Test
+    void findPlots_ShouldReturnTheBottomLevelFieldsBeneath() {
+        assertThat(closureRepository.findPlots(farm.getId())).extracting(FieldOption::name)
+                .containsExactly("Block B", "Plot A1", "Plot A2");
+        assertThat(closureRepository.findPlots(solo.getId())).isEmpty();
+    }
+
+    @Test
+    void rollUp_ShouldCountBottomLevelAreaOnceAndCropsAtEveryLevel() {
+        FieldClosureRepository.HierarchyRollup whole = closureRepository.rollUp(farm.getId()).orElseThrow();
+        assertThat(whole.getSubdivisions()).isEqualTo(4);
+        assertThat(whole.getDepth()).isEqualTo(2);
+        assertThat(whole.getArea()).isEqualTo(90.0); // plots A1 + A2, and block B which has no plots
+        assertThat(whole.getCrops()).isEqualTo(4);
+
+        FieldClosureRepository.HierarchyRollup block = closureRepository.rollUp(blockA.getId()).orElseThrow();
+        assertThat(block.getSubdivisions()).isEqualTo(2);
+        assertThat(block.getArea()).isEqualTo(50.0);
+        assertThat(block.getCrops()).isEqualTo(1);
+
+        assertThat(closureRepository.rollUp(-1L)).isEmpty();
+    }
+
+    @Test
+    void rollUpMasterFarms_ShouldReturnOneRowPerMasterFarm() {
+        List<FieldClosureRepository.HierarchyRollup> rollups = closureRepository.rollUpMasterFarms();
+
+        assertThat(rollups).extracting(FieldClosureRepository.HierarchyRollup::getFieldId)
+                .containsExactlyInAnyOrder(farm.getId(), solo.getId());
+        FieldClosureRepository.HierarchyRollup unsubdivided = rollups.stream()
+                .filter(rollup -> rollup.getFieldId().equals(solo.getId())).findFirst().orElseThrow();
+        assertThat(unsubdivided.getSubdivisions()).isZero();
+        assertThat(unsubdivided.getDepth()).isZero();
+        assertThat(unsubdivided.getArea()).isEqualTo(15.0);
+        assertThat(unsubdivided.getCrops()).isZero();
+    }
+
+    @Test
+    void findSubtree_ShouldStopAtMaxDepthOnAParentCycle() {
+        Field first = field("Loop 1", 1.0, null);
+        Field second = field("Loop 2", 1.0, first);
+        first.setParentField(second);
+        entityManager.flush();
+
+        assertThat(fieldRepository.findSubtree(first.getId())).hasSize(FieldRepository.MAX_DEPTH + 1);
+        assertThat(fieldRepository.findAncestry(first.getId())).hasSize(FieldRepository.MAX_DEPTH + 1);
+        assertThat(fieldRepository.findAllPaths()).isNotEmpty();
+    }
+
+    private Field field(String name, Double area, Field parent) {
+        Field field = new Field();
+        field.setName(name);
+        field.setAreaSize(area);
+        field.setParentField(parent);
+        field.setIsMasterFarm(parent == null);
+        return entityManager.persist(field);
+    }
+
+    private void crop(Field field) {
+        Crop crop = new Crop("Maize", 1.0, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 7, 1), null);
+        crop.setField(field);
+        entityManager.persist(crop);
+    }
+}
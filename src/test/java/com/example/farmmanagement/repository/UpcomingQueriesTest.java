@@ -0,0 +1,130 @@
+package com.example.farmmanagement.repository;
+
+import com.example.farmmanagement.model.Crop;
+import com.example.farmmanagement.model.CropActivity;
+import com.example.farmmanagement.model.Field;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The upcoming harvest / task queries must stop at K rows in the database
+ * rather than loading every crop or activity and trimming in memory.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UpcomingQueriesTest {
+
+    private static final int ROWS = 40;
+    private static final int K = 5;
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private CropActivityRepository activityRepository;
+
+    private Field north;
+    private Crop northMaize;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        north = new Field();
+        north.setName("North");
+        entityManager.persist(north);
+        Field south = new Field();
+        south.setName("South");
+        entityManager.persist(south);
+
+        // Half the crops are already harvested; the rest are spread over both fields
+        for (int i = 0; i < ROWS; i++) {
+            Crop crop = new Crop("Crop " + i, 1.0, TODAY.minusMonths(3), TODAY.plusDays(i - ROWS / 2), null);
+            crop.setField(i % 2 == 0 ? north : south);
+            entityManager.persist(crop);
+            if (i == ROWS - 2) {
+                northMaize = crop;
+            }
+            for (int day = -3; day < 3; day++) {
+                CropActivity activity = new CropActivity();
+                activity.setCrop(crop);
+                activity.setActivityType("Scouting");
+                activity.setActivityDate(TODAY.plusDays(day * 7L + i));
+                entityManager.persist(activity);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findHarvestsAfter_ShouldFetchOnlyKRowsInDateOrder() {
+        List<Crop> crops = cropRepository.findHarvestsAfter(TODAY, Limit.of(K));
+
+        assertThat(crops).hasSize(K)
+                .allSatisfy(crop -> assertThat(crop.getHarvestDate()).isAfter(TODAY));
+        assertThat(crops).extracting(Crop::getHarvestDate).isSorted();
+        assertThat(crops.get(0).getHarvestDate()).isEqualTo(TODAY.plusDays(1));
+        assertOneStatementLoading(Crop.class, K);
+    }
+
+    @Test
+    void findHarvestsAfterForField_ShouldStayInsideTheField() {
+        List<Crop> crops = cropRepository.findHarvestsAfterForField(north.getId(), TODAY, Limit.of(K));
+
+        assertThat(crops).hasSize(K)
+                .allSatisfy(crop -> assertThat(crop.getField().getId()).isEqualTo(north.getId()));
+        assertOneStatementLoading(Crop.class, K);
+    }
+
+    @Test
+    void findTasksFrom_ShouldFetchOnlyKRowsWithTheirCrops() {
+        List<CropActivity> tasks = activityRepository.findTasksFrom(TODAY, Limit.of(K));
+
+        assertThat(tasks).hasSize(K)
+                .allSatisfy(task -> assertThat(task.getActivityDate()).isAfterOrEqualTo(TODAY));
+        assertThat(tasks).extracting(CropActivity::getActivityDate).isSorted();
+        tasks.forEach(task -> assertThat(task.getCrop().getField().getName()).isNotNull());
+        assertOneStatementLoading(CropActivity.class, K);
+    }
+
+    @Test
+    void findTasksFromForCropAndField_ShouldBeScoped() {
+        List<CropActivity> cropTasks = activityRepository.findTasksFromForCrop(northMaize.getId(), TODAY,
+                Limit.of(K));
+        assertThat(cropTasks).isNotEmpty().hasSizeLessThanOrEqualTo(K)
+                .allSatisfy(task -> assertThat(task.getCrop().getId()).isEqualTo(northMaize.getId()));
+
+        statistics.clear();
+        List<CropActivity> fieldTasks = activityRepository.findTasksFromForField(north.getId(), TODAY, Limit.of(K));
+        assertThat(fieldTasks).hasSize(K)
+                .allSatisfy(task -> assertThat(task.getCrop().getField().getId()).isEqualTo(north.getId()));
+        assertOneStatementLoading(CropActivity.class, K);
+    }
+
+    private void assertOneStatementLoading(Class<?> entity, int rows) {
+        assertThat(statistics.getPrepareStatementCount()).as("statements").isEqualTo(1);
+        assertThat(statistics.getEntityStatistics(entity.getName()).getLoadCount()).as("rows fetched")
+                .isEqualTo(rows);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.ActivityBatchItem;
+import com.example.farmmanagement.dto.ActivityBatchResult;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.repository.CropRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityBatchServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 5, 14);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CropRepository cropRepository;
+
+    @Mock
+    private ActivityCalendar activityCalendar;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ActivityBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        batchService = new ActivityBatchService(jdbcTemplate, TransactionOperations.withoutTransaction(),
+                cropRepository, activityCalendar, eventPublisher, clock, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveAll_ShouldCheckCropsOnceAndInsertTheValidItemsInOneBatch() {
+        when(cropRepository.findExistingIds(any())).thenReturn(List.of(1L, 2L));
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(KeyHolder.class))).thenAnswer(invocation -> {
+                    BatchPreparedStatementSetter setter = invocation.getArgument(1);
+                    KeyHolder keys = invocation.getArgument(2);
+                    for (int i = 0; i < setter.getBatchSize(); i++) {
+                        keys.getKeyList().add(Map.of("ID", 100L + i));
+                    }
+                    return new int[setter.getBatchSize()];
+                });
+        List<ActivityBatchItem> items = new ArrayList<>(List.of(
+                new ActivityBatchItem(1L, " Spraying ", "Block A", LocalDate.of(2025, 5, 12)),
+                new ActivityBatchItem(9L, "Weeding", null, null),
+                new ActivityBatchItem(2L, "", null, null),
+                new ActivityBatchItem(2L, "Weeding", null, null)));
+        items.add(null);
+
+        ActivityBatchResult result = batchService.saveAll(items);
+
+        assertThat(result.saved()).isEqualTo(2);
+        assertThat(result.rejected()).isEqualTo(3);
+        assertThat(result.items()).extracting(ActivityBatchResult.Item::id)
+                .containsExactly(100L, null, null, 101L, null);
+        assertThat(result.items()).extracting(ActivityBatchResult.Item::error)
+                .containsExactly(null, "Unknown crop 9", "Missing activityType", null, "Empty item");
+
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(cropRepository, times(1)).findExistingIds(ids.capture());
+        assertThat(ids.getValue()).containsExactlyInAnyOrder(1L, 2L, 9L);
+        verify(jdbcTemplate, times(1)).batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+        // The undated item was logged today
+        verify(activityCalendar).refresh(LocalDate.of(2025, 5, 12), TODAY);
+        verify(eventPublisher).publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.ACTIVITY));
+    }
+
+    @Test
+    void saveAll_WhenTheInsertFails_ShouldReportEveryValidItemAsFailed() {
+        when(cropRepository.findExistingIds(any())).thenReturn(List.of(1L));
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(KeyHolder.class))).thenThrow(new DataIntegrityViolationException("crop deleted"));
+
+        ActivityBatchResult result = batchService.saveAll(List.of(
+                new ActivityBatchItem(1L, "Spraying", null, null),
+                new ActivityBatchItem(1L, "Weeding", null, null)));
+
+        assertThat(result.saved()).isZero();
+        assertThat(result.rejected()).isEqualTo(2);
+        assertThat(result.items()).allSatisfy(item -> assertThat(item.error()).startsWith("Batch failed"));
+        verifyNoInteractions(activityCalendar, eventPublisher);
+    }
+
+    @Test
+    void saveAll_ShouldRefuseOversizedBatchesAndSkipEmptyOnes() {
+        List<ActivityBatchItem> tooMany = Collections.nCopies(ActivityBatchService.MAX_BATCH_SIZE + 1,
+                new ActivityBatchItem(1L, "Spraying", null, null));
+
+        assertThatThrownBy(() -> batchService.saveAll(tooMany)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(batchService.saveAll(List.of()).items()).isEmpty();
+        verifyNoInteractions(cropRepository, jdbcTemplate, eventPublisher);
+    }
+}
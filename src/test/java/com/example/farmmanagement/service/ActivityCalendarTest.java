@@ -0,0 +1,155 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.CalendarEntry;
+import com.example.farmmanagement.dto.CalendarView;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.model.ActivitySchedule;
+import com.example.farmmanagement.model.Crop;
+import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.repository.ActivityScheduleRepository;
+import com.example.farmmanagement.repository.CropActivityRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityCalendarTest {
+
+    @Mock
+    private CropActivityRepository activityRepository;
+
+    @Mock
+    private ActivityScheduleRepository scheduleRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ActivityCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        Clock clock = Clock.fixed(LocalDate.of(2025, 5, 14).atStartOfDay().toInstant(ZoneOffset.UTC),
+                ZoneOffset.UTC);
+        calendar = new ActivityCalendar(activityRepository, scheduleRepository, clock, meterRegistry);
+        lenient().when(activityRepository.findCalendarEntries(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 5, 31),
+                null, null, null)).thenReturn(List.of(
+                        entry(1L, LocalDate.of(2025, 4, 29), "Spraying", 10L, 4L),
+                        entry(2L, LocalDate.of(2025, 5, 2), "Weeding", 10L, 4L),
+                        entry(3L, LocalDate.of(2025, 5, 2), "Spraying", 11L, 5L),
+                        entry(4L, LocalDate.of(2025, 5, 20), "Fertilizing", 10L, 4L)));
+    }
+
+    @Test
+    void week_AcrossTwoMonths_ShouldLoadBothInOneQueryAndFillEveryDay() {
+        CalendarView week = calendar.week(LocalDate.of(2025, 5, 1), null, null, null);
+
+        assertThat(week.from()).isEqualTo(LocalDate.of(2025, 4, 28));
+        assertThat(week.to()).isEqualTo(LocalDate.of(2025, 5, 4));
+        assertThat(week.total()).isEqualTo(3);
+        assertThat(week.days()).hasSize(7);
+        assertThat(week.days().get(1).entries()).extracting(CalendarEntry::id).containsExactly(1L);
+        assertThat(week.days().get(4).entries()).extracting(CalendarEntry::id).containsExactly(2L, 3L);
+        assertThat(week.days().get(6).entries()).isEmpty();
+        verify(activityRepository, times(1)).findCalendarEntries(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void month_ShouldBeServedFromTheBucketsAndFiltered() {
+        calendar.week(LocalDate.of(2025, 5, 1), null, null, null);
+
+        CalendarView may = calendar.month(YearMonth.of(2025, 5), 4L, null, " spraying ");
+        List<CalendarEntry> crop10 = calendar.between(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 5, 31), null,
+                10L, null);
+
+        assertThat(may.days()).hasSize(31);
+        assertThat(may.total()).isZero();
+        assertThat(calendar.month(null, 5L, null, "Spraying").total()).isEqualTo(1);
+        assertThat(crop10).extracting(CalendarEntry::id).containsExactly(1L, 2L, 4L);
+        verify(activityRepository, times(1)).findCalendarEntries(any(), any(), any(), any(), any());
+        assertThat(meterRegistry.get("activities.calendar.requests").tag("result", "hit").counter().count())
+                .isEqualTo(4.0);
+    }
+
+    @Test
+    void refresh_ShouldReloadOnlyTheMonthsOfTheSavedActivity() {
+        calendar.week(LocalDate.of(2025, 5, 1), null, null, null);
+        when(activityRepository.findCalendarEntries(LocalDate.of(2025, 5, 1), LocalDate.of(2025, 5, 31), null,
+                null, null)).thenReturn(List.of(entry(4L, LocalDate.of(2025, 5, 21), "Fertilizing", 10L, 4L)));
+
+        calendar.refresh(LocalDate.of(2025, 5, 20), LocalDate.of(2025, 5, 21));
+        CalendarView week = calendar.week(LocalDate.of(2025, 5, 1), null, null, null);
+
+        assertThat(week.days().get(1).entries()).extracting(CalendarEntry::id).containsExactly(1L);
+        assertThat(week.total()).isEqualTo(1);
+        verify(activityRepository).findCalendarEntries(LocalDate.of(2025, 5, 1), LocalDate.of(2025, 5, 31), null,
+                null, null);
+    }
+
+    @Test
+    void cropOrFieldChange_ShouldDropEveryMonth() {
+        calendar.week(LocalDate.of(2025, 5, 1), null, null, null);
+        calendar.onFarmDataChanged(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.TRANSACTION));
+        calendar.week(LocalDate.of(2025, 5, 1), null, null, null);
+        calendar.onFarmDataChanged(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.FIELD));
+        calendar.week(LocalDate.of(2025, 5, 1), null, null, null);
+
+        verify(activityRepository, times(2)).findCalendarEntries(LocalDate.of(2025, 4, 1),
+                LocalDate.of(2025, 5, 31), null, null, null);
+    }
+
+    @Test
+    void between_WiderThanTheCache_ShouldQueryTheIndexWithFilters() {
+        LocalDate from = LocalDate.of(2020, 1, 1);
+        LocalDate to = LocalDate.of(2025, 12, 31);
+        when(activityRepository.findCalendarEntries(from, to, 4L, null, "spraying"))
+                .thenReturn(List.of(entry(1L, LocalDate.of(2025, 4, 29), "Spraying", 10L, 4L)));
+
+        assertThat(calendar.between(from, to, 4L, null, "Spraying")).hasSize(1);
+        assertThatThrownBy(() -> calendar.between(to, from, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void between_ShouldMergeScheduleOccurrencesWithOneOffs() {
+        Field field = new Field();
+        field.setId(4L);
+        Crop crop = new Crop();
+        crop.setId(10L);
+        crop.setType("Maize");
+        crop.setField(field);
+        when(scheduleRepository.findAllWithCrop()).thenReturn(List.of(
+                new ActivitySchedule(70L, crop, "Irrigation", null, LocalDate.of(2025, 4, 1), null,
+                        ActivitySchedule.Frequency.WEEKLY, 1),
+                new ActivitySchedule(71L, crop, "Spraying", null, LocalDate.of(2025, 6, 1), null,
+                        ActivitySchedule.Frequency.DAILY, 1)));
+
+        CalendarView week = calendar.week(LocalDate.of(2025, 5, 1), 4L, null, null);
+        List<CalendarEntry> irrigation = calendar.between(LocalDate.of(2025, 5, 1), LocalDate.of(2025, 5, 31), null,
+                null, "irrigation");
+
+        // Tuesdays from April 1: the one on April 29 comes after that day's one-off spraying
+        assertThat(week.days().get(1).entries()).extracting(CalendarEntry::id).containsExactly(1L, null);
+        assertThat(week.days().get(1).entries().get(1).scheduleId()).isEqualTo(70L);
+        assertThat(week.days().get(1).entries().get(1).fieldId()).isEqualTo(4L);
+        assertThat(week.total()).isEqualTo(3);
+        assertThat(irrigation).extracting(CalendarEntry::date).containsExactly(LocalDate.of(2025, 5, 6),
+                LocalDate.of(2025, 5, 13), LocalDate.of(2025, 5, 20), LocalDate.of(2025, 5, 27));
+        verify(scheduleRepository, times(1)).findAllWithCrop();
+    }
+
+    private static CalendarEntry entry(Long id, LocalDate date, String type, Long cropId, Long fieldId) {
+        return new CalendarEntry(id, date, type, null, cropId, "Maize", fieldId, "Field " + fieldId);
+    }
+}
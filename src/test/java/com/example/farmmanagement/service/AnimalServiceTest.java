@@ -1,5 +1,6 @@
 package com.example.farmmanagement.service;
 
+import com.example.farmmanagement.event.FarmDataChangedEvent;
 import com.example.farmmanagement.model.Animal;
 import com.example.farmmanagement.repository.AnimalRepository;
 import org.junit.jupiter.api.Test;
@@ -7,6 +8,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Arrays;
 import java.util.List;
@@ -22,6 +24,9 @@ class AnimalServiceTest {
     @Mock
     private AnimalRepository animalRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AnimalService animalService;
 
@@ -94,6 +99,7 @@ class AnimalServiceTest {
         // Then
         assertThat(result.getSpeciesBreed()).isEqualTo("Sheep");
         verify(animalRepository).save(animal);
+        verify(eventPublisher).publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.ANIMAL));
     }
 
     @Test
@@ -1,15 +1,23 @@
 package com.example.farmmanagement.service;
 
+import com.example.farmmanagement.config.DashboardProperties;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.model.ActivitySchedule;
+import com.example.farmmanagement.model.Crop;
 import com.example.farmmanagement.model.CropActivity;
+import com.example.farmmanagement.repository.ActivityScheduleRepository;
 import com.example.farmmanagement.repository.CropActivityRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -21,10 +29,20 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class CropActivityServiceTest {
 
+    private static final LocalDate TODAY = LocalDate.of(2025, 5, 14);
+
     @Mock
     private CropActivityRepository activityRepository;
 
-    @InjectMocks
+    @Mock
+    private ActivityScheduleRepository scheduleRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ActivityCalendar activityCalendar;
+
     private CropActivityService cropActivityService;
 
     private CropActivity activityFuture;
@@ -32,14 +50,20 @@ class CropActivityServiceTest {
 
     @BeforeEach
     void setUp() {
+        DashboardProperties properties = new DashboardProperties();
+        properties.setUpcomingLimit(4);
+        Clock clock = Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        cropActivityService = new CropActivityService(activityRepository, scheduleRepository, eventPublisher,
+                activityCalendar, properties, clock);
+
         activityFuture = new CropActivity();
         activityFuture.setId(1L);
-        activityFuture.setActivityDate(LocalDate.now().plusDays(5));
+        activityFuture.setActivityDate(TODAY.plusDays(5));
         activityFuture.setActivityType("Harvest");
 
         activityPast = new CropActivity();
         activityPast.setId(2L);
-        activityPast.setActivityDate(LocalDate.now().minusDays(5));
+        activityPast.setActivityDate(TODAY.minusDays(5));
         activityPast.setActivityType("Planting");
     }
 
@@ -49,6 +73,19 @@ class CropActivityServiceTest {
         CropActivity saved = cropActivityService.saveActivity(activityFuture);
         assertNotNull(saved);
         assertEquals("Harvest", saved.getActivityType());
+        verify(eventPublisher).publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.ACTIVITY));
+    }
+
+    @Test
+    void saveActivity_Rescheduled_ShouldRefreshBothCalendarMonths() {
+        LocalDate previous = LocalDate.of(2025, 3, 30);
+        activityFuture.setActivityDate(LocalDate.of(2025, 4, 2));
+        when(activityRepository.findDateById(1L)).thenReturn(java.util.Optional.of(previous));
+        when(activityRepository.save(activityFuture)).thenReturn(activityFuture);
+
+        cropActivityService.saveActivity(activityFuture);
+
+        verify(activityCalendar).refresh(previous, LocalDate.of(2025, 4, 2));
     }
 
     @Test
@@ -61,17 +98,67 @@ class CropActivityServiceTest {
 
     @Test
     void getUpcomingTasks() {
-        when(activityRepository.findAll()).thenReturn(Arrays.asList(activityFuture, activityPast));
+        when(activityRepository.findTasksFrom(TODAY, Limit.of(4)))
+                .thenReturn(Collections.singletonList(activityFuture));
         List<CropActivity> upcoming = cropActivityService.getUpcomingTasks();
-        
+
         assertEquals(1, upcoming.size());
         assertEquals(activityFuture.getId(), upcoming.get(0).getId());
+        verify(activityRepository, never()).findAll();
     }
 
     @Test
     void getUpcomingTasks_Empty() {
-        when(activityRepository.findAll()).thenReturn(Collections.singletonList(activityPast));
+        when(activityRepository.findTasksFrom(TODAY, Limit.of(4))).thenReturn(Collections.emptyList());
         List<CropActivity> upcoming = cropActivityService.getUpcomingTasks();
         assertTrue(upcoming.isEmpty());
     }
+
+    @Test
+    void getUpcomingTasks_ScopedToCropOrField() {
+        when(activityRepository.findTasksFromForCrop(1L, TODAY, Limit.of(3)))
+                .thenReturn(Collections.singletonList(activityFuture));
+        when(activityRepository.findTasksFromForField(4L, TODAY, Limit.of(3)))
+                .thenReturn(Collections.emptyList());
+
+        assertEquals(1, cropActivityService.getUpcomingTasks(3, 4L, 1L).size()); // crop wins over field
+        assertTrue(cropActivityService.getUpcomingTasks(3, 4L, null).isEmpty());
+    }
+
+    @Test
+    void getUpcomingTasks_ShouldMergeScheduleOccurrencesUpToTheLimit() {
+        Crop crop = new Crop();
+        crop.setId(1L);
+        ActivitySchedule irrigation = new ActivitySchedule(7L, crop, "Irrigation", null, TODAY.minusDays(1), null,
+                ActivitySchedule.Frequency.DAILY, 2);
+        when(activityRepository.findTasksFromForCrop(1L, TODAY, Limit.of(4)))
+                .thenReturn(Collections.singletonList(activityFuture));
+        when(scheduleRepository.findRunningFrom(TODAY, null, 1L)).thenReturn(List.of(irrigation));
+
+        List<CropActivity> upcoming = cropActivityService.getUpcomingTasks(4, 9L, 1L);
+
+        // Every other day from yesterday, with the one-off on day 5 slotted in between
+        assertEquals(Arrays.asList(TODAY.plusDays(1), TODAY.plusDays(3), TODAY.plusDays(5), TODAY.plusDays(5)),
+                upcoming.stream().map(CropActivity::getActivityDate).toList());
+        assertEquals(activityFuture, upcoming.get(2));
+        assertNull(upcoming.get(3).getId());
+        assertEquals(crop, upcoming.get(3).getCrop());
+    }
+
+    @Test
+    void saveSchedule_ShouldRejectInvertedOrIncompleteSchedules() {
+        ActivitySchedule schedule = new ActivitySchedule(null, new Crop(), "Spraying", null, LocalDate.of(2025, 5, 1),
+                LocalDate.of(2025, 4, 1), ActivitySchedule.Frequency.WEEKLY, 1);
+        assertThrows(IllegalArgumentException.class, () -> cropActivityService.saveSchedule(schedule));
+        schedule.setEndDate(null);
+        schedule.setRepeatInterval(0);
+        assertThrows(IllegalArgumentException.class, () -> cropActivityService.saveSchedule(schedule));
+        verify(scheduleRepository, never()).save(any());
+
+        schedule.setRepeatInterval(2);
+        when(scheduleRepository.save(schedule)).thenReturn(schedule);
+        cropActivityService.saveSchedule(schedule);
+        verify(activityCalendar).refreshSchedules();
+        verify(eventPublisher).publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.ACTIVITY));
+    }
 }
@@ -0,0 +1,116 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.CropDetails;
+import com.example.farmmanagement.model.ActivitySchedule;
+import com.example.farmmanagement.model.Crop;
+import com.example.farmmanagement.model.CropActivity;
+import com.example.farmmanagement.model.CropTransaction;
+import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.model.HarvestRecord;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against the database so the number of statements behind the crop
+ * details page is measured, not assumed.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(CropDetailsService.class)
+class CropDetailsServiceTest {
+
+    private static final int MAX_STATEMENTS = 5;
+
+    @Autowired
+    private CropDetailsService cropDetailsService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void getCropDetails_ShouldLoadEverythingInAFixedNumberOfStatements() {
+        Field farm = new Field();
+        farm.setName("Details Farm");
+        entityManager.persist(farm);
+        Field paddock = new Field();
+        paddock.setName("Details Paddock");
+        paddock.setParentField(farm);
+        entityManager.persist(paddock);
+        Crop crop = new Crop("Barley", 2.0, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 8, 1), null);
+        crop.setField(paddock);
+        entityManager.persist(crop);
+        for (int i = 1; i <= 20; i++) {
+            CropTransaction transaction = new CropTransaction();
+            transaction.setCrop(crop);
+            transaction.setTransactionType(i % 4 == 0 ? CropTransaction.TransactionType.INCOME
+                    : CropTransaction.TransactionType.EXPENSE);
+            transaction.setAmount(10.0 * i);
+            transaction.setTransactionDate(LocalDate.of(2025, 3, 1).plusDays(i));
+            entityManager.persist(transaction);
+            CropActivity activity = new CropActivity();
+            activity.setCrop(crop);
+            activity.setActivityType("Scouting");
+            activity.setActivityDate(LocalDate.of(2025, 3, 1).plusDays(i));
+            entityManager.persist(activity);
+        }
+        for (int i = 1; i <= 2; i++) {
+            ActivitySchedule schedule = new ActivitySchedule();
+            schedule.setCrop(crop);
+            schedule.setActivityType("Irrigation");
+            schedule.setFrequency(ActivitySchedule.Frequency.WEEKLY);
+            schedule.setStartDate(LocalDate.of(2025, 3, i));
+            entityManager.persist(schedule);
+        }
+        for (int i = 1; i <= 3; i++) {
+            HarvestRecord harvest = new HarvestRecord();
+            harvest.setCrop(crop);
+            harvest.setFieldId(paddock.getId());
+            harvest.setHarvestDate(LocalDate.of(2025, 8, i));
+            harvest.setQuantity(4.0);
+            harvest.setLoss(0.5);
+            entityManager.persist(harvest);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CropDetails details = cropDetailsService.getCropDetails(crop.getId()).orElseThrow();
+
+        // Touch what the template renders, so lazy loading would show up in the count
+        assertThat(details.crop().getField().getName()).isEqualTo("Details Paddock");
+        assertThat(details.crop().getField().getParentField().getName()).isEqualTo("Details Farm");
+        assertThat(details.transactions()).hasSize(20)
+                .allSatisfy(t -> assertThat(t.getCrop().getType()).isEqualTo("Barley"));
+        assertThat(details.transactions().get(0).getTransactionDate()).isEqualTo(LocalDate.of(2025, 3, 21));
+        assertThat(details.activities()).hasSize(20);
+        assertThat(details.schedules()).extracting(ActivitySchedule::getStartDate)
+                .containsExactly(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 2));
+        // INCOME on every 4th: 10 * (4 + 8 + 12 + 16 + 20); EXPENSE the rest of 10 * (1 + ... + 20)
+        assertThat(details.totals().income()).isEqualTo(600.0);
+        assertThat(details.totals().expense()).isEqualTo(1500.0);
+        assertThat(details.harvests()).extracting(HarvestRecord::getHarvestDate)
+                .startsWith(LocalDate.of(2025, 8, 3));
+        assertThat(details.harvestTotals().collected()).isEqualTo(12.0);
+        assertThat(details.harvestTotals().lost()).isEqualTo(1.5);
+
+        assertThat(statistics.getPrepareStatementCount()).as("statements").isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    @Test
+    void getCropDetails_UnknownCrop_ShouldBeEmpty() {
+        assertThat(cropDetailsService.getCropDetails(404_404L)).isEmpty();
+    }
+}
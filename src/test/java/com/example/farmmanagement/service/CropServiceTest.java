@@ -1,14 +1,25 @@
 package com.example.farmmanagement.service;
 
+import com.example.farmmanagement.config.DashboardProperties;
+import com.example.farmmanagement.dto.CropPage;
+import com.example.farmmanagement.dto.CropRow;
+import com.example.farmmanagement.dto.GrowthSummary;
+import com.example.farmmanagement.dto.HarvestTotals;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
 import com.example.farmmanagement.model.Crop;
+import com.example.farmmanagement.model.GrowthStage;
 import com.example.farmmanagement.repository.CropRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -21,17 +32,39 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class CropServiceTest {
 
+    private static final LocalDate TODAY = LocalDate.of(2025, 5, 14);
+
     @Mock
     private CropRepository cropRepository;
 
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CropTypeHistogram cropTypeHistogram;
+
+    @Mock
+    private HarvestService harvestService;
+
+    @Mock
+    private GrowthStageEngine growthStageEngine;
+
     private CropService cropService;
 
+    @BeforeEach
+    void setUp() {
+        DashboardProperties properties = new DashboardProperties();
+        properties.setUpcomingLimit(4);
+        Clock clock = Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        cropService = new CropService(cropRepository, eventPublisher, cropTypeHistogram, harvestService,
+                growthStageEngine, properties, clock);
+    }
+
     @Test
     void getAllCrops_ShouldReturnAllCrops() {
         // Given
-        Crop crop1 = createCrop(1L, "Maize", LocalDate.now().plusDays(30));
-        Crop crop2 = createCrop(2L, "Wheat", LocalDate.now().plusDays(60));
+        Crop crop1 = createCrop(1L, "Maize", TODAY.plusDays(30));
+        Crop crop2 = createCrop(2L, "Wheat", TODAY.plusDays(60));
         when(cropRepository.findAll()).thenReturn(Arrays.asList(crop1, crop2));
 
         // When
@@ -45,7 +78,7 @@ class CropServiceTest {
     @Test
     void getCropById_ShouldReturnCrop() {
         // Given
-        Crop crop = createCrop(1L, "Beans", LocalDate.now());
+        Crop crop = createCrop(1L, "Beans", TODAY);
         when(cropRepository.findById(1L)).thenReturn(Optional.of(crop));
 
         // When
@@ -59,7 +92,7 @@ class CropServiceTest {
     @Test
     void saveCrop_ShouldSaveAndReturn() {
         // Given
-        Crop crop = createCrop(null, "Rice", LocalDate.now());
+        Crop crop = createCrop(null, "Rice", TODAY);
         when(cropRepository.save(any(Crop.class))).thenReturn(crop);
 
         // When
@@ -68,6 +101,7 @@ class CropServiceTest {
         // Then
         assertThat(result.getType()).isEqualTo("Rice");
         verify(cropRepository).save(crop);
+        verify(eventPublisher).publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.CROP));
     }
 
     @Test
@@ -77,6 +111,7 @@ class CropServiceTest {
 
         // Then
         verify(cropRepository).deleteById(1L);
+        verify(eventPublisher).publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.CROP));
     }
 
     @Test
@@ -92,12 +127,9 @@ class CropServiceTest {
     }
 
     @Test
-    void getCropTypeDistribution_ShouldGroupByType() {
+    void getCropTypeDistribution_ShouldComeFromTheHistogram() {
         // Given
-        Crop crop1 = createCrop(1L, "Maize", LocalDate.now());
-        Crop crop2 = createCrop(2L, "Maize", LocalDate.now());
-        Crop crop3 = createCrop(3L, "Wheat", LocalDate.now());
-        when(cropRepository.findAll()).thenReturn(Arrays.asList(crop1, crop2, crop3));
+        when(cropTypeHistogram.distribution(null, null)).thenReturn(Map.of("Maize", 2L, "Wheat", 1L));
 
         // When
         Map<String, Long> result = cropService.getCropTypeDistribution();
@@ -105,60 +137,134 @@ class CropServiceTest {
         // Then
         assertThat(result).containsEntry("Maize", 2L);
         assertThat(result).containsEntry("Wheat", 1L);
+        verify(cropRepository, never()).findAll();
     }
 
     @Test
-    void getUpcomingHarvests_ShouldReturnFutureCrops() {
+    void getUpcomingHarvests_ShouldQueryTheConfiguredLimitAfterToday() {
         // Given
-        Crop pastCrop = createCrop(1L, "Maize", LocalDate.now().minusDays(10));
-        Crop futureCrop1 = createCrop(2L, "Wheat", LocalDate.now().plusDays(5));
-        Crop futureCrop2 = createCrop(3L, "Beans", LocalDate.now().plusDays(10));
-        when(cropRepository.findAll()).thenReturn(Arrays.asList(pastCrop, futureCrop1, futureCrop2));
+        Crop futureCrop1 = createCrop(2L, "Wheat", TODAY.plusDays(5));
+        Crop futureCrop2 = createCrop(3L, "Beans", TODAY.plusDays(10));
+        when(cropRepository.findHarvestsAfter(TODAY, Limit.of(4)))
+                .thenReturn(Arrays.asList(futureCrop1, futureCrop2));
 
         // When
         List<Crop> result = cropService.getUpcomingHarvests();
 
         // Then
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0).getHarvestDate()).isBefore(result.get(1).getHarvestDate());
+        assertThat(result).containsExactly(futureCrop1, futureCrop2);
+        verify(cropRepository, never()).findAll();
     }
 
     @Test
-    void calculateTotalYield_ShouldReturnMockValue() {
+    void getUpcomingHarvests_WithField_ShouldUseTheFieldScopedQuery() {
+        Crop crop = createCrop(2L, "Wheat", TODAY.plusDays(5));
+        when(cropRepository.findHarvestsAfterForField(7L, TODAY, Limit.of(3)))
+                .thenReturn(List.of(crop));
+
+        assertThat(cropService.getUpcomingHarvests(3, 7L)).containsExactly(crop);
+        verify(cropRepository, never()).findHarvestsAfter(any(), any());
+    }
+
+    @Test
+    void getUpcomingHarvests_ForAField_ShouldUseTheConfiguredLimit() {
+        Crop crop = createCrop(2L, "Wheat", TODAY.plusDays(5));
+        when(cropRepository.findHarvestsAfterForField(7L, TODAY, Limit.of(4))).thenReturn(List.of(crop));
+
+        assertThat(cropService.getUpcomingHarvests(7L)).containsExactly(crop);
+    }
+
+    @Test
+    void calculateTotalYield_ShouldFormatThisSeasonsCollectedTons() {
+        // Given
+        when(harvestService.getFarmTotals(2025))
+                .thenReturn(new HarvestTotals(1234.56, 12.0, 9L));
+
         // When
         String result = cropService.calculateTotalYield();
 
         // Then
-        assertThat(result).isEqualTo("450 tons");
+        assertThat(result).isEqualTo("1,234.6 tons");
     }
 
     @Test
-    void getGrowthStatus_ShouldReturnMockValue() {
+    void getGrowthStatus_ShouldRoundTheAverageProgress() {
+        // Given
+        when(growthStageEngine.summary()).thenReturn(summary(42.6));
+
         // When
         String result = cropService.getGrowthStatus();
 
         // Then
-        assertThat(result).isEqualTo("85%");
+        assertThat(result).isEqualTo("43%");
     }
 
     @Test
-    void getHarvestStatistics_ShouldReturnStats() {
+    void getCropPage_ShouldReadOneRowAheadToFindTheNextCursor() {
+        // Given
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        when(cropRepository.findRowsBefore(Long.MAX_VALUE, "maize", 4L, from, null, Limit.of(3)))
+                .thenReturn(List.of(row(30L), row(20L), row(10L)));
+
+        // When
+        CropPage page = cropService.getCropPage(null, 2, " Maize ", 4L, from, null);
+
+        // Then
+        assertThat(page.rows()).extracting(CropRow::id).containsExactly(30L, 20L);
+        assertThat(page.nextCursor()).isEqualTo(20L);
+    }
+
+    @Test
+    void getCropPage_LastPage_ShouldHaveNoCursorAndClampTheSize() {
+        when(cropRepository.findRowsBefore(20L, null, null, null, null, Limit.of(CropService.MAX_PAGE_SIZE + 1)))
+                .thenReturn(List.of(row(10L)));
+
+        CropPage page = cropService.getCropPage(20L, 10_000, "  ", null, null, null);
+
+        assertThat(page.rows()).hasSize(1);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void getHarvestStatistics_ShouldSplitTheSeasonsHarvest() {
+        // Given
+        when(harvestService.getFarmTotals(2024)).thenReturn(new HarvestTotals(170.0, 30.0, 4L));
+
         // When
-        Map<String, Integer> result = cropService.getHarvestStatistics();
+        Map<String, Double> result = cropService.getHarvestStatistics(2024);
 
         // Then
-        assertThat(result).containsKey("Wasted");
-        assertThat(result).containsKey("Planted");
-        assertThat(result).containsKey("Collected");
+        assertThat(result).containsExactly(Map.entry("Wasted", 30.0), Map.entry("Planted", 200.0),
+                Map.entry("Collected", 170.0));
+    }
+
+    @Test
+    void getHarvestStatistics_WithoutASeason_ShouldUseTheClocksYear() {
+        when(harvestService.getFarmTotals(2025)).thenReturn(HarvestTotals.ZERO);
+
+        assertThat(cropService.getHarvestStatistics()).containsEntry("Collected", 0.0);
     }
 
     @Test
-    void getCropGrowthData_ShouldReturnGrowthData() {
+    void getCropGrowthData_ShouldReturnTheWeeksTrend() {
+        // Given
+        when(growthStageEngine.summary()).thenReturn(summary(42.6));
+
         // When
-        List<Integer> result = cropService.getCropGrowthData();
+        List<Double> result = cropService.getCropGrowthData();
 
         // Then
-        assertThat(result).hasSize(7);
+        assertThat(result).hasSize(7).endsWith(42.6);
+    }
+
+    private GrowthSummary summary(double averagePercent) {
+        return new GrowthSummary(LocalDate.of(2025, 6, 1), 2, averagePercent,
+                Map.of(GrowthStage.VEGETATIVE, 2),
+                List.of(36.0, 37.1, 38.2, 39.2, 40.4, 41.5, averagePercent));
+    }
+
+    private CropRow row(Long id) {
+        return new CropRow(id, "Maize", 1.0, null, null, 4L, "North");
     }
 
     private Crop createCrop(Long id, String type, LocalDate harvestDate) {
@@ -1,5 +1,7 @@
 package com.example.farmmanagement.service;
 
+import com.example.farmmanagement.dto.LedgerTotals;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
 import com.example.farmmanagement.model.Crop;
 import com.example.farmmanagement.model.CropTransaction;
 import com.example.farmmanagement.repository.CropTransactionRepository;
@@ -9,11 +11,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -25,6 +30,12 @@ class CropTransactionServiceTest {
     @Mock
     private CropTransactionRepository transactionRepository;
 
+    @Mock
+    private LedgerRollupService ledgerRollupService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CropTransactionService cropTransactionService;
 
@@ -58,6 +69,47 @@ class CropTransactionServiceTest {
         CropTransaction saved = cropTransactionService.saveTransaction(incomeTransaction);
         assertNotNull(saved);
         assertEquals(1000.0, saved.getAmount());
+        verify(ledgerRollupService).record(1L, CropTransaction.TransactionType.INCOME,
+                incomeTransaction.getTransactionDate(), 1000.0);
+        verify(eventPublisher).publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.TRANSACTION));
+    }
+
+    @Test
+    void saveTransaction_WhenUpdating_ShouldReversePreviousRollup() {
+        CropTransactionRepository.LedgerEntry previous = ledgerEntry(1L, CropTransaction.TransactionType.EXPENSE,
+                200.0, LocalDate.of(2024, 3, 1));
+        when(transactionRepository.findLedgerEntry(1L)).thenReturn(Optional.of(previous));
+        when(transactionRepository.save(any(CropTransaction.class))).thenReturn(incomeTransaction);
+
+        cropTransactionService.saveTransaction(incomeTransaction);
+
+        verify(ledgerRollupService).reverse(1L, CropTransaction.TransactionType.EXPENSE, LocalDate.of(2024, 3, 1),
+                200.0);
+        verify(ledgerRollupService).record(1L, CropTransaction.TransactionType.INCOME,
+                incomeTransaction.getTransactionDate(), 1000.0);
+    }
+
+    @Test
+    void deleteTransaction_ShouldReverseRollupAndDelete() {
+        CropTransactionRepository.LedgerEntry stored = ledgerEntry(1L, CropTransaction.TransactionType.EXPENSE,
+                500.0, expenseTransaction.getTransactionDate());
+        when(transactionRepository.findLedgerEntry(2L)).thenReturn(Optional.of(stored));
+
+        cropTransactionService.deleteTransaction(2L);
+
+        verify(ledgerRollupService).reverse(1L, CropTransaction.TransactionType.EXPENSE,
+                expenseTransaction.getTransactionDate(), 500.0);
+        verify(transactionRepository).deleteById(2L);
+    }
+
+    @Test
+    void deleteTransaction_WhenMissing_ShouldDoNothing() {
+        when(transactionRepository.findLedgerEntry(99L)).thenReturn(Optional.empty());
+
+        cropTransactionService.deleteTransaction(99L);
+
+        verifyNoInteractions(ledgerRollupService);
+        verify(transactionRepository, never()).deleteById(any());
     }
 
     @Test
@@ -69,29 +121,112 @@ class CropTransactionServiceTest {
 
     @Test
     void calculateTotalIncome() {
-        when(transactionRepository.findByCropId(1L)).thenReturn(Arrays.asList(incomeTransaction, expenseTransaction));
+        when(ledgerRollupService.getCropTotals(1L)).thenReturn(new LedgerTotals(1000.0, 500.0));
         Double income = cropTransactionService.calculateTotalIncome(1L);
         assertEquals(1000.0, income);
+        verify(transactionRepository, never()).findByCropId(1L);
     }
 
     @Test
     void calculateTotalExpenses() {
-        when(transactionRepository.findByCropId(1L)).thenReturn(Arrays.asList(incomeTransaction, expenseTransaction));
+        when(ledgerRollupService.getCropTotals(1L)).thenReturn(new LedgerTotals(1000.0, 500.0));
         Double expenses = cropTransactionService.calculateTotalExpenses(1L);
         assertEquals(500.0, expenses);
     }
 
     @Test
     void calculateGlobalTotalIncome() {
-        when(transactionRepository.findAll()).thenReturn(Arrays.asList(incomeTransaction, expenseTransaction));
+        when(ledgerRollupService.getGlobalTotals()).thenReturn(new LedgerTotals(1000.0, 500.0));
         Double income = cropTransactionService.calculateGlobalTotalIncome();
         assertEquals(1000.0, income);
+        verify(transactionRepository, never()).findAll();
     }
 
     @Test
     void calculateGlobalTotalExpenses() {
-        when(transactionRepository.findAll()).thenReturn(Arrays.asList(incomeTransaction, expenseTransaction));
+        when(ledgerRollupService.getGlobalTotals()).thenReturn(new LedgerTotals(1000.0, 500.0));
         Double expenses = cropTransactionService.calculateGlobalTotalExpenses();
         assertEquals(500.0, expenses);
+        verify(transactionRepository, never()).findAll();
+    }
+
+    @Test
+    void getGlobalTotals_WithEmptyLedger_ShouldBeZero() {
+        when(ledgerRollupService.getGlobalTotals()).thenReturn(LedgerTotals.ZERO);
+        LedgerTotals totals = cropTransactionService.getGlobalTotals();
+        assertEquals(0.0, totals.income());
+        assertEquals(0.0, totals.expense());
+        assertEquals(0.0, totals.profit());
+    }
+
+    @Test
+    void getTotalsBetween_ShouldUseDateRangeAggregate() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 12, 31);
+        when(transactionRepository.sumAmountByTypeBetween(from, to)).thenReturn(Arrays.asList(
+                typeTotal(CropTransaction.TransactionType.INCOME, 300.0),
+                typeTotal(CropTransaction.TransactionType.EXPENSE, 120.0)));
+        LedgerTotals totals = cropTransactionService.getTotalsBetween(from, to);
+        assertEquals(180.0, totals.profit());
+    }
+
+    @Test
+    void getTotalsByCrop_ShouldMergeRowsPerCrop() {
+        when(transactionRepository.sumAmountByCropAndType()).thenReturn(Arrays.asList(
+                cropTypeTotal(1L, CropTransaction.TransactionType.INCOME, 1000.0),
+                cropTypeTotal(1L, CropTransaction.TransactionType.EXPENSE, 500.0),
+                cropTypeTotal(2L, CropTransaction.TransactionType.EXPENSE, 80.0)));
+        Map<Long, LedgerTotals> totals = cropTransactionService.getTotalsByCrop();
+        assertEquals(500.0, totals.get(1L).profit());
+        assertEquals(-80.0, totals.get(2L).profit());
+    }
+
+    private static CropTransactionRepository.LedgerEntry ledgerEntry(Long cropId,
+            CropTransaction.TransactionType type, Double amount, LocalDate date) {
+        return new CropTransactionRepository.LedgerEntry() {
+            @Override
+            public Long getCropId() {
+                return cropId;
+            }
+
+            @Override
+            public CropTransaction.TransactionType getTransactionType() {
+                return type;
+            }
+
+            @Override
+            public Double getAmount() {
+                return amount;
+            }
+
+            @Override
+            public LocalDate getTransactionDate() {
+                return date;
+            }
+        };
+    }
+
+    private static CropTransactionRepository.TypeTotal typeTotal(CropTransaction.TransactionType type, Double total) {
+        return cropTypeTotal(null, type, total);
+    }
+
+    private static CropTransactionRepository.CropTypeTotal cropTypeTotal(Long cropId,
+            CropTransaction.TransactionType type, Double total) {
+        return new CropTransactionRepository.CropTypeTotal() {
+            @Override
+            public Long getCropId() {
+                return cropId;
+            }
+
+            @Override
+            public CropTransaction.TransactionType getTransactionType() {
+                return type;
+            }
+
+            @Override
+            public Double getTotal() {
+                return total;
+            }
+        };
     }
 }
@@ -0,0 +1,128 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.repository.CropRepository;
+import com.example.farmmanagement.repository.FieldRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CropTypeHistogramTest {
+
+    @Mock
+    private CropRepository cropRepository;
+
+    @Mock
+    private FieldRepository fieldRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CropTypeHistogram histogram;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        histogram = new CropTypeHistogram(cropRepository, fieldRepository, meterRegistry);
+        // Farm 1 has subdivisions 2 and 3; 3 is split again into 4. Field 9 is a separate farm.
+        lenient().when(fieldRepository.findParentLinks()).thenReturn(List.of(
+                link(1L, null), link(2L, 1L), link(3L, 1L), link(4L, 3L), link(9L, null)));
+        lenient().when(cropRepository.countByTypeFieldAndSeason()).thenReturn(List.of(
+                count("Maize", 2L, 2024, 3),
+                count("Maize", 4L, 2025, 2),
+                count("Wheat", 9L, 2025, 4),
+                count(null, 4L, 2025, 1),
+                count("Beans", null, null, 5)));
+    }
+
+    @Test
+    void distribution_ShouldSumCellsAndLabelMissingTypes() {
+        assertThat(histogram.distribution(null, null)).containsExactly(
+                entry("Beans", 5L), entry("Maize", 5L), entry(CropTypeHistogram.UNSPECIFIED, 1L),
+                entry("Wheat", 4L));
+    }
+
+    @Test
+    void distribution_ByField_ShouldIncludeNestedSubdivisions() {
+        assertThat(histogram.distribution(1L, null)).containsOnly(
+                entry("Maize", 5L), entry(CropTypeHistogram.UNSPECIFIED, 1L));
+        assertThat(histogram.distribution(3L, 2025)).containsOnly(
+                entry("Maize", 2L), entry(CropTypeHistogram.UNSPECIFIED, 1L));
+        assertThat(histogram.distribution(2L, 2025)).isEmpty();
+    }
+
+    @Test
+    void distribution_BySeason_ShouldMatchPlantingYear() {
+        assertThat(histogram.distribution(null, 2025)).containsOnly(
+                entry("Maize", 2L), entry("Wheat", 4L), entry(CropTypeHistogram.UNSPECIFIED, 1L));
+        assertThat(histogram.seasons()).containsExactly(2024, 2025);
+    }
+
+    @Test
+    void distribution_ShouldQueryOnceUntilCropsChange() {
+        histogram.distribution(null, null);
+        histogram.distribution(1L, 2024);
+        histogram.onFarmDataChanged(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.TRANSACTION));
+        histogram.distribution(null, null);
+
+        verify(cropRepository, times(1)).countByTypeFieldAndSeason();
+        assertThat(meterRegistry.get("crops.histogram.requests").tag("result", "hit").counter().count())
+                .isEqualTo(2.0);
+
+        histogram.onFarmDataChanged(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.CROP));
+        histogram.distribution(null, null);
+        histogram.onFarmDataChanged(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.FIELD));
+        histogram.distribution(null, null);
+
+        verify(cropRepository, times(3)).countByTypeFieldAndSeason();
+    }
+
+    private static java.util.Map.Entry<String, Long> entry(String type, long count) {
+        return java.util.Map.entry(type, count);
+    }
+
+    private static FieldRepository.ParentLink link(Long id, Long parentId) {
+        return new FieldRepository.ParentLink() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getParentId() {
+                return parentId;
+            }
+        };
+    }
+
+    private static CropRepository.TypeCount count(String type, Long fieldId, Integer season, long count) {
+        return new CropRepository.TypeCount() {
+            @Override
+            public String getType() {
+                return type;
+            }
+
+            @Override
+            public Long getFieldId() {
+                return fieldId;
+            }
+
+            @Override
+            public Integer getSeason() {
+                return season;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.config.DashboardProperties;
+import com.example.farmmanagement.dto.DashboardWidgets;
+import com.example.farmmanagement.dto.GrowthSummary;
+import com.example.farmmanagement.dto.LedgerTotals;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+    @Mock
+    private CropService cropService;
+
+    @Mock
+    private AnimalService animalService;
+
+    @Mock
+    private CropTransactionService transactionService;
+
+    @Mock
+    private FieldService fieldService;
+
+    @Mock
+    private CropActivityService activityService;
+
+    @Mock
+    private AiService aiService;
+
+    private ThreadPoolTaskExecutor executor;
+    private SimpleMeterRegistry meterRegistry;
+    private DashboardProperties properties;
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.initialize();
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new DashboardProperties();
+        properties.setWidgetBudget(Duration.ofSeconds(2));
+        dashboardService = new DashboardService(cropService, animalService, transactionService, fieldService,
+                activityService, aiService, executor, properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void loadWidgets_ShouldReturnEveryWidgetAndRecordTimings() {
+        when(cropService.countCrops()).thenReturn(12L);
+        when(animalService.countAnimals()).thenReturn(3L);
+        when(transactionService.getGlobalTotals()).thenReturn(new LedgerTotals(500.0, 200.0));
+        when(fieldService.calculateTotalLandArea()).thenReturn(42.0);
+        when(cropService.getCropTypeDistribution()).thenReturn(Collections.emptyMap());
+        when(cropService.getUpcomingHarvests(5, null)).thenReturn(Collections.emptyList());
+        when(activityService.getUpcomingTasks(5, null, null)).thenReturn(Collections.emptyList());
+        when(aiService.getFarmSummary()).thenReturn("All good");
+        GrowthSummary growth = new GrowthSummary(LocalDate.of(2025, 6, 1), 0, 0.0, Collections.emptyMap(),
+                List.of());
+        when(cropService.getGrowthSummary()).thenReturn(growth);
+
+        DashboardWidgets widgets = dashboardService.loadWidgets();
+
+        assertThat(widgets.unavailable()).isEmpty();
+        assertThat(widgets.get(DashboardService.GROWTH_SUMMARY)).isEqualTo(growth);
+        assertThat(widgets.get(DashboardService.TOTAL_CROPS)).isEqualTo(12L);
+        assertThat(widgets.get(DashboardService.TOTAL_LAND_AREA)).isEqualTo(42.0);
+        assertThat(widgets.get(DashboardService.FARM_INSIGHTS)).isEqualTo("All good");
+        assertThat(meterRegistry.get("dashboard.widget.latency").tag("widget", "farmInsights").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("dashboard.widget.latency").timers()).hasSize(9);
+    }
+
+    @Test
+    void loadWidgets_SlowWidget_ShouldBeUnavailableWithoutStallingPage() {
+        properties.getBudgets().put(DashboardService.FARM_INSIGHTS, Duration.ofMillis(100));
+        when(cropService.countCrops()).thenReturn(12L);
+        when(aiService.getFarmSummary()).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return "too late";
+        });
+
+        long start = System.nanoTime();
+        DashboardWidgets widgets = dashboardService.loadWidgets();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(elapsedMillis).isLessThan(2_000);
+        assertThat(widgets.unavailable()).containsExactly(DashboardService.FARM_INSIGHTS);
+        assertThat(widgets.isAvailable(DashboardService.FARM_INSIGHTS)).isFalse();
+        assertThat(widgets.get(DashboardService.TOTAL_CROPS)).isEqualTo(12L);
+        assertThat(meterRegistry.get("dashboard.widget.unavailable").tag("widget", "farmInsights")
+                .tag("reason", "timeout").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void loadWidgets_FailingWidget_ShouldBeUnavailable() {
+        when(fieldService.calculateTotalLandArea()).thenThrow(new IllegalStateException("db down"));
+
+        DashboardWidgets widgets = dashboardService.loadWidgets();
+
+        assertThat(widgets.unavailable()).containsExactly(DashboardService.TOTAL_LAND_AREA);
+        assertThat(meterRegistry.get("dashboard.widget.unavailable").tag("reason", "error").counter().count())
+                .isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.DashboardWidgets;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardSnapshotCacheTest {
+
+    @Mock
+    private DashboardService dashboardService;
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private DashboardSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-03-10T10:00:00Z"));
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new DashboardSnapshotCache(dashboardService, clock, meterRegistry);
+    }
+
+    @Test
+    void get_ShouldServeRepeatedReadsFromSnapshot() {
+        when(dashboardService.loadWidgets()).thenReturn(widgets(Set.of()));
+
+        cache.get();
+        cache.get();
+        cache.get();
+
+        verify(dashboardService, times(1)).loadWidgets();
+        assertThat(requests("hit")).isEqualTo(2.0);
+        assertThat(requests("miss")).isEqualTo(1.0);
+        assertThat(meterRegistry.get("dashboard.snapshot.rebuild").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void onFarmDataChanged_ShouldForceRebuild() {
+        when(dashboardService.loadWidgets()).thenReturn(widgets(Set.of()));
+        cache.get();
+
+        cache.onFarmDataChanged(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.TRANSACTION));
+        cache.get();
+
+        verify(dashboardService, times(2)).loadWidgets();
+        assertThat(meterRegistry.get("dashboard.snapshot.invalidations").tag("reason", "TRANSACTION").counter()
+                .count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void get_AfterDateRollover_ShouldRebuild() {
+        when(dashboardService.loadWidgets()).thenReturn(widgets(Set.of()));
+        cache.get();
+
+        clock.advance(Duration.ofDays(1));
+        cache.get();
+
+        verify(dashboardService, times(2)).loadWidgets();
+    }
+
+    @Test
+    void get_WithUnavailableWidget_ShouldNotCachePartialSnapshot() {
+        when(dashboardService.loadWidgets()).thenReturn(widgets(Set.of(DashboardService.FARM_INSIGHTS)));
+
+        cache.get();
+        cache.get();
+
+        verify(dashboardService, times(2)).loadWidgets();
+    }
+
+    @Test
+    void get_WhenWriteRacesRebuild_ShouldNotPublishStaleSnapshot() {
+        when(dashboardService.loadWidgets()).thenAnswer(invocation -> {
+            cache.invalidate("CROP"); // a write commits while the snapshot is being built
+            return widgets(Set.of());
+        }).thenReturn(widgets(Set.of()));
+
+        cache.get();
+        cache.get();
+
+        verify(dashboardService, times(2)).loadWidgets();
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("dashboard.snapshot.requests").tag("result", result).counter().count();
+    }
+
+    private static DashboardWidgets widgets(Set<String> unavailable) {
+        return new DashboardWidgets(Map.of(DashboardService.TOTAL_CROPS, 3L), unavailable);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.config.DashboardProperties;
+import com.example.farmmanagement.dto.DashboardWidgets;
+import com.example.farmmanagement.dto.LedgerTotals;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.model.CropActivity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardStreamServiceTest {
+
+    @Mock
+    private DashboardSnapshotCache dashboardSnapshotCache;
+
+    private SimpleMeterRegistry meterRegistry;
+    private List<RecordingEmitter> opened;
+    // Writes run as soon as they are handed over, unless held to play a client that stopped reading
+    private final List<Runnable> heldWrites = new ArrayList<>();
+    private boolean holdWrites;
+    private DashboardStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        DashboardProperties properties = new DashboardProperties();
+        properties.getStream().setMaxConnections(2);
+        meterRegistry = new SimpleMeterRegistry();
+        opened = new ArrayList<>();
+        streamService = new DashboardStreamService(dashboardSnapshotCache, properties,
+                new ObjectMapper().findAndRegisterModules(), meterRegistry, task -> {
+                    if (holdWrites) {
+                        heldWrites.add(task);
+                    } else {
+                        task.run();
+                    }
+                }) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                opened.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    @Test
+    void subscribe_OverConnectionCap_ShouldReject() {
+        assertThat(streamService.subscribe()).isPresent();
+        assertThat(streamService.subscribe()).isPresent();
+        assertThat(streamService.subscribe()).isEmpty();
+
+        assertThat(streamService.connectionCount()).isEqualTo(2);
+        assertThat(meterRegistry.get("dashboard.stream.connections").gauge().value()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("dashboard.stream.rejected").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void flush_WithoutChanges_ShouldNotTouchSnapshot() {
+        streamService.subscribe();
+
+        streamService.flush();
+
+        verifyNoInteractions(dashboardSnapshotCache);
+        assertThat(opened.get(0).sent).isEmpty();
+    }
+
+    @Test
+    void flush_ShouldCoalesceWritesIntoOneSharedPush() {
+        streamService.subscribe();
+        streamService.subscribe();
+        when(dashboardSnapshotCache.get()).thenReturn(widgets(3L, new LedgerTotals(500.0, 200.0)));
+
+        streamService.onFarmDataChanged(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.CROP));
+        streamService.onFarmDataChanged(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.TRANSACTION));
+        streamService.flush();
+
+        verify(dashboardSnapshotCache, times(1)).get();
+        assertThat(opened).allSatisfy(emitter -> assertThat(emitter.sent).hasSize(1));
+        assertThat(meterRegistry.get("dashboard.stream.pushes").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void flush_ShouldOnlySendValuesThatChanged() {
+        streamService.subscribe();
+        when(dashboardSnapshotCache.get())
+                .thenReturn(widgets(3L, new LedgerTotals(500.0, 200.0)))
+                .thenReturn(widgets(3L, new LedgerTotals(650.0, 200.0)));
+
+        streamService.onFarmDataChanged(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.TRANSACTION));
+        streamService.flush();
+        streamService.onFarmDataChanged(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.TRANSACTION));
+        streamService.flush();
+
+        List<String> sent = opened.get(0).sent;
+        assertThat(sent).hasSize(2);
+        assertThat(sent.get(0)).contains("\"totalCrops\":3").contains("\"income\":500.0");
+        assertThat(sent.get(1)).contains("\"income\":650.0").contains("\"profit\":450.0")
+                .doesNotContain("totalCrops").doesNotContain("expense");
+    }
+
+    @Test
+    void heartbeat_ShouldDropAClientWhoseLastWriteIsStillInFlight() {
+        streamService.subscribe();
+        streamService.subscribe();
+        RecordingEmitter stalled = opened.get(0);
+        RecordingEmitter reading = opened.get(1);
+
+        // Both writes are handed over; only the reading client's goes through
+        holdWrites = true;
+        streamService.heartbeat();
+        assertThat(heldWrites).hasSize(2);
+        heldWrites.remove(1).run();
+        holdWrites = false;
+
+        streamService.heartbeat();
+
+        assertThat(reading.sent).hasSize(2);
+        assertThat(stalled.sent).isEmpty();
+        assertThat(streamService.connectionCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("dashboard.stream.dropped").counter().count()).isEqualTo(1.0);
+        // Completed by its own write once that returns, not by the scheduler thread
+        assertThat(stalled.completed).isFalse();
+        heldWrites.remove(0).run();
+        assertThat(stalled.completed).isTrue();
+    }
+
+    @Test
+    void toPayload_ShouldFlattenListsAndSkipUnavailableWidgets() {
+        CropActivity task = new CropActivity(1L, null, "Spraying", "NPK", LocalDate.of(2025, 3, 12));
+        Map<String, Object> values = new HashMap<>();
+        values.put(DashboardService.UPCOMING_TASKS, List.of(task));
+        values.put(DashboardService.TOTAL_CROPS, 3L);
+        DashboardWidgets widgets = new DashboardWidgets(values, Set.of(DashboardService.LEDGER_TOTALS));
+
+        Map<String, Object> payload = streamService.toPayload(widgets);
+
+        assertThat(payload).containsEntry(DashboardService.TOTAL_CROPS, 3L)
+                .doesNotContainKey(DashboardStreamService.INCOME);
+        assertThat(payload.get(DashboardService.UPCOMING_TASKS))
+                .isEqualTo(List.of(Map.of("type", "Spraying", "date", "2025-03-12")));
+    }
+
+    private DashboardWidgets widgets(long totalCrops, LedgerTotals totals) {
+        return new DashboardWidgets(Map.of(DashboardService.TOTAL_CROPS, totalCrops,
+                DashboardService.LEDGER_TOTALS, totals), Set.of());
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> sent = new ArrayList<>();
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder data = new StringBuilder();
+            builder.build().forEach(part -> data.append(part.getData()));
+            sent.add(data.toString());
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
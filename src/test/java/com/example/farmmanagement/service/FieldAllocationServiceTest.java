@@ -0,0 +1,169 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.repository.FieldRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs against the database with real concurrent transactions: planners
+ * racing for the same farm conflict and retry (some may run out of attempts),
+ * but the farm is never allocated past its area and the counter always
+ * matches its subdivisions.
+ */
+@SpringBootTest
+class FieldAllocationServiceTest {
+
+    private static final int PLANNERS = 8;
+    private static final int REQUESTS_PER_PLANNER = 20;
+
+    @Autowired
+    private FieldAllocationService allocationService;
+
+    @Autowired
+    private FieldService fieldService;
+
+    @Autowired
+    private FieldRepository fieldRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Long> farmIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        for (Long farmId : farmIds) {
+            jdbcTemplate.update("DELETE FROM field_closure WHERE ancestor_id = ?", farmId);
+            jdbcTemplate.update("DELETE FROM fields WHERE parent_field_id = ?", farmId);
+            jdbcTemplate.update("DELETE FROM fields WHERE id = ?", farmId);
+        }
+    }
+
+    @Test
+    void addSubdivision_ShouldNeverOverAllocateUnderConcurrentPlanners() throws Exception {
+        // 160 requests of 1 acre race for 100 acres
+        Field farm = farm("Stress Farm", 100.0);
+        double conflictsBefore = meterRegistry.counter("fields.allocation.conflicts").count();
+        AtomicInteger granted = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        AtomicInteger gaveUp = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService planners = Executors.newFixedThreadPool(PLANNERS);
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for (int p = 0; p < PLANNERS; p++) {
+                int planner = p;
+                runs.add(planners.submit(() -> {
+                    start.await();
+                    for (int r = 0; r < REQUESTS_PER_PLANNER; r++) {
+                        try {
+                            allocationService.addSubdivision(farm.getId(), plot("Plot " + planner + "-" + r, 1.0));
+                            granted.incrementAndGet();
+                        } catch (IllegalStateException e) {
+                            refused.incrementAndGet();
+                        } catch (ConcurrencyFailureException e) {
+                            gaveUp.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            unexpected.add(e);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> run : runs) {
+                run.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            planners.shutdownNow();
+        }
+
+        assertThat(unexpected).isEmpty();
+        // How many give up depends on scheduling; what was granted never exceeds the farm and is what is recorded
+        assertThat(granted.get() + refused.get() + gaveUp.get()).isEqualTo(PLANNERS * REQUESTS_PER_PLANNER);
+        assertThat(granted.get()).isPositive().isLessThanOrEqualTo(100);
+        assertThat(fieldRepository.sumSubdivisionArea(farm.getId())).isEqualTo((double) granted.get());
+        assertThat(fieldRepository.findById(farm.getId())).get().extracting(Field::getAllocatedArea)
+                .isEqualTo((double) granted.get());
+        assertThat(fieldService.isWithin(fieldRepository.findByParentFieldId(farm.getId()).get(0).getId(),
+                farm.getId())).isTrue();
+        // Every request that gave up conflicted on each of its attempts
+        assertThat(meterRegistry.counter("fields.allocation.conflicts").count() - conflictsBefore)
+                .isGreaterThanOrEqualTo(gaveUp.get() * FieldAllocationService.MAX_ATTEMPTS);
+    }
+
+    @Test
+    void addSubdivision_ShouldRefuseWhatDoesNotFitAndUnknownFarms() {
+        Field farm = farm("Small Farm", 10.0);
+
+        allocationService.addSubdivision(farm.getId(), plot("Big Plot", 7.5));
+
+        assertThatThrownBy(() -> allocationService.addSubdivision(farm.getId(), plot("Too Big", 3.0)))
+                .isInstanceOf(IllegalStateException.class).hasMessageContaining("2.50 acres left");
+        assertThatThrownBy(() -> allocationService.addSubdivision(-1L, plot("Nowhere", 1.0)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> allocationService.addSubdivision(farm.getId(), plot("No Area", null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(fieldService.getRemainingSpace(farm.getId())).isEqualTo(2.5);
+    }
+
+    @Test
+    void saveField_ShouldRecountTheFarmsAllocatedArea() {
+        Field farm = farm("Recount Farm", 10.0);
+        allocationService.addSubdivision(farm.getId(), plot("Allocated", 4.0));
+
+        // Saved around the allocation path, so not checked against the farm, but still counted
+        Field direct = plot("Direct", 5.0);
+        direct.setParentField(fieldRepository.findById(farm.getId()).orElseThrow());
+        fieldService.saveField(direct);
+        assertThat(fieldRepository.findById(farm.getId())).get().extracting(Field::getAllocatedArea)
+                .isEqualTo(9.0);
+
+        assertThatThrownBy(() -> allocationService.addSubdivision(farm.getId(), plot("Late", 2.0)))
+                .isInstanceOf(IllegalStateException.class);
+        allocationService.addSubdivision(farm.getId(), plot("Last", 1.0));
+        assertThat(fieldRepository.findById(farm.getId())).get().extracting(Field::getAllocatedArea)
+                .isEqualTo(10.0);
+    }
+
+    private Field farm(String name, double area) {
+        Field farm = new Field();
+        farm.setName(name);
+        farm.setAreaSize(area);
+        farm.setIsMasterFarm(true);
+        farm = fieldService.saveField(farm);
+        farmIds.add(farm.getId());
+        return farm;
+    }
+
+    private static Field plot(String name, Double area) {
+        Field plot = new Field();
+        plot.setName(name);
+        plot.setAreaSize(area);
+        return plot;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.model.FieldClosure;
+import com.example.farmmanagement.repository.FieldClosureRepository;
+import com.example.farmmanagement.repository.FieldRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs against the database: incremental maintenance must leave exactly the
+ * paths a rebuild from the parent links would.
+ */
+@DataJpaTest
+@Import(FieldClosureService.class)
+class FieldClosureServiceTest {
+
+    @Autowired
+    private FieldClosureService closureService;
+
+    @Autowired
+    private FieldClosureRepository closureRepository;
+
+    @Autowired
+    private FieldRepository fieldRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void place_ShouldRecordANewFieldUnderEveryAncestor() {
+        Field farm = place("Farm", null);
+        Field block = place("Block", farm);
+        Field plot = place("Plot", block);
+
+        assertThat(closureService.isWithin(plot.getId(), farm.getId())).isTrue();
+        assertThat(closureService.isWithin(plot.getId(), plot.getId())).isTrue();
+        assertThat(closureService.isWithin(farm.getId(), plot.getId())).isFalse();
+        assertThat(closureRepository.findByDescendantId(plot.getId())).extracting(FieldClosure::getDepth)
+                .containsExactlyInAnyOrder(0, 1, 2);
+        assertThat(closureService.getSubtreeIds(farm.getId()))
+                .containsExactlyInAnyOrder(farm.getId(), block.getId(), plot.getId());
+        assertThat(paths()).isEqualTo(rebuiltPaths());
+    }
+
+    @Test
+    void place_ShouldMoveTheWholeSubtreeToTheNewParent() {
+        Field east = place("East", null);
+        Field west = place("West", null);
+        Field block = place("Block", east);
+        Field plot = place("Plot", block);
+
+        block.setParentField(west);
+        entityManager.flush();
+        closureService.place(block.getId(), west.getId());
+
+        assertThat(closureService.isWithin(plot.getId(), west.getId())).isTrue();
+        assertThat(closureService.isWithin(plot.getId(), east.getId())).isFalse();
+        assertThat(closureService.getSubtreeIds(east.getId())).containsExactly(east.getId());
+        assertThat(paths()).isEqualTo(rebuiltPaths());
+
+        // Promoted to a master farm
+        block.setParentField(null);
+        entityManager.flush();
+        closureService.place(block.getId(), null);
+
+        assertThat(closureService.isWithin(plot.getId(), west.getId())).isFalse();
+        assertThat(paths()).isEqualTo(rebuiltPaths());
+    }
+
+    @Test
+    void place_ShouldRejectAParentInsideTheFieldsOwnSubtree() {
+        Field farm = place("Farm", null);
+        Field plot = place("Plot", farm);
+
+        assertThatThrownBy(() -> closureService.place(farm.getId(), plot.getId()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> closureService.place(farm.getId(), farm.getId()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(closureService.isWithin(plot.getId(), farm.getId())).isTrue();
+    }
+
+    @Test
+    void place_ShouldRebuildWhenTheParentWasWrittenAroundIt() {
+        Field farm = persist("Imported Farm", null);
+        Field plot = place("Plot", farm);
+
+        assertThat(closureService.isWithin(plot.getId(), farm.getId())).isTrue();
+        assertThat(paths()).isEqualTo(rebuiltPaths());
+    }
+
+    private Field place(String name, Field parent) {
+        Field field = persist(name, parent);
+        closureService.place(field.getId(), parent != null ? parent.getId() : null);
+        return field;
+    }
+
+    private Field persist(String name, Field parent) {
+        Field field = new Field();
+        field.setName(name);
+        field.setParentField(parent);
+        return entityManager.persistAndFlush(field);
+    }
+
+    private Set<List<Long>> paths() {
+        return closureRepository.findAll().stream()
+                .map(path -> List.of(path.getAncestorId(), path.getDescendantId(), (long) path.getDepth()))
+                .collect(Collectors.toSet());
+    }
+
+    private Set<List<Long>> rebuiltPaths() {
+        return fieldRepository.findAllPaths().stream()
+                .map(path -> List.of(path.getAncestorId(), path.getDescendantId(), (long) path.getDepth()))
+                .collect(Collectors.toSet());
+    }
+}
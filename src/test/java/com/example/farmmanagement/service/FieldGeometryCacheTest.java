@@ -0,0 +1,69 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.model.Field;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FieldGeometryCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private FieldGeometryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new FieldGeometryCache(100, meterRegistry);
+    }
+
+    @Test
+    void get_ShouldParseOncePerFieldVersion() {
+        Field field = field(7L, 3, "[[0,0],[0.01,0],[0.01,0.01]]");
+
+        FieldGeometry first = cache.get(field).orElseThrow();
+        assertThat(cache.get(field)).containsSame(first);
+
+        // Any write bumps the version, and the new boundary is parsed on the next read
+        field.setVersion(4);
+        field.setBoundaryCoordinates("[[0,0],[0.02,0],[0.02,0.02]]");
+        FieldGeometry edited = cache.get(field).orElseThrow();
+
+        assertThat(edited).isNotSameAs(first);
+        assertThat(edited.areaSquareMeters()).isGreaterThan(first.areaSquareMeters());
+        assertThat(requests("hit")).isEqualTo(1.0);
+        assertThat(requests("miss")).isEqualTo(2.0);
+    }
+
+    @Test
+    void get_ShouldRememberFieldsWithoutAUsableBoundary() {
+        Field broken = field(8L, 0, "[[0,0]");
+        Field unmapped = field(9L, 0, null);
+
+        assertThat(cache.get(broken)).isEmpty();
+        assertThat(cache.get(broken)).isEmpty();
+        assertThat(cache.get(unmapped)).isEmpty();
+        assertThat(requests("hit")).isEqualTo(1.0);
+    }
+
+    @Test
+    void get_ShouldNotCacheUnsavedFields() {
+        Field unsaved = field(null, 0, "[[0,0],[0.01,0],[0.01,0.01]]");
+
+        assertThat(cache.get(unsaved)).isPresent();
+        assertThat(requests("miss") + requests("hit")).isZero();
+    }
+
+    private double requests(String result) {
+        return meterRegistry.counter("fields.geometry.requests", "result", result).count();
+    }
+
+    private static Field field(Long id, long version, String boundary) {
+        Field field = new Field();
+        field.setId(id);
+        field.setVersion(version);
+        field.setBoundaryCoordinates(boundary);
+        return field;
+    }
+}
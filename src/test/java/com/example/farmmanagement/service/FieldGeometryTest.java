@@ -0,0 +1,104 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.model.Field;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class FieldGeometryTest {
+
+    // 0.01 x 0.01 degrees just north of the equator, closed the way Leaflet sometimes closes rings
+    private static final String SQUARE = "[[0,0],[0.01,0],[0.01,0.01],[0,0.01],[0,0]]";
+
+    @Test
+    void parse_ShouldComputeTheGeodesicAreaOfTheBoundary() {
+        FieldGeometry square = FieldGeometry.parse(SQUARE);
+
+        // Exact on the sphere for a band between two parallels: R^2 * dLng * (sin lat2 - sin lat1)
+        double expected = FieldGeometry.EARTH_RADIUS_M * FieldGeometry.EARTH_RADIUS_M * Math.toRadians(0.01)
+                * Math.sin(Math.toRadians(0.01));
+        assertThat(square.size()).isEqualTo(4); // Closing point dropped
+        assertThat(square.areaSquareMeters()).isCloseTo(expected, within(1e-6));
+        assertThat(square.areaAcres()).isCloseTo(306.2, within(0.1));
+    }
+
+    @Test
+    void parse_ShouldPlaceTheCentroidWhereTheAreaIs() {
+        assertThat(FieldGeometry.parse(SQUARE).centroidLat()).isCloseTo(0.005, within(1e-9));
+
+        // An L: three unit cells, two along the bottom and one above the left one
+        FieldGeometry ell = FieldGeometry.parse("[[0,0],[0,0.02],[0.01,0.02],[0.01,0.01],[0.02,0.01],[0.02,0]]");
+        assertThat(ell.centroidLat()).isCloseTo(0.02 / 3 + 0.01 / 6, within(1e-7));
+        assertThat(ell.centroidLng()).isCloseTo(0.02 / 3 + 0.01 / 6, within(1e-7));
+    }
+
+    @Test
+    void parse_ShouldHandleABoundaryAcrossTheAntimeridian() {
+        FieldGeometry across = FieldGeometry.parse("[[10,179.995],[10.01,179.995],[10.01,-179.995],[10,-179.995]]");
+        FieldGeometry beside = FieldGeometry.parse("[[10,100.000],[10.01,100.000],[10.01,100.010],[10,100.010]]");
+
+        assertThat(across.areaSquareMeters()).isCloseTo(beside.areaSquareMeters(), within(1e-3));
+        assertThat(Math.abs(across.centroidLng())).isCloseTo(180.0, within(1e-6));
+    }
+
+    @Test
+    void contains_ShouldFollowTheBoundaryRatherThanItsBox() {
+        FieldGeometry ell = FieldGeometry.parse("[[0,0],[0,0.02],[0.01,0.02],[0.01,0.01],[0.02,0.01],[0.02,0]]");
+
+        assertThat(ell.contains(0.005, 0.015)).isTrue();
+        assertThat(ell.contains(0.015, 0.005)).isTrue();
+        assertThat(ell.contains(0.015, 0.015)).isFalse(); // The missing corner, inside the box
+        assertThat(ell.contains(0.025, 0.005)).isFalse();
+        assertThat(ell.maxLat()).isEqualTo(0.02);
+        assertThat(ell.minLng()).isEqualTo(0.0);
+    }
+
+    @Test
+    void contains_ShouldWorkAcrossTheAntimeridian() {
+        FieldGeometry across = FieldGeometry.parse("[[10,179.995],[10.01,179.995],[10.01,-179.995],[10,-179.995]]");
+
+        assertThat(across.contains(10.005, 179.999)).isTrue();
+        assertThat(across.contains(10.005, -179.999)).isTrue();
+        assertThat(across.contains(10.005, 0.0)).isFalse();
+        assertThat(across.maxLng()).isCloseTo(180.005, within(1e-9)); // Unwrapped from the first point
+    }
+
+    @Test
+    void parse_ShouldRejectAnythingButThreeOrMorePointsInRange() {
+        assertThat(FieldGeometry.parse(" ")).isNull();
+        assertThat(FieldGeometry.parse(null)).isNull();
+        assertThatThrownBy(() -> FieldGeometry.parse("[[0,0],[1,1]"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FieldGeometry.parse("[[0,0],[1,1],[0,0]]"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("three points");
+        assertThatThrownBy(() -> FieldGeometry.parse("[[0,0],[91,1],[1,0]]"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("out of range");
+        assertThatThrownBy(() -> FieldGeometry.parse("[[0,0,5],[1,1],[1,0]]"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FieldGeometry.parse("[[0,\"x\"],[1,1],[1,0]]"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FieldGeometry.parse("{\"lat\":0}"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void applyTo_ShouldReplaceThePostedAreaAndPosition() {
+        Field field = new Field();
+        field.setBoundaryCoordinates(SQUARE);
+        field.setAreaSize(1.0);
+        field.setLatitude(45.0);
+
+        FieldGeometry.applyTo(field);
+
+        assertThat(field.getAreaSize()).isEqualTo(306.21);
+        assertThat(field.getLatitude()).isEqualTo(0.005);
+        assertThat(field.getLongitude()).isEqualTo(0.005);
+
+        Field unmapped = new Field();
+        unmapped.setAreaSize(12.0);
+        FieldGeometry.applyTo(unmapped);
+        assertThat(unmapped.getAreaSize()).isEqualTo(12.0);
+    }
+}
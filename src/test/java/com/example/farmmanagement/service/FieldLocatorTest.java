@@ -0,0 +1,190 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.FieldOption;
+import com.example.farmmanagement.model.BoundaryCodec;
+import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.repository.FieldRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FieldLocatorTest {
+
+    private static final int GRID = 40;
+    private static final double CELL = 0.001;
+
+    @Mock
+    private FieldRepository fieldRepository;
+
+    private FieldLocator locator;
+    private final List<FieldRepository.FieldBoundary> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // A farm drawn around a 40 x 40 grid of plots (deep enough for a three-level tree), and one unmapped field
+        rows.add(row(1L, "Farm", square(-0.0005, -0.0005, GRID * CELL + 0.001)));
+        for (int row = 0; row < GRID; row++) {
+            for (int col = 0; col < GRID; col++) {
+                long id = 100L + row * GRID + col;
+                rows.add(row(id, "Plot " + id, square(row * CELL, col * CELL, CELL)));
+            }
+        }
+        rows.add(row(2L, "Broken", "[[0,0]"));
+        when(fieldRepository.findAllBoundaries()).thenReturn(rows);
+        locator = new FieldLocator(fieldRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void locate_ShouldFindTheSmallestFieldAroundThePoint() {
+        assertThat(locator.locate(0.0015, 0.0025)).contains(new FieldOption(142L, "Plot 142"));
+        assertThat(locator.locate(-0.0004, 0.01)).contains(new FieldOption(1L, "Farm")); // Farm margin, no plot
+        assertThat(locator.locate(1.0, 1.0)).isEmpty();
+        assertThat(locator.size()).isEqualTo(GRID * GRID + 1);
+        verify(fieldRepository, times(1)).findAllBoundaries();
+    }
+
+    @Test
+    void locate_ShouldAgreeWithTestingEveryBoundary() {
+        Random random = new Random(42);
+        List<FieldGeometry> geometries = rows.stream().map(row -> parseOrNull(row.getBoundaryGeometry() != null
+                ? BoundaryCodec.toJson(row.getBoundaryGeometry()) : row.getBoundaryCoordinates())).toList();
+        for (int i = 0; i < 2_000; i++) {
+            double lat = -0.001 + random.nextDouble() * (GRID * CELL + 0.002);
+            double lng = -0.001 + random.nextDouble() * (GRID * CELL + 0.002);
+            Long expected = null;
+            double smallest = Double.MAX_VALUE;
+            for (int r = 0; r < rows.size(); r++) {
+                FieldGeometry geometry = geometries.get(r);
+                if (geometry != null && geometry.contains(lat, lng) && geometry.areaSquareMeters() < smallest) {
+                    expected = rows.get(r).getId();
+                    smallest = geometry.areaSquareMeters();
+                }
+            }
+            assertThat(locator.locate(lat, lng).map(FieldOption::id)).isEqualTo(Optional.ofNullable(expected));
+        }
+    }
+
+    @Test
+    void refresh_ShouldMoveRenameAndDropFieldsWithoutRebuilding() {
+        locator.locate(0, 0);
+
+        // A new field over plot 100, a plot renamed, and a plot whose boundary was cleared
+        locator.refresh(field(7L, "Well", square(0.0002, 0.0002, 0.0002)));
+        locator.refresh(field(101L, "Renamed", square(0, CELL, CELL)));
+        locator.refresh(field(102L, "Cleared", null));
+
+        assertThat(locator.locate(0.0003, 0.0003)).contains(new FieldOption(7L, "Well"));
+        assertThat(locator.locate(0.0005, 0.0015)).contains(new FieldOption(101L, "Renamed"));
+        assertThat(locator.locate(0.0005, 0.0025)).contains(new FieldOption(1L, "Farm"));
+        assertThat(locator.size()).isEqualTo(GRID * GRID + 1);
+        verify(fieldRepository, times(1)).findAllBoundaries();
+    }
+
+    @Test
+    void refresh_ShouldRepackOnceManyFieldsWereSaved() {
+        locator.locate(0, 0);
+
+        // Every plot of the first rows moves one cell down, past the end of the grid
+        for (int id = 100; id <= 100 + FieldLocator.REPACK_AFTER * 2; id++) {
+            int row = (id - 100) / GRID;
+            int col = (id - 100) % GRID;
+            locator.refresh(field((long) id, "Moved " + id, square(-(row + 1) * CELL - 0.01, col * CELL, CELL)));
+        }
+
+        assertThat(locator.locate(-0.0105, 0.0005)).contains(new FieldOption(100L, "Moved 100"));
+        assertThat(locator.locate(0.0005, 0.0005)).contains(new FieldOption(1L, "Farm"));
+        assertThat(locator.size()).isEqualTo(GRID * GRID + 1);
+        verify(fieldRepository, times(1)).findAllBoundaries();
+    }
+
+    @Test
+    void refresh_ShouldWaitForTheTransactionToCommit() {
+        locator.locate(0, 0);
+        TransactionSynchronizationManager.initSynchronization();
+
+        locator.refresh(field(7L, "Pending", square(2, 2, CELL)));
+        assertThat(locator.locate(2.0005, 2.0005)).isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(locator.locate(2.0005, 2.0005)).contains(new FieldOption(7L, "Pending"));
+    }
+
+    @Test
+    void locate_ShouldFindFieldsAcrossTheAntimeridian() {
+        rows.add(row(9L, "Dateline", "[[-16.5,179.999],[-16.5,-179.999],[-16.49,-179.999],[-16.49,179.999]]"));
+
+        assertThat(locator.locate(-16.495, 179.9995)).contains(new FieldOption(9L, "Dateline"));
+        assertThat(locator.locate(-16.495, -179.9995)).contains(new FieldOption(9L, "Dateline"));
+        assertThat(locator.locate(-16.495, 0)).isEmpty();
+    }
+
+    private static FieldGeometry parseOrNull(String boundary) {
+        try {
+            return FieldGeometry.parse(boundary);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String square(double lat, double lng, double size) {
+        return String.format("[[%s,%s],[%s,%s],[%s,%s],[%s,%s]]", lat, lng, lat + size, lng, lat + size, lng + size,
+                lat, lng + size);
+    }
+
+    private static Field field(Long id, String name, String boundary) {
+        Field field = new Field();
+        field.setId(id);
+        field.setName(name);
+        field.setBoundaryCoordinates(boundary);
+        return field;
+    }
+
+    // Stored the way Field stores it: binary when the JSON is a plain array of points, else as text
+    private static FieldRepository.FieldBoundary row(Long id, String name, String boundary) {
+        byte[] geometry = BoundaryCodec.fromJson(boundary);
+        return new FieldRepository.FieldBoundary() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public byte[] getBoundaryGeometry() {
+                return geometry;
+            }
+
+            @Override
+            public String getBoundaryCoordinates() {
+                return geometry == null ? boundary : null;
+            }
+        };
+    }
+}
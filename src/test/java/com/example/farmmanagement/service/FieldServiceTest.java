@@ -1,27 +1,152 @@
 package com.example.farmmanagement.service;
 
+import com.example.farmmanagement.dto.FieldNode;
+import com.example.farmmanagement.dto.FieldOption;
+import com.example.farmmanagement.dto.FieldRollup;
+import com.example.farmmanagement.dto.FieldShape;
+import com.example.farmmanagement.dto.HarvestTotals;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
 import com.example.farmmanagement.model.Field;
 import com.example.farmmanagement.repository.FieldRepository;
+import com.example.farmmanagement.repository.SoilRecordRepository;
+import com.example.farmmanagement.repository.WaterRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class FieldServiceTest {
 
+    private static final LocalDate TODAY = LocalDate.of(2025, 5, 14);
+
     @Mock
     private FieldRepository fieldRepository;
 
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SoilRecordRepository soilRecordRepository;
+
+    @Mock
+    private WaterRecordRepository waterRecordRepository;
+
+    @Mock
+    private HarvestService harvestService;
+
+    @Mock
+    private FieldClosureService fieldClosureService;
+
+    @Mock
+    private FieldAllocationService fieldAllocationService;
+
+    @Mock
+    private FieldGeometryCache fieldGeometryCache;
+
+    @Mock
+    private FieldLocator fieldLocator;
+
     private FieldService fieldService;
 
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        fieldService = new FieldService(fieldRepository, eventPublisher, soilRecordRepository, waterRecordRepository,
+                harvestService, fieldClosureService, fieldAllocationService, fieldGeometryCache, fieldLocator,
+                clock);
+    }
+
+    @Test
+    void searchFields_ShouldLowerCaseAndEscapeTheTerm() {
+        // Given
+        List<FieldOption> options = List.of(new FieldOption(3L, "North 50%"));
+        when(fieldRepository.searchByName("north 50\\%", Limit.of(FieldService.MAX_SEARCH_RESULTS)))
+                .thenReturn(options);
+
+        // When
+        List<FieldOption> result = fieldService.searchFields(" North 50% ", 500);
+
+        // Then
+        assertThat(result).isEqualTo(options);
+        verify(fieldRepository, never()).findAll();
+    }
+
+    @Test
+    void getDescendantsAndAncestors_ShouldLeaveOutTheFieldItself() {
+        // Given
+        when(fieldRepository.findSubtree(1L)).thenReturn(List.of(node(1L, null, 0), node(2L, 1L, 1), node(3L, 2L, 2)));
+        when(fieldRepository.findAncestry(3L)).thenReturn(List.of(node(3L, 2L, 0), node(2L, 1L, 1), node(1L, null, 2)));
+
+        // When
+        List<FieldNode> descendants = fieldService.getDescendants(1L);
+        List<FieldNode> ancestors = fieldService.getAncestors(3L);
+
+        // Then
+        assertThat(descendants).extracting(FieldNode::id).containsExactly(2L, 3L);
+        assertThat(descendants).extracting(FieldNode::depth).containsExactly(1, 2);
+        assertThat(ancestors).extracting(FieldNode::id).containsExactly(2L, 1L);
+        assertThat(fieldService.getLevel(3L)).isEqualTo(2);
+        verify(fieldRepository, never()).findByParentFieldId(anyLong());
+    }
+
+    @Test
+    void subtreeQuestions_ShouldBeAnsweredFromTheClosureTable() {
+        // Given
+        when(fieldClosureService.isWithin(3L, 1L)).thenReturn(true);
+        when(fieldClosureService.getPlots(1L)).thenReturn(List.of(new FieldOption(3L, "Plot")));
+        when(fieldClosureService.getMasterFarmRollups()).thenReturn(Map.of(1L, new FieldRollup(1L, 2, 2, 10.0, 1)));
+
+        // When / Then
+        assertThat(fieldService.isWithin(3L, 1L)).isTrue();
+        assertThat(fieldService.getPlots(1L)).extracting(FieldOption::name).containsExactly("Plot");
+        assertThat(fieldService.getMasterFarmRollups()).containsKey(1L);
+        verify(fieldRepository, never()).findAll();
+    }
+
+    private static FieldRepository.HierarchyNode node(Long id, Long parentId, int depth) {
+        return new FieldRepository.HierarchyNode() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return "Field " + id;
+            }
+
+            @Override
+            public Long getParentId() {
+                return parentId;
+            }
+
+            @Override
+            public Double getAreaSize() {
+                return 10.0;
+            }
+
+            @Override
+            public int getDepth() {
+                return depth;
+            }
+        };
+    }
+
     @Test
     void getAllFields_ShouldReturnAllFields() {
         // Given
@@ -77,6 +202,137 @@ class FieldServiceTest {
         // Then
         assertThat(result.getName()).isEqualTo("New Field");
         verify(fieldRepository).save(field);
+        verify(fieldClosureService).place(null, null);
+        verify(eventPublisher).publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.FIELD));
+    }
+
+    @Test
+    void saveField_ShouldPlaceTheFieldUnderItsParent() {
+        // Given
+        Field plot = createField(2L, "Plot", 10.0, 1L);
+        when(fieldRepository.save(plot)).thenReturn(plot);
+
+        // When
+        fieldService.saveField(plot);
+
+        // Then
+        verify(fieldClosureService).place(2L, 1L);
+        verify(fieldLocator).refresh(plot);
+        verify(fieldAllocationService).recount(1L);
+    }
+
+    @Test
+    void saveField_ShouldRecountBothParentsWhenAFieldMoves() {
+        // Given
+        Field plot = createField(2L, "Plot", 10.0, 1L);
+        when(fieldRepository.findParentIdById(2L)).thenReturn(Optional.of(5L));
+        when(fieldRepository.save(plot)).thenReturn(plot);
+
+        // When
+        fieldService.saveField(plot);
+
+        // Then
+        verify(fieldAllocationService).recount(1L);
+        verify(fieldAllocationService).recount(5L);
+    }
+
+    @Test
+    void saveField_ShouldTakeAreaAndPositionFromTheBoundary() {
+        // Given
+        Field field = createField(null, "Drawn", 1.0, null);
+        field.setBoundaryCoordinates("[[0,0],[0.01,0],[0.01,0.01],[0,0.01]]");
+        when(fieldRepository.save(field)).thenReturn(field);
+
+        // When
+        fieldService.saveField(field);
+
+        // Then
+        assertThat(field.getAreaSize()).isEqualTo(306.21);
+        assertThat(field.getLatitude()).isEqualTo(0.005);
+        assertThat(field.getLongitude()).isEqualTo(0.005);
+    }
+
+    @Test
+    void saveField_ShouldRejectABoundaryThatDoesNotParse() {
+        // Given
+        Field field = createField(null, "Broken", 1.0, null);
+        field.setBoundaryCoordinates("[[0,0],[0.01,0]]");
+
+        // When / Then
+        assertThatThrownBy(() -> fieldService.saveField(field)).isInstanceOf(IllegalArgumentException.class);
+        verify(fieldRepository, never()).save(any());
+    }
+
+    @Test
+    void encodeTextBoundaries_ShouldMovePointListsIntoTheBinaryForm() {
+        // Given: rows from before binary boundaries, written straight to the text column
+        Field drawn = createField(1L, "Drawn", 4.0, null);
+        ReflectionTestUtils.setField(drawn, "boundaryCoordinates", "[[0,0],[0.01,0],[0.01,0.01]]");
+        when(fieldRepository.findUncheckedTextBoundaries()).thenReturn(List.of(
+                textBoundary(1L, "[[0,0],[0.01,0],[0.01,0.01]]"), textBoundary(2L, "{\"type\":\"Polygon\"}")));
+        when(fieldRepository.findAllById(List.of(1L))).thenReturn(List.of(drawn));
+
+        // When
+        int encoded = fieldService.encodeTextBoundaries();
+
+        // Then: the one that encodes is loaded and re-encoded, the other only marked so it is not read again
+        assertThat(encoded).isEqualTo(1);
+        assertThat(drawn.getBoundaryGeometry()).isNotNull();
+        assertThat(ReflectionTestUtils.getField(drawn, "boundaryCoordinates")).isNull();
+        assertThat(drawn.getBoundaryCoordinates()).isEqualTo("[[0,0],[0.01,0],[0.01,0.01]]");
+        verify(fieldRepository).markTextBoundariesKept(List.of(2L));
+    }
+
+    @Test
+    void encodeTextBoundaries_WithNothingLeftToLookAt_ShouldNotTouchAnyRow() {
+        when(fieldRepository.findUncheckedTextBoundaries()).thenReturn(List.of());
+
+        assertThat(fieldService.encodeTextBoundaries()).isZero();
+        verify(fieldRepository, never()).findAllById(any());
+        verify(fieldRepository, never()).markTextBoundariesKept(any());
+    }
+
+    private static FieldRepository.TextBoundary textBoundary(Long id, String text) {
+        return new FieldRepository.TextBoundary() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getBoundaryCoordinates() {
+                return text;
+            }
+        };
+    }
+
+    @Test
+    void getShape_ShouldUseTheCachedGeometry() {
+        // Given
+        Field field = createField(4L, "Drawn", 306.21, null);
+        FieldGeometry geometry = FieldGeometry.parse("[[0,0],[0.01,0],[0.01,0.01],[0,0.01]]");
+        when(fieldRepository.findById(4L)).thenReturn(Optional.of(field));
+        when(fieldGeometryCache.get(field)).thenReturn(Optional.of(geometry));
+
+        // When
+        Optional<FieldShape> shape = fieldService.getShape(4L);
+
+        // Then
+        assertThat(shape).get().extracting(FieldShape::fieldId).isEqualTo(4L);
+        assertThat(shape.get().boundary()).hasNumberOfRows(4);
+        assertThat(shape.get().areaAcres()).isCloseTo(306.21, within(0.01));
+    }
+
+    @Test
+    void saveField_ShouldNotPublishWhenThePlacementIsRejected() {
+        // Given
+        Field farm = createField(1L, "Farm", 100.0, null);
+        when(fieldRepository.save(farm)).thenReturn(farm);
+        doThrow(new IllegalArgumentException("cycle")).when(fieldClosureService).place(1L, null);
+
+        // When / Then
+        assertThatThrownBy(() -> fieldService.saveField(farm)).isInstanceOf(IllegalArgumentException.class);
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -154,6 +410,19 @@ class FieldServiceTest {
         assertThat(result).isFalse(); // 15 + 10 = 25, which is > 20
     }
 
+    @Test
+    void canAddSubdivision_ShouldUseTheAllocatedAreaWhenCounted() {
+        // Given
+        Field masterFarm = createField(1L, "Master", 20.0, null);
+        masterFarm.setAllocatedArea(18.0);
+        when(fieldRepository.findById(1L)).thenReturn(Optional.of(masterFarm));
+
+        // When / Then
+        assertThat(fieldService.canAddSubdivision(1L, 5.0)).isFalse();
+        assertThat(fieldService.getRemainingSpace(1L)).isEqualTo(2.0);
+        verify(fieldRepository, never()).findByParentFieldId(any());
+    }
+
     @Test
     void canAddSubdivision_WhenMasterFarmNotFound_ShouldReturnFalse() {
         // Given
@@ -196,13 +465,32 @@ class FieldServiceTest {
     }
 
     @Test
-    void getFieldMetrics_ShouldReturnMetrics() {
+    void getFieldMetrics_ShouldReturnRecentAggregates() {
+        // Given
+        when(soilRecordRepository.averagePhSince(LocalDate.of(2025, 2, 13))).thenReturn(6.4666);
+        when(waterRecordRepository.sumQuantitySince(LocalDate.of(2025, 4, 14))).thenReturn(1060.4);
+        when(harvestService.getFarmTotals(2025)).thenReturn(new HarvestTotals(42.5, 1.5, 3L));
+
         // When
         Map<String, Object> result = fieldService.getFieldMetrics();
 
         // Then
-        assertThat(result).containsKeys("phLevel", "temperature", "waterLevel");
-        assertThat(result.get("phLevel")).isEqualTo(5);
+        assertThat(result).containsEntry("phLevel", 6.5).containsEntry("waterLevel", 1060L)
+                .containsEntry("harvested", 42.5);
+        verify(soilRecordRepository, never()).findAll();
+    }
+
+    @Test
+    void getFieldMetrics_WithoutReadings_ShouldLeaveThemEmpty() {
+        when(soilRecordRepository.averagePhSince(any())).thenReturn(null);
+        when(waterRecordRepository.sumQuantitySince(any())).thenReturn(null);
+        when(harvestService.getFarmTotals(anyInt())).thenReturn(HarvestTotals.ZERO);
+
+        Map<String, Object> result = fieldService.getFieldMetrics();
+
+        assertThat(result.get("phLevel")).isNull();
+        assertThat(result.get("waterLevel")).isNull();
+        assertThat(result).containsEntry("harvested", 0.0);
     }
 
     private Field createField(Long id, String name, Double areaSize, Long parentId) {
@@ -0,0 +1,140 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.FinanceSeries;
+import com.example.farmmanagement.model.CropTransaction;
+import com.example.farmmanagement.repository.CropTransactionRepository;
+import com.example.farmmanagement.repository.LedgerRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FinanceSeriesServiceTest {
+
+    @Mock
+    private CropTransactionRepository transactionRepository;
+
+    @Mock
+    private LedgerRollupRepository rollupRepository;
+
+    private FinanceSeriesService financeSeriesService;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2025-03-12T10:00:00Z"), ZoneOffset.UTC);
+        financeSeriesService = new FinanceSeriesService(transactionRepository, rollupRepository, clock);
+    }
+
+    @Test
+    void getSeries_Daily_ShouldFillEmptyDaysWithZero() {
+        LocalDate from = LocalDate.of(2025, 3, 1);
+        LocalDate to = LocalDate.of(2025, 3, 3);
+        when(transactionRepository.sumAmountByDayAndType(from, to)).thenReturn(List.of(
+                daily(LocalDate.of(2025, 3, 1), CropTransaction.TransactionType.INCOME, 100.0),
+                daily(LocalDate.of(2025, 3, 3), CropTransaction.TransactionType.EXPENSE, 40.0)));
+
+        FinanceSeries series = financeSeriesService.getSeries(FinanceSeries.Granularity.DAY, from, to, null, null);
+
+        assertThat(series.points()).containsExactly(
+                new FinanceSeries.Point(LocalDate.of(2025, 3, 1), 100.0, 0.0),
+                new FinanceSeries.Point(LocalDate.of(2025, 3, 2), 0.0, 0.0),
+                new FinanceSeries.Point(LocalDate.of(2025, 3, 3), 0.0, 40.0));
+    }
+
+    @Test
+    void getSeries_Weekly_ShouldFoldDaysIntoIsoWeeks() {
+        // Wednesday 5 March .. Tuesday 11 March widens to Monday 3 .. Sunday 16
+        LocalDate monday = LocalDate.of(2025, 3, 3);
+        LocalDate sunday = LocalDate.of(2025, 3, 16);
+        when(transactionRepository.sumAmountByDayAndTypeForCrop(7L, monday, sunday)).thenReturn(List.of(
+                daily(LocalDate.of(2025, 3, 5), CropTransaction.TransactionType.INCOME, 100.0),
+                daily(LocalDate.of(2025, 3, 9), CropTransaction.TransactionType.INCOME, 50.0),
+                daily(LocalDate.of(2025, 3, 10), CropTransaction.TransactionType.EXPENSE, 30.0)));
+
+        FinanceSeries series = financeSeriesService.getSeries(FinanceSeries.Granularity.WEEK,
+                LocalDate.of(2025, 3, 5), LocalDate.of(2025, 3, 11), 7L, null);
+
+        assertThat(series.from()).isEqualTo(monday);
+        assertThat(series.to()).isEqualTo(sunday);
+        assertThat(series.points()).containsExactly(
+                new FinanceSeries.Point(monday, 150.0, 0.0),
+                new FinanceSeries.Point(LocalDate.of(2025, 3, 10), 0.0, 30.0));
+    }
+
+    @Test
+    void getSeries_Monthly_ShouldReadRollupsAndDefaultToTwelveMonths() {
+        when(rollupRepository.sumMonthlyForField(3L, 202404, 202503)).thenReturn(List.of(
+                period(2025, 2, CropTransaction.TransactionType.EXPENSE, 80.0),
+                period(2025, 3, CropTransaction.TransactionType.INCOME, 500.0)));
+
+        FinanceSeries series = financeSeriesService.getSeries(FinanceSeries.Granularity.MONTH, null, null, null, 3L);
+
+        assertThat(series.points()).hasSize(12);
+        assertThat(series.points().get(0).periodStart()).isEqualTo(LocalDate.of(2024, 4, 1));
+        assertThat(series.points().get(10)).isEqualTo(new FinanceSeries.Point(LocalDate.of(2025, 2, 1), 0.0, 80.0));
+        assertThat(series.points().get(11)).isEqualTo(new FinanceSeries.Point(LocalDate.of(2025, 3, 1), 500.0, 0.0));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void getSeries_InvalidRequests_ShouldBeRejected() {
+        LocalDate day = LocalDate.of(2025, 3, 1);
+        assertThatThrownBy(() -> financeSeriesService.getSeries(FinanceSeries.Granularity.DAY, day, day, 1L, 2L))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> financeSeriesService.getSeries(FinanceSeries.Granularity.DAY, day, day.minusDays(1),
+                null, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> financeSeriesService.getSeries(FinanceSeries.Granularity.DAY, day, day.plusYears(5),
+                null, null)).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(transactionRepository, rollupRepository);
+    }
+
+    private CropTransactionRepository.DailyTotal daily(LocalDate date, CropTransaction.TransactionType type,
+            Double total) {
+        return new CropTransactionRepository.DailyTotal() {
+            public LocalDate getBucketDate() {
+                return date;
+            }
+
+            public CropTransaction.TransactionType getTransactionType() {
+                return type;
+            }
+
+            public Double getTotal() {
+                return total;
+            }
+        };
+    }
+
+    private CropTransactionRepository.PeriodTotal period(int year, int month, CropTransaction.TransactionType type,
+            Double total) {
+        return new CropTransactionRepository.PeriodTotal() {
+            public Integer getPeriodYear() {
+                return year;
+            }
+
+            public Integer getPeriodMonth() {
+                return month;
+            }
+
+            public CropTransaction.TransactionType getTransactionType() {
+                return type;
+            }
+
+            public Double getTotal() {
+                return total;
+            }
+        };
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.CropGrowth;
+import com.example.farmmanagement.dto.GrowthSummary;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.model.GrowthStage;
+import com.example.farmmanagement.repository.CropRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GrowthStageEngineTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 1);
+
+    @Mock
+    private CropRepository cropRepository;
+
+    @Mock
+    private Clock clock;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GrowthStageEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        engine = new GrowthStageEngine(cropRepository, clock, meterRegistry);
+        lenient().when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        lenient().when(clock.instant()).thenReturn(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC));
+        lenient().when(cropRepository.findGrowingOn(TODAY)).thenReturn(List.of(
+                row(1L, "Maize", TODAY.minusDays(30), TODAY.plusDays(90)),
+                row(2L, "Quinoa", TODAY.minusDays(5), null),
+                row(3L, "Beans", TODAY.minusDays(90), TODAY),
+                row(4L, " wheat ", TODAY.minusDays(50), null)));
+    }
+
+    @Test
+    void summary_ShouldCountStagesAndAverageProgress() {
+        GrowthSummary summary = engine.summary();
+
+        // Maize 30/120, Quinoa 5/100 (default profile), Beans 90/90, Wheat 50/110
+        assertThat(summary.asOf()).isEqualTo(TODAY);
+        assertThat(summary.activeCrops()).isEqualTo(4);
+        assertThat(summary.averagePercent()).isEqualTo(43.9);
+        assertThat(summary.stageCounts()).containsEntry(GrowthStage.SEEDLING, 1)
+                .containsEntry(GrowthStage.VEGETATIVE, 1)
+                .containsEntry(GrowthStage.FLOWERING, 1)
+                .containsEntry(GrowthStage.MATURING, 0)
+                .containsEntry(GrowthStage.READY, 1);
+        // Six days ago Quinoa was not yet planted and counts as 0%
+        assertThat(summary.trend()).hasSize(GrowthStageEngine.TREND_DAYS).startsWith(38.3).endsWith(43.9);
+    }
+
+    @Test
+    void growthOf_ShouldFindActiveCropsOnly() {
+        assertThat(engine.growthOf(1L)).contains(new CropGrowth(1L, GrowthStage.VEGETATIVE, 25.0));
+        assertThat(engine.growthOf(3L)).contains(new CropGrowth(3L, GrowthStage.READY, 100.0));
+        assertThat(engine.growthOf(4L)).contains(new CropGrowth(4L, GrowthStage.FLOWERING, 45.5));
+        assertThat(engine.growthOf(99L)).isEqualTo(Optional.empty());
+    }
+
+    @Test
+    void summary_ShouldQueryOnceUntilCropsChangeOrTheDayRollsOver() {
+        engine.summary();
+        engine.growthOf(1L);
+        engine.onFarmDataChanged(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.TRANSACTION));
+        engine.summary();
+
+        verify(cropRepository, times(1)).findGrowingOn(TODAY);
+        assertThat(meterRegistry.get("crops.growth.requests").tag("result", "hit").counter().count())
+                .isEqualTo(2.0);
+
+        engine.onFarmDataChanged(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.CROP));
+        engine.summary();
+        verify(cropRepository, times(2)).findGrowingOn(TODAY);
+
+        LocalDate tomorrow = TODAY.plusDays(1);
+        when(clock.instant()).thenReturn(tomorrow.atStartOfDay().toInstant(ZoneOffset.UTC));
+        when(cropRepository.findGrowingOn(tomorrow)).thenReturn(List.of());
+        assertThat(engine.summary().activeCrops()).isZero();
+        assertThat(engine.summary().averagePercent()).isZero();
+        verify(cropRepository, times(1)).findGrowingOn(tomorrow);
+    }
+
+    @Test
+    void compute_InParallel_ShouldMatchTheSequentialPass() {
+        int n = GrowthStageEngine.PARALLEL_THRESHOLD * 3 + 17;
+        Random random = new Random(42);
+        int[] planted = new int[n];
+        int[] harvest = new int[n];
+        byte[] profiles = new byte[n];
+        for (int i = 0; i < n; i++) {
+            planted[i] = 20_000 + random.nextInt(200);
+            harvest[i] = planted[i] + random.nextInt(150);
+            profiles[i] = (byte) GrowthStageEngine.profileOf(random.nextBoolean() ? "Maize" : "Rice");
+        }
+        double[] sequentialPercents = new double[n];
+        byte[] sequentialStages = new byte[n];
+        double[] parallelPercents = new double[n];
+        byte[] parallelStages = new byte[n];
+
+        GrowthStageEngine.compute(planted, harvest, profiles, 20_100, sequentialPercents, sequentialStages, false);
+        GrowthStageEngine.compute(planted, harvest, profiles, 20_100, parallelPercents, parallelStages, true);
+
+        assertThat(parallelPercents).isEqualTo(sequentialPercents);
+        assertThat(parallelStages).isEqualTo(sequentialStages);
+    }
+
+    private static CropRepository.GrowthRow row(Long id, String type, LocalDate planted, LocalDate harvest) {
+        return new CropRepository.GrowthRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getType() {
+                return type;
+            }
+
+            @Override
+            public LocalDate getPlantingDate() {
+                return planted;
+            }
+
+            @Override
+            public LocalDate getHarvestDate() {
+                return harvest;
+            }
+        };
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.HarvestTotals;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.model.Crop;
+import com.example.farmmanagement.model.Field;
+import com.example.farmmanagement.model.HarvestRecord;
+import com.example.farmmanagement.model.HarvestRollup;
+import com.example.farmmanagement.repository.HarvestRecordRepository;
+import com.example.farmmanagement.repository.HarvestRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HarvestServiceTest {
+
+    @Mock
+    private HarvestRecordRepository recordRepository;
+
+    @Mock
+    private HarvestRollupRepository rollupRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private HarvestService harvestService;
+
+    @Test
+    void saveHarvest_ShouldUpdateCropFieldAndFarmBuckets() {
+        when(rollupRepository.applyDelta(anyLong(), anyLong(), anyInt(), anyDouble(), anyDouble(), anyLong()))
+                .thenReturn(1);
+        HarvestRecord record = harvest(null, crop(7L, 3L), LocalDate.of(2024, 8, 1), 12.0, null);
+        when(recordRepository.saveAndFlush(record)).thenReturn(record);
+
+        harvestService.saveHarvest(record);
+
+        assertThat(record.getFieldId()).isEqualTo(3L);
+        assertThat(record.getLoss()).isEqualTo(0.0);
+        verify(rollupRepository).applyDelta(7L, HarvestRollup.ALL_FIELDS, 2024, 12.0, 0.0, 1L);
+        verify(rollupRepository).applyDelta(7L, HarvestRollup.ALL_FIELDS, HarvestRollup.ALL_SEASONS, 12.0, 0.0, 1L);
+        verify(rollupRepository).applyDelta(HarvestRollup.ALL_CROPS, 3L, 2024, 12.0, 0.0, 1L);
+        verify(rollupRepository).applyDelta(HarvestRollup.ALL_CROPS, 3L, HarvestRollup.ALL_SEASONS, 12.0, 0.0, 1L);
+        verify(rollupRepository).applyDelta(HarvestRollup.ALL_CROPS, HarvestRollup.ALL_FIELDS, 2024, 12.0, 0.0, 1L);
+        verify(rollupRepository).applyDelta(HarvestRollup.ALL_CROPS, HarvestRollup.ALL_FIELDS,
+                HarvestRollup.ALL_SEASONS, 12.0, 0.0, 1L);
+        verify(rollupRepository, never()).save(any());
+        verify(eventPublisher).publishEvent(any(FarmDataChangedEvent.class));
+    }
+
+    @Test
+    void saveHarvest_WhenBucketMissing_ShouldUpsertIt() {
+        when(rollupRepository.applyDelta(anyLong(), anyLong(), anyInt(), anyDouble(), anyDouble(), anyLong()))
+                .thenReturn(0);
+        HarvestRecord record = harvest(null, crop(7L, null), null, 5.0, 1.0);
+        when(recordRepository.saveAndFlush(record)).thenReturn(record);
+
+        harvestService.saveHarvest(record);
+
+        verify(rollupRepository, times(6)).upsert(anyLong(), anyLong(), anyInt(), eq(5.0), eq(1.0), eq(1L));
+        verify(rollupRepository).upsert(HarvestRollup.ALL_CROPS, HarvestRollup.NO_FIELD, HarvestRollup.UNDATED, 5.0,
+                1.0, 1L);
+        verify(rollupRepository, never()).save(any());
+    }
+
+    @Test
+    void saveHarvest_Update_ShouldReverseTheStoredValuesFirst() {
+        when(rollupRepository.applyDelta(anyLong(), anyLong(), anyInt(), anyDouble(), anyDouble(), anyLong()))
+                .thenReturn(1);
+        when(recordRepository.findStoredEntry(40L)).thenReturn(Optional.of(stored(7L, 3L, 2023, 10.0, 2.0)));
+        HarvestRecord record = harvest(40L, crop(7L, 5L), LocalDate.of(2024, 8, 1), 11.0, 1.0);
+        record.setFieldId(3L);
+        when(recordRepository.saveAndFlush(record)).thenReturn(record);
+
+        harvestService.saveHarvest(record);
+
+        verify(rollupRepository).applyDelta(HarvestRollup.ALL_CROPS, 3L, 2023, -10.0, -2.0, -1L);
+        verify(rollupRepository).applyDelta(HarvestRollup.ALL_CROPS, 3L, 2024, 11.0, 1.0, 1L);
+        // The record keeps the field it was harvested from even though the crop has since moved
+        assertThat(record.getFieldId()).isEqualTo(3L);
+    }
+
+    @Test
+    void saveHarvest_WithNegativeQuantity_ShouldBeRejected() {
+        HarvestRecord record = harvest(null, crop(7L, 3L), LocalDate.now(), -1.0, 0.0);
+
+        assertThatThrownBy(() -> harvestService.saveHarvest(record)).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(recordRepository, rollupRepository, eventPublisher);
+    }
+
+    @Test
+    void deleteHarvest_ShouldReverseAllBuckets() {
+        when(rollupRepository.applyDelta(anyLong(), anyLong(), anyInt(), anyDouble(), anyDouble(), anyLong()))
+                .thenReturn(1);
+        when(recordRepository.findStoredEntry(40L)).thenReturn(Optional.of(stored(7L, 3L, 2024, 10.0, 2.0)));
+
+        harvestService.deleteHarvest(40L);
+
+        verify(rollupRepository, times(6)).applyDelta(anyLong(), anyLong(), anyInt(), eq(-10.0), eq(-2.0),
+                eq(-1L));
+        verify(recordRepository).deleteById(40L);
+    }
+
+    @Test
+    void getFarmTotals_ShouldReadOneBucket() {
+        when(rollupRepository.findBucket(HarvestRollup.ALL_CROPS, HarvestRollup.ALL_FIELDS, 2024))
+                .thenReturn(Optional.of(stored(0L, 0L, 2024, 170.0, 30.0)));
+        when(rollupRepository.findBucket(HarvestRollup.ALL_CROPS, HarvestRollup.ALL_FIELDS,
+                HarvestRollup.ALL_SEASONS)).thenReturn(Optional.empty());
+
+        HarvestTotals season = harvestService.getFarmTotals(2024);
+
+        assertThat(season.collected()).isEqualTo(170.0);
+        assertThat(season.harvested()).isEqualTo(200.0);
+        assertThat(season.lossRate()).isEqualTo(0.15);
+        assertThat(harvestService.getFarmTotals(null)).isEqualTo(HarvestTotals.ZERO);
+        verify(recordRepository, never()).findAll();
+    }
+
+    @Test
+    void isConsistent_ShouldCompareBucketsWithTheRecords() {
+        when(recordRepository.sumByCropFieldAndSeason()).thenReturn(List.of(stored(7L, 3L, 2024, 10.0, 1.0)));
+        when(rollupRepository.findAllBuckets()).thenReturn(List.of(
+                stored(7L, 0L, 2024, 10.0, 1.0), stored(7L, 0L, 0, 10.0, 1.0),
+                stored(0L, 3L, 2024, 10.0, 1.0), stored(0L, 3L, 0, 10.0, 1.0),
+                stored(0L, 0L, 2024, 10.0, 1.0), stored(0L, 0L, 0, 9.0, 1.0)));
+
+        assertThat(harvestService.isConsistent()).isFalse();
+    }
+
+    private static Crop crop(Long id, Long fieldId) {
+        Crop crop = new Crop();
+        crop.setId(id);
+        if (fieldId != null) {
+            Field field = new Field();
+            field.setId(fieldId);
+            crop.setField(field);
+        }
+        return crop;
+    }
+
+    private static HarvestRecord harvest(Long id, Crop crop, LocalDate date, Double quantity, Double loss) {
+        return new HarvestRecord(id, crop, null, date, quantity, loss, null);
+    }
+
+    private static HarvestRecordRepository.HarvestTotal stored(Long cropId, Long fieldId, Integer season,
+            Double quantity, Double loss) {
+        return new HarvestRecordRepository.HarvestTotal() {
+            @Override
+            public Long getCropId() {
+                return cropId;
+            }
+
+            @Override
+            public Long getFieldId() {
+                return fieldId;
+            }
+
+            @Override
+            public Integer getSeason() {
+                return season;
+            }
+
+            @Override
+            public Double getQuantity() {
+                return quantity;
+            }
+
+            @Override
+            public Double getLoss() {
+                return loss;
+            }
+
+            @Override
+            public Long getRecordCount() {
+                return 1L;
+            }
+        };
+    }
+}
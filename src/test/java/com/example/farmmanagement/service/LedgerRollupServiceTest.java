@@ -0,0 +1,213 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.LedgerDriftReport;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.model.CropTransaction;
+import com.example.farmmanagement.model.LedgerRollup;
+import com.example.farmmanagement.repository.CropTransactionRepository;
+import com.example.farmmanagement.repository.LedgerRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerRollupServiceTest {
+
+    private static final CropTransaction.TransactionType INCOME = CropTransaction.TransactionType.INCOME;
+    private static final CropTransaction.TransactionType EXPENSE = CropTransaction.TransactionType.EXPENSE;
+
+    @Mock
+    private LedgerRollupRepository rollupRepository;
+
+    @Mock
+    private CropTransactionRepository transactionRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private LedgerRollupService ledgerRollupService;
+
+    @Test
+    void record_ShouldUpdateMonthlyCropAndGlobalBuckets() {
+        when(rollupRepository.applyDelta(anyLong(), any(), anyInt(), anyInt(), anyDouble(), anyLong()))
+                .thenReturn(1);
+
+        ledgerRollupService.record(7L, INCOME, LocalDate.of(2024, 5, 20), 250.0);
+
+        verify(rollupRepository).applyDelta(7L, INCOME, 2024, 5, 250.0, 1L);
+        verify(rollupRepository).applyDelta(7L, INCOME, LedgerRollup.ALL_TIME, LedgerRollup.ALL_TIME, 250.0, 1L);
+        verify(rollupRepository).applyDelta(LedgerRollup.ALL_CROPS, INCOME, LedgerRollup.ALL_TIME,
+                LedgerRollup.ALL_TIME, 250.0, 1L);
+        verify(rollupRepository, never()).save(any());
+    }
+
+    @Test
+    void record_WhenBucketMissing_ShouldUpsertIt() {
+        when(rollupRepository.applyDelta(anyLong(), any(), anyInt(), anyInt(), anyDouble(), anyLong()))
+                .thenReturn(0);
+
+        ledgerRollupService.record(7L, EXPENSE, null, 40.0);
+
+        verify(rollupRepository).upsert(7L, "EXPENSE", LedgerRollup.UNDATED, LedgerRollup.UNDATED, 40.0, 1L);
+        verify(rollupRepository).upsert(7L, "EXPENSE", LedgerRollup.ALL_TIME, LedgerRollup.ALL_TIME, 40.0, 1L);
+        verify(rollupRepository).upsert(LedgerRollup.ALL_CROPS, "EXPENSE", LedgerRollup.ALL_TIME,
+                LedgerRollup.ALL_TIME, 40.0, 1L);
+        verify(rollupRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void apply_ShouldWriteEachBucketOfTheBatchOnce() {
+        // Crop 7's May bucket already exists; everything else is new
+        when(rollupRepository.findBuckets(Set.of(LedgerRollup.ALL_CROPS, 7L, 8L))).thenReturn(List.of(
+                monthly(7L, EXPENSE, 2024, 5, 10.0, 1L)));
+        LedgerRollupService.DeltaBatch batch = new LedgerRollupService.DeltaBatch();
+        batch.record(7L, EXPENSE, LocalDate.of(2024, 5, 2), 100.0);
+        batch.record(7L, EXPENSE, LocalDate.of(2024, 5, 20), 50.0);
+        batch.record(8L, EXPENSE, LocalDate.of(2024, 6, 1), 10.0);
+
+        ledgerRollupService.apply(batch);
+
+        ArgumentCaptor<List<Object[]>> updates = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<Object[]>> upserts = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE"), updates.capture());
+        verify(jdbcTemplate).batchUpdate(eq(LedgerRollupRepository.UPSERT_SQL), upserts.capture());
+        assertThat(updates.getValue()).singleElement()
+                .satisfies(row -> assertThat(row).containsExactly(150.0, 2L, 7L, "EXPENSE", 2024, 5));
+        // Monthly bucket of crop 8, all-time buckets of both crops and the global bucket
+        assertThat(upserts.getValue()).hasSize(4).anySatisfy(row -> assertThat(row).containsExactly(
+                LedgerRollup.ALL_CROPS, "EXPENSE", LedgerRollup.ALL_TIME, LedgerRollup.ALL_TIME, 160.0, 3L));
+        verify(rollupRepository, never()).applyDelta(anyLong(), any(), anyInt(), anyInt(), anyDouble(), anyLong());
+    }
+
+    @Test
+    void reverse_ShouldApplyNegativeDelta() {
+        when(rollupRepository.applyDelta(anyLong(), any(), anyInt(), anyInt(), anyDouble(), anyLong()))
+                .thenReturn(1);
+
+        ledgerRollupService.reverse(7L, EXPENSE, LocalDate.of(2024, 1, 3), 90.0);
+
+        verify(rollupRepository).applyDelta(7L, EXPENSE, 2024, 1, -90.0, -1L);
+    }
+
+    @Test
+    void record_WithoutType_ShouldBeIgnored() {
+        ledgerRollupService.record(7L, null, LocalDate.now(), 10.0);
+
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    void getGlobalTotals_ShouldReadAllCropsBucket() {
+        when(rollupRepository.findAllTimeTotals(LedgerRollup.ALL_CROPS)).thenReturn(Collections.emptyList());
+
+        assertThat(ledgerRollupService.getGlobalTotals().profit()).isZero();
+        verify(rollupRepository).findAllTimeTotals(LedgerRollup.ALL_CROPS);
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void rebuild_ShouldWriteAllGrainsFromTransactions() {
+        when(transactionRepository.sumAmountByCropTypeAndMonth()).thenReturn(Arrays.asList(
+                monthly(1L, INCOME, 2024, 1, 100.0, 2L),
+                monthly(1L, INCOME, 2024, 2, 50.0, 1L),
+                monthly(2L, EXPENSE, null, null, 30.0, 1L)));
+
+        int buckets = ledgerRollupService.rebuild();
+
+        // 3 monthly + 2 per-crop + 2 global (income, expense)
+        assertThat(buckets).isEqualTo(7);
+        verify(rollupRepository).deleteAllRollups();
+        verify(rollupRepository).saveAll(any());
+        verify(eventPublisher).publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.TRANSACTION));
+    }
+
+    @Test
+    void verify_ShouldReportDriftingBuckets() {
+        when(transactionRepository.sumAmountByCropTypeAndMonth()).thenReturn(List.of(
+                monthly(1L, INCOME, 2024, 1, 100.0, 2L)));
+        when(rollupRepository.findAllBuckets()).thenReturn(Arrays.asList(
+                monthly(1L, INCOME, 2024, 1, 100.0, 2L),
+                monthly(1L, INCOME, 0, 0, 90.0, 2L),
+                monthly(0L, INCOME, 0, 0, 100.0, 2L)));
+
+        LedgerDriftReport report = ledgerRollupService.verify();
+
+        assertThat(report.isConsistent()).isFalse();
+        assertThat(report.bucketsChecked()).isEqualTo(3);
+        assertThat(report.drifts()).singleElement().satisfies(drift -> {
+            assertThat(drift.cropId()).isEqualTo(1L);
+            assertThat(drift.expectedTotal()).isEqualTo(100.0);
+            assertThat(drift.actualTotal()).isEqualTo(90.0);
+        });
+    }
+
+    @Test
+    void rebuildIfEmpty_ShouldSkipWhenRollupsExist() {
+        when(rollupRepository.count()).thenReturn(4L);
+
+        ledgerRollupService.rebuildIfEmpty();
+
+        verify(rollupRepository, never()).deleteAllRollups();
+        verify(transactionRepository, never()).sumAmountByCropTypeAndMonth();
+    }
+
+    private static CropTransactionRepository.MonthlyTotal monthly(Long cropId, CropTransaction.TransactionType type,
+            Integer year, Integer month, Double total, Long count) {
+        return new CropTransactionRepository.MonthlyTotal() {
+            @Override
+            public Integer getPeriodYear() {
+                return year;
+            }
+
+            @Override
+            public Integer getPeriodMonth() {
+                return month;
+            }
+
+            @Override
+            public Long getEntryCount() {
+                return count;
+            }
+
+            @Override
+            public Long getCropId() {
+                return cropId;
+            }
+
+            @Override
+            public CropTransaction.TransactionType getTransactionType() {
+                return type;
+            }
+
+            @Override
+            public Double getTotal() {
+                return total;
+            }
+        };
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.FieldOption;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.model.CropTransaction;
+import com.example.farmmanagement.model.LedgerRollup;
+import com.example.farmmanagement.model.Profitability;
+import com.example.farmmanagement.repository.CropRepository;
+import com.example.farmmanagement.repository.FieldRepository;
+import com.example.farmmanagement.repository.LedgerRollupRepository;
+import com.example.farmmanagement.repository.ProfitabilityRepository;
+import com.example.farmmanagement.repository.SoilInputRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProfitabilityServiceTest {
+
+    private static final CropTransaction.TransactionType INCOME = CropTransaction.TransactionType.INCOME;
+    private static final CropTransaction.TransactionType EXPENSE = CropTransaction.TransactionType.EXPENSE;
+
+    @Mock
+    private ProfitabilityRepository profitabilityRepository;
+
+    @Mock
+    private LedgerRollupRepository ledgerRollupRepository;
+
+    @Mock
+    private CropRepository cropRepository;
+
+    @Mock
+    private FieldRepository fieldRepository;
+
+    @Mock
+    private SoilInputRepository soilInputRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ProfitabilityService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ProfitabilityService(profitabilityRepository, ledgerRollupRepository, cropRepository,
+                fieldRepository, soilInputRepository, jdbcTemplate, TransactionOperations.withoutTransaction(),
+                new SyncTaskExecutor(), Clock.fixed(Instant.parse("2025-06-01T00:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    void computeField_ShouldShareInputCostByLandSize() {
+        // Field 4: maize (3 ha) and beans (1 ha) both active in 2024; beans planted again for 2025
+        when(cropRepository.findStubsByField(4L)).thenReturn(List.of(
+                crop(10L, "Maize", 3.0, 2024), crop(11L, "Beans", 1.0, 2025)));
+        when(ledgerRollupRepository.sumYearlyByCropForField(4L)).thenReturn(List.of(
+                total(10L, 2024, INCOME, 1000.0), total(10L, 2024, EXPENSE, 300.0),
+                total(11L, 2024, EXPENSE, 50.0), total(11L, LedgerRollup.UNDATED, INCOME, 20.0)));
+        when(soilInputRepository.sumCostBySeasonForField(4L)).thenReturn(List.of(
+                cost(2024, 200.0), cost(null, 10.0)));
+
+        List<Profitability> rows = service.computeField(4L, "North");
+
+        assertThat(rows).filteredOn(row -> row.getSeason() == 2024)
+                .extracting(Profitability::getScope, Profitability::getSubjectId, Profitability::getInputCost,
+                        Profitability::getMargin)
+                .containsExactly(
+                        tuple(Profitability.Scope.CROP, 10L, 150.0, 550.0),
+                        tuple(Profitability.Scope.CROP, 11L, 50.0, -100.0),
+                        tuple(Profitability.Scope.FIELD, 4L, 200.0, 450.0));
+        // The undated income and input count towards all time only
+        assertThat(rows).filteredOn(row -> row.getSeason() == Profitability.ALL_SEASONS
+                && row.getScope() == Profitability.Scope.FIELD).singleElement()
+                .satisfies(row -> {
+                    assertThat(row.getIncome()).isEqualTo(1020.0);
+                    assertThat(row.getInputCost()).isEqualTo(210.0);
+                    assertThat(row.getMargin()).isEqualTo(460.0);
+                    assertThat(row.getLabel()).isEqualTo("North");
+                });
+        assertThat(rows).filteredOn(row -> row.getSeason() == 2025).extracting(Profitability::getSubjectId)
+                .containsExactly(11L, 4L);
+    }
+
+    @Test
+    void computeField_WithoutCrops_ShouldStillRankTheFieldsInputs() {
+        when(cropRepository.findStubsByField(5L)).thenReturn(List.of());
+        when(ledgerRollupRepository.sumYearlyByCropForField(5L)).thenReturn(List.of());
+        when(soilInputRepository.sumCostBySeasonForField(5L)).thenReturn(List.of(cost(2024, 80.0)));
+
+        List<Profitability> rows = service.computeField(5L, "Fallow");
+
+        assertThat(rows).extracting(Profitability::getScope, Profitability::getSeason, Profitability::getMargin)
+                .containsExactly(tuple(Profitability.Scope.FIELD, Profitability.ALL_SEASONS, -80.0),
+                        tuple(Profitability.Scope.FIELD, 2024, -80.0));
+    }
+
+    @Test
+    void computeField_Unassigned_ShouldOnlyWriteCropRows() {
+        when(cropRepository.findStubsByField(null)).thenReturn(List.of(crop(20L, null, null, null)));
+        when(ledgerRollupRepository.sumYearlyByCropForField(null)).thenReturn(List.of(
+                total(20L, 2024, INCOME, 40.0)));
+
+        List<Profitability> rows = service.computeField(null, null);
+
+        assertThat(rows).allSatisfy(row -> {
+            assertThat(row.getScope()).isEqualTo(Profitability.Scope.CROP);
+            assertThat(row.getLabel()).isEqualTo(CropTypeHistogram.UNSPECIFIED);
+        });
+        verifyNoInteractions(soilInputRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void refreshAll_ShouldRewriteEveryFieldInOneBatchEach() {
+        when(fieldRepository.findAllOptions()).thenReturn(List.of(new FieldOption(4L, "North")));
+        when(cropRepository.findStubsByField(any())).thenReturn(List.of(crop(10L, "Maize", 1.0, 2024)));
+        service.onFarmDataChanged(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.SOIL_INPUT));
+        assertThat(service.isStale()).isTrue();
+
+        int rows = service.refreshAll();
+
+        // North: crop + field rows for 2024 and all time; unassigned: crop rows for both
+        assertThat(rows).isEqualTo(6);
+        verify(profitabilityRepository).deleteOrphans();
+        verify(jdbcTemplate).update(ProfitabilityService.DELETE_FIELD_SQL, 4L, 4L);
+        verify(jdbcTemplate).update(ProfitabilityService.DELETE_UNASSIGNED_SQL);
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(ProfitabilityService.INSERT_SQL), batches.capture());
+        assertThat(batches.getAllValues()).extracting(List::size).containsExactlyInAnyOrder(4, 2);
+        assertThat(service.isStale()).isFalse();
+    }
+
+    @Test
+    void refreshIfStale_ShouldIgnoreUnrelatedWrites() {
+        service.onFarmDataChanged(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.ANIMAL));
+
+        service.refreshIfStale();
+
+        verifyNoInteractions(fieldRepository, jdbcTemplate);
+    }
+
+    @Test
+    void getLeaderboard_ShouldSortWithAStableTieBreakAndClampTheSize() {
+        Page<Profitability> empty = new PageImpl<>(List.of());
+        when(profitabilityRepository.findBySeasonAndScope(eq(2024), eq(Profitability.Scope.FIELD), any()))
+                .thenReturn(empty);
+
+        service.getLeaderboard(2024, Profitability.Scope.FIELD, "income", true, 2, 5_000);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(profitabilityRepository).findBySeasonAndScope(eq(2024), eq(Profitability.Scope.FIELD),
+                pageable.capture());
+        assertThat(pageable.getValue()).isEqualTo(PageRequest.of(2, ProfitabilityService.MAX_PAGE_SIZE,
+                Sort.by(Sort.Direction.ASC, "income").and(Sort.by("subjectId"))));
+        assertThatThrownBy(() -> service.getLeaderboard(2024, null, "id; DROP", false, 0, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static CropRepository.CropStub crop(Long id, String type, Double landSize, Integer plantingYear) {
+        return new CropRepository.CropStub() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getType() {
+                return type;
+            }
+
+            @Override
+            public Double getLandSize() {
+                return landSize;
+            }
+
+            @Override
+            public Integer getPlantingYear() {
+                return plantingYear;
+            }
+        };
+    }
+
+    private static LedgerRollupRepository.CropYearTotal total(Long cropId, Integer year,
+            CropTransaction.TransactionType type, Double amount) {
+        return new LedgerRollupRepository.CropYearTotal() {
+            @Override
+            public Long getCropId() {
+                return cropId;
+            }
+
+            @Override
+            public Integer getPeriodYear() {
+                return year;
+            }
+
+            @Override
+            public CropTransaction.TransactionType getTransactionType() {
+                return type;
+            }
+
+            @Override
+            public Double getTotal() {
+                return amount;
+            }
+        };
+    }
+
+    private static SoilInputRepository.SeasonCost cost(Integer season, Double cost) {
+        return new SoilInputRepository.SeasonCost() {
+            @Override
+            public Integer getSeason() {
+                return season;
+            }
+
+            @Override
+            public Double getCost() {
+                return cost;
+            }
+        };
+    }
+}
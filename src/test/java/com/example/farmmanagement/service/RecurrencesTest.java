@@ -0,0 +1,91 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.model.ActivitySchedule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecurrencesTest {
+
+    @Test
+    void dates_ShouldStartAtTheFirstOccurrenceInTheWindow() {
+        ActivitySchedule everyThreeDays = schedule(ActivitySchedule.Frequency.DAILY, 3, LocalDate.of(2025, 1, 1),
+                null);
+        ActivitySchedule fortnightly = schedule(ActivitySchedule.Frequency.WEEKLY, 2, LocalDate.of(2025, 1, 6),
+                LocalDate.of(2025, 3, 3));
+
+        assertThat(take(Recurrences.dates(everyThreeDays, LocalDate.of(2025, 1, 5), LocalDate.of(2025, 1, 12)), 10))
+                .containsExactly(LocalDate.of(2025, 1, 7), LocalDate.of(2025, 1, 10));
+        // Bounded by the schedule's end, which falls before the window's
+        assertThat(take(Recurrences.dates(fortnightly, LocalDate.of(2025, 2, 1), LocalDate.of(2025, 12, 31)), 10))
+                .containsExactly(LocalDate.of(2025, 2, 3), LocalDate.of(2025, 2, 17), LocalDate.of(2025, 3, 3));
+        // A window before the start begins at the start
+        assertThat(take(Recurrences.dates(fortnightly, LocalDate.of(2024, 1, 1), LocalDate.of(2025, 1, 20)), 10))
+                .containsExactly(LocalDate.of(2025, 1, 6), LocalDate.of(2025, 1, 20));
+    }
+
+    @Test
+    void dates_Monthly_ShouldClampToShortMonthsWithoutDrifting() {
+        ActivitySchedule monthEnd = schedule(ActivitySchedule.Frequency.MONTHLY, 1, LocalDate.of(2025, 1, 31), null);
+
+        assertThat(take(Recurrences.dates(monthEnd, LocalDate.of(2025, 2, 1), null), 3))
+                .containsExactly(LocalDate.of(2025, 2, 28), LocalDate.of(2025, 3, 31), LocalDate.of(2025, 4, 30));
+    }
+
+    @Test
+    void dates_OpenEnded_ShouldExpandOnlyWhatIsRead() {
+        ActivitySchedule daily = schedule(ActivitySchedule.Frequency.DAILY, 1, LocalDate.of(2000, 1, 1), null);
+
+        Iterator<LocalDate> dates = Recurrences.dates(daily, LocalDate.of(2025, 6, 1), null);
+
+        assertThat(take(dates, 2)).containsExactly(LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 2));
+        assertThat(dates.hasNext()).isTrue();
+    }
+
+    @Test
+    void merge_ShouldInterleaveInOrderAndPreferEarlierSourcesOnTies() {
+        AtomicInteger pulled = new AtomicInteger();
+        Iterator<Integer> endless = new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                pulled.incrementAndGet();
+                return next += 5;
+            }
+        };
+        List<Iterator<Integer>> sources = List.of(List.of(1, 5, 12).iterator(), endless,
+                List.of(2, 5).iterator());
+
+        Iterator<Integer> merged = Recurrences.merge(sources, Comparator.naturalOrder());
+
+        assertThat(take(merged, 6)).containsExactly(1, 2, 5, 5, 5, 10);
+        // One value ahead of what was consumed, never the whole source
+        assertThat(pulled.get()).isEqualTo(3);
+    }
+
+    private static ActivitySchedule schedule(ActivitySchedule.Frequency frequency, int interval, LocalDate start,
+            LocalDate end) {
+        return new ActivitySchedule(1L, null, "Spraying", null, start, end, frequency, interval);
+    }
+
+    private static <T> List<T> take(Iterator<T> iterator, int limit) {
+        List<T> values = new ArrayList<>();
+        while (values.size() < limit && iterator.hasNext()) {
+            values.add(iterator.next());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.model.Crop;
+import com.example.farmmanagement.model.CropTransaction;
+import com.example.farmmanagement.model.HarvestRecord;
+import com.example.farmmanagement.repository.CropRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against the database with real concurrent transactions: the first
+ * writes into a new rollup bucket race to create it, the second blocking on
+ * the first's uncommitted row. Both must commit and both must count.
+ * <p>
+ * The writes leave rollups without the ledger rows behind them, so the test
+ * runs on a database of its own rather than the one the other tests share.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:rollup-race;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;"
+        + "DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+class RollupConcurrencyTest {
+
+    private static final CropTransaction.TransactionType INCOME = CropTransaction.TransactionType.INCOME;
+
+    @Autowired
+    private LedgerRollupService ledgerRollupService;
+
+    @Autowired
+    private HarvestService harvestService;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void record_ShouldCountBothFirstWritesIntoANewBucket() throws Exception {
+        long cropId = 900_001L;
+        race(() -> ledgerRollupService.record(cropId, INCOME, LocalDate.of(2031, 3, 5), 10.0),
+                () -> ledgerRollupService.record(cropId, INCOME, LocalDate.of(2031, 3, 20), 5.0));
+
+        Map<String, Object> monthly = jdbcTemplate.queryForMap("SELECT total, entry_count FROM ledger_rollups "
+                + "WHERE crop_id = ? AND transaction_type = 'INCOME' AND period_year = 2031 AND period_month = 3",
+                cropId);
+        assertThat(((Number) monthly.get("total")).doubleValue()).isEqualTo(15.0);
+        assertThat(((Number) monthly.get("entry_count")).longValue()).isEqualTo(2L);
+        assertThat(ledgerRollupService.getCropTotals(cropId).income()).isEqualTo(15.0);
+    }
+
+    @Test
+    void apply_ShouldAddToABucketASaveCreatedDuringTheImport() throws Exception {
+        long cropId = 900_002L;
+        LedgerRollupService.DeltaBatch batch = new LedgerRollupService.DeltaBatch();
+        batch.record(cropId, INCOME, LocalDate.of(2031, 4, 20), 5.0);
+
+        race(() -> ledgerRollupService.record(cropId, INCOME, LocalDate.of(2031, 4, 5), 10.0),
+                () -> ledgerRollupService.apply(batch));
+
+        assertThat(ledgerRollupService.getCropTotals(cropId).income()).isEqualTo(15.0);
+        assertThat(jdbcTemplate.queryForObject("SELECT entry_count FROM ledger_rollups WHERE crop_id = ? "
+                + "AND period_year = 2031 AND period_month = 4", Long.class, cropId)).isEqualTo(2L);
+    }
+
+    @Test
+    void saveHarvest_ShouldCountBothFirstHarvestsOfANewCrop() throws Exception {
+        Crop crop = cropRepository.save(new Crop("Race Maize", 2.0, LocalDate.of(2031, 3, 1), null, null));
+
+        // Both land in six buckets, the crop's own ones new
+        race(() -> harvestService.saveHarvest(harvest(crop, 4.0, 0.5)),
+                () -> harvestService.saveHarvest(harvest(crop, 6.0, 1.5)));
+
+        assertThat(harvestService.getCropTotals(crop.getId(), 2031)).satisfies(totals -> {
+            assertThat(totals.collected()).isEqualTo(10.0);
+            assertThat(totals.lost()).isEqualTo(2.0);
+            assertThat(totals.records()).isEqualTo(2L);
+        });
+        assertThat(harvestService.getCropTotals(crop.getId(), null).records()).isEqualTo(2L);
+        assertThat(harvestService.isConsistent()).isTrue();
+    }
+
+    private static HarvestRecord harvest(Crop crop, double quantity, double loss) {
+        HarvestRecord record = new HarvestRecord();
+        record.setCrop(crop);
+        record.setHarvestDate(LocalDate.of(2031, 7, 14));
+        record.setQuantity(quantity);
+        record.setLoss(loss);
+        return record;
+    }
+
+    // The first write creates the bucket and holds its transaction open while the second writes into it
+    private void race(Runnable first, Runnable second) throws Exception {
+        CountDownLatch created = new CountDownLatch(1);
+        ExecutorService writers = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> holder = writers.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                first.run();
+                created.countDown();
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            Future<?> racer = writers.submit(() -> {
+                created.await();
+                transactionTemplate.executeWithoutResult(status -> second.run());
+                return null;
+            });
+            holder.get(30, TimeUnit.SECONDS);
+            racer.get(30, TimeUnit.SECONDS);
+        } finally {
+            writers.shutdownNow();
+        }
+    }
+}
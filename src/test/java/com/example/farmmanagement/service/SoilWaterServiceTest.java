@@ -1,5 +1,7 @@
 package com.example.farmmanagement.service;
 
+import com.example.farmmanagement.dto.FieldSoilWater;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
 import com.example.farmmanagement.model.Field;
 import com.example.farmmanagement.model.SoilInput;
 import com.example.farmmanagement.model.SoilRecord;
@@ -13,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -38,6 +41,9 @@ class SoilWaterServiceTest {
     @Mock
     private SoilInputRepository soilInputRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private SoilWaterService soilWaterService;
 
@@ -182,6 +188,7 @@ class SoilWaterServiceTest {
         when(soilInputRepository.save(any(SoilInput.class))).thenReturn(soilInput);
         SoilInput saved = soilWaterService.saveSoilInput(soilInput);
         assertNotNull(saved);
+        verify(eventPublisher).publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.SOIL_INPUT));
     }
 
     @Test
@@ -354,4 +361,28 @@ class SoilWaterServiceTest {
         assertEquals(0.0, nutrients.get("phosphorus"));
         assertEquals(0.0, nutrients.get("potassium"));
     }
+
+    @Test
+    void getFieldSoilWater_ShouldLoadEachRecordTypeOnceAndDeriveTheRest() {
+        SoilInput untracked = new SoilInput();
+        untracked.setField(field);
+        when(soilRecordRepository.findByFieldIdOrderByTestDateDesc(1L)).thenReturn(Collections.singletonList(soilRecord));
+        when(waterRecordRepository.findByFieldIdOrderByTestDateDesc(1L)).thenReturn(Collections.singletonList(waterRecord));
+        when(soilInputRepository.findByFieldIdOrderByApplicationDateDesc(1L)).thenReturn(Arrays.asList(soilInput, untracked));
+
+        FieldSoilWater soilWater = soilWaterService.getFieldSoilWater(1L);
+
+        assertEquals(List.of(soilRecord), soilWater.soilRecords());
+        assertEquals(1, soilWater.summary().get("totalSoilTests"));
+        assertEquals(6.5, soilWater.summary().get("avgSoilPH"));
+        assertEquals(7.0, soilWater.summary().get("avgWaterPH"));
+        assertEquals(2, soilWater.summary().get("totalInputs"));
+        assertEquals(100.0, soilWater.summary().get("totalInputCost"));
+        assertEquals(6.5, soilWater.soilPHTrend().get(0).get("pH"));
+        assertEquals(10.0, soilWater.nutrientLevels().get("nitrogen"));
+        verify(soilRecordRepository, times(1)).findByFieldIdOrderByTestDateDesc(1L);
+        verify(soilRecordRepository, never()).findByFieldId(anyLong());
+        verify(waterRecordRepository, never()).findByFieldId(anyLong());
+        verify(soilInputRepository, never()).calculateTotalCostByField(anyLong());
+    }
 }
@@ -0,0 +1,152 @@
+package com.example.farmmanagement.service;
+
+import com.example.farmmanagement.dto.ImportReport;
+import com.example.farmmanagement.event.FarmDataChangedEvent;
+import com.example.farmmanagement.repository.CropRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionImportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CropRepository cropRepository;
+
+    @Mock
+    private LedgerRollupService ledgerRollupService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TransactionImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new TransactionImportService(jdbcTemplate, TransactionOperations.withoutTransaction(),
+                cropRepository, ledgerRollupService, eventPublisher, new ObjectMapper(), new SimpleMeterRegistry(),
+                2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importCsv_ShouldInsertInBatchesAndAggregateRollupDeltas() throws Exception {
+        when(cropRepository.existsById(1L)).thenReturn(true);
+        String csv = """
+                cropId,type,amount,date,description
+                1,EXPENSE,100.0,2025-03-01,Seeds
+                1,expense,50.5,2025-03-20,"Fertiliser, NPK"
+                1,INCOME,900,2025-04-02,Sold maize
+                """;
+
+        ImportReport report = importService.importCsv(new StringReader(csv));
+
+        assertThat(report.processed()).isEqualTo(3);
+        assertThat(report.imported()).isEqualTo(3);
+        assertThat(report.rejectedCount()).isZero();
+
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(TransactionImportService.INSERT_SQL), batches.capture());
+        assertThat(batches.getAllValues().get(0)).hasSize(2);
+        assertThat(batches.getAllValues().get(0).get(1)[3]).isEqualTo("Fertiliser, NPK");
+
+        // One rollup delta batch per JDBC batch, folded; both March expenses share their buckets
+        ArgumentCaptor<LedgerRollupService.DeltaBatch> deltas = ArgumentCaptor.forClass(
+                LedgerRollupService.DeltaBatch.class);
+        verify(ledgerRollupService, times(2)).apply(deltas.capture());
+        assertThat(deltas.getAllValues().get(0).size()).isEqualTo(3);
+        verify(cropRepository, times(1)).existsById(1L);
+        verify(eventPublisher).publishEvent(new FarmDataChangedEvent(FarmDataChangedEvent.Kind.TRANSACTION));
+    }
+
+    @Test
+    void importCsv_ShouldReportRejectedRowsWithLineNumbers() throws Exception {
+        when(cropRepository.existsById(1L)).thenReturn(true);
+        when(cropRepository.existsById(9L)).thenReturn(false);
+        String csv = """
+                type,cropId,amount,date
+                INCOME,1,10,2025-03-01
+                REFUND,1,10,2025-03-01
+                INCOME,9,10,2025-03-01
+                INCOME,1,-5,2025-03-01
+                INCOME,1,ten,2025-03-01
+                INCOME,1,10,01/03/2025
+                INCOME,,10,2025-03-01
+                """;
+
+        ImportReport report = importService.importCsv(new StringReader(csv));
+
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.rejectedCount()).isEqualTo(6);
+        assertThat(report.rejections()).extracting(ImportReport.Rejection::line).containsExactly(3L, 4L, 5L, 6L, 7L,
+                8L);
+        assertThat(report.rejections().get(1).reason()).isEqualTo("Unknown crop 9");
+    }
+
+    @Test
+    void importCsv_WithoutRequiredHeader_ShouldRejectUpload() throws Exception {
+        ImportReport report = importService.importCsv(new StringReader("crop,amount\n1,10\n"));
+
+        assertThat(report.imported()).isZero();
+        assertThat(report.rejections()).singleElement()
+                .satisfies(rejection -> assertThat(rejection.line()).isEqualTo(1L));
+        verifyNoInteractions(jdbcTemplate, eventPublisher);
+    }
+
+    @Test
+    void importJsonLines_ShouldParseObjectsAndSkipMalformedLines() throws Exception {
+        when(cropRepository.existsById(1L)).thenReturn(true);
+        String ndjson = """
+                {"cropId": 1, "transactionType": "INCOME", "amount": 200, "transactionDate": "2025-03-01"}
+                {"cropId": 1, "type": "EXPENSE", "amount":
+                {"cropId": 1, "type": "EXPENSE", "amount": 20}
+                """;
+
+        ImportReport report = importService.importJsonLines(new StringReader(ndjson));
+
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.rejections()).containsExactly(new ImportReport.Rejection(2, "Malformed JSON"));
+        verify(ledgerRollupService).apply(any(LedgerRollupService.DeltaBatch.class));
+    }
+
+    @Test
+    void importCsv_FailedBatch_ShouldRejectItsRowsAndContinue() throws Exception {
+        when(cropRepository.existsById(1L)).thenReturn(true);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataIntegrityViolationException("fk"))
+                .thenReturn(new int[] { 1 });
+        String csv = "cropId,type,amount\n1,INCOME,1\n1,INCOME,2\n1,INCOME,3\n";
+
+        ImportReport report = importService.importCsv(new StringReader(csv));
+
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.rejectedCount()).isEqualTo(2);
+        assertThat(report.rejections()).extracting(ImportReport.Rejection::line).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void parseCsvLine_ShouldHandleQuotes() {
+        assertThat(TransactionImportService.parseCsvLine("a,\"b, c\",\"say \"\"hi\"\"\",")).containsExactly("a",
+                "b, c", "say \"hi\"", "");
+        assertThat(TransactionImportService.parseCsvLine("a,\"open")).isNull();
+    }
+}